@@ -20,11 +20,16 @@ CREATE TABLE IF NOT EXISTS activity_logs (
     ip_address VARCHAR(45)
 );
 
--- Index pour améliorer les performances des requêtes
-CREATE INDEX IF NOT EXISTS idx_activity_logs_timestamp ON activity_logs(timestamp DESC);
-CREATE INDEX IF NOT EXISTS idx_activity_logs_user_id ON activity_logs(user_id);
-CREATE INDEX IF NOT EXISTS idx_activity_logs_activity_type ON activity_logs(activity_type);
-CREATE INDEX IF NOT EXISTS idx_activity_logs_severity ON activity_logs(severity);
+-- Index composites (filtre, timestamp, id) : pagination par curseur du journal admin
+-- (chaque filtre suivi de l'ordre de tri ; les index sur une seule colonne sont inutiles)
+CREATE INDEX IF NOT EXISTS idx_activity_logs_timestamp_id ON activity_logs(timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_activity_logs_user_timestamp_id ON activity_logs(user_id, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_activity_logs_type_timestamp_id ON activity_logs(activity_type, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_activity_logs_severity_timestamp_id ON activity_logs(severity, timestamp, id);
+DROP INDEX IF EXISTS idx_activity_logs_timestamp;
+DROP INDEX IF EXISTS idx_activity_logs_user_id;
+DROP INDEX IF EXISTS idx_activity_logs_activity_type;
+DROP INDEX IF EXISTS idx_activity_logs_severity;
 
 COMMENT ON TABLE activity_logs IS 'Journal d''activité système pour le suivi des actions utilisateurs et événements système';
 
@@ -0,0 +1,13 @@
+-- =====================================================
+-- Index des agrégats du dashboard admin (AdminDashboardService)
+-- Fenêtres de temps sur les départs prévus / effectifs ; les index sur flight_status
+-- et aircraft.status existent déjà (schema.sql)
+-- =====================================================
+
+-- Trafic par période, charge à 15/60 min, DMAN (prochains départs triés)
+CREATE INDEX IF NOT EXISTS idx_flights_scheduled_departure ON flights(scheduled_departure);
+
+-- Décollages / atterrissages du jour
+CREATE INDEX IF NOT EXISTS idx_flights_actual_departure ON flights(actual_departure);
+
+ANALYZE flights;
@@ -0,0 +1,30 @@
+-- =====================================================
+-- TABLE: weather_data_hourly
+-- Agrégats horaires des relevés météo sortis de la fenêtre de conservation
+-- (alimentée par WeatherRetentionService, voir flightradar.weather.raw-retention-hours)
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS weather_data_hourly (
+    id BIGSERIAL PRIMARY KEY,
+    airport_id BIGINT NOT NULL,
+    hour TIMESTAMP NOT NULL,
+    samples INTEGER NOT NULL,
+    avg_temperature DECIMAL(5, 2),
+    min_temperature DECIMAL(5, 2),
+    max_temperature DECIMAL(5, 2),
+    avg_wind_speed DECIMAL(6, 2),
+    max_wind_speed DECIMAL(6, 2),
+    avg_wind_direction DECIMAL(5, 2),
+    min_visibility DECIMAL(6, 2),
+    avg_pressure DECIMAL(7, 2),
+    avg_humidity DECIMAL(5, 2),
+    max_crosswind DECIMAL(6, 2),
+    alert_samples INTEGER NOT NULL DEFAULT 0,
+    CONSTRAINT uk_weather_hourly_airport_hour UNIQUE (airport_id, hour)
+);
+
+-- Dernier relevé par aéroport et purge des relevés bruts par date
+CREATE INDEX IF NOT EXISTS idx_weather_data_airport_timestamp ON weather_data(airport_id, timestamp);
+CREATE INDEX IF NOT EXISTS idx_weather_data_timestamp ON weather_data(timestamp);
+
+COMMENT ON TABLE weather_data_hourly IS 'Agrégats horaires des relevés météo (historique au-delà de la fenêtre des relevés bruts)';
@@ -0,0 +1,76 @@
+-- =====================================================
+-- Partitionnement mensuel de activity_logs
+-- Table partitionnée par mois sur timestamp : la conservation supprime des partitions entières
+-- (ActivityLogPartitionService, voir flightradar.activity-log.retention-months) au lieu d'un
+-- DELETE ligne à ligne, et les requêtes sur une période ne lisent que les mois concernés.
+-- Les partitions à venir sont créées par l'application (partitions-ahead) ; la partition par
+-- défaut ne reçoit que des journaux hors de toute partition mensuelle.
+-- À exécuter application arrêtée (journaux en attente : fichier de secours de ActivityLogWriter).
+-- =====================================================
+
+BEGIN;
+
+ALTER TABLE activity_logs RENAME TO activity_logs_old;
+-- Les noms d'index et de contraintes suivent la table renommée : libérés pour la nouvelle table
+ALTER TABLE activity_logs_old RENAME CONSTRAINT activity_logs_pkey TO activity_logs_old_pkey;
+DROP INDEX IF EXISTS idx_activity_logs_timestamp_id;
+DROP INDEX IF EXISTS idx_activity_logs_user_timestamp_id;
+DROP INDEX IF EXISTS idx_activity_logs_type_timestamp_id;
+DROP INDEX IF EXISTS idx_activity_logs_severity_timestamp_id;
+
+-- Clé primaire (id, timestamp) : la clé de partitionnement doit en faire partie
+CREATE SEQUENCE IF NOT EXISTS activity_logs_id_seq_partitioned;
+
+CREATE TABLE activity_logs (
+    id BIGINT NOT NULL DEFAULT nextval('activity_logs_id_seq_partitioned'),
+    user_id BIGINT,
+    username VARCHAR(50),
+    activity_type VARCHAR(50) NOT NULL,
+    description TEXT NOT NULL,
+    entity_type VARCHAR(50),
+    entity_id BIGINT,
+    timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    severity VARCHAR(20) NOT NULL DEFAULT 'INFO',
+    ip_address VARCHAR(45),
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+ALTER SEQUENCE activity_logs_id_seq_partitioned OWNED BY activity_logs.id;
+
+-- Une partition par mois, du plus ancien journal au mois courant + 2 (nommées activity_logs_pAAAAMM)
+DO $$
+DECLARE
+    month_start DATE := date_trunc('month', COALESCE((SELECT MIN(timestamp) FROM activity_logs_old), now()));
+    last_month DATE := date_trunc('month', now()) + INTERVAL '2 months';
+BEGIN
+    WHILE month_start <= last_month LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF activity_logs FOR VALUES FROM (%L) TO (%L)',
+            'activity_logs_p' || to_char(month_start, 'YYYYMM'), month_start, month_start + INTERVAL '1 month');
+        month_start := month_start + INTERVAL '1 month';
+    END LOOP;
+END $$;
+
+CREATE TABLE IF NOT EXISTS activity_logs_default PARTITION OF activity_logs DEFAULT;
+
+-- Index composites (filtre, timestamp, id), créés sur chaque partition
+CREATE INDEX IF NOT EXISTS idx_activity_logs_timestamp_id ON activity_logs(timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_activity_logs_user_timestamp_id ON activity_logs(user_id, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_activity_logs_type_timestamp_id ON activity_logs(activity_type, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_activity_logs_severity_timestamp_id ON activity_logs(severity, timestamp, id);
+
+INSERT INTO activity_logs (id, user_id, username, activity_type, description, entity_type, entity_id,
+                           timestamp, severity, ip_address)
+SELECT id, user_id, username, activity_type, description, entity_type, entity_id,
+       timestamp, COALESCE(severity, 'INFO'), ip_address
+FROM activity_logs_old;
+
+SELECT setval('activity_logs_id_seq_partitioned', COALESCE((SELECT MAX(id) FROM activity_logs), 0) + 1, false);
+
+COMMIT;
+
+ANALYZE activity_logs;
+
+COMMENT ON TABLE activity_logs IS 'Journal d''activité système, partitionné par mois (timestamp)';
+
+-- Après vérification :
+-- DROP TABLE activity_logs_old;
@@ -2,6 +2,7 @@ package com.flightradar.config;
 
 import com.flightradar.model.*;
 import com.flightradar.repository.*;
+import com.flightradar.service.RunwayCatalog;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -34,6 +35,9 @@ public class DataInitializer implements CommandLineRunner {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private RunwayCatalog runwayCatalog;
+    
     @Autowired
     private PasswordEncoder passwordEncoder;
     
@@ -64,6 +68,8 @@ public class DataInitializer implements CommandLineRunner {
         createRunways(rabat);
         createRunways(marrakech);
         createRunways(tanger);
+        // Pistes créées après le démarrage des services : recharger le catalogue
+        runwayCatalog.reload();
         
         // Créer les utilisateurs pour les centres radar avec airport_id
         User userRadarCMN = createUser("radar_cmn", "radar123", Role.CENTRE_RADAR);
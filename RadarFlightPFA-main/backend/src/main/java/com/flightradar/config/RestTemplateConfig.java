@@ -1,23 +1,74 @@
 package com.flightradar.config;
 
+import com.flightradar.service.UpstreamHttpInterceptor;
+import com.flightradar.service.UpstreamRegistry;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 /**
  * Configuration pour RestTemplate utilisé pour les appels API externes
+ * - Pool de connexions partagé (keep-alive) : plus de connexion TCP/TLS ouverte à chaque interrogation
+ * - Délais de connexion et de réponse propres à chaque source (UpstreamRegistry)
+ * - Compression, requêtes conditionnelles, budgets et métriques : UpstreamHttpInterceptor
  */
 @Configuration
 public class RestTemplateConfig {
     
+    private static final int MAX_CONNECTIONS = 32;
+    private static final int MAX_CONNECTIONS_PER_ROUTE = 8;
+    
+    @Bean
+    public CloseableHttpClient upstreamHttpClient(UpstreamRegistry upstreamRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(MAX_CONNECTIONS)
+            .setMaxConnPerRoute(MAX_CONNECTIONS_PER_ROUTE)
+            .setConnectionConfigResolver(route -> {
+                UpstreamRegistry.Upstream upstream = upstreamRegistry.forHost(route.getTargetHost().getHostName());
+                return ConnectionConfig.custom()
+                    .setConnectTimeout(Timeout.ofMilliseconds(upstream.getConnectTimeoutMs()))
+                    .setSocketTimeout(Timeout.ofMilliseconds(upstream.getReadTimeoutMs()))
+                    .setValidateAfterInactivity(TimeValue.ofSeconds(10))
+                    .setTimeToLive(TimeValue.ofMinutes(5))
+                    .build();
+            })
+            .build();
+        
+        return HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            // Décompression faite par UpstreamHttpInterceptor (mesure des octets transférés)
+            .disableContentCompression()
+            .evictExpiredConnections()
+            .evictIdleConnections(TimeValue.ofSeconds(30))
+            .build();
+    }
+    
     @Bean
-    public RestTemplate restTemplate() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(5000); // 5 secondes
-        factory.setReadTimeout(10000);   // 10 secondes
+    public RestTemplate restTemplate(CloseableHttpClient upstreamHttpClient, UpstreamRegistry upstreamRegistry) {
+        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(upstreamHttpClient);
+        // Délai de réponse par source, appliqué à chaque requête
+        factory.setHttpContextFactory((method, uri) -> {
+            UpstreamRegistry.Upstream upstream = upstreamRegistry.forUri(uri);
+            HttpClientContext context = HttpClientContext.create();
+            context.setRequestConfig(RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(upstream.getConnectTimeoutMs()))
+                .setResponseTimeout(Timeout.ofMilliseconds(upstream.getReadTimeoutMs()))
+                .build());
+            return context;
+        });
         
-        return new RestTemplate(factory);
+        RestTemplate restTemplate = new RestTemplate(factory);
+        restTemplate.getInterceptors().add(new UpstreamHttpInterceptor(upstreamRegistry));
+        return restTemplate;
     }
 }
-
@@ -1,10 +1,13 @@
 package com.flightradar.config;
 
+import com.flightradar.service.WebSocketOutboundMonitor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 /**
  * Configuration WebSocket pour les mises à jour en temps réel
@@ -13,12 +16,17 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     
+    @Autowired
+    private WebSocketOutboundMonitor webSocketOutboundMonitor;
+    
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         // Active un broker de messages simple en mémoire
         config.enableSimpleBroker("/topic", "/queue");
-        // Préfixe pour les messages destinés à l'application
+        // Préfixe pour les messages destinés à l'application (ex: /app/aircraft/viewport)
         config.setApplicationDestinationPrefixes("/app");
+        // Destinations par session (ex: /user/queue/aircraft pour le trafic de la zone visible)
+        config.setUserDestinationPrefix("/user");
     }
     
     @Override
@@ -28,5 +36,13 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setAllowedOrigins("http://localhost:3000", "http://localhost:3001")
                 .withSockJS();
     }
+    
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // File d'envoi bornée par session avec conflation (clients lents), voir WebSocketOutboundMonitor
+        registration.addDecoratorFactory(webSocketOutboundMonitor::decorate);
+        // Filet de sécurité de Spring en amont de la file : envoi bloqué ou tampon trop gros = session fermée
+        registration.setSendTimeLimit(15 * 1000);
+        registration.setSendBufferSizeLimit(512 * 1024);
+    }
 }
-
@@ -1,6 +1,7 @@
 package com.flightradar.controller;
 
 import com.flightradar.service.AdminDashboardService;
+import com.flightradar.service.DashboardResponseCache;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -8,11 +9,15 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
 import java.util.Map;
 
 /**
  * Contrôleur pour le Dashboard ADMIN
  * Expose les endpoints pour récupérer tous les KPIs aéronautiques
+ * Réponses servies par DashboardResponseCache (clé = endpoint + paramètres) : les admins
+ * connectés en même temps partagent un seul calcul
  */
 @RestController
 @RequestMapping("/api/admin")
@@ -24,6 +29,14 @@ public class AdminDashboardController {
     @Autowired
     private AdminDashboardService adminDashboardService;
     
+    @Autowired
+    private DashboardResponseCache dashboardResponseCache;
+    
+    // /dashboard, /kpis et /statistics sont extraits du même calcul
+    private Map<String, Object> cachedDashboard() {
+        return dashboardResponseCache.get("dashboard", adminDashboardService::getAdminDashboard);
+    }
+    
     /**
      * GET /api/admin/dashboard
      * Récupère toutes les données du dashboard admin
@@ -31,7 +44,7 @@ public class AdminDashboardController {
     @GetMapping("/dashboard")
     public ResponseEntity<Map<String, Object>> getAdminDashboard() {
         try {
-            Map<String, Object> dashboard = adminDashboardService.getAdminDashboard();
+            Map<String, Object> dashboard = cachedDashboard();
             return ResponseEntity.ok(dashboard);
         } catch (Exception e) {
             log.error("Erreur lors de la récupération du dashboard admin", e);
@@ -54,7 +67,7 @@ public class AdminDashboardController {
     @GetMapping("/kpis")
     public ResponseEntity<Map<String, Object>> getKPIs() {
         try {
-            Map<String, Object> dashboard = adminDashboardService.getAdminDashboard();
+            Map<String, Object> dashboard = cachedDashboard();
             // Extraire uniquement les KPIs
             Map<String, Object> kpis = Map.of(
                 "aircraftInFlight", dashboard.get("aircraftInFlight"),
@@ -80,7 +93,7 @@ public class AdminDashboardController {
     @GetMapping("/statistics")
     public ResponseEntity<Map<String, Object>> getStatistics() {
         try {
-            Map<String, Object> dashboard = adminDashboardService.getAdminDashboard();
+            Map<String, Object> dashboard = cachedDashboard();
             // Extraire uniquement les statistiques
             Map<String, Object> statistics = Map.of(
                 "atcPerformance", dashboard.get("atcPerformance"),
@@ -104,7 +117,9 @@ public class AdminDashboardController {
     public ResponseEntity<Map<String, Object>> getTrafficStatistics(
             @RequestParam(defaultValue = "DAY") String period) {
         try {
-            Map<String, Object> stats = adminDashboardService.getTrafficStatistics(period);
+            Map<String, Object> stats = dashboardResponseCache.get(
+                "operations/traffic?period=" + period.toUpperCase(Locale.ROOT),
+                () -> adminDashboardService.getTrafficStatistics(period));
             return ResponseEntity.ok(stats);
         } catch (Exception e) {
             log.error("Erreur lors de la récupération des statistiques de trafic", e);
@@ -119,7 +134,8 @@ public class AdminDashboardController {
     @GetMapping("/operations/performance")
     public ResponseEntity<Map<String, Object>> getPerformanceKPIs() {
         try {
-            Map<String, Object> kpis = adminDashboardService.getPerformanceKPIs();
+            Map<String, Object> kpis = dashboardResponseCache.get(
+                "operations/performance", adminDashboardService::getPerformanceKPIs);
             return ResponseEntity.ok(kpis);
         } catch (Exception e) {
             log.error("Erreur lors de la récupération des KPIs de performance", e);
@@ -134,7 +150,8 @@ public class AdminDashboardController {
     @GetMapping("/operations/users")
     public ResponseEntity<Map<String, Object>> getAllUsers() {
         try {
-            java.util.List<Map<String, Object>> users = adminDashboardService.getAllUsersWithStatus();
+            java.util.List<Map<String, Object>> users = dashboardResponseCache.get(
+                "operations/users", adminDashboardService::getAllUsersWithStatus);
             Map<String, Object> response = Map.of("users", users, "total", users.size());
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -150,7 +167,8 @@ public class AdminDashboardController {
     @GetMapping("/operations/radar-systems")
     public ResponseEntity<Map<String, Object>> getRadarSystemsStatus() {
         try {
-            java.util.List<Map<String, Object>> systems = adminDashboardService.getRadarSystemsStatus();
+            java.util.List<Map<String, Object>> systems = dashboardResponseCache.get(
+                "operations/radar-systems", adminDashboardService::getRadarSystemsStatus);
             Map<String, Object> response = Map.of("systems", systems, "total", systems.size());
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -166,7 +184,8 @@ public class AdminDashboardController {
     @GetMapping("/operations/weather")
     public ResponseEntity<Map<String, Object>> getGlobalWeather() {
         try {
-            Map<String, Object> weather = adminDashboardService.getGlobalWeather();
+            Map<String, Object> weather = dashboardResponseCache.get(
+                "operations/weather", adminDashboardService::getGlobalWeather);
             return ResponseEntity.ok(weather);
         } catch (Exception e) {
             log.error("Erreur lors de la récupération de la météo globale", e);
@@ -177,6 +196,7 @@ public class AdminDashboardController {
     /**
      * GET /api/admin/operations/logs
      * F) Journal / logs
+     * Page suivante : cursor = nextCursor de la réponse précédente (page n'est alors qu'indicatif)
      */
     @GetMapping("/operations/logs")
     public ResponseEntity<Map<String, Object>> getActivityLogs(
@@ -185,15 +205,21 @@ public class AdminDashboardController {
             @RequestParam(required = false) String severity,
             @RequestParam(required = false) String startDate,
             @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "50") int size) {
         try {
             LocalDateTime start = startDate != null ? LocalDateTime.parse(startDate) : null;
             LocalDateTime end = endDate != null ? LocalDateTime.parse(endDate) : null;
             
-            Map<String, Object> logs = adminDashboardService.getActivityLogs(
-                userId, activityType, severity, start, end, page, size);
+            String key = "operations/logs?userId=" + userId + "&activityType=" + activityType
+                + "&severity=" + severity + "&start=" + start + "&end=" + end + "&cursor=" + cursor
+                + "&page=" + page + "&size=" + size;
+            Map<String, Object> logs = dashboardResponseCache.get(key, () -> adminDashboardService.getActivityLogs(
+                userId, activityType, severity, start, end, cursor, page, size));
             return ResponseEntity.ok(logs);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             log.error("Erreur lors de la récupération des logs", e);
             return ResponseEntity.internalServerError().build();
@@ -207,7 +233,8 @@ public class AdminDashboardController {
     @GetMapping("/operations/alerts")
     public ResponseEntity<Map<String, Object>> getAllAlerts() {
         try {
-            Map<String, Object> alerts = adminDashboardService.getAllAlerts();
+            Map<String, Object> alerts = dashboardResponseCache.get(
+                "operations/alerts", adminDashboardService::getAllAlerts);
             return ResponseEntity.ok(alerts);
         } catch (Exception e) {
             log.error("Erreur lors de la récupération des alertes", e);
@@ -223,7 +250,9 @@ public class AdminDashboardController {
     public ResponseEntity<Map<String, Object>> getReportsAnalytics(
             @RequestParam(defaultValue = "WEEK") String period) {
         try {
-            Map<String, Object> reports = adminDashboardService.getReportsAnalytics(period);
+            Map<String, Object> reports = dashboardResponseCache.get(
+                "operations/reports?period=" + period.toUpperCase(Locale.ROOT),
+                () -> adminDashboardService.getReportsAnalytics(period));
             return ResponseEntity.ok(reports);
         } catch (Exception e) {
             log.error("Erreur lors de la génération des rapports", e);
@@ -4,11 +4,13 @@ import com.flightradar.model.Aircraft;
 import com.flightradar.model.AircraftStatus;
 import com.flightradar.model.dto.LiveAircraft;
 import com.flightradar.service.AircraftService;
+import com.flightradar.service.LiveTrackHistory;
 import com.flightradar.service.OpenSkyService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -27,6 +29,9 @@ public class AircraftController {
     @Autowired
     private OpenSkyService openSkyService;
     
+    @Autowired
+    private LiveTrackHistory liveTrackHistory;
+    
     /**
      * GET /api/aircraft
      * Récupère tous les avions
@@ -175,6 +180,25 @@ public class AircraftController {
         return ResponseEntity.notFound().build();
     }
     
+    /**
+     * GET /api/aircraft/live/{icao24}/trail
+     * Récupère les dernières positions connues d'un avion live (traînée sur la carte)
+     * 
+     * @param icao24 Identifiant ICAO24 (hexadécimal)
+     * @return Points de la plus ancienne à la plus récente position, ou 404
+     */
+    @GetMapping("/live/{icao24}/trail")
+    public ResponseEntity<Map<String, Object>> getLiveAircraftTrail(@PathVariable String icao24) {
+        List<Map<String, Object>> points = liveTrackHistory.getTrail(icao24);
+        if (points == null) {
+            return ResponseEntity.notFound().build();
+        }
+        Map<String, Object> trail = new LinkedHashMap<>();
+        trail.put("icao24", icao24);
+        trail.put("points", points);
+        return ResponseEntity.ok(trail);
+    }
+    
     /**
      * GET /api/aircraft/pilot/{username}
      * Récupère l'avion d'un pilote par son username
@@ -0,0 +1,48 @@
+package com.flightradar.controller;
+
+import com.flightradar.model.dto.ViewportRequest;
+import com.flightradar.service.RealtimeUpdateService;
+import com.flightradar.service.ViewportSubscriptionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.stereotype.Controller;
+
+import java.util.Map;
+
+/**
+ * Contrôleur STOMP pour le flux des positions d'avions
+ * - Trafic mondial : le client s'abonne à /topic/aircraft (deltas) puis à /app/aircraft/keyframe ;
+ *   la réponse (keyframe au seq courant) est envoyée directement à la session abonnée.
+ * - Trafic de la zone visible : le client s'abonne à /user/queue/aircraft puis envoie sa zone
+ *   sur /app/aircraft/viewport (à nouveau à chaque déplacement de carte).
+ */
+@Controller
+public class AircraftStreamController {
+
+    @Autowired
+    private RealtimeUpdateService realtimeUpdateService;
+
+    @Autowired
+    private ViewportSubscriptionService viewportSubscriptionService;
+
+    /**
+     * SUBSCRIBE /app/aircraft/keyframe
+     * Keyframe complet à l'abonnement ou après un trou dans les numéros de séquence
+     */
+    @SubscribeMapping("/aircraft/keyframe")
+    public Map<String, Object> keyframe() {
+        return realtimeUpdateService.getAircraftKeyframe();
+    }
+
+    /**
+     * SEND /app/aircraft/viewport
+     * Enregistre ou met à jour la zone visible de la session
+     */
+    @MessageMapping("/aircraft/viewport")
+    public void updateViewport(@Payload ViewportRequest request, SimpMessageHeaderAccessor headerAccessor) {
+        viewportSubscriptionService.updateViewport(headerAccessor.getSessionId(), request);
+    }
+}
@@ -1,6 +1,8 @@
 package com.flightradar.controller;
 
 import com.flightradar.service.ConflictDetectionService;
+import com.flightradar.service.TrafficTickPipeline;
+import com.flightradar.service.TrafficSnapshot;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -18,12 +20,19 @@ public class ConflictController {
     @Autowired
     private ConflictDetectionService conflictDetectionService;
     
+    @Autowired
+    private TrafficTickPipeline trafficTickPipeline;
+    
     /**
      * GET /api/conflicts
-     * Récupère tous les conflits actifs
+     * Récupère tous les conflits actifs (ceux du dernier cycle de traitement du trafic)
      */
     @GetMapping
     public ResponseEntity<List<ConflictDetectionService.ConflictAlert>> getActiveConflicts() {
+        TrafficSnapshot snapshot = trafficTickPipeline.getLatestSnapshot();
+        if (snapshot != null) {
+            return ResponseEntity.ok(snapshot.getConflicts());
+        }
         return ResponseEntity.ok(conflictDetectionService.getActiveConflicts());
     }
 }
@@ -0,0 +1,191 @@
+package com.flightradar.controller;
+
+import com.flightradar.service.ActivityLogPartitionService;
+import com.flightradar.service.ActivityLogWriter;
+import com.flightradar.service.AircraftRegistry;
+import com.flightradar.service.DashboardResponseCache;
+import com.flightradar.service.LiveTrackExtrapolator;
+import com.flightradar.service.LiveTrackHistory;
+import com.flightradar.service.OpenSkyPollScheduler;
+import com.flightradar.service.OperationalCounters;
+import com.flightradar.service.RunwayWindTable;
+import com.flightradar.service.TrafficTickPipeline;
+import com.flightradar.service.UpstreamRegistry;
+import com.flightradar.service.WeatherRetentionService;
+import com.flightradar.service.WeatherService;
+import com.flightradar.service.WebSocketBroadcaster;
+import com.flightradar.service.WebSocketOutboundMonitor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Contrôleur REST pour les métriques internes du backend (réservé ADMIN)
+ */
+@RestController
+@RequestMapping("/api/admin/system")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:3001"})
+@PreAuthorize("hasRole('ADMIN')")
+public class SystemController {
+    
+    @Autowired
+    private TrafficTickPipeline trafficTickPipeline;
+    
+    @Autowired
+    private WebSocketBroadcaster webSocketBroadcaster;
+    
+    @Autowired
+    private WebSocketOutboundMonitor webSocketOutboundMonitor;
+    
+    @Autowired
+    private LiveTrackHistory liveTrackHistory;
+    
+    @Autowired
+    private LiveTrackExtrapolator liveTrackExtrapolator;
+    
+    @Autowired
+    private UpstreamRegistry upstreamRegistry;
+    
+    @Autowired
+    private OpenSkyPollScheduler openSkyPollScheduler;
+    
+    @Autowired
+    private AircraftRegistry aircraftRegistry;
+    
+    @Autowired
+    private WeatherService weatherService;
+    
+    @Autowired
+    private WeatherRetentionService weatherRetentionService;
+    
+    @Autowired
+    private OperationalCounters operationalCounters;
+    
+    @Autowired
+    private DashboardResponseCache dashboardResponseCache;
+    
+    @Autowired
+    private ActivityLogWriter activityLogWriter;
+    
+    @Autowired
+    private ActivityLogPartitionService activityLogPartitionService;
+    
+    @Autowired
+    private RunwayWindTable runwayWindTable;
+    
+    /**
+     * GET /api/admin/system/pipeline
+     * Durées de chaque étape du cycle de traitement du trafic
+     */
+    @GetMapping("/pipeline")
+    public ResponseEntity<Map<String, Object>> getPipelineTimings() {
+        return ResponseEntity.ok(trafficTickPipeline.getStageTimings());
+    }
+    
+    /**
+     * GET /api/admin/system/websocket
+     * Diffusion (sérialisations, octets encodés) et files d'envoi par session
+     * (profondeur, messages fusionnés / abandonnés, déconnexions de clients lents)
+     */
+    @GetMapping("/websocket")
+    public ResponseEntity<Map<String, Object>> getWebSocketStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("broadcast", webSocketBroadcaster.getStats());
+        stats.put("outbound", webSocketOutboundMonitor.getStats());
+        return ResponseEntity.ok(stats);
+    }
+    
+    /**
+     * GET /api/admin/system/live-tracks
+     * Historique des traînées OpenSky : nombre de tampons, mémoire estimée et sa borne
+     */
+    @GetMapping("/live-tracks")
+    public ResponseEntity<Map<String, Object>> getLiveTrackStats() {
+        return ResponseEntity.ok(liveTrackHistory.getStats());
+    }
+    
+    /**
+     * GET /api/admin/system/live-extrapolation
+     * Diffusion 1 Hz des avions OpenSky extrapolés : pistes diffusées, pistes périmées, durée du cycle
+     */
+    @GetMapping("/live-extrapolation")
+    public ResponseEntity<Map<String, Object>> getLiveExtrapolationStats() {
+        return ResponseEntity.ok(liveTrackExtrapolator.getStats());
+    }
+    
+    /**
+     * GET /api/admin/system/upstreams
+     * Appels aux sources externes (OpenSky, Open-Meteo) : histogramme de latence,
+     * octets transférés / décodés, réponses 304, appels refusés par le budget de concurrence
+     */
+    @GetMapping("/upstreams")
+    public ResponseEntity<Map<String, Object>> getUpstreamStats() {
+        return ResponseEntity.ok(upstreamRegistry.getStats());
+    }
+    
+    /**
+     * GET /api/admin/system/opensky
+     * Planification OpenSky : crédits disponibles, zones (période, dernier appel), 429 et recul en cours
+     */
+    @GetMapping("/opensky")
+    public ResponseEntity<Map<String, Object>> getOpenSkyPollStats() {
+        return ResponseEntity.ok(openSkyPollScheduler.getStats());
+    }
+    
+    /**
+     * GET /api/admin/system/aircraft-registry
+     * Registre des avions : nombre d'avions, dictionnaires, mémoire estimée et durée de chargement
+     */
+    @GetMapping("/aircraft-registry")
+    public ResponseEntity<Map<String, Object>> getAircraftRegistryStats() {
+        return ResponseEntity.ok(aircraftRegistry.getStats());
+    }
+    
+    /**
+     * GET /api/admin/system/weather-refresh
+     * Dernier rafraîchissement météo : durée, aéroports, requêtes Open-Meteo, échecs, relevés insérés,
+     * météo courante en mémoire (aéroports, notifications diffusées / relevés inchangés),
+     * dernière agrégation horaire / purge de l'historique, tables de vent par piste (recalculs)
+     */
+    @GetMapping("/weather-refresh")
+    public ResponseEntity<Map<String, Object>> getWeatherRefreshStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(weatherService.getRefreshStats());
+        stats.put("retention", weatherRetentionService.getStats());
+        stats.put("runwayWind", runwayWindTable.getStats());
+        return ResponseEntity.ok(stats);
+    }
+    
+    /**
+     * GET /api/admin/system/kpi-counters
+     * Compteurs KPI du dashboard admin : chargement, événements reçus, reconstructions depuis la base
+     */
+    @GetMapping("/kpi-counters")
+    public ResponseEntity<Map<String, Object>> getKpiCounters() {
+        return ResponseEntity.ok(operationalCounters.getStats());
+    }
+    
+    /**
+     * GET /api/admin/system/dashboard-cache
+     * Cache des réponses du dashboard admin : succès, calculs, demandes regroupées, rafraîchissements anticipés
+     */
+    @GetMapping("/dashboard-cache")
+    public ResponseEntity<Map<String, Object>> getDashboardCacheStats() {
+        return ResponseEntity.ok(dashboardResponseCache.getStats());
+    }
+    
+    /**
+     * GET /api/admin/system/activity-log
+     * Journal d'activité asynchrone : file d'attente, journaux écrits / requêtes INSERT, débordements,
+     * écritures en échec, fichier de secours ; partitions mensuelles créées / supprimées
+     */
+    @GetMapping("/activity-log")
+    public ResponseEntity<Map<String, Object>> getActivityLogWriterStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(activityLogWriter.getStats());
+        stats.put("partitions", activityLogPartitionService.getStats());
+        return ResponseEntity.ok(stats);
+    }
+}
@@ -1,6 +1,7 @@
 package com.flightradar.controller;
 
 import com.flightradar.model.WeatherData;
+import com.flightradar.service.RunwayWindTable;
 import com.flightradar.service.WeatherService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -20,6 +21,9 @@ public class WeatherController {
     @Autowired
     private WeatherService weatherService;
     
+    @Autowired
+    private RunwayWindTable runwayWindTable;
+    
     /**
      * GET /api/weather/airport/{airportId}
      * Récupère les données météo actuelles d'un aéroport
@@ -31,6 +35,16 @@ public class WeatherController {
                      .orElse(ResponseEntity.notFound().build());
     }
     
+    /**
+     * GET /api/weather/airport/{airportId}/runways
+     * Vent de face / arrière / travers de chaque seuil de piste et piste préférentielle
+     */
+    @GetMapping("/airport/{airportId}/runways")
+    public ResponseEntity<RunwayWindTable.WindComponents> getRunwayWind(@PathVariable Long airportId) {
+        return runwayWindTable.get(airportId).map(ResponseEntity::ok)
+                     .orElse(ResponseEntity.notFound().build());
+    }
+    
     /**
      * GET /api/weather/alerts
      * Récupère toutes les alertes météo actives
@@ -10,9 +10,15 @@ import java.time.LocalDateTime;
 /**
  * Entité représentant un log d'activité système
  * Correspond à la table "activity_logs" dans la base de données
+ * Index composites (filtre, timestamp, id) : pagination par curseur du journal admin
  */
 @Entity
-@Table(name = "activity_logs")
+@Table(name = "activity_logs", indexes = {
+    @Index(name = "idx_activity_logs_timestamp_id", columnList = "timestamp, id"),
+    @Index(name = "idx_activity_logs_user_timestamp_id", columnList = "user_id, timestamp, id"),
+    @Index(name = "idx_activity_logs_type_timestamp_id", columnList = "activity_type, timestamp, id"),
+    @Index(name = "idx_activity_logs_severity_timestamp_id", columnList = "severity, timestamp, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
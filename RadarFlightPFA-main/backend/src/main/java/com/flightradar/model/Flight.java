@@ -9,7 +9,10 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "flights")
+@Table(name = "flights", indexes = {
+    @Index(name = "idx_flights_scheduled_departure", columnList = "scheduled_departure"),
+    @Index(name = "idx_flights_actual_departure", columnList = "actual_departure")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
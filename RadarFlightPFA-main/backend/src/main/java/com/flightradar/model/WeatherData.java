@@ -13,7 +13,10 @@ import java.time.LocalDateTime;
  * Correspond à la table "weather_data" dans la base de données
  */
 @Entity
-@Table(name = "weather_data")
+@Table(name = "weather_data", indexes = {
+    @Index(name = "idx_weather_data_airport_timestamp", columnList = "airport_id, timestamp"),
+    @Index(name = "idx_weather_data_timestamp", columnList = "timestamp")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,67 @@
+package com.flightradar.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Agrégat horaire des relevés météo d'un aéroport
+ * Correspond à la table "weather_data_hourly" : alimentée par WeatherRetentionService
+ * à partir des relevés bruts sortis de la fenêtre de conservation
+ */
+@Entity
+@Table(name = "weather_data_hourly",
+       uniqueConstraints = @UniqueConstraint(name = "uk_weather_hourly_airport_hour", columnNames = {"airport_id", "hour"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WeatherHourly {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "airport_id", nullable = false)
+    private Long airportId;
+    
+    @Column(nullable = false)
+    private LocalDateTime hour; // début de l'heure
+    
+    @Column(nullable = false)
+    private Integer samples; // nombre de relevés agrégés
+    
+    @Column(name = "avg_temperature", columnDefinition = "DECIMAL(5,2)")
+    private Double avgTemperature;
+    
+    @Column(name = "min_temperature", columnDefinition = "DECIMAL(5,2)")
+    private Double minTemperature;
+    
+    @Column(name = "max_temperature", columnDefinition = "DECIMAL(5,2)")
+    private Double maxTemperature;
+    
+    @Column(name = "avg_wind_speed", columnDefinition = "DECIMAL(6,2)")
+    private Double avgWindSpeed;
+    
+    @Column(name = "max_wind_speed", columnDefinition = "DECIMAL(6,2)")
+    private Double maxWindSpeed;
+    
+    @Column(name = "avg_wind_direction", columnDefinition = "DECIMAL(5,2)")
+    private Double avgWindDirection; // moyenne circulaire, en degrés
+    
+    @Column(name = "min_visibility", columnDefinition = "DECIMAL(6,2)")
+    private Double minVisibility;
+    
+    @Column(name = "avg_pressure", columnDefinition = "DECIMAL(7,2)")
+    private Double avgPressure;
+    
+    @Column(name = "avg_humidity", columnDefinition = "DECIMAL(5,2)")
+    private Double avgHumidity;
+    
+    @Column(name = "max_crosswind", columnDefinition = "DECIMAL(6,2)")
+    private Double maxCrosswind;
+    
+    @Column(name = "alert_samples", nullable = false)
+    private Integer alertSamples; // relevés en alerte dans l'heure
+}
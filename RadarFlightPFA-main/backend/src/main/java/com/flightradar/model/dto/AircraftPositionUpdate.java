@@ -0,0 +1,26 @@
+package com.flightradar.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO pour une mise à jour de position d'avion (champs "chauds" uniquement)
+ * Écrit en lot par AircraftPositionJdbcRepository sans charger l'entité Aircraft
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AircraftPositionUpdate {
+    private Long aircraftId;
+    private Double latitude;
+    private Double longitude;
+    private Double altitude;      // en mètres
+    private Double speed;         // en km/h
+    private Double heading;       // en degrés (0-360)
+    private Double airSpeed;      // en km/h (null = inchangée)
+    private Double verticalSpeed; // en m/s
+    private LocalDateTime timestamp;
+}
@@ -56,6 +56,12 @@ public class LiveAircraft {
     @JsonProperty("velocity")
     private Double velocity;
     
+    /**
+     * Cap vrai en degrés (0 = nord, sens horaire)
+     */
+    @JsonProperty("heading")
+    private Double heading;
+    
     /**
      * Taux de montée/descente en m/s (positif = montée, négatif = descente)
      */
@@ -63,11 +69,23 @@ public class LiveAircraft {
     private Double verticalRate;
     
     /**
-     * Modèle d'avion (enrichi via mapping)
+     * Modèle d'avion (enrichi via le registre des avions)
      */
     @JsonProperty("model")
     private String model;
     
+    /**
+     * Immatriculation (enrichie via le registre des avions, null si inconnue)
+     */
+    @JsonProperty("registration")
+    private String registration;
+    
+    /**
+     * Exploitant (enrichi via le registre des avions, null si inconnu)
+     */
+    @JsonProperty("operator")
+    private String operator;
+    
     /**
      * Statut de vol calculé automatiquement
      * Valeurs possibles : on-ground, climbing, descending, cruising, landing, takeoff
@@ -0,0 +1,51 @@
+package com.flightradar.model.dto;
+
+import lombok.Data;
+
+/**
+ * Vecteur d'état OpenSky lu directement depuis le flux JSON (voir OpenSkyStreamParser)
+ * Champs primitifs : aucune valeur encapsulée (Double, Long) par avion
+ * - Valeur numérique absente (null dans la réponse) : Double.NaN, ou 0 pour les timestamps
+ * - icao24Code : adresse ICAO 24-bit sous forme d'entier (-1 si invalide)
+ */
+@Data
+public class OpenSkyTrack {
+
+    private String icao24;
+    private int icao24Code = -1;
+    private String callsign;
+    private String originCountry;
+
+    /**
+     * Timestamps Unix (secondes), 0 si absent
+     */
+    private long timePosition;
+    private long lastContact;
+
+    /**
+     * Position en degrés décimaux
+     */
+    private double longitude = Double.NaN;
+    private double latitude = Double.NaN;
+
+    /**
+     * Altitudes en mètres
+     */
+    private double baroAltitude = Double.NaN;
+    private double geoAltitude = Double.NaN;
+
+    private boolean onGround;
+
+    /**
+     * Vitesse horizontale en m/s, cap en degrés, taux vertical en m/s
+     */
+    private double velocity = Double.NaN;
+    private double trueTrack = Double.NaN;
+    private double verticalRate = Double.NaN;
+
+    private String squawk;
+
+    public boolean hasPosition() {
+        return !Double.isNaN(latitude) && !Double.isNaN(longitude);
+    }
+}
@@ -0,0 +1,21 @@
+package com.flightradar.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO pour l'enregistrement de la zone visible d'un client (envoyé sur /app/aircraft/viewport)
+ * Si minLon > maxLon, la zone traverse l'antiméridien.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ViewportRequest {
+    private Double minLat;
+    private Double minLon;
+    private Double maxLat;
+    private Double maxLon;
+    private Integer zoom;      // Niveau de zoom de la carte (optionnel, règle la précision des positions)
+    private Boolean keyframe;  // true = renvoyer un keyframe complet (trou de séquence détecté)
+}
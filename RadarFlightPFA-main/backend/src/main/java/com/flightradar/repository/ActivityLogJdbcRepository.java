@@ -0,0 +1,286 @@
+package com.flightradar.repository;
+
+import com.flightradar.model.ActivityLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Accès JDBC à la table activity_logs
+ * - Insertion groupée (ActivityLogWriter) : un INSERT multi-lignes (VALUES (...), (...)) par tranche
+ *   de ROWS_PER_STATEMENT journaux, sans passer par le contexte de persistance JPA
+ * - Lecture par pages triées (timestamp, id) décroissants : pagination par curseur (keyset), la page
+ *   suivante reprend après la dernière ligne lue au lieu de sauter OFFSET lignes ; seuls les filtres
+ *   renseignés figurent dans la requête, pour utiliser l'index composite correspondant
+ * - Partitions mensuelles (table partitionnée par database/partition_activity_logs.sql) :
+ *   création à l'avance et suppression des mois expirés (ActivityLogPartitionService)
+ */
+@Repository
+public class ActivityLogJdbcRepository {
+
+    // 9 paramètres par ligne : 4 500 paramètres par requête (limite PostgreSQL : 32 767)
+    public static final int ROWS_PER_STATEMENT = 500;
+
+    private static final String INSERT_PREFIX =
+        "INSERT INTO activity_logs (user_id, username, activity_type, description, entity_type, entity_id, " +
+        "timestamp, severity, ip_address) VALUES ";
+
+    private static final String ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_FULL_SQL = insertSql(ROWS_PER_STATEMENT);
+
+    private static final String SELECT_SQL =
+        "SELECT id, user_id, username, activity_type, description, entity_type, entity_id, timestamp, " +
+        "severity, ip_address FROM activity_logs";
+
+    private static final String COUNT_SQL = "SELECT COUNT(*) FROM activity_logs";
+
+    private static final String IS_PARTITIONED_SQL =
+        "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table p JOIN pg_class c ON c.oid = p.partrelid " +
+        "WHERE c.relname = 'activity_logs')";
+
+    private static final String PARTITION_NAMES_SQL =
+        "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+        "JOIN pg_class p ON p.oid = i.inhparent WHERE p.relname = 'activity_logs' ORDER BY c.relname";
+
+    // Partition mensuelle : activity_logs_p202406 (juin 2024) ; la partition par défaut n'en est pas une
+    private static final Pattern PARTITION_NAME = Pattern.compile("activity_logs_p(\\d{4})(\\d{2})");
+
+    private static final RowMapper<ActivityLog> ROW_MAPPER = (rs, rowNum) -> {
+        ActivityLog log = new ActivityLog();
+        log.setId(rs.getLong("id"));
+        log.setUserId(rs.getObject("user_id", Long.class));
+        log.setUsername(rs.getString("username"));
+        log.setActivityType(ActivityLog.ActivityType.valueOf(rs.getString("activity_type")));
+        log.setDescription(rs.getString("description"));
+        log.setEntityType(rs.getString("entity_type"));
+        log.setEntityId(rs.getObject("entity_id", Long.class));
+        log.setTimestamp(rs.getTimestamp("timestamp").toLocalDateTime());
+        String severity = rs.getString("severity");
+        log.setSeverity(severity != null ? ActivityLog.LogSeverity.valueOf(severity) : null);
+        log.setIpAddress(rs.getString("ip_address"));
+        return log;
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insère tous les journaux (timestamp et severity renseignés par l'appelant)
+     * @return Nombre de journaux insérés
+     */
+    public int insertAll(List<ActivityLog> logs) {
+        int inserted = 0;
+        for (int from = 0; from < logs.size(); from += ROWS_PER_STATEMENT) {
+            List<ActivityLog> rows = logs.subList(from, Math.min(from + ROWS_PER_STATEMENT, logs.size()));
+            String sql = rows.size() == ROWS_PER_STATEMENT ? INSERT_FULL_SQL : insertSql(rows.size());
+            inserted += jdbcTemplate.update(sql, ps -> {
+                int index = 1;
+                for (ActivityLog log : rows) {
+                    ps.setObject(index++, log.getUserId(), Types.BIGINT);
+                    ps.setString(index++, log.getUsername());
+                    ps.setString(index++, log.getActivityType().name());
+                    ps.setString(index++, log.getDescription());
+                    ps.setString(index++, log.getEntityType());
+                    ps.setObject(index++, log.getEntityId(), Types.BIGINT);
+                    ps.setTimestamp(index++, Timestamp.valueOf(log.getTimestamp()));
+                    ps.setString(index++, log.getSeverity() != null ? log.getSeverity().name() : null);
+                    ps.setString(index++, log.getIpAddress());
+                }
+            });
+        }
+        return inserted;
+    }
+
+    /**
+     * Page de journaux, du plus récent au plus ancien
+     * @param after Dernière ligne de la page précédente (null = première page)
+     * @param offset Lignes à sauter (ancienne pagination par numéro de page, 0 avec un curseur)
+     */
+    public List<ActivityLog> findPage(Filter filter, Cursor after, long offset, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<Object> args = new ArrayList<>();
+        appendWhere(sql, args, filter);
+        if (after != null) {
+            // Comparaison de lignes : parcours de l'index (..., timestamp, id) à partir du curseur
+            sql.append(" AND (timestamp, id) < (?, ?)");
+            args.add(Timestamp.valueOf(after.getTimestamp()));
+            args.add(after.getId());
+        }
+        sql.append(" ORDER BY timestamp DESC, id DESC");
+        if (offset > 0) {
+            sql.append(" OFFSET ?");
+            args.add(offset);
+        }
+        sql.append(" LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), ROW_MAPPER, args.toArray());
+    }
+
+    /**
+     * Nombre de journaux correspondant aux filtres (parcours de l'index composite, pas de la table)
+     */
+    public long count(Filter filter) {
+        StringBuilder sql = new StringBuilder(COUNT_SQL);
+        List<Object> args = new ArrayList<>();
+        appendWhere(sql, args, filter);
+        Long count = jdbcTemplate.queryForObject(sql.toString(), Long.class, args.toArray());
+        return count != null ? count : 0L;
+    }
+
+    private static void appendWhere(StringBuilder sql, List<Object> args, Filter filter) {
+        sql.append(" WHERE timestamp >= ? AND timestamp <= ?");
+        args.add(Timestamp.valueOf(filter.getStart()));
+        args.add(Timestamp.valueOf(filter.getEnd()));
+        if (filter.getUserId() != null) {
+            sql.append(" AND user_id = ?");
+            args.add(filter.getUserId());
+        }
+        if (filter.getActivityType() != null) {
+            sql.append(" AND activity_type = ?");
+            args.add(filter.getActivityType().name());
+        }
+        if (filter.getSeverity() != null) {
+            sql.append(" AND severity = ?");
+            args.add(filter.getSeverity().name());
+        }
+    }
+
+    /**
+     * true si activity_logs est une table partitionnée (script partition_activity_logs.sql appliqué)
+     */
+    public boolean isPartitioned() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(IS_PARTITIONED_SQL, Boolean.class));
+    }
+
+    public List<String> findPartitionNames() {
+        return jdbcTemplate.queryForList(PARTITION_NAMES_SQL, String.class);
+    }
+
+    /**
+     * Crée la partition du mois si elle n'existe pas
+     * Échoue si la partition par défaut contient déjà des journaux de ce mois
+     */
+    public void createMonthlyPartition(YearMonth month) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month) +
+            " PARTITION OF activity_logs FOR VALUES FROM ('" + month.atDay(1).atStartOfDay() +
+            "') TO ('" + month.plusMonths(1).atDay(1).atStartOfDay() + "')");
+    }
+
+    /**
+     * Supprime la partition d'un mois (fichiers supprimés, sans DELETE ligne à ligne ni VACUUM)
+     */
+    public void dropMonthlyPartition(YearMonth month) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + partitionName(month));
+    }
+
+    public static String partitionName(YearMonth month) {
+        return String.format("activity_logs_p%04d%02d", month.getYear(), month.getMonthValue());
+    }
+
+    /**
+     * Mois d'une partition mensuelle, vide pour les autres (partition par défaut)
+     */
+    public static Optional<YearMonth> partitionMonth(String partitionName) {
+        Matcher matcher = PARTITION_NAME.matcher(partitionName);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        return Optional.of(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+    }
+
+    private static String insertSql(int rows) {
+        return INSERT_PREFIX + String.join(", ", Collections.nCopies(rows, ROW));
+    }
+
+    /**
+     * Filtres du journal : période obligatoire, utilisateur / type / sévérité facultatifs (null = tous)
+     */
+    public static final class Filter {
+        private final Long userId;
+        private final ActivityLog.ActivityType activityType;
+        private final ActivityLog.LogSeverity severity;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        public Filter(Long userId, ActivityLog.ActivityType activityType, ActivityLog.LogSeverity severity,
+                      LocalDateTime start, LocalDateTime end) {
+            this.userId = userId;
+            this.activityType = activityType;
+            this.severity = severity;
+            this.start = start;
+            this.end = end;
+        }
+
+        public Long getUserId() { return userId; }
+        public ActivityLog.ActivityType getActivityType() { return activityType; }
+        public ActivityLog.LogSeverity getSeverity() { return severity; }
+        public LocalDateTime getStart() { return start; }
+        public LocalDateTime getEnd() { return end; }
+    }
+
+    /**
+     * Position dans le journal : (timestamp, id) de la dernière ligne lue
+     * Forme texte "2024-06-01T12:00:00.123456_42", transmise telle quelle par le client
+     */
+    public static final class Cursor {
+        private final LocalDateTime timestamp;
+        private final long id;
+
+        public Cursor(LocalDateTime timestamp, long id) {
+            this.timestamp = timestamp;
+            this.id = id;
+        }
+
+        public static Cursor of(ActivityLog log) {
+            return new Cursor(log.getTimestamp(), log.getId());
+        }
+
+        /**
+         * @throws IllegalArgumentException si le texte n'est pas un curseur
+         */
+        public static Cursor parse(String value) {
+            int separator = value.lastIndexOf('_');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Curseur invalide : " + value);
+            }
+            try {
+                return new Cursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Curseur invalide : " + value, e);
+            }
+        }
+
+        public LocalDateTime getTimestamp() { return timestamp; }
+        public long getId() { return id; }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Cursor other && id == other.id && timestamp.equals(other.timestamp);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * timestamp.hashCode() + Long.hashCode(id);
+        }
+
+        @Override
+        public String toString() {
+            return timestamp + "_" + id;
+        }
+    }
+}
@@ -35,21 +35,6 @@ public interface ActivityLogRepository extends JpaRepository<ActivityLog, Long>
         Pageable pageable
     );
     
-    @Query("SELECT l FROM ActivityLog l WHERE " +
-           "(:userId IS NULL OR l.userId = :userId) AND " +
-           "(:activityType IS NULL OR l.activityType = :activityType) AND " +
-           "(:severity IS NULL OR l.severity = :severity) AND " +
-           "l.timestamp BETWEEN :start AND :end " +
-           "ORDER BY l.timestamp DESC")
-    Page<ActivityLog> findWithFilters(
-        @Param("userId") Long userId,
-        @Param("activityType") ActivityLog.ActivityType activityType,
-        @Param("severity") ActivityLog.LogSeverity severity,
-        @Param("start") LocalDateTime start,
-        @Param("end") LocalDateTime end,
-        Pageable pageable
-    );
-    
     @Query("SELECT COUNT(l) FROM ActivityLog l WHERE l.timestamp BETWEEN :start AND :end")
     Long countByTimestampBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
     
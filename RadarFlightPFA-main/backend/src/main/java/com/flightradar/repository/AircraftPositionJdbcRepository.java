@@ -0,0 +1,71 @@
+package com.flightradar.repository;
+
+import com.flightradar.model.dto.AircraftPositionUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Écriture en lot (JDBC batch) des positions d'avions
+ * Ne met à jour que les colonnes de position, sans charger ni fusionner l'entité Aircraft
+ * (et donc sans ses relations EAGER pilot / airport)
+ */
+@Repository
+public class AircraftPositionJdbcRepository {
+    
+    static final int BATCH_SIZE = 500;
+    
+    private static final String UPDATE_POSITION_SQL =
+        "UPDATE aircraft SET position_lat = ?, position_lon = ?, altitude = ?, speed = ?, heading = ?, " +
+        "air_speed = COALESCE(?, air_speed), vertical_speed = ?, last_update = ? WHERE id = ?";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    /**
+     * Nombre d'allers-retours JDBC nécessaires pour écrire rows positions
+     */
+    public static int batchCount(int rows) {
+        return (rows + BATCH_SIZE - 1) / BATCH_SIZE;
+    }
+    
+    /**
+     * Écrit toutes les positions en lots de BATCH_SIZE requêtes
+     * @return IDs des avions dont la ligne n'existe plus (aucune ligne mise à jour)
+     */
+    public List<Long> batchUpdatePositions(List<AircraftPositionUpdate> updates) {
+        List<Long> missingAircraft = new ArrayList<>();
+        if (updates.isEmpty()) {
+            return missingAircraft;
+        }
+        
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_POSITION_SQL, updates, BATCH_SIZE, (ps, update) -> {
+            ps.setObject(1, update.getLatitude(), Types.DOUBLE);
+            ps.setObject(2, update.getLongitude(), Types.DOUBLE);
+            ps.setObject(3, update.getAltitude(), Types.DOUBLE);
+            ps.setObject(4, update.getSpeed(), Types.DOUBLE);
+            ps.setObject(5, update.getHeading(), Types.DOUBLE);
+            ps.setObject(6, update.getAirSpeed(), Types.DOUBLE);
+            ps.setObject(7, update.getVerticalSpeed(), Types.DOUBLE);
+            ps.setTimestamp(8, Timestamp.valueOf(update.getTimestamp()));
+            ps.setLong(9, update.getAircraftId());
+        });
+        
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // Statement.SUCCESS_NO_INFO (-2) : le driver ne connaît pas le nombre de lignes
+                if (count == 0) {
+                    missingAircraft.add(updates.get(index).getAircraftId());
+                }
+                index++;
+            }
+        }
+        return missingAircraft;
+    }
+}
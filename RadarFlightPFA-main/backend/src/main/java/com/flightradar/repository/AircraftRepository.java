@@ -15,6 +15,25 @@ public interface AircraftRepository extends JpaRepository<Aircraft, Long> {
     Optional<Aircraft> findByRegistration(String registration);
     List<Aircraft> findByAirportId(Long airportId);
     List<Aircraft> findByStatus(AircraftStatus status);
+    long countByStatus(AircraftStatus status);
+    
+    @Query("SELECT a.status, COUNT(a) FROM Aircraft a GROUP BY a.status")
+    List<Object[]> countGroupByStatus();
+    
+    /**
+     * Nombre d'avions par aéroport et par statut : [airportId, status, count]
+     * Une seule requête pour toutes les vues par aéroport / secteur radar
+     */
+    @Query("SELECT a.airport.id, a.status, COUNT(a) FROM Aircraft a WHERE a.airport IS NOT NULL " +
+           "GROUP BY a.airport.id, a.status")
+    List<Object[]> countGroupByAirportAndStatus();
+    
+    /**
+     * Positions des avions d'un statut : [positionLat, positionLon]
+     * Projection : n'entraîne pas le chargement EAGER de l'aéroport et du pilote de chaque avion
+     */
+    @Query("SELECT a.positionLat, a.positionLon FROM Aircraft a WHERE a.status = :status")
+    List<Object[]> findPositionsByStatus(@Param("status") AircraftStatus status);
     
     /**
      * Trouve l'avion assigné à un pilote (relation OneToOne)
@@ -34,5 +53,12 @@ public interface AircraftRepository extends JpaRepository<Aircraft, Long> {
      */
     @Query("SELECT a FROM Aircraft a WHERE a.pilot IS NULL")
     List<Aircraft> findUnassignedAircraft();
+    
+    /**
+     * Nombre d'avions ayant une trajectoire prévue et une trajectoire réelle
+     */
+    @Query(value = "SELECT COUNT(*) FROM aircraft WHERE trajectoire_prevue IS NOT NULL AND trajectoire_reelle IS NOT NULL",
+           nativeQuery = true)
+    long countWithBothTrajectories();
 }
 
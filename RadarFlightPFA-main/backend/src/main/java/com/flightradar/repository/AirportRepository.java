@@ -2,13 +2,22 @@ package com.flightradar.repository;
 
 import com.flightradar.model.Airport;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AirportRepository extends JpaRepository<Airport, Long> {
     Optional<Airport> findByCodeIATA(String codeIATA);
     Optional<Airport> findByName(String name);
+    
+    /**
+     * Tous les aéroports avec leur centre radar, en une requête
+     * (côté inverse du OneToOne : findAll le charge par une requête par aéroport)
+     */
+    @Query("SELECT a FROM Airport a LEFT JOIN FETCH a.radarCenter")
+    List<Airport> findAllWithRadarCenter();
 }
 
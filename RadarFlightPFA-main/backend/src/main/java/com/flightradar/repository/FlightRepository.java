@@ -3,8 +3,11 @@ package com.flightradar.repository;
 import com.flightradar.model.Flight;
 import com.flightradar.model.FlightStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,5 +21,79 @@ public interface FlightRepository extends JpaRepository<Flight, Long> {
     Optional<Flight> findByAircraftIdAndFlightStatusNot(Long aircraftId, FlightStatus status);
     List<Flight> findByPilotId(Long pilotId);
     List<Flight> findByPilotIdAndFlightStatus(Long pilotId, FlightStatus status);
+    
+    // ========== Agrégats du dashboard admin (calculés en base, index idx_flights_*) ==========
+    
+    long countByFlightStatus(FlightStatus status);
+    
+    @Query("SELECT f.flightStatus, COUNT(f) FROM Flight f GROUP BY f.flightStatus")
+    List<Object[]> countGroupByFlightStatus();
+    
+    /**
+     * Vols dont le départ prévu est strictement compris entre start et end
+     */
+    @Query("SELECT COUNT(f) FROM Flight f WHERE f.scheduledDeparture > :start AND f.scheduledDeparture < :end")
+    long countScheduledBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+    
+    @Query("SELECT f.flightStatus, COUNT(f) FROM Flight f " +
+           "WHERE f.scheduledDeparture > :start AND f.scheduledDeparture < :end GROUP BY f.flightStatus")
+    List<Object[]> countByStatusScheduledBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+    
+    /**
+     * Vols par jour de départ prévu : [date, nombre]
+     */
+    @Query(value = "SELECT CAST(scheduled_departure AS DATE) AS day, COUNT(*) FROM flights " +
+                   "WHERE scheduled_departure > :start AND scheduled_departure < :end " +
+                   "GROUP BY CAST(scheduled_departure AS DATE) ORDER BY day", nativeQuery = true)
+    List<Object[]> countByDayScheduledBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+    
+    /**
+     * Décollages effectifs entre start et end (bornes incluses)
+     */
+    @Query("SELECT COUNT(f) FROM Flight f WHERE f.actualDeparture BETWEEN :start AND :end")
+    long countDeparturesBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+    
+    /**
+     * Vols ayant décollé et atterri entre start et end (bornes incluses)
+     */
+    @Query("SELECT COUNT(f) FROM Flight f WHERE f.actualDeparture BETWEEN :start AND :end " +
+           "AND f.actualArrival BETWEEN :start AND :end")
+    long countDeparturesAndArrivalsBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+    
+    /**
+     * Décollages effectifs par heure depuis since : [début d'heure, nombre]
+     */
+    @Query(value = "SELECT date_trunc('hour', actual_departure) AS hour, COUNT(*) FROM flights " +
+                   "WHERE actual_departure >= :since GROUP BY date_trunc('hour', actual_departure)", nativeQuery = true)
+    List<Object[]> countDeparturesByHourSince(@Param("since") LocalDateTime since);
+    
+    /**
+     * Atterrissages par heure depuis since, pour les vols ayant décollé le même jour : [début d'heure, nombre]
+     */
+    @Query(value = "SELECT date_trunc('hour', actual_arrival) AS hour, COUNT(*) FROM flights " +
+                   "WHERE actual_arrival >= :since AND CAST(actual_departure AS DATE) = CAST(actual_arrival AS DATE) " +
+                   "GROUP BY date_trunc('hour', actual_arrival)", nativeQuery = true)
+    List<Object[]> countSameDayArrivalsByHourSince(@Param("since") LocalDateTime since);
+    
+    /**
+     * Retards au départ par aéroport : [departure_airport_id, vols retardés, minutes de retard cumulées]
+     * Retard = minutes entières entre départ prévu et départ effectif, compté s'il atteint 1 minute
+     */
+    @Query(value = "SELECT departure_airport_id, COUNT(*), " +
+                   "COALESCE(SUM(TRUNC(EXTRACT(EPOCH FROM (actual_departure - scheduled_departure)) / 60)), 0) " +
+                   "FROM flights WHERE actual_departure >= scheduled_departure + INTERVAL '1 minute' " +
+                   "GROUP BY departure_airport_id", nativeQuery = true)
+    List<Object[]> sumDelaysByDepartureAirport();
+    
+    /**
+     * Vols partis à l'heure : moins de 16 minutes de retard (tolérance de 15 minutes entières)
+     */
+    @Query(value = "SELECT COUNT(*) FROM flights " +
+                   "WHERE actual_departure < scheduled_departure + INTERVAL '16 minutes'", nativeQuery = true)
+    long countOnTimeDepartures();
+    
+    /**
+     * Prochains départs prévus après from (DMAN)
+     */
+    List<Flight> findTop10ByScheduledDepartureAfterOrderByScheduledDepartureAsc(LocalDateTime from);
 }
-
@@ -6,6 +6,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -18,5 +20,19 @@ public interface PilotRepository extends JpaRepository<Pilot, Long> {
      */
     @Query("SELECT p FROM Pilot p WHERE p.user.id = :userId")
     Optional<Pilot> findByUserId(@Param("userId") Long userId);
+    
+    /**
+     * Nombre de pilotes ayant un avion assigné (assignedAircraftId ou relation aircraft)
+     */
+    @Query("SELECT COUNT(p) FROM Pilot p WHERE p.assignedAircraftId IS NOT NULL " +
+           "OR EXISTS (SELECT a.id FROM Aircraft a WHERE a.pilot = p)")
+    long countWithAssignedAircraft();
+    
+    /**
+     * Champs affichés dans la liste des utilisateurs, pour un lot de pilotes :
+     * [id, firstName, lastName, license, assignedAircraftId]
+     * Projection : n'entraîne pas le chargement EAGER de l'aéroport et de l'avion de chaque pilote
+     */
+    @Query("SELECT p.id, p.firstName, p.lastName, p.license, p.assignedAircraftId FROM Pilot p WHERE p.id IN :ids")
+    List<Object[]> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
 }
-
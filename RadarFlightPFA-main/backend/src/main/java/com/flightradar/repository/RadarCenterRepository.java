@@ -2,6 +2,7 @@ package com.flightradar.repository;
 
 import com.flightradar.model.RadarCenter;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,5 +14,12 @@ public interface RadarCenterRepository extends JpaRepository<RadarCenter, Long>
     Optional<RadarCenter> findByAirportId(Long airportId);
     List<RadarCenter> findAllByAirportId(Long airportId); // Pour gérer plusieurs résultats
     Optional<RadarCenter> findByUserId(Long userId);
+    
+    /**
+     * Tous les centres radar avec leur aéroport, en une requête
+     * (findAll charge l'aéroport EAGER par une requête par centre)
+     */
+    @Query("SELECT r FROM RadarCenter r JOIN FETCH r.airport")
+    List<RadarCenter> findAllWithAirport();
 }
 
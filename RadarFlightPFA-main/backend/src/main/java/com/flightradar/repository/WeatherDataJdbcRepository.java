@@ -0,0 +1,93 @@
+package com.flightradar.repository;
+
+import com.flightradar.model.WeatherData;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Insertion en lot (JDBC batch) des relevés météo d'un rafraîchissement complet
+ * Un INSERT par relevé regroupé en lots, sans passer par le contexte de persistance JPA
+ * Agrégation horaire et purge des relevés anciens (WeatherRetentionService), en SQL ensembliste
+ */
+@Repository
+public class WeatherDataJdbcRepository {
+
+    static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_WEATHER_SQL =
+        "INSERT INTO weather_data (airport_id, timestamp, temperature, wind_speed, wind_direction, visibility, " +
+        "humidity, pressure, conditions, crosswind, alert) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Une ligne par aéroport et par heure ; direction du vent en moyenne circulaire (0-360°)
+    private static final String ROLLUP_HOURLY_SQL =
+        "INSERT INTO weather_data_hourly (airport_id, hour, samples, avg_temperature, min_temperature, " +
+        "max_temperature, avg_wind_speed, max_wind_speed, avg_wind_direction, min_visibility, avg_pressure, " +
+        "avg_humidity, max_crosswind, alert_samples) " +
+        "SELECT airport_id, date_trunc('hour', timestamp), COUNT(*), AVG(temperature), MIN(temperature), " +
+        "MAX(temperature), AVG(wind_speed), MAX(wind_speed), " +
+        "MOD(CAST(DEGREES(ATAN2(AVG(SIN(RADIANS(wind_direction))), AVG(COS(RADIANS(wind_direction))))) + 360 AS NUMERIC), 360), " +
+        "MIN(visibility), AVG(pressure), AVG(humidity), MAX(crosswind), SUM(CASE WHEN alert THEN 1 ELSE 0 END) " +
+        "FROM weather_data WHERE timestamp < ? " +
+        "GROUP BY airport_id, date_trunc('hour', timestamp) " +
+        "ON CONFLICT (airport_id, hour) DO NOTHING";
+
+    private static final String DELETE_RAW_BEFORE_SQL = "DELETE FROM weather_data WHERE timestamp < ?";
+
+    private static final String DELETE_HOURLY_BEFORE_SQL = "DELETE FROM weather_data_hourly WHERE hour < ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insère tous les relevés en lots de BATCH_SIZE requêtes
+     * @return Nombre de relevés envoyés
+     */
+    public int batchInsert(List<WeatherData> records) {
+        if (records.isEmpty()) {
+            return 0;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_WEATHER_SQL, records, BATCH_SIZE, (ps, weather) -> {
+            ps.setLong(1, weather.getAirport().getId());
+            ps.setTimestamp(2, Timestamp.valueOf(weather.getTimestamp()));
+            ps.setObject(3, weather.getTemperature(), Types.DOUBLE);
+            ps.setObject(4, weather.getWindSpeed(), Types.DOUBLE);
+            ps.setObject(5, weather.getWindDirection(), Types.DOUBLE);
+            ps.setObject(6, weather.getVisibility(), Types.DOUBLE);
+            ps.setObject(7, weather.getHumidity(), Types.INTEGER);
+            ps.setObject(8, weather.getPressure(), Types.DOUBLE);
+            ps.setString(9, weather.getConditions());
+            ps.setObject(10, weather.getCrosswind(), Types.DOUBLE);
+            ps.setBoolean(11, Boolean.TRUE.equals(weather.getAlert()));
+        });
+        return records.size();
+    }
+
+    /**
+     * Agrège par heure les relevés bruts antérieurs à cutoff (début d'heure : heures complètes uniquement)
+     * @return Nombre d'agrégats horaires créés
+     */
+    public int rollupHourlyBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update(ROLLUP_HOURLY_SQL, Timestamp.valueOf(cutoff));
+    }
+
+    /**
+     * @return Nombre de relevés bruts supprimés
+     */
+    public int deleteRawBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update(DELETE_RAW_BEFORE_SQL, Timestamp.valueOf(cutoff));
+    }
+
+    /**
+     * @return Nombre d'agrégats horaires supprimés
+     */
+    public int deleteHourlyBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update(DELETE_HOURLY_BEFORE_SQL, Timestamp.valueOf(cutoff));
+    }
+}
@@ -2,6 +2,7 @@ package com.flightradar.repository;
 
 import com.flightradar.model.WeatherData;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,5 +14,12 @@ public interface WeatherDataRepository extends JpaRepository<WeatherData, Long>
     List<WeatherData> findByAirportId(Long airportId);
     List<WeatherData> findByAlertTrue();
     List<WeatherData> findByAirportIdOrderByTimestampDesc(Long airportId);
+    
+    /**
+     * Dernier relevé de chaque aéroport (chargement de LatestWeatherCache)
+     */
+    @Query("SELECT w FROM WeatherData w JOIN FETCH w.airport WHERE w.timestamp = " +
+           "(SELECT MAX(w2.timestamp) FROM WeatherData w2 WHERE w2.airport = w.airport)")
+    List<WeatherData> findLatestPerAirport();
 }
 
@@ -6,7 +6,6 @@ import com.flightradar.model.Airport;
 import com.flightradar.model.WeatherData;
 import com.flightradar.repository.AircraftRepository;
 import com.flightradar.repository.AirportRepository;
-import com.flightradar.repository.WeatherDataRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -32,7 +31,10 @@ public class ATCService {
     private AirportRepository airportRepository;
     
     @Autowired
-    private WeatherDataRepository weatherDataRepository;
+    private LatestWeatherCache latestWeatherCache;
+    
+    @Autowired
+    private RunwayWindTable runwayWindTable;
     
     @Autowired
     private ConflictDetectionService conflictDetectionService;
@@ -100,8 +102,12 @@ public class ATCService {
                 "Un autre avion est en train de décoller ou d'atterrir.");
         }
         
-        // 2. Vérifier les conditions météo
-        Map<String, Object> weatherCheck = checkWeatherConditions(airport.getId());
+        // 2. Vérifier les conditions météo (dernier relevé, lu une fois pour toute l'analyse)
+        Optional<WeatherData> weatherOpt = latestWeatherCache.get(airport.getId());
+        // Piste préférentielle pour le vent courant (table recalculée seulement si le vent a changé)
+        Optional<RunwayWindTable.EndComponents> runwayOpt = runwayWindTable.get(airport.getId())
+            .map(RunwayWindTable.WindComponents::getPreferred);
+        Map<String, Object> weatherCheck = checkWeatherConditions(weatherOpt, runwayOpt);
         if (!(Boolean) weatherCheck.get("suitable")) {
             return createResponse("REFUSED", 
                 "Conditions météo défavorables", 
@@ -117,7 +123,7 @@ public class ATCService {
         }
         
         // 4. Vérifier les alertes météo critiques
-        List<String> criticalAlerts = checkCriticalWeatherAlerts(airport.getId());
+        List<String> criticalAlerts = checkCriticalWeatherAlerts(weatherOpt);
         if (!criticalAlerts.isEmpty()) {
             return createResponse("REFUSED", 
                 "Alertes météo critiques détectées", 
@@ -135,9 +141,15 @@ public class ATCService {
         // ========== AUTORISATION ACCORDÉE ==========
         log.info("Autorisation de décollage accordée pour l'avion ID: {}", aircraftId);
         
-        return createResponse("GRANTED", 
+        Map<String, Object> response = createResponse("GRANTED", 
             "Autorisation de décollage accordée", 
             "Toutes les conditions sont remplies. Vous pouvez décoller.");
+        runwayOpt.ifPresent(runway -> {
+            response.put("runway", runway.getDesignator());
+            response.put("headwind", runway.getHeadwind());
+            response.put("crosswind", runway.getCrosswind());
+        });
+        return response;
     }
     
     /**
@@ -158,15 +170,14 @@ public class ATCService {
     
     /**
      * Vérifier les conditions météo selon ICAO/FAA
+     * Vent travers évalué sur la piste préférentielle si connue, sinon sur la pire piste (relevé)
      */
-    private Map<String, Object> checkWeatherConditions(Long airportId) {
+    private Map<String, Object> checkWeatherConditions(Optional<WeatherData> weatherOpt,
+                                                       Optional<RunwayWindTable.EndComponents> runwayOpt) {
         Map<String, Object> result = new HashMap<>();
         result.put("suitable", true);
         result.put("reason", "");
         
-        Optional<WeatherData> weatherOpt = weatherDataRepository
-            .findFirstByAirportIdOrderByTimestampDesc(airportId);
-        
         if (weatherOpt.isEmpty()) {
             result.put("suitable", false);
             result.put("reason", "Données météo indisponibles");
@@ -194,11 +205,12 @@ public class ATCService {
         }
         
         // 3. Vérifier le vent travers (max 28 km/h)
-        if (weather.getCrosswind() != null && weather.getCrosswind() > MAX_CROSSWIND_TAKEOFF) {
+        Double crosswind = runwayOpt.map(RunwayWindTable.EndComponents::getCrosswind).orElse(weather.getCrosswind());
+        if (crosswind != null && crosswind > MAX_CROSSWIND_TAKEOFF) {
             result.put("suitable", false);
             result.put("reason", String.format(
                 "Vent travers trop fort: %.1f km/h (maximum autorisé: %.1f km/h)", 
-                weather.getCrosswind(), MAX_CROSSWIND_TAKEOFF));
+                crosswind, MAX_CROSSWIND_TAKEOFF));
             return result;
         }
         
@@ -242,12 +254,9 @@ public class ATCService {
     /**
      * Vérifier les alertes météo critiques
      */
-    private List<String> checkCriticalWeatherAlerts(Long airportId) {
+    private List<String> checkCriticalWeatherAlerts(Optional<WeatherData> weatherOpt) {
         List<String> alerts = new java.util.ArrayList<>();
         
-        Optional<WeatherData> weatherOpt = weatherDataRepository
-            .findFirstByAirportIdOrderByTimestampDesc(airportId);
-        
         if (weatherOpt.isEmpty()) return alerts;
         
         WeatherData weather = weatherOpt.get();
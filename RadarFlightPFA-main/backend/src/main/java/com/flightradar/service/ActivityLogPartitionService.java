@@ -0,0 +1,131 @@
+package com.flightradar.service;
+
+import com.flightradar.repository.ActivityLogJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+/**
+ * Partitions mensuelles du journal d'activité (table activity_logs partitionnée par mois,
+ * voir database/partition_activity_logs.sql)
+ * - Partitions du mois courant et des flightradar.activity-log.partitions-ahead mois suivants
+ *   créées à l'avance : aucun journal ne tombe dans la partition par défaut
+ * - Conservation par mois entiers : les partitions antérieures à flightradar.activity-log.retention-months
+ *   mois sont supprimées (DROP TABLE, sans DELETE ligne à ligne ; 0 = sans limite)
+ * Table non partitionnée : rien n'est fait (ni création, ni suppression).
+ */
+@Service
+@Slf4j
+public class ActivityLogPartitionService {
+
+    @Autowired
+    private ActivityLogJdbcRepository activityLogJdbcRepository;
+
+    @Value("${flightradar.activity-log.retention-months:12}")
+    private int retentionMonths = 12;
+
+    @Value("${flightradar.activity-log.partitions-ahead:2}")
+    private int partitionsAhead = 2;
+
+    // Horloge (remplaçable par les tests)
+    Supplier<LocalDateTime> clock = LocalDateTime::now;
+
+    private volatile Map<String, Object> lastRun = Map.of();
+
+    /**
+     * Au démarrage : partition du mois courant présente avant les premières écritures
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            maintainPartitions();
+        } catch (DataAccessException e) {
+            log.warn("Maintenance des partitions du journal d'activité impossible : {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Crée les partitions à venir et supprime les partitions expirées, chaque nuit
+     */
+    @Scheduled(cron = "${flightradar.activity-log.partition-cron:0 15 3 * * *}")
+    public void maintainPartitions() {
+        long start = System.nanoTime();
+        LocalDateTime now = clock.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("completedAt", now);
+
+        boolean partitioned = activityLogJdbcRepository.isPartitioned();
+        stats.put("partitioned", partitioned);
+        if (!partitioned) {
+            if (lastRun.isEmpty()) {
+                log.info("Table activity_logs non partitionnée (database/partition_activity_logs.sql) : " +
+                    "pas de partitions mensuelles ni de conservation par mois");
+            }
+            lastRun = stats;
+            return;
+        }
+
+        YearMonth current = YearMonth.from(now);
+        Set<String> existing = new TreeSet<>(activityLogJdbcRepository.findPartitionNames());
+
+        List<String> created = new ArrayList<>();
+        for (int i = 0; i <= partitionsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            String name = ActivityLogJdbcRepository.partitionName(month);
+            if (existing.contains(name)) {
+                continue;
+            }
+            try {
+                activityLogJdbcRepository.createMonthlyPartition(month);
+                created.add(name);
+            } catch (DataAccessException e) {
+                // Journaux de ce mois déjà dans la partition par défaut : à déplacer manuellement
+                log.warn("Création de la partition {} impossible : {}", name, e.getMessage());
+            }
+        }
+
+        List<String> dropped = new ArrayList<>();
+        if (retentionMonths > 0) {
+            YearMonth oldestKept = current.minusMonths(retentionMonths);
+            for (String name : existing) {
+                Optional<YearMonth> month = ActivityLogJdbcRepository.partitionMonth(name);
+                if (month.isPresent() && month.get().isBefore(oldestKept)) {
+                    activityLogJdbcRepository.dropMonthlyPartition(month.get());
+                    dropped.add(name);
+                }
+            }
+        }
+
+        stats.put("partitions", existing.size() + created.size() - dropped.size());
+        stats.put("created", created);
+        stats.put("dropped", dropped);
+        stats.put("durationMs", (System.nanoTime() - start) / 1_000_000);
+        lastRun = stats;
+        if (!created.isEmpty() || !dropped.isEmpty()) {
+            log.info("Journal d'activité : partitions créées {}, supprimées {}", created, dropped);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(lastRun);
+        stats.put("retentionMonths", retentionMonths);
+        stats.put("partitionsAhead", partitionsAhead);
+        return stats;
+    }
+}
@@ -0,0 +1,324 @@
+package com.flightradar.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flightradar.model.ActivityLog;
+import com.flightradar.repository.ActivityLogJdbcRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Journalisation asynchrone des activités (table activity_logs)
+ * - log() ne fait qu'ajouter le journal à une file bornée ; dans une transaction, l'ajout a lieu
+ *   après le commit (une modification annulée n'est pas journalisée)
+ * - Un thread dédié vide la file toutes les flush-interval-ms, ou dès que batch-size journaux
+ *   attendent, par INSERT multi-lignes (ActivityLogJdbcRepository)
+ * - File pleine (overflow-policy) : CALLER_RUNS écrit dans le thread appelant, DROP_OLDEST remplace
+ *   le plus ancien journal en attente, DROP_NEWEST ignore le nouveau
+ * - Écriture en échec (base indisponible) et file restante à l'arrêt : journaux ajoutés au fichier
+ *   de secours (JSON, un journal par ligne), réinsérés au démarrage suivant, puis par le thread d'écriture
+ *   dès qu'une insertion réussit à nouveau (au plus tard toutes les spool-retry-ms)
+ */
+@Service
+@Slf4j
+public class ActivityLogWriter {
+
+    public enum OverflowPolicy { CALLER_RUNS, DROP_OLDEST, DROP_NEWEST }
+
+    @Autowired
+    private ActivityLogJdbcRepository activityLogJdbcRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${flightradar.activity-log.queue-capacity:10000}")
+    private int queueCapacity = 10000;
+
+    @Value("${flightradar.activity-log.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${flightradar.activity-log.flush-interval-ms:1000}")
+    private long flushIntervalMs = 1000;
+
+    @Value("${flightradar.activity-log.overflow-policy:CALLER_RUNS}")
+    private OverflowPolicy overflowPolicy = OverflowPolicy.CALLER_RUNS;
+
+    @Value("${flightradar.activity-log.spool-file:data/activity-log-spool.jsonl}")
+    private String spoolFile = "data/activity-log-spool.jsonl";
+
+    // Nouvelle tentative de reprise du fichier de secours, même sans nouveau journal à écrire
+    @Value("${flightradar.activity-log.spool-retry-ms:30000}")
+    private long spoolRetryMs = 30000;
+
+    // Horloge (remplaçable par les tests)
+    Supplier<LocalDateTime> clock = LocalDateTime::now;
+
+    private BlockingQueue<ActivityLog> queue;
+    private ScheduledExecutorService writer;
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private volatile boolean closed;
+
+    // Journaux en attente dans le fichier de secours et prochaine reprise sans insertion réussie
+    private volatile boolean spoolPending;
+    private volatile LocalDateTime nextReplayAt;
+
+    // Statistiques
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong statements = new AtomicLong();
+    private final AtomicLong callerWrites = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failedWrites = new AtomicLong();
+    private final AtomicLong spooled = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+    private final AtomicLong replays = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        writer = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("activity-log-writer-"));
+        writer.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Arrêt : plus d'écriture différée, la file est vidée en base (ou dans le fichier de secours)
+     */
+    @PreDestroy
+    public void shutdown() {
+        closed = true;
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        log.info("Journal d'activité arrêté : {} journaux écrits, {} dans le fichier de secours",
+            written.get(), spooled.get());
+    }
+
+    /**
+     * Journaux restés dans le fichier de secours au dernier arrêt
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        writer.execute(this::replaySpool);
+    }
+
+    /**
+     * Journalise une activité (horodatage et sévérité INFO par défaut)
+     */
+    public void log(String username, ActivityLog.ActivityType activityType, String description,
+                    String entityType, Long entityId, ActivityLog.LogSeverity severity) {
+        ActivityLog activityLog = new ActivityLog();
+        activityLog.setUsername(username);
+        activityLog.setActivityType(activityType);
+        activityLog.setDescription(description);
+        activityLog.setEntityType(entityType);
+        activityLog.setEntityId(entityId);
+        activityLog.setSeverity(severity);
+        log(activityLog);
+    }
+
+    public void log(ActivityLog activityLog) {
+        if (activityLog.getTimestamp() == null) {
+            activityLog.setTimestamp(clock.get());
+        }
+        if (activityLog.getSeverity() == null) {
+            activityLog.setSeverity(ActivityLog.LogSeverity.INFO);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(activityLog);
+                }
+            });
+        } else {
+            enqueue(activityLog);
+        }
+    }
+
+    private void enqueue(ActivityLog activityLog) {
+        enqueued.incrementAndGet();
+        if (closed) {
+            write(List.of(activityLog));
+            return;
+        }
+        if (!queue.offer(activityLog)) {
+            switch (overflowPolicy) {
+                case CALLER_RUNS -> {
+                    callerWrites.incrementAndGet();
+                    write(List.of(activityLog));
+                    return;
+                }
+                case DROP_OLDEST -> {
+                    do {
+                        if (queue.poll() != null) {
+                            dropped.incrementAndGet();
+                        }
+                    } while (!queue.offer(activityLog));
+                }
+                case DROP_NEWEST -> {
+                    dropped.incrementAndGet();
+                    return;
+                }
+            }
+        }
+        if (queue.size() >= batchSize && flushRequested.compareAndSet(false, true)) {
+            try {
+                writer.execute(this::flush);
+            } catch (RejectedExecutionException e) {
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    /**
+     * Vide la file par lots de batch-size journaux, puis reprend le fichier de secours
+     * si la base répond de nouveau (insertion réussie) ou si spool-retry-ms sont écoulées
+     */
+    public void flush() {
+        flushRequested.set(false);
+        boolean inserted = false;
+        List<ActivityLog> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            inserted |= write(batch);
+            batch.clear();
+        }
+        if (spoolPending && !closed && (inserted || !clock.get().isBefore(nextReplayAt))) {
+            replaySpool();
+        }
+    }
+
+    /**
+     * @return true si le lot est en base, false s'il a été reporté dans le fichier de secours
+     */
+    private boolean write(List<ActivityLog> batch) {
+        try {
+            written.addAndGet(activityLogJdbcRepository.insertAll(batch));
+            statements.addAndGet((batch.size() + ActivityLogJdbcRepository.ROWS_PER_STATEMENT - 1)
+                / ActivityLogJdbcRepository.ROWS_PER_STATEMENT);
+            return true;
+        } catch (RuntimeException e) {
+            failedWrites.incrementAndGet();
+            log.warn("Écriture de {} journaux d'activité impossible, fichier de secours : {}", batch.size(), e.getMessage());
+            spool(batch);
+            return false;
+        }
+    }
+
+    private synchronized void spool(List<ActivityLog> batch) {
+        Path path = Paths.get(spoolFile);
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (BufferedWriter out = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (ActivityLog activityLog : batch) {
+                    out.write(objectMapper.writeValueAsString(activityLog));
+                    out.newLine();
+                }
+            }
+            spooled.addAndGet(batch.size());
+            if (!spoolPending) {
+                nextReplayAt = clock.get().plusNanos(spoolRetryMs * 1_000_000);
+                spoolPending = true;
+            }
+        } catch (IOException e) {
+            dropped.addAndGet(batch.size());
+            log.error("Fichier de secours {} inaccessible : {} journaux d'activité perdus", spoolFile, batch.size(), e);
+        }
+    }
+
+    /**
+     * Réinsère les journaux du fichier de secours ; ceux qui échouent encore y retournent
+     * Le fichier est d'abord renommé (.replay) : un arrêt pendant la reprise ne perd rien
+     */
+    synchronized void replaySpool() {
+        Path spool = Paths.get(spoolFile);
+        Path replay = Paths.get(spoolFile + ".replay");
+        List<ActivityLog> pending = new ArrayList<>();
+        try {
+            if (!Files.exists(replay)) {
+                if (!Files.exists(spool)) {
+                    return;
+                }
+                Files.move(spool, replay);
+            }
+            // Journaux qui échouent encore : retour au fichier de secours, nouvelle reprise plus tard
+            spoolPending = false;
+            replays.incrementAndGet();
+            for (String line : Files.readAllLines(replay, StandardCharsets.UTF_8)) {
+                if (!line.isBlank()) {
+                    ActivityLog activityLog = objectMapper.readValue(line, ActivityLog.class);
+                    activityLog.setId(null);
+                    pending.add(activityLog);
+                }
+            }
+        } catch (IOException e) {
+            nextReplayAt = clock.get().plusNanos(spoolRetryMs * 1_000_000);
+            spoolPending = true;
+            log.error("Lecture du fichier de secours {} impossible", spoolFile, e);
+            return;
+        }
+        long before = replayed.get();
+        for (int from = 0; from < pending.size(); from += batchSize) {
+            List<ActivityLog> batch = pending.subList(from, Math.min(from + batchSize, pending.size()));
+            if (write(batch)) {
+                replayed.addAndGet(batch.size());
+            }
+        }
+        try {
+            Files.delete(replay);
+        } catch (IOException e) {
+            log.warn("Suppression de {} impossible : {}", replay, e.getMessage());
+        }
+        log.info("Fichier de secours du journal d'activité : {} journaux réinsérés sur {}",
+            replayed.get() - before, pending.size());
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queued", queue.size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("overflowPolicy", overflowPolicy.name());
+        stats.put("enqueued", enqueued.get());
+        stats.put("written", written.get());
+        stats.put("insertStatements", statements.get());
+        stats.put("callerWrites", callerWrites.get());
+        stats.put("dropped", dropped.get());
+        stats.put("failedWrites", failedWrites.get());
+        stats.put("spooled", spooled.get());
+        stats.put("replayed", replayed.get());
+        stats.put("spoolReplays", replays.get());
+        stats.put("spoolPending", spoolPending);
+        return stats;
+    }
+}
@@ -6,17 +6,21 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
  * Service pour le Dashboard ADMIN
  * Calcule tous les KPIs aéronautiques réels
+ * Comptages, répartitions et retards calculés en base (requêtes d'agrégat des repositories),
+ * sans charger la table des vols en mémoire
  */
 @Service
 @Slf4j
@@ -38,7 +42,7 @@ public class AdminDashboardService {
     private RadarCenterRepository radarCenterRepository;
     
     @Autowired
-    private WeatherDataRepository weatherDataRepository;
+    private LatestWeatherCache latestWeatherCache;
     
     @Autowired
     private ConflictDetectionService conflictDetectionService;
@@ -47,52 +51,48 @@ public class AdminDashboardService {
     private UserRepository userRepository;
     
     @Autowired
-    private ActivityLogRepository activityLogRepository;
+    private ActivityLogJdbcRepository activityLogJdbcRepository;
+    
+    @Autowired
+    private OperationalCounters operationalCounters;
     
     /**
      * Récupère toutes les données du dashboard admin
+     * Erreurs propagées : le contrôleur répond 500 et DashboardResponseCache ne met pas l'échec en cache
+     * (un tableau de bord d'erreur servi sous la clé partagée casserait aussi /kpis et /statistics)
      */
     public Map<String, Object> getAdminDashboard() {
-        try {
-            Map<String, Object> dashboard = new HashMap<>();
-            
-            // ========== KPIs Temps Réel ==========
-            dashboard.put("aircraftInFlight", getAircraftInFlightCount());
-            dashboard.put("pilotsConnected", getPilotsConnectedCount());
-            dashboard.put("trafficByAirport", getTrafficByAirport());
-            dashboard.put("radarCentersStatus", getRadarCentersStatus());
-            dashboard.put("takeoffsLandingsToday", getTakeoffsLandingsToday());
-            dashboard.put("delays", getDelaysStatistics());
-            dashboard.put("weatherAlerts", getWeatherAlerts());
-            dashboard.put("safetyIndicators", getSafetyIndicators());
-            
-            // ========== KPIs Performance ==========
-            dashboard.put("atcPerformance", getATCPerformance());
-            dashboard.put("inefficiency3D", getInefficiency3D());
-            dashboard.put("trafficLoad", getTrafficLoad());
-            dashboard.put("airportCapacity", getAirportCapacity());
-            dashboard.put("dman", getDMAN());
-            
-            return dashboard;
-        } catch (Exception e) {
-            log.error("Erreur lors de la construction du dashboard admin", e);
-            // Retourner un dashboard minimal en cas d'erreur
-            Map<String, Object> errorDashboard = new HashMap<>();
-            errorDashboard.put("error", "Erreur lors du chargement des données");
-            errorDashboard.put("message", e.getMessage());
-            errorDashboard.put("aircraftInFlight", 0);
-            errorDashboard.put("pilotsConnected", 0);
-            errorDashboard.put("trafficByAirport", new HashMap<>());
-            errorDashboard.put("radarCentersStatus", new java.util.ArrayList<>());
-            return errorDashboard;
-        }
+        Map<String, Object> dashboard = new HashMap<>();
+        
+        // Chargés une fois, partagés par les vues par aéroport et par secteur radar
+        List<Airport> airports = airportRepository.findAllWithRadarCenter();
+        Map<Long, Map<AircraftStatus, Long>> aircraftByAirport = countAircraftByAirport();
+        
+        // ========== KPIs Temps Réel ==========
+        dashboard.put("aircraftInFlight", getAircraftInFlightCount());
+        dashboard.put("pilotsConnected", getPilotsConnectedCount());
+        dashboard.put("trafficByAirport", getTrafficByAirport(airports, aircraftByAirport));
+        dashboard.put("radarCentersStatus", getRadarCentersStatus(aircraftByAirport));
+        dashboard.put("takeoffsLandingsToday", getTakeoffsLandingsToday());
+        dashboard.put("delays", getDelaysStatistics(airports));
+        dashboard.put("weatherAlerts", getWeatherAlerts());
+        dashboard.put("safetyIndicators", getSafetyIndicators());
+        
+        // ========== KPIs Performance ==========
+        dashboard.put("atcPerformance", getATCPerformance());
+        dashboard.put("inefficiency3D", getInefficiency3D());
+        dashboard.put("trafficLoad", getTrafficLoad());
+        dashboard.put("airportCapacity", getAirportCapacity(airports, aircraftByAirport));
+        dashboard.put("dman", getDMAN());
+        
+        return dashboard;
     }
     
     /**
      * Nombre total d'avions en vol
      */
     private Integer getAircraftInFlightCount() {
-        return aircraftRepository.findByStatus(AircraftStatus.EN_VOL).size();
+        return (int) operationalCounters.getAircraftCount(AircraftStatus.EN_VOL);
     }
     
     /**
@@ -100,45 +100,56 @@ public class AdminDashboardService {
      */
     private Integer getPilotsConnectedCount() {
         try {
-            return (int) pilotRepository.findAll().stream()
-                .filter(p -> {
-                    // Vérifier si le pilote a un avion assigné (via assignedAircraftId ou via relation)
-                    if (p.getAssignedAircraftId() != null) {
-                        return true;
-                    }
-                    // Vérifier via la relation aircraft (OneToOne, donc vérifier != null)
-                    if (p.getAircraft() != null) {
-                        return true;
-                    }
-                    return false;
-                })
-                .count();
+            // Avion assigné via assignedAircraftId ou via la relation aircraft
+            return (int) pilotRepository.countWithAssignedAircraft();
         } catch (Exception e) {
             log.error("Erreur lors du calcul des pilotes connectés", e);
             return 0;
         }
     }
     
+    /**
+     * Nombre d'avions par aéroport et par statut (une requête groupée)
+     */
+    private Map<Long, Map<AircraftStatus, Long>> countAircraftByAirport() {
+        Map<Long, Map<AircraftStatus, Long>> counts = new HashMap<>();
+        for (Object[] row : aircraftRepository.countGroupByAirportAndStatus()) {
+            if (row[1] != null) {
+                counts.computeIfAbsent(((Number) row[0]).longValue(), id -> new EnumMap<>(AircraftStatus.class))
+                    .put((AircraftStatus) row[1], ((Number) row[2]).longValue());
+            }
+        }
+        return counts;
+    }
+    
+    private static int countAt(Map<Long, Map<AircraftStatus, Long>> aircraftByAirport, Long airportId,
+                               AircraftStatus status) {
+        return aircraftByAirport.getOrDefault(airportId, Map.of()).getOrDefault(status, 0L).intValue();
+    }
+    
+    private static int totalAt(Map<Long, Map<AircraftStatus, Long>> aircraftByAirport, Long airportId) {
+        long total = 0;
+        for (long count : aircraftByAirport.getOrDefault(airportId, Map.of()).values()) {
+            total += count;
+        }
+        return (int) total;
+    }
+    
     /**
      * Trafic en temps réel par aéroport
      */
-    private Map<String, Object> getTrafficByAirport() {
+    private Map<String, Object> getTrafficByAirport(List<Airport> airports,
+                                                    Map<Long, Map<AircraftStatus, Long>> aircraftByAirport) {
         Map<String, Object> traffic = new HashMap<>();
         
-        List<Airport> airports = airportRepository.findAll();
         for (Airport airport : airports) {
-            List<Aircraft> aircraftAtAirport = aircraftRepository.findByAirportId(airport.getId());
-            int inFlight = (int) aircraftAtAirport.stream()
-                .filter(a -> a.getStatus() == AircraftStatus.EN_VOL)
-                .count();
-            int onGround = (int) aircraftAtAirport.stream()
-                .filter(a -> a.getStatus() == AircraftStatus.AU_SOL)
-                .count();
+            int inFlight = countAt(aircraftByAirport, airport.getId(), AircraftStatus.EN_VOL);
+            int onGround = countAt(aircraftByAirport, airport.getId(), AircraftStatus.AU_SOL);
             
             Map<String, Object> airportTraffic = new HashMap<>();
             airportTraffic.put("inFlight", inFlight);
             airportTraffic.put("onGround", onGround);
-            airportTraffic.put("total", aircraftAtAirport.size());
+            airportTraffic.put("total", totalAt(aircraftByAirport, airport.getId()));
             
             traffic.put(airport.getCodeIATA(), airportTraffic);
         }
@@ -149,9 +160,9 @@ public class AdminDashboardService {
     /**
      * Statut des centres radar (charge, nombre d'avions suivis)
      */
-    private List<Map<String, Object>> getRadarCentersStatus() {
+    private List<Map<String, Object>> getRadarCentersStatus(Map<Long, Map<AircraftStatus, Long>> aircraftByAirport) {
         try {
-            return radarCenterRepository.findAll().stream()
+            return radarCenterRepository.findAllWithAirport().stream()
                 .map(radar -> {
                     try {
                         Map<String, Object> status = new HashMap<>();
@@ -172,10 +183,7 @@ public class AdminDashboardService {
                         
                         // Calculer la charge (nombre d'avions dans le secteur)
                         if (radar.getAirport() != null) {
-                            List<Aircraft> aircraftInSector = aircraftRepository.findByAirportId(radar.getAirport().getId());
-                            int inFlight = (int) aircraftInSector.stream()
-                                .filter(a -> a.getStatus() == AircraftStatus.EN_VOL)
-                                .count();
+                            int inFlight = countAt(aircraftByAirport, radar.getAirport().getId(), AircraftStatus.EN_VOL);
                             
                             status.put("aircraftTracked", inFlight);
                             status.put("load", calculateRadarLoad(inFlight));
@@ -217,29 +225,10 @@ public class AdminDashboardService {
      * Nombre de décollages / atterrissages du jour
      */
     private Map<String, Object> getTakeoffsLandingsToday() {
-        LocalDate today = LocalDate.now();
-        LocalDateTime startOfDay = today.atStartOfDay();
-        LocalDateTime endOfDay = today.atTime(LocalTime.MAX);
-        
-        List<Flight> flightsToday = flightRepository.findAll().stream()
-            .filter(f -> {
-                if (f.getActualDeparture() != null) {
-                    return !f.getActualDeparture().isBefore(startOfDay) && 
-                           !f.getActualDeparture().isAfter(endOfDay);
-                }
-                return false;
-            })
-            .collect(Collectors.toList());
-        
-        long takeoffs = flightsToday.stream()
-            .filter(f -> f.getActualDeparture() != null)
-            .count();
-        
-        long landings = flightsToday.stream()
-            .filter(f -> f.getActualArrival() != null && 
-                        !f.getActualArrival().isBefore(startOfDay) && 
-                        !f.getActualArrival().isAfter(endOfDay))
-            .count();
+        // Fenêtres horaires tenues à jour par OperationalCounters
+        long takeoffs = operationalCounters.getTakeoffsToday();
+        // Atterrissages des vols ayant aussi décollé aujourd'hui
+        long landings = operationalCounters.getLandingsToday();
         
         Map<String, Object> result = new HashMap<>();
         result.put("takeoffs", takeoffs);
@@ -252,54 +241,31 @@ public class AdminDashboardService {
     /**
      * Retards cumulés + retards moyens par aéroport
      */
-    private Map<String, Object> getDelaysStatistics() {
+    private Map<String, Object> getDelaysStatistics(List<Airport> airports) {
         Map<String, Object> delays = new HashMap<>();
         
-        List<Flight> flights = flightRepository.findAll();
-        
+        // Une requête groupée par aéroport de départ : [airportId, vols retardés, minutes cumulées]
+        Map<Long, long[]> delaysByAirportId = new HashMap<>();
         long totalDelayMinutes = 0;
-        int delayedFlights = 0;
-        
-        for (Flight flight : flights) {
-            if (flight.getScheduledDeparture() != null && flight.getActualDeparture() != null) {
-                long delay = java.time.Duration.between(
-                    flight.getScheduledDeparture(), 
-                    flight.getActualDeparture()
-                ).toMinutes();
-                
-                if (delay > 0) {
-                    totalDelayMinutes += delay;
-                    delayedFlights++;
-                }
-            }
+        long delayedFlights = 0;
+        for (Object[] row : flightRepository.sumDelaysByDepartureAirport()) {
+            long airportDelayedFlights = ((Number) row[1]).longValue();
+            long airportDelay = ((Number) row[2]).longValue();
+            delaysByAirportId.put(((Number) row[0]).longValue(), new long[] {airportDelayedFlights, airportDelay});
+            totalDelayMinutes += airportDelay;
+            delayedFlights += airportDelayedFlights;
         }
         
         delays.put("totalDelayMinutes", totalDelayMinutes);
         delays.put("delayedFlights", delayedFlights);
         delays.put("averageDelay", delayedFlights > 0 ? totalDelayMinutes / delayedFlights : 0);
         
-        // Retards par aéroport
+        // Retards par aéroport (aéroports sans retard inclus)
         Map<String, Object> delaysByAirport = new HashMap<>();
-        List<Airport> airports = airportRepository.findAll();
-        
         for (Airport airport : airports) {
-            List<Flight> airportFlights = flightRepository.findByDepartureAirportId(airport.getId());
-            long airportDelay = 0;
-            int airportDelayedFlights = 0;
-            
-            for (Flight flight : airportFlights) {
-                if (flight.getScheduledDeparture() != null && flight.getActualDeparture() != null) {
-                    long delay = java.time.Duration.between(
-                        flight.getScheduledDeparture(), 
-                        flight.getActualDeparture()
-                    ).toMinutes();
-                    
-                    if (delay > 0) {
-                        airportDelay += delay;
-                        airportDelayedFlights++;
-                    }
-                }
-            }
+            long[] airportDelays = delaysByAirportId.getOrDefault(airport.getId(), new long[2]);
+            long airportDelayedFlights = airportDelays[0];
+            long airportDelay = airportDelays[1];
             
             Map<String, Object> airportDelayStats = new HashMap<>();
             airportDelayStats.put("totalDelay", airportDelay);
@@ -315,10 +281,10 @@ public class AdminDashboardService {
     }
     
     /**
-     * Alertes météo globales
+     * Alertes météo globales (état courant de chaque aéroport)
      */
     private List<Map<String, Object>> getWeatherAlerts() {
-        return weatherDataRepository.findByAlertTrue().stream()
+        return latestWeatherCache.getActiveAlerts().stream()
             .map(weather -> {
                 Map<String, Object> alert = new HashMap<>();
                 alert.put("airportId", weather.getAirport().getId());
@@ -339,20 +305,20 @@ public class AdminDashboardService {
         // Conflits détectés
         // Note: conflictDetectionService.detectConflicts() retourne void
         // On doit utiliser une autre méthode ou calculer manuellement
-        List<Aircraft> aircraftInFlight = aircraftRepository.findByStatus(AircraftStatus.EN_VOL);
+        // Positions seules : [positionLat, positionLon]
+        List<Object[]> aircraftInFlight = aircraftRepository.findPositionsByStatus(AircraftStatus.EN_VOL);
         int potentialConflicts = 0;
         
         for (int i = 0; i < aircraftInFlight.size(); i++) {
             for (int j = i + 1; j < aircraftInFlight.size(); j++) {
-                Aircraft a1 = aircraftInFlight.get(i);
-                Aircraft a2 = aircraftInFlight.get(j);
+                Object[] a1 = aircraftInFlight.get(i);
+                Object[] a2 = aircraftInFlight.get(j);
                 
-                if (a1.getPositionLat() != null && a1.getPositionLon() != null &&
-                    a2.getPositionLat() != null && a2.getPositionLon() != null) {
+                if (a1[0] != null && a1[1] != null && a2[0] != null && a2[1] != null) {
                     
                     double distance = calculateDistance(
-                        a1.getPositionLat(), a1.getPositionLon(),
-                        a2.getPositionLat(), a2.getPositionLon()
+                        (Double) a1[0], (Double) a1[1],
+                        (Double) a2[0], (Double) a2[1]
                     );
                     
                     if (distance < 5.5) { // Distance minimale de sécurité
@@ -376,8 +342,8 @@ public class AdminDashboardService {
         Map<String, Object> performance = new HashMap<>();
         
         // Métriques simplifiées
-        int totalAircraft = aircraftRepository.findAll().size();
-        int inFlight = aircraftRepository.findByStatus(AircraftStatus.EN_VOL).size();
+        int totalAircraft = (int) operationalCounters.getTotalAircraft();
+        int inFlight = (int) operationalCounters.getAircraftCount(AircraftStatus.EN_VOL);
         
         performance.put("totalAircraft", totalAircraft);
         performance.put("aircraftInFlight", inFlight);
@@ -393,17 +359,10 @@ public class AdminDashboardService {
         Map<String, Object> inefficiency = new HashMap<>();
         
         // Calcul simplifié : comparer trajectoire prévue vs réelle
-        List<Aircraft> aircraft = aircraftRepository.findAll();
+        // TODO: Parser JSON et calculer déviation
+        // Pour l'instant, on compte les avions ayant les deux trajectoires
         double totalDeviation = 0;
-        int aircraftWithDeviation = 0;
-        
-        for (Aircraft ac : aircraft) {
-            if (ac.getTrajectoirePrévue() != null && ac.getTrajectoireRéelle() != null) {
-                // TODO: Parser JSON et calculer déviation
-                // Pour l'instant, on retourne des valeurs par défaut
-                aircraftWithDeviation++;
-            }
-        }
+        int aircraftWithDeviation = (int) aircraftRepository.countWithBothTrajectories();
         
         inefficiency.put("aircraftWithDeviation", aircraftWithDeviation);
         inefficiency.put("averageDeviation", aircraftWithDeviation > 0 ? totalDeviation / aircraftWithDeviation : 0);
@@ -422,18 +381,10 @@ public class AdminDashboardService {
         LocalDateTime in60Min = now.plusMinutes(60);
         
         // Vols prévus dans les 15 prochaines minutes
-        long flightsIn15Min = flightRepository.findAll().stream()
-            .filter(f -> f.getScheduledDeparture() != null &&
-                        f.getScheduledDeparture().isAfter(now) &&
-                        f.getScheduledDeparture().isBefore(in15Min))
-            .count();
+        long flightsIn15Min = flightRepository.countScheduledBetween(now, in15Min);
         
         // Vols prévus dans les 60 prochaines minutes
-        long flightsIn60Min = flightRepository.findAll().stream()
-            .filter(f -> f.getScheduledDeparture() != null &&
-                        f.getScheduledDeparture().isAfter(now) &&
-                        f.getScheduledDeparture().isBefore(in60Min))
-            .count();
+        long flightsIn60Min = flightRepository.countScheduledBetween(now, in60Min);
         
         load.put("next15Minutes", flightsIn15Min);
         load.put("next60Minutes", flightsIn60Min);
@@ -444,13 +395,12 @@ public class AdminDashboardService {
     /**
      * Capacité aéroports
      */
-    private Map<String, Object> getAirportCapacity() {
+    private Map<String, Object> getAirportCapacity(List<Airport> airports,
+                                                   Map<Long, Map<AircraftStatus, Long>> aircraftByAirport) {
         Map<String, Object> capacity = new HashMap<>();
         
-        List<Airport> airports = airportRepository.findAll();
         for (Airport airport : airports) {
-            List<Aircraft> aircraftAtAirport = aircraftRepository.findByAirportId(airport.getId());
-            int currentLoad = aircraftAtAirport.size();
+            int currentLoad = totalAt(aircraftByAirport, airport.getId());
             
             // Capacité estimée : 20 avions par aéroport
             int maxCapacity = 20;
@@ -474,12 +424,7 @@ public class AdminDashboardService {
         Map<String, Object> dman = new HashMap<>();
         
         LocalDateTime now = LocalDateTime.now();
-        List<Flight> upcomingFlights = flightRepository.findAll().stream()
-            .filter(f -> f.getScheduledDeparture() != null &&
-                        f.getScheduledDeparture().isAfter(now))
-            .sorted((f1, f2) -> f1.getScheduledDeparture().compareTo(f2.getScheduledDeparture()))
-            .limit(10)
-            .collect(Collectors.toList());
+        List<Flight> upcomingFlights = flightRepository.findTop10ByScheduledDepartureAfterOrderByScheduledDepartureAsc(now);
         
         List<Map<String, Object>> ttotList = upcomingFlights.stream()
             .map(f -> {
@@ -554,31 +499,23 @@ public class AdminDashboardService {
                 start = now.minusDays(1);
         }
         
-        List<Flight> flightsInPeriod = flightRepository.findAll().stream()
-            .filter(f -> f.getScheduledDeparture() != null && 
-                       f.getScheduledDeparture().isAfter(start) &&
-                       f.getScheduledDeparture().isBefore(now))
-            .collect(Collectors.toList());
-        
-        stats.put("totalFlights", flightsInPeriod.size());
+        stats.put("totalFlights", flightRepository.countScheduledBetween(start, now));
         stats.put("period", period);
         stats.put("startDate", start);
         stats.put("endDate", now);
         
         // Répartition par statut
-        Map<String, Long> byStatus = flightsInPeriod.stream()
-            .collect(Collectors.groupingBy(
-                f -> f.getFlightStatus() != null ? f.getFlightStatus().toString() : "UNKNOWN",
-                Collectors.counting()
-            ));
+        Map<String, Long> byStatus = new HashMap<>();
+        for (Object[] row : flightRepository.countByStatusScheduledBetween(start, now)) {
+            byStatus.put(row[0] != null ? row[0].toString() : "UNKNOWN", ((Number) row[1]).longValue());
+        }
         stats.put("byStatus", byStatus);
         
-        // Répartition par jour (pour graphique)
-        Map<String, Long> byDay = flightsInPeriod.stream()
-            .collect(Collectors.groupingBy(
-                f -> f.getScheduledDeparture().toLocalDate().toString(),
-                Collectors.counting()
-            ));
+        // Répartition par jour (pour graphique), dans l'ordre chronologique
+        Map<String, Long> byDay = new LinkedHashMap<>();
+        for (Object[] row : flightRepository.countByDayScheduledBetween(start, now)) {
+            byDay.put(row[0].toString(), ((Number) row[1]).longValue());
+        }
         stats.put("byDay", byDay);
         
         return stats;
@@ -590,35 +527,22 @@ public class AdminDashboardService {
     public Map<String, Object> getPerformanceKPIs() {
         Map<String, Object> kpis = new HashMap<>();
         
-        List<Flight> allFlights = flightRepository.findAll();
-        long totalFlights = allFlights.size();
+        // Compteurs tenus à jour par événements (OperationalCounters) : aucune requête
+        long totalFlights = operationalCounters.getTotalFlights();
         
         // Retards
-        Map<String, Object> delays = getDelaysStatistics();
-        kpis.put("totalDelays", delays.get("totalDelayMinutes"));
-        kpis.put("delayedFlights", delays.get("delayedFlights"));
-        kpis.put("averageDelay", delays.get("averageDelay"));
+        long totalDelayMinutes = operationalCounters.getTotalDelayMinutes();
+        long delayedFlights = operationalCounters.getDelayedFlights();
+        kpis.put("totalDelays", totalDelayMinutes);
+        kpis.put("delayedFlights", delayedFlights);
+        kpis.put("averageDelay", delayedFlights > 0 ? totalDelayMinutes / delayedFlights : 0);
         
         // Vols annulés
-        long cancelledFlights = allFlights.stream()
-            .filter(f -> f.getFlightStatus() != null && 
-                        f.getFlightStatus().toString().equals("ANNULE"))
-            .count();
+        long cancelledFlights = operationalCounters.getFlightCount(FlightStatus.ANNULE);
         kpis.put("cancelledFlights", cancelledFlights);
         
-        // Vols à l'heure
-        long onTimeFlights = allFlights.stream()
-            .filter(f -> {
-                if (f.getScheduledDeparture() != null && f.getActualDeparture() != null) {
-                    long delay = java.time.Duration.between(
-                        f.getScheduledDeparture(), 
-                        f.getActualDeparture()
-                    ).toMinutes();
-                    return delay <= 0 || delay <= 15; // Tolérance de 15 minutes
-                }
-                return false;
-            })
-            .count();
+        // Vols à l'heure (tolérance de 15 minutes)
+        long onTimeFlights = operationalCounters.getOnTimeDepartures();
         
         double onTimePercentage = totalFlights > 0 ? (onTimeFlights * 100.0) / totalFlights : 0;
         kpis.put("onTimeFlights", onTimeFlights);
@@ -634,7 +558,21 @@ public class AdminDashboardService {
      * C) Liste complète des utilisateurs avec statut
      */
     public List<Map<String, Object>> getAllUsersWithStatus() {
-        return userRepository.findAll().stream()
+        List<User> users = userRepository.findAll();
+        
+        // Pilotes liés chargés en un lot : [id, firstName, lastName, license, assignedAircraftId]
+        Set<Long> pilotIds = users.stream()
+            .filter(user -> user.getRole() == Role.PILOTE && user.getPilotId() != null)
+            .map(User::getPilotId)
+            .collect(Collectors.toSet());
+        Map<Long, Object[]> pilotsById = new HashMap<>();
+        if (!pilotIds.isEmpty()) {
+            for (Object[] pilot : pilotRepository.findSummariesByIdIn(pilotIds)) {
+                pilotsById.put(((Number) pilot[0]).longValue(), pilot);
+            }
+        }
+        
+        return users.stream()
             .map(user -> {
                 Map<String, Object> userData = new HashMap<>();
                 userData.put("id", user.getId());
@@ -643,13 +581,14 @@ public class AdminDashboardService {
                 userData.put("airportId", user.getAirportId());
                 userData.put("pilotId", user.getPilotId());
                 
+                Object[] pilot = user.getRole() == Role.PILOTE && user.getPilotId() != null
+                    ? pilotsById.get(user.getPilotId()) : null;
+                
                 // Déterminer le statut actif/inactif
                 // Un utilisateur est actif s'il a un avion assigné (PILOTE) ou un aéroport (CENTRE_RADAR)
                 boolean isActive = false;
                 if (user.getRole() == Role.PILOTE && user.getPilotId() != null) {
-                    isActive = pilotRepository.findById(user.getPilotId())
-                        .map(p -> p.getAssignedAircraftId() != null)
-                        .orElse(false);
+                    isActive = pilot != null && pilot[4] != null;
                 } else if (user.getRole() == Role.CENTRE_RADAR && user.getAirportId() != null) {
                     isActive = true; // Les centres radar sont toujours actifs s'ils ont un aéroport
                 } else if (user.getRole() == Role.ADMIN) {
@@ -659,11 +598,9 @@ public class AdminDashboardService {
                 userData.put("isActive", isActive);
                 
                 // Informations supplémentaires selon le rôle
-                if (user.getRole() == Role.PILOTE && user.getPilotId() != null) {
-                    pilotRepository.findById(user.getPilotId()).ifPresent(pilot -> {
-                        userData.put("pilotName", pilot.getFirstName() + " " + pilot.getLastName());
-                        userData.put("license", pilot.getLicense());
-                    });
+                if (pilot != null) {
+                    userData.put("pilotName", pilot[1] + " " + pilot[2]);
+                    userData.put("license", pilot[3]);
                 }
                 
                 return userData;
@@ -675,7 +612,8 @@ public class AdminDashboardService {
      * D) Statut détaillé des systèmes radar
      */
     public List<Map<String, Object>> getRadarSystemsStatus() {
-        return radarCenterRepository.findAll().stream()
+        Map<Long, Map<AircraftStatus, Long>> aircraftByAirport = countAircraftByAirport();
+        return radarCenterRepository.findAllWithAirport().stream()
             .map(radar -> {
                 Map<String, Object> status = new HashMap<>();
                 status.put("id", radar.getId());
@@ -689,10 +627,7 @@ public class AdminDashboardService {
                     status.put("airportCode", radar.getAirport().getCodeIATA());
                     
                     // Calculer la charge et le statut
-                    List<Aircraft> aircraftInSector = aircraftRepository.findByAirportId(radar.getAirport().getId());
-                    int inFlight = (int) aircraftInSector.stream()
-                        .filter(a -> a.getStatus() == AircraftStatus.EN_VOL)
-                        .count();
+                    int inFlight = countAt(aircraftByAirport, radar.getAirport().getId(), AircraftStatus.EN_VOL);
                     
                     int load = calculateRadarLoad(inFlight);
                     status.put("aircraftTracked", inFlight);
@@ -727,8 +662,9 @@ public class AdminDashboardService {
     public Map<String, Object> getGlobalWeather() {
         Map<String, Object> weather = new HashMap<>();
         
-        List<WeatherData> allWeather = weatherDataRepository.findAll();
-        List<WeatherData> alerts = weatherDataRepository.findByAlertTrue();
+        // Dernier relevé de chaque station et alertes en cours (pas tout l'historique weather_data)
+        Collection<WeatherData> allWeather = latestWeatherCache.getAll();
+        List<WeatherData> alerts = latestWeatherCache.getActiveAlerts();
         
         weather.put("totalStations", allWeather.size());
         weather.put("activeAlerts", alerts.size());
@@ -788,14 +724,20 @@ public class AdminDashboardService {
     
     /**
      * F) Journal d'activité avec filtres
+     * Pagination par curseur : cursor = nextCursor de la page précédente, la lecture reprend après
+     * cette ligne (coût indépendant de la profondeur). Sans curseur, page est un numéro de page
+     * (OFFSET, conservé pour les anciens clients) et le total est calculé ; avec un curseur, il ne
+     * l'est pas (le client garde celui de la première page).
      */
     public Map<String, Object> getActivityLogs(Long userId, String activityType, String severity, 
                                                 LocalDateTime startDate, LocalDateTime endDate, 
-                                                int page, int size) {
+                                                String cursor, int page, int size) {
+        if (page < 0 || size < 1) {
+            throw new IllegalArgumentException("Pagination invalide : page=" + page + ", size=" + size);
+        }
         Map<String, Object> result = new HashMap<>();
-        
-        org.springframework.data.domain.Pageable pageable = 
-            org.springframework.data.domain.PageRequest.of(page, size);
+        ActivityLogJdbcRepository.Cursor after = cursor != null && !cursor.isEmpty()
+            ? ActivityLogJdbcRepository.Cursor.parse(cursor) : null;
         
         ActivityLog.ActivityType typeEnum = null;
         if (activityType != null && !activityType.isEmpty()) {
@@ -822,10 +764,15 @@ public class AdminDashboardService {
             endDate = LocalDateTime.now();
         }
         
-        org.springframework.data.domain.Page<ActivityLog> logsPage = 
-            activityLogRepository.findWithFilters(userId, typeEnum, severityEnum, startDate, endDate, pageable);
+        ActivityLogJdbcRepository.Filter filter =
+            new ActivityLogJdbcRepository.Filter(userId, typeEnum, severityEnum, startDate, endDate);
+        long offset = after == null ? (long) page * size : 0L;
+        // Une ligne de plus que la page : indique s'il existe une page suivante
+        List<ActivityLog> rows = activityLogJdbcRepository.findPage(filter, after, offset, size + 1);
+        boolean hasMore = rows.size() > size;
+        List<ActivityLog> pageRows = hasMore ? rows.subList(0, size) : rows;
         
-        List<Map<String, Object>> logs = logsPage.getContent().stream()
+        List<Map<String, Object>> logs = pageRows.stream()
             .map(log -> {
                 Map<String, Object> logData = new HashMap<>();
                 logData.put("id", log.getId());
@@ -843,10 +790,16 @@ public class AdminDashboardService {
             .collect(Collectors.toList());
         
         result.put("logs", logs);
-        result.put("totalElements", logsPage.getTotalElements());
-        result.put("totalPages", logsPage.getTotalPages());
-        result.put("currentPage", logsPage.getNumber());
-        result.put("pageSize", logsPage.getSize());
+        result.put("hasMore", hasMore);
+        result.put("nextCursor", hasMore
+            ? ActivityLogJdbcRepository.Cursor.of(pageRows.get(pageRows.size() - 1)).toString() : null);
+        if (after == null) {
+            long totalElements = activityLogJdbcRepository.count(filter);
+            result.put("totalElements", totalElements);
+            result.put("totalPages", (totalElements + size - 1) / size);
+        }
+        result.put("currentPage", page);
+        result.put("pageSize", size);
         
         return result;
     }
@@ -861,7 +814,7 @@ public class AdminDashboardService {
         List<Map<String, Object>> weatherAlerts = getWeatherAlerts();
         
         // Alertes radar (problèmes de charge)
-        List<Map<String, Object>> radarAlerts = getRadarCentersStatus().stream()
+        List<Map<String, Object>> radarAlerts = getRadarCentersStatus(countAircraftByAirport()).stream()
             .filter(radar -> {
                 Integer load = (Integer) radar.get("load");
                 return load != null && load >= 80;
@@ -984,11 +937,7 @@ public class AdminDashboardService {
             java.time.Duration.between(start, now)
         );
         long currentFlights = ((Number) trafficStats.get("totalFlights")).longValue();
-        long previousFlights = flightRepository.findAll().stream()
-            .filter(f -> f.getScheduledDeparture() != null && 
-                       f.getScheduledDeparture().isAfter(previousStart) &&
-                       f.getScheduledDeparture().isBefore(start))
-            .count();
+        long previousFlights = flightRepository.countScheduledBetween(previousStart, start);
         
         double trafficChange = previousFlights > 0 ? 
             ((currentFlights - previousFlights) * 100.0) / previousFlights : 0;
@@ -0,0 +1,205 @@
+package com.flightradar.service;
+
+import com.flightradar.model.Aircraft;
+import com.flightradar.model.dto.AircraftPositionUpdate;
+import com.flightradar.repository.AircraftPositionJdbcRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Positions des avions en mémoire (source de vérité) avec écriture différée en base
+ * - Les mises à jour de position ne touchent plus l'entité Aircraft (ni ses relations EAGER)
+ * - Plusieurs mises à jour d'un même avion entre deux écritures sont fusionnées (dernière valeur)
+ * - Le flusher écrit uniquement les colonnes de position en lots JDBC,
+ *   toutes les flightradar.positions.flush-interval-ms millisecondes
+ * - Les lectures d'avions superposent la dernière position connue (applyTo)
+ */
+@Service
+@Slf4j
+public class AircraftPositionStore {
+
+    @Autowired
+    private AircraftPositionJdbcRepository aircraftPositionJdbcRepository;
+
+    @Value("${flightradar.positions.flush-interval-ms:5000}")
+    private long flushIntervalMs;
+
+    // ID avion -> dernière position connue
+    private final Map<Long, AircraftPositionUpdate> positions = new ConcurrentHashMap<>();
+
+    // Avions dont la position n'est pas encore écrite en base
+    private final Set<Long> dirtyAircraft = ConcurrentHashMap.newKeySet();
+
+    // Avions absents de la base lors de la dernière écriture (à récupérer par les simulations)
+    private final Set<Long> missingAircraft = ConcurrentHashMap.newKeySet();
+
+    // Statistiques
+    private final AtomicLong recordedUpdates = new AtomicLong();
+    private final AtomicLong flushedRows = new AtomicLong();
+    private final AtomicLong jdbcBatches = new AtomicLong();
+    private final AtomicLong flushCount = new AtomicLong();
+    private volatile int lastFlushRows;
+    private volatile double lastFlushMs;
+
+    /**
+     * Enregistre la nouvelle position d'un avion (écrite en base au prochain flush)
+     */
+    public void record(AircraftPositionUpdate update) {
+        positions.put(update.getAircraftId(), update);
+        dirtyAircraft.add(update.getAircraftId());
+        recordedUpdates.incrementAndGet();
+    }
+
+    public void recordAll(List<AircraftPositionUpdate> updates) {
+        for (AircraftPositionUpdate update : updates) {
+            record(update);
+        }
+    }
+
+    /**
+     * Dernière position connue d'un avion
+     */
+    public Optional<AircraftPositionUpdate> get(Long aircraftId) {
+        return Optional.ofNullable(positions.get(aircraftId));
+    }
+
+    /**
+     * Remplace la position de l'entité par la dernière position connue (si elle existe)
+     */
+    public Aircraft applyTo(Aircraft aircraft) {
+        if (aircraft == null || aircraft.getId() == null) {
+            return aircraft;
+        }
+        AircraftPositionUpdate position = positions.get(aircraft.getId());
+        if (position != null) {
+            aircraft.setPositionLat(position.getLatitude());
+            aircraft.setPositionLon(position.getLongitude());
+            aircraft.setAltitude(position.getAltitude());
+            aircraft.setSpeed(position.getSpeed());
+            aircraft.setHeading(position.getHeading());
+            aircraft.setVerticalSpeed(position.getVerticalSpeed());
+            if (position.getAirSpeed() != null) {
+                aircraft.setAirSpeed(position.getAirSpeed());
+            }
+            aircraft.setLastUpdate(position.getTimestamp());
+        }
+        return aircraft;
+    }
+
+    public List<Aircraft> applyTo(List<Aircraft> aircraftList) {
+        for (Aircraft aircraft : aircraftList) {
+            applyTo(aircraft);
+        }
+        return aircraftList;
+    }
+
+    /**
+     * Oublie la position en mémoire d'un avion
+     * À appeler avant d'écrire la position directement via l'entité (décollage, atterrissage) :
+     * attend la fin d'un flush en cours, qui pourrait sinon écraser l'entité avec l'ancienne position
+     */
+    public synchronized void evict(Long aircraftId) {
+        dirtyAircraft.remove(aircraftId);
+        positions.remove(aircraftId);
+    }
+
+    /**
+     * Avions dont la ligne n'existait plus lors des dernières écritures (liste vidée à chaque appel)
+     */
+    public List<Long> drainMissingAircraft() {
+        List<Long> drained = new ArrayList<>();
+        for (Iterator<Long> it = missingAircraft.iterator(); it.hasNext(); ) {
+            drained.add(it.next());
+            it.remove();
+        }
+        return drained;
+    }
+
+    /**
+     * Écrit en base toutes les positions modifiées depuis le dernier flush
+     */
+    @Scheduled(fixedDelayString = "${flightradar.positions.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        long start = System.nanoTime();
+        List<AircraftPositionUpdate> pending = new ArrayList<>(dirtyAircraft.size());
+        for (Iterator<Long> it = dirtyAircraft.iterator(); it.hasNext(); ) {
+            Long aircraftId = it.next();
+            // Retirer avant de lire : une mise à jour concurrente remettra l'avion dans l'ensemble
+            it.remove();
+            AircraftPositionUpdate position = positions.get(aircraftId);
+            if (position != null) {
+                pending.add(position);
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<Long> missing = aircraftPositionJdbcRepository.batchUpdatePositions(pending);
+            for (Long aircraftId : missing) {
+                log.warn("Avion {} absent de la base, position abandonnée", aircraftId);
+                positions.remove(aircraftId);
+                missingAircraft.add(aircraftId);
+            }
+            flushedRows.addAndGet(pending.size());
+            jdbcBatches.addAndGet(AircraftPositionJdbcRepository.batchCount(pending.size()));
+            flushCount.incrementAndGet();
+            lastFlushRows = pending.size();
+            lastFlushMs = (System.nanoTime() - start) / 1_000_000.0;
+        } catch (Exception e) {
+            // Réessayer au prochain flush avec la dernière position connue
+            for (AircraftPositionUpdate position : pending) {
+                dirtyAircraft.add(position.getAircraftId());
+            }
+            log.error("Erreur lors de l'écriture des positions ({} avions): {}", pending.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Écrit les positions restantes à l'arrêt de l'application
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    public long getRecordedUpdateCount() {
+        return recordedUpdates.get();
+    }
+
+    public long getJdbcBatchCount() {
+        return jdbcBatches.get();
+    }
+
+    /**
+     * Allers-retours base économisés : sans le store, chaque mise à jour déjà traitée
+     * (écrite ou fusionnée) coûtait une requête ; avec le store, un aller-retour par lot JDBC
+     */
+    public long getRoundTripsSaved() {
+        return Math.max(0, recordedUpdates.get() - dirtyAircraft.size() - jdbcBatches.get());
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("flushIntervalMs", flushIntervalMs);
+        stats.put("trackedAircraft", positions.size());
+        stats.put("pendingAircraft", dirtyAircraft.size());
+        stats.put("recordedUpdates", recordedUpdates.get());
+        stats.put("flushedRows", flushedRows.get());
+        stats.put("jdbcBatches", jdbcBatches.get());
+        stats.put("flushes", flushCount.get());
+        stats.put("lastFlushRows", lastFlushRows);
+        stats.put("lastFlushMs", lastFlushMs);
+        stats.put("roundTripsSaved", getRoundTripsSaved());
+        return stats;
+    }
+}
@@ -0,0 +1,379 @@
+package com.flightradar.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Registre des avions (icao24 -> type, immatriculation, exploitant) pour enrichir les données OpenSky
+ * Chargé une fois au démarrage depuis un CSV local (format aircraftDatabase.csv d'OpenSky :
+ * colonnes icao24, registration, typecode, model, operator... ; guillemets " ou ').
+ * Stockage compact pour quelques centaines de milliers de lignes :
+ * - Table de hachage à adressage ouvert sur l'adresse 24-bit (int), sans objet par avion
+ * - Type, modèle et exploitant encodés par dictionnaire (int -> String partagée)
+ * - Immatriculations ASCII concaténées dans un seul byte[]
+ * Recherche O(1) sans allocation (find, getTypeCode, getModel, getOperator) ;
+ * seule getRegistration construit une String.
+ */
+@Service
+@Slf4j
+public class AircraftRegistry {
+
+    @Value("${flightradar.aircraft-registry.location:file:data/aircraftDatabase.csv}")
+    private Resource location;
+
+    private volatile Table table = Table.EMPTY;
+    private volatile long loadTimeMs;
+    private volatile long heapDeltaBytes;
+    private volatile String source = "aucun";
+
+    @PostConstruct
+    public void init() {
+        if (location == null || !location.exists()) {
+            log.warn("Registre des avions introuvable ({}) : modèles OpenSky non enrichis", location);
+            return;
+        }
+        try (Reader reader = new InputStreamReader(location.getInputStream(), StandardCharsets.UTF_8)) {
+            Runtime runtime = Runtime.getRuntime();
+            long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+            long start = System.nanoTime();
+            load(reader);
+            loadTimeMs = (System.nanoTime() - start) / 1_000_000;
+            heapDeltaBytes = runtime.totalMemory() - runtime.freeMemory() - heapBefore;
+            source = location.getDescription();
+            log.info("Registre des avions chargé : {} avions en {} ms, ~{} Ko", table.size, loadTimeMs,
+                table.estimatedBytes() / 1024);
+        } catch (IOException | RuntimeException e) {
+            log.error("Chargement du registre des avions impossible ({}): {}", location, e.getMessage());
+        }
+    }
+
+    /**
+     * Construit la table depuis un CSV avec ligne d'en-tête, puis la publie d'un bloc
+     */
+    void load(Reader csv) throws IOException {
+        BufferedReader reader = new BufferedReader(csv, 1 << 16);
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            throw new IOException("CSV vide");
+        }
+        List<String> header = new ArrayList<>();
+        parseLine(headerLine, header);
+        int icao24Column = column(header, "icao24");
+        if (icao24Column < 0) {
+            throw new IOException("Colonne icao24 absente de l'en-tête");
+        }
+        int registrationColumn = column(header, "registration");
+        int typeCodeColumn = column(header, "typecode");
+        int modelColumn = column(header, "model");
+        int operatorColumn = column(header, "operator");
+        int operatorIcaoColumn = column(header, "operatoricao");
+
+        Table.Builder builder = new Table.Builder();
+        List<String> fields = new ArrayList<>(header.size());
+        String line;
+        while ((line = reader.readLine()) != null) {
+            parseLine(line, fields);
+            int icao24 = OpenSkyStreamParser.parseIcao24(field(fields, icao24Column));
+            if (icao24 < 0) {
+                continue;
+            }
+            String operator = field(fields, operatorColumn);
+            builder.add(icao24,
+                field(fields, registrationColumn),
+                field(fields, typeCodeColumn),
+                field(fields, modelColumn),
+                operator != null ? operator : field(fields, operatorIcaoColumn));
+        }
+        table = builder.build();
+    }
+
+    /**
+     * @return Indice de l'avion dans le registre, -1 si inconnu
+     */
+    public int find(int icao24) {
+        return table.find(icao24);
+    }
+
+    public int find(String icao24) {
+        int code = OpenSkyStreamParser.parseIcao24(icao24);
+        return code >= 0 ? table.find(code) : -1;
+    }
+
+    /**
+     * Type OCAO (A320, B738...), à défaut le modèle en clair ; null si inconnu
+     */
+    public String getTypeOrModel(int row) {
+        if (row < 0) {
+            return null;
+        }
+        Table current = table;
+        String type = current.types.get(current.typeIds[row]);
+        return type != null ? type : current.models.get(current.modelIds[row]);
+    }
+
+    public String getTypeCode(int row) {
+        return row >= 0 ? table.types.get(table.typeIds[row]) : null;
+    }
+
+    public String getModel(int row) {
+        return row >= 0 ? table.models.get(table.modelIds[row]) : null;
+    }
+
+    public String getOperator(int row) {
+        return row >= 0 ? table.operators.get(table.operatorIds[row]) : null;
+    }
+
+    public String getRegistration(int row) {
+        return row >= 0 ? table.registration(row) : null;
+    }
+
+    public int size() {
+        return table.size;
+    }
+
+    public Map<String, Object> getStats() {
+        Table current = table;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("source", source);
+        stats.put("aircraft", current.size);
+        stats.put("distinctTypes", current.types.size());
+        stats.put("distinctModels", current.models.size());
+        stats.put("distinctOperators", current.operators.size());
+        stats.put("hashSlots", current.keys.length);
+        stats.put("estimatedBytes", current.estimatedBytes());
+        stats.put("heapDeltaBytes", heapDeltaBytes);
+        stats.put("loadTimeMs", loadTimeMs);
+        return stats;
+    }
+
+    private static int column(List<String> header, String name) {
+        for (int i = 0; i < header.size(); i++) {
+            if (name.equalsIgnoreCase(header.get(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String field(List<String> fields, int column) {
+        if (column < 0 || column >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(column);
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Découpe une ligne CSV (séparateur virgule, champs entre " ou ' ; guillemet doublé = littéral)
+     */
+    static void parseLine(String line, List<String> fields) {
+        fields.clear();
+        StringBuilder current = new StringBuilder();
+        char quote = 0;
+        boolean fieldStart = true;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == quote) {
+                        current.append(c);
+                        i++;
+                    } else {
+                        quote = 0;
+                    }
+                } else {
+                    current.append(c);
+                }
+            } else if (c == ',') {
+                fields.add(current.toString().trim());
+                current.setLength(0);
+                fieldStart = true;
+                continue;
+            } else if (fieldStart && (c == '"' || c == '\'')) {
+                quote = c;
+            } else {
+                current.append(c);
+            }
+            fieldStart = false;
+        }
+        fields.add(current.toString().trim());
+    }
+
+    /**
+     * Données du registre, figées après construction
+     */
+    static final class Table {
+
+        static final Table EMPTY = new Builder().build();
+
+        private final int size;
+        // Adressage ouvert (sondage linéaire) : clé icao24 (-1 = libre) -> ligne
+        private final int[] keys;
+        private final int[] rows;
+        private final int[] typeIds;
+        private final int[] modelIds;
+        private final int[] operatorIds;
+        private final StringDictionary types;
+        private final StringDictionary models;
+        private final StringDictionary operators;
+        // Immatriculations ASCII concaténées, ligne i = [offsets[i], offsets[i + 1])
+        private final byte[] registrations;
+        private final int[] registrationOffsets;
+
+        private Table(Builder builder) {
+            this.size = builder.size;
+            this.typeIds = Arrays.copyOf(builder.typeIds, size);
+            this.modelIds = Arrays.copyOf(builder.modelIds, size);
+            this.operatorIds = Arrays.copyOf(builder.operatorIds, size);
+            this.types = builder.types;
+            this.models = builder.models;
+            this.operators = builder.operators;
+            this.registrations = Arrays.copyOf(builder.registrations, builder.registrationLength);
+            this.registrationOffsets = Arrays.copyOf(builder.registrationOffsets, size + 1);
+
+            // Taux de remplissage <= 50 %
+            int capacity = Integer.highestOneBit(Math.max(2, size) * 2 - 1) << 1;
+            keys = new int[capacity];
+            rows = new int[capacity];
+            Arrays.fill(keys, -1);
+            int mask = capacity - 1;
+            for (int row = 0; row < size; row++) {
+                int key = builder.icao24s[row];
+                int slot = slot(key, mask);
+                while (keys[slot] != -1 && keys[slot] != key) {
+                    slot = (slot + 1) & mask;
+                }
+                if (keys[slot] == -1) {
+                    // Premier enregistrement conservé en cas de doublon
+                    keys[slot] = key;
+                    rows[slot] = row;
+                }
+            }
+        }
+
+        int find(int icao24) {
+            int mask = keys.length - 1;
+            int slot = slot(icao24, mask);
+            int key;
+            while ((key = keys[slot]) != -1) {
+                if (key == icao24) {
+                    return rows[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private static int slot(int key, int mask) {
+            // Mélange multiplicatif : les adresses d'un même pays sont contiguës
+            return (key * 0x9E3779B9 >>> 7) & mask;
+        }
+
+        String registration(int row) {
+            int start = registrationOffsets[row];
+            int end = registrationOffsets[row + 1];
+            return start == end ? null : new String(registrations, start, end - start, StandardCharsets.ISO_8859_1);
+        }
+
+        long estimatedBytes() {
+            long arrays = 16L * 7 + 4L * (keys.length + rows.length + typeIds.length + modelIds.length
+                + operatorIds.length + registrationOffsets.length) + registrations.length;
+            return arrays + types.estimatedBytes() + models.estimatedBytes() + operators.estimatedBytes();
+        }
+
+        /**
+         * Accumulation des lignes pendant la lecture du CSV
+         */
+        static final class Builder {
+            private int size;
+            private int[] icao24s = new int[1024];
+            private int[] typeIds = new int[1024];
+            private int[] modelIds = new int[1024];
+            private int[] operatorIds = new int[1024];
+            private int[] registrationOffsets = new int[1025];
+            private byte[] registrations = new byte[8192];
+            private int registrationLength;
+            private final StringDictionary types = new StringDictionary();
+            private final StringDictionary models = new StringDictionary();
+            private final StringDictionary operators = new StringDictionary();
+
+            void add(int icao24, String registration, String typeCode, String model, String operator) {
+                if (size == icao24s.length) {
+                    int capacity = size * 2;
+                    icao24s = Arrays.copyOf(icao24s, capacity);
+                    typeIds = Arrays.copyOf(typeIds, capacity);
+                    modelIds = Arrays.copyOf(modelIds, capacity);
+                    operatorIds = Arrays.copyOf(operatorIds, capacity);
+                    registrationOffsets = Arrays.copyOf(registrationOffsets, capacity + 1);
+                }
+                icao24s[size] = icao24;
+                typeIds[size] = types.id(typeCode);
+                modelIds[size] = models.id(model);
+                operatorIds[size] = operators.id(operator);
+                if (registration != null) {
+                    int length = registration.length();
+                    if (registrationLength + length > registrations.length) {
+                        registrations = Arrays.copyOf(registrations, Math.max(registrations.length * 2, registrationLength + length));
+                    }
+                    for (int i = 0; i < length; i++) {
+                        char c = registration.charAt(i);
+                        registrations[registrationLength++] = (byte) (c < 256 ? c : '?');
+                    }
+                }
+                registrationOffsets[++size] = registrationLength;
+            }
+
+            Table build() {
+                return new Table(this);
+            }
+        }
+    }
+
+    /**
+     * Dictionnaire de chaînes : identifiant 0 = absent
+     */
+    static final class StringDictionary {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> values = new ArrayList<>(List.of(""));
+
+        int id(String value) {
+            if (value == null) {
+                return 0;
+            }
+            Integer id = ids.get(value);
+            if (id == null) {
+                id = values.size();
+                ids.put(value, id);
+                values.add(value);
+            }
+            return id;
+        }
+
+        String get(int id) {
+            return id == 0 ? null : values.get(id);
+        }
+
+        int size() {
+            return values.size() - 1;
+        }
+
+        long estimatedBytes() {
+            // Entrée de map (~48 o) + String (~40 o + contenu)
+            long bytes = 0;
+            for (int i = 1; i < values.size(); i++) {
+                bytes += 88 + values.get(i).length();
+            }
+            return bytes;
+        }
+    }
+}
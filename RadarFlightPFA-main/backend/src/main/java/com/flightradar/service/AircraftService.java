@@ -3,19 +3,20 @@ package com.flightradar.service;
 import com.flightradar.model.Aircraft;
 import com.flightradar.model.AircraftStatus;
 import com.flightradar.model.Airport;
+import com.flightradar.model.dto.AircraftPositionUpdate;
 import com.flightradar.model.dto.LiveAircraft;
 import com.flightradar.repository.AircraftRepository;
 import com.flightradar.repository.AirportRepository;
 import com.flightradar.repository.PilotRepository;
 import com.flightradar.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.Random;
+import java.util.Set;
 
 /**
  * Service pour gérer les avions
@@ -43,23 +44,27 @@ public class AircraftService {
     @Autowired
     private OpenSkyService openSkyService;
     
+    @Autowired
+    private AircraftPositionStore aircraftPositionStore;
+    
+    @Autowired
+    private OperationalCounters operationalCounters;
+    
     private final Random random = new Random();
     
     /**
      * Met à jour la position d'un avion
+     * La position est enregistrée dans AircraftPositionStore (écriture différée en base)
      */
     public Aircraft updatePosition(Long aircraftId, Double latitude, Double longitude,
                                   Double altitude, Double speed, Double heading) {
         Optional<Aircraft> aircraftOpt = aircraftRepository.findById(aircraftId);
         if (aircraftOpt.isPresent()) {
-            Aircraft aircraft = aircraftOpt.get();
-            aircraft.setPositionLat(latitude);
-            aircraft.setPositionLon(longitude);
-            aircraft.setAltitude(altitude);
-            aircraft.setSpeed(speed);
-            aircraft.setHeading(heading);
-            aircraft.setLastUpdate(LocalDateTime.now());
-            return aircraftRepository.save(aircraft);
+            Aircraft aircraft = aircraftPositionStore.applyTo(aircraftOpt.get());
+            aircraftPositionStore.record(new AircraftPositionUpdate(
+                aircraftId, latitude, longitude, altitude, speed, heading,
+                null, aircraft.getVerticalSpeed(), LocalDateTime.now()));
+            return aircraftPositionStore.applyTo(aircraft);
         }
         return null;
     }
@@ -69,7 +74,7 @@ public class AircraftService {
      * Combine les avions simulés avec les données OpenSky
      */
     public List<Aircraft> getAllAircraft() {
-        return aircraftRepository.findAll();
+        return aircraftPositionStore.applyTo(aircraftRepository.findAll());
     }
     
     /**
@@ -85,40 +90,44 @@ public class AircraftService {
      * Récupère un avion par ID
      */
     public Optional<Aircraft> getAircraftById(Long id) {
-        return aircraftRepository.findById(id);
+        return aircraftRepository.findById(id).map(aircraftPositionStore::applyTo);
     }
     
     /**
      * Récupère les avions d'un aéroport
      */
     public List<Aircraft> getAircraftByAirport(Long airportId) {
-        return aircraftRepository.findByAirportId(airportId);
+        return aircraftPositionStore.applyTo(aircraftRepository.findByAirportId(airportId));
     }
     
     /**
      * Récupère les avions en vol
      */
     public List<Aircraft> getAircraftInFlight() {
-        return aircraftRepository.findByStatus(AircraftStatus.EN_VOL);
+        return aircraftPositionStore.applyTo(aircraftRepository.findByStatus(AircraftStatus.EN_VOL));
     }
     
     /**
      * Simule le mouvement des avions en vol
-     * Exécuté toutes les 5 secondes
+     * Appelé par TrafficTickPipeline à chaque cycle : un seul findAll, positions prises
+     * dans AircraftPositionStore puis enregistrées dans le store (aucun save par avion)
+     * 
+     * @param elapsedSeconds Durée simulée depuis le cycle précédent
+     * @param simulatedAircraftIds Avions pilotés par FlightSimulationService (non déplacés ici)
+     * @return Tous les avions, positions à jour (snapshot du cycle)
      */
-    @Scheduled(fixedRate = 5000)
-    public void simulateAircraftMovement() {
-        List<Aircraft> aircraftList = aircraftRepository.findAll();
+    public List<Aircraft> simulateAircraftMovement(double elapsedSeconds, Set<Long> simulatedAircraftIds) {
+        List<Aircraft> aircraftList = aircraftPositionStore.applyTo(aircraftRepository.findAll());
         
         for (Aircraft aircraft : aircraftList) {
             if (aircraft.getStatus() == AircraftStatus.EN_VOL && 
+                !simulatedAircraftIds.contains(aircraft.getId()) && 
                 aircraft.getPositionLat() != null && 
                 aircraft.getPositionLon() != null) {
                 
                 // Calculer le déplacement
                 double speedKmh = aircraft.getSpeed();
-                double speedMs = speedKmh / 3.6;
-                double timeHours = 5.0 / 3600.0; // 5 secondes en heures
+                double timeHours = elapsedSeconds / 3600.0;
                 double distanceKm = speedKmh * timeHours;
                 
                 // Calculer la nouvelle position (approximation simple)
@@ -137,9 +146,14 @@ public class AircraftService {
                 aircraft.setHeading(newHeading);
                 
                 aircraft.setLastUpdate(LocalDateTime.now());
-                aircraftRepository.save(aircraft);
+                aircraftPositionStore.record(new AircraftPositionUpdate(
+                    aircraft.getId(), aircraft.getPositionLat(), aircraft.getPositionLon(),
+                    aircraft.getAltitude(), aircraft.getSpeed(), aircraft.getHeading(),
+                    null, aircraft.getVerticalSpeed(), aircraft.getLastUpdate()));
             }
         }
+        
+        return aircraftList;
     }
     
     /**
@@ -148,10 +162,13 @@ public class AircraftService {
     public Aircraft changeStatus(Long aircraftId, AircraftStatus newStatus) {
         Optional<Aircraft> aircraftOpt = aircraftRepository.findById(aircraftId);
         if (aircraftOpt.isPresent()) {
-            Aircraft aircraft = aircraftOpt.get();
+            Aircraft aircraft = aircraftPositionStore.applyTo(aircraftOpt.get());
+            AircraftStatus previousStatus = aircraft.getStatus();
             aircraft.setStatus(newStatus);
             aircraft.setLastUpdate(LocalDateTime.now());
-            return aircraftRepository.save(aircraft);
+            Aircraft saved = aircraftRepository.save(aircraft);
+            operationalCounters.aircraftStatusChanged(previousStatus, newStatus);
+            return saved;
         }
         return null;
     }
@@ -164,7 +181,7 @@ public class AircraftService {
         Optional<Airport> destinationOpt = airportRepository.findById(destinationAirportId);
         
         if (aircraftOpt.isPresent() && destinationOpt.isPresent()) {
-            Aircraft aircraft = aircraftOpt.get();
+            Aircraft aircraft = aircraftPositionStore.applyTo(aircraftOpt.get());
             Airport destination = destinationOpt.get();
             
             // Calculer la direction initiale vers la destination
@@ -174,12 +191,16 @@ public class AircraftService {
             );
             
             aircraft.setHeading(heading);
+            AircraftStatus previousStatus = aircraft.getStatus();
             aircraft.setStatus(AircraftStatus.DECOLLAGE);
             aircraft.setAltitude(100.0); // Altitude initiale
             aircraft.setSpeed(200.0); // Vitesse de décollage
             aircraft.setLastUpdate(LocalDateTime.now());
             
-            return aircraftRepository.save(aircraft);
+            aircraftPositionStore.evict(aircraftId);
+            Aircraft saved = aircraftRepository.save(aircraft);
+            operationalCounters.aircraftStatusChanged(previousStatus, AircraftStatus.DECOLLAGE);
+            return saved;
         }
         return null;
     }
@@ -202,7 +223,7 @@ public class AircraftService {
         
         // Trouver l'avion par pilotId (relation OneToOne)
         Optional<Aircraft> aircraftOpt = aircraftRepository.findByPilotId(pilotOpt.get().getId());
-        return aircraftOpt;
+        return aircraftOpt.map(aircraftPositionStore::applyTo);
     }
     
     /**
@@ -0,0 +1,159 @@
+package com.flightradar.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Index spatial par grille (cellules lat/lon + tranches d'altitude)
+ * Reconstruit à chaque cycle de détection : seuls les avions situés dans la même
+ * cellule ou dans une cellule voisine sont proposés comme candidats.
+ *
+ * La recherche des voisins est conservatrice : tout couple dont la distance
+ * Haversine est inférieure au rayon ET dont l'écart d'altitude est inférieur à
+ * la tranche est forcément retourné (y compris près des pôles et de l'antiméridien).
+ */
+final class AircraftSpatialGrid {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    // Marge relative pour absorber les erreurs d'arrondi de la formule de Haversine
+    private static final double ROUNDING_MARGIN = 1e-9;
+
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final double[] altitudes;
+
+    private final double radiusKm;
+    private final double altitudeBandM;
+    private final double cellDeg;
+    private final double lonCellDeg;
+    private final int latCells;
+    private final int lonCells;
+
+    // Clé de cellule -> indices des avions dans la cellule
+    private final Map<Long, Bucket> cells = new HashMap<>();
+
+    /**
+     * @param latitudes Latitudes en degrés
+     * @param longitudes Longitudes en degrés
+     * @param altitudes Altitudes en mètres
+     * @param radiusKm Distance horizontale de recherche (taille d'une cellule)
+     * @param altitudeBandM Écart vertical de recherche (hauteur d'une tranche)
+     */
+    AircraftSpatialGrid(double[] latitudes, double[] longitudes, double[] altitudes,
+                        double radiusKm, double altitudeBandM) {
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.altitudes = altitudes;
+        this.radiusKm = radiusKm;
+        this.altitudeBandM = altitudeBandM;
+        this.cellDeg = Math.toDegrees(radiusKm / EARTH_RADIUS_KM);
+        this.latCells = (int) Math.ceil(180.0 / cellDeg);
+        // Les cellules de longitude divisent exactement 360° pour que le raccord à l'antiméridien soit continu
+        this.lonCells = Math.max(1, (int) Math.floor(360.0 / cellDeg));
+        this.lonCellDeg = 360.0 / lonCells;
+
+        for (int i = 0; i < latitudes.length; i++) {
+            long key = cellKey(latIndex(latitudes[i]), lonIndex(longitudes[i]), altIndex(altitudes[i]));
+            cells.computeIfAbsent(key, k -> new Bucket()).add(i);
+        }
+    }
+
+    /**
+     * Retourne, triés par ordre croissant, les indices j > i des avions
+     * potentiellement en conflit avec l'avion i
+     */
+    int[] neighboursAfter(int i) {
+        double lat = latitudes[i];
+        double lon = longitudes[i];
+        double alt = altitudes[i];
+
+        double reachKm = radiusKm * (1 + ROUNDING_MARGIN);
+        double latReachDeg = Math.toDegrees(reachKm / EARTH_RADIUS_KM);
+        double lonReachDeg = longitudeReach(lat, latReachDeg, reachKm);
+        double altReach = altitudeBandM * (1 + ROUNDING_MARGIN);
+
+        int latFrom = latIndex(lat - latReachDeg);
+        int latTo = latIndex(lat + latReachDeg);
+        int altFrom = altIndex(alt - altReach);
+        int altTo = altIndex(alt + altReach);
+
+        int lonFrom = (int) Math.floor((lon - lonReachDeg + 180.0) / lonCellDeg);
+        int lonTo = (int) Math.floor((lon + lonReachDeg + 180.0) / lonCellDeg);
+        boolean allLongitudes = lonTo - lonFrom + 1 >= lonCells;
+        if (allLongitudes) {
+            lonFrom = 0;
+            lonTo = lonCells - 1;
+        }
+
+        Bucket result = new Bucket();
+        for (int la = latFrom; la <= latTo; la++) {
+            for (int lo = lonFrom; lo <= lonTo; lo++) {
+                int wrappedLon = Math.floorMod(lo, lonCells);
+                for (int al = altFrom; al <= altTo; al++) {
+                    Bucket bucket = cells.get(cellKey(la, wrappedLon, al));
+                    if (bucket == null) {
+                        continue;
+                    }
+                    for (int k = 0; k < bucket.size; k++) {
+                        if (bucket.items[k] > i) {
+                            result.add(bucket.items[k]);
+                        }
+                    }
+                }
+            }
+        }
+
+        int[] neighbours = Arrays.copyOf(result.items, result.size);
+        Arrays.sort(neighbours);
+        return neighbours;
+    }
+
+    /**
+     * Écart de longitude maximal pour rester sous le rayon de recherche.
+     * Borne exacte tirée de hav(d/R) >= cos(lat1) * cos(lat2) * hav(dLon)
+     */
+    private double longitudeReach(double lat, double latReachDeg, double reachKm) {
+        double maxAbsLat = Math.min(90.0, Math.abs(lat) + latReachDeg);
+        double minCos = Math.cos(Math.toRadians(maxAbsLat));
+        double halfChord = Math.sin(reachKm / (2 * EARTH_RADIUS_KM));
+
+        if (minCos <= halfChord) {
+            return 180.0; // Proche du pôle : toutes les longitudes
+        }
+        return Math.toDegrees(2 * Math.asin(halfChord / minCos));
+    }
+
+    private int latIndex(double lat) {
+        int index = (int) Math.floor((lat + 90.0) / cellDeg);
+        return Math.max(0, Math.min(latCells - 1, index));
+    }
+
+    private int lonIndex(double lon) {
+        return Math.floorMod((int) Math.floor((lon + 180.0) / lonCellDeg), lonCells);
+    }
+
+    private int altIndex(double alt) {
+        return (int) Math.floor(alt / altitudeBandM);
+    }
+
+    private static long cellKey(int latIndex, int lonIndex, int altIndex) {
+        return ((long) latIndex << 42) | ((long) lonIndex << 21) | (altIndex & 0x1FFFFFL);
+    }
+
+    /**
+     * Liste d'entiers extensible (évite le boxing en Integer)
+     */
+    private static final class Bucket {
+        int[] items = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.flightradar.service;
+
+import com.flightradar.model.Aircraft;
+
+import java.util.*;
+
+/**
+ * Encodage versionné des positions d'avions pour /topic/aircraft
+ *
+ * Protocole (un message par cycle, numéro de séquence croissant de 1 en 1) :
+ * - aircraft_keyframe : {seq, timestamp, tracks: [piste complète...]}
+ *   envoyé au premier cycle puis tous les keyframeInterval cycles
+ * - aircraft_delta    : {seq, timestamp, added: [piste complète...],
+ *   changed: [{id, champs modifiés uniquement}], removed: [id...]}
+ *
+ * Un client qui reçoit un delta dont la base (baseSeq s'il est présent, seq - 1 sinon) diffère de son
+ * dernier seq a perdu un message : il redemande un keyframe via /app/aircraft/keyframe.
+ * baseSeq n'apparaît que sur les deltas fusionnés pour un client lent (ConflatingSessionDecorator).
+ * Les valeurs sont arrondies (≈1 m en position) pour ne pas diffuser le bruit numérique.
+ * Même protocole pour les pistes OpenSky extrapolées (LiveTrackExtrapolator) : id = icao24, champs propres.
+ * Pas de synchronisation externe nécessaire : toutes les méthodes sont synchronized.
+ */
+final class AircraftTrackEncoder {
+
+    static final String TYPE_KEYFRAME = "aircraft_keyframe";
+    static final String TYPE_DELTA = "aircraft_delta";
+
+    // Précision par défaut des positions : 5 décimales (≈1 m)
+    static final double DEFAULT_POSITION_SCALE = 1e5;
+
+    private final int keyframeInterval;
+    private final double positionScale;
+
+    // Dernier état diffusé, par ID de piste (ordre d'insertion conservé pour des keyframes stables)
+    private final Map<Object, Track> lastSent = new LinkedHashMap<>();
+
+    private long sequence;
+    private long lastTimestamp;
+    private int messagesSinceKeyframe;
+
+    /**
+     * @param keyframeInterval Nombre de messages entre deux keyframes périodiques
+     */
+    AircraftTrackEncoder(int keyframeInterval) {
+        this(keyframeInterval, DEFAULT_POSITION_SCALE);
+    }
+
+    /**
+     * @param keyframeInterval Nombre de messages entre deux keyframes périodiques
+     * @param positionScale Arrondi des latitudes/longitudes (1e3 = 3 décimales)
+     */
+    AircraftTrackEncoder(int keyframeInterval, double positionScale) {
+        this.keyframeInterval = keyframeInterval;
+        this.positionScale = positionScale;
+    }
+
+    /**
+     * Encode le cycle suivant : keyframe si c'est le premier ou si l'intervalle est atteint, delta sinon
+     */
+    synchronized Map<String, Object> encode(List<Aircraft> aircraftList, long timestamp) {
+        List<Track> tracks = new ArrayList<>(aircraftList.size());
+        for (Aircraft aircraft : aircraftList) {
+            if (aircraft.getId() != null) {
+                tracks.add(Track.of(aircraft, positionScale));
+            }
+        }
+        return encodeTracks(tracks, timestamp);
+    }
+
+    /**
+     * Encode le cycle suivant à partir de pistes déjà construites (arrondies par leur producteur)
+     */
+    synchronized Map<String, Object> encodeTracks(List<Track> tracks, long timestamp) {
+        Map<Object, Track> current = new LinkedHashMap<>();
+        for (Track track : tracks) {
+            current.put(track.id, track);
+        }
+
+        boolean keyframe = sequence == 0 || messagesSinceKeyframe + 1 >= keyframeInterval;
+        Map<String, Object> message = keyframe ? null : delta(current);
+
+        lastSent.clear();
+        lastSent.putAll(current);
+        sequence++;
+        lastTimestamp = timestamp;
+
+        if (keyframe) {
+            messagesSinceKeyframe = 0;
+            return keyframeMessage();
+        }
+        messagesSinceKeyframe++;
+        message.put("seq", sequence);
+        message.put("timestamp", timestamp);
+        return message;
+    }
+
+    /**
+     * Keyframe de l'état diffusé au dernier cycle (même seq) : envoyé à l'abonnement
+     * ou à la demande d'un client qui a détecté un trou
+     */
+    synchronized Map<String, Object> keyframe() {
+        return keyframeMessage();
+    }
+
+    synchronized long getSequence() {
+        return sequence;
+    }
+
+    private Map<String, Object> keyframeMessage() {
+        List<Map<String, Object>> tracks = new ArrayList<>(lastSent.size());
+        for (Track track : lastSent.values()) {
+            tracks.add(track.toMap());
+        }
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("type", TYPE_KEYFRAME);
+        message.put("seq", sequence);
+        message.put("timestamp", lastTimestamp);
+        message.put("tracks", tracks);
+        return message;
+    }
+
+    private Map<String, Object> delta(Map<Object, Track> current) {
+        List<Map<String, Object>> added = new ArrayList<>();
+        List<Map<String, Object>> changed = new ArrayList<>();
+        List<Object> removed = new ArrayList<>();
+
+        for (Track track : current.values()) {
+            Track previous = lastSent.get(track.id);
+            if (previous == null) {
+                added.add(track.toMap());
+            } else {
+                Map<String, Object> diff = track.diff(previous);
+                if (diff != null) {
+                    changed.add(diff);
+                }
+            }
+        }
+        for (Object id : lastSent.keySet()) {
+            if (!current.containsKey(id)) {
+                removed.add(id);
+            }
+        }
+
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("type", TYPE_DELTA);
+        message.put("added", added);
+        message.put("changed", changed);
+        message.put("removed", removed);
+        return message;
+    }
+
+    /**
+     * Piste diffusée : uniquement les champs utiles à l'affichage radar
+     * Champs nommés par un tableau partagé par toutes les pistes d'un même type (comparés par position)
+     */
+    static final class Track {
+        private static final String[] AIRCRAFT_FIELDS =
+            {"registration", "model", "status", "squawk", "lat", "lon", "alt", "speed", "heading", "vs"};
+
+        final Object id;
+        // Position (index spatial des zones), aussi présente dans les champs
+        final Double lat;
+        final Double lon;
+        private final String[] names;
+        private final Object[] values;
+
+        /**
+         * @param names Noms des champs, "lat" et "lon" compris (même tableau pour toutes les pistes du type)
+         */
+        Track(Object id, Double lat, Double lon, String[] names, Object... values) {
+            this.id = id;
+            this.lat = lat;
+            this.lon = lon;
+            this.names = names;
+            this.values = values;
+        }
+
+        static Track of(Aircraft aircraft, double positionScale) {
+            Double lat = round(aircraft.getPositionLat(), positionScale);
+            Double lon = round(aircraft.getPositionLon(), positionScale);
+            return new Track(aircraft.getId(), lat, lon, AIRCRAFT_FIELDS,
+                aircraft.getRegistration(),
+                aircraft.getModel(),
+                aircraft.getStatus() != null ? aircraft.getStatus().name() : null,
+                aircraft.getTransponderCode(),
+                lat,
+                lon,
+                round(aircraft.getAltitude(), 1),
+                round(aircraft.getSpeed(), 1),
+                round(aircraft.getHeading(), 10),
+                round(aircraft.getVerticalSpeed(), 10));
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("id", id);
+            for (int i = 0; i < names.length; i++) {
+                map.put(names[i], values[i]);
+            }
+            return map;
+        }
+
+        /**
+         * @return {id, champs modifiés} ou null si rien n'a changé
+         */
+        Map<String, Object> diff(Track previous) {
+            if (previous.names != names) {
+                return toMap(); // Autre type de piste sous le même ID : tout renvoyer
+            }
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("id", id);
+            for (int i = 0; i < names.length; i++) {
+                if (!Objects.equals(values[i], previous.values[i])) {
+                    map.put(names[i], values[i]);
+                }
+            }
+            return map.size() > 1 ? map : null;
+        }
+
+        static Double round(Double value, double scale) {
+            return value != null ? Math.round(value * scale) / scale : null;
+        }
+    }
+}
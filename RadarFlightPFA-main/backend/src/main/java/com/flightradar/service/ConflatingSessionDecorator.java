@@ -0,0 +1,422 @@
+package com.flightradar.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * File d'envoi bornée d'une session WebSocket, avec conflation
+ * - sendMessage ne bloque jamais : le message est mis en file et envoyé par un thread de vidage
+ *   (un seul à la fois par session, au plus MAX_SENDS_PER_DRAIN envois avant de rendre le thread),
+ *   un client lent n'immobilise donc pas les threads du broker
+ * - Frames MESSAGE ordinaires : dernière valeur gagnante par (abonnement, destination),
+ *   donc par avion pour /topic/aircraft/{id} et /topic/flight/{id}
+ * - Flux séquencés keyframe / delta (AircraftTrackEncoder : /topic/aircraft, /user/queue/aircraft,
+ *   /user/queue/live-aircraft) : un delta en attente n'est jamais remplacé mais fusionné avec le suivant
+ *   (piste par piste, baseSeq = état du client auquel il s'applique), un keyframe en attente absorbe
+ *   les deltas suivants et reste un keyframe ; le client reçoit moins de messages mais une séquence
+ *   cohérente, sans redemander de keyframe
+ * - Alertes (conflits, météo) et frames de contrôle : jamais fusionnées, envoyées en priorité
+ * - Au-delà de maxQueued messages en attente, les plus anciennes positions sont abandonnées
+ *   (jamais les flux séquencés)
+ * - Session déjà en retard de plus de maxBehindMs quand son vidage obtient un thread : déconnectée
+ */
+@Slf4j
+final class ConflatingSessionDecorator extends WebSocketSessionDecorator {
+
+    // Destinations prioritaires, jamais fusionnées
+    static final List<String> PRIORITY_DESTINATIONS = List.of("/topic/conflicts", "/topic/weather-alerts");
+
+    // Envois consécutifs avant de rendre le thread aux autres sessions
+    static final int MAX_SENDS_PER_DRAIN = 16;
+
+    private static final String KEYFRAME_PREFIX = "{\"type\":\"" + AircraftTrackEncoder.TYPE_KEYFRAME + "\"";
+    private static final String DELTA_PREFIX = "{\"type\":\"" + AircraftTrackEncoder.TYPE_DELTA + "\"";
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final Executor executor;
+    private final int maxQueued;
+    private final long maxBehindMs;
+
+    private final Object lock = new Object();
+    private final ArrayDeque<WebSocketMessage<?>> priority = new ArrayDeque<>();
+    // Clé de conflation -> dernier message ; ordre d'insertion = plus ancien en premier
+    private final LinkedHashMap<String, WebSocketMessage<?>> latest = new LinkedHashMap<>();
+    private boolean draining;
+    private long behindSinceMillis;
+
+    private volatile long sendStartedMillis;
+    private volatile boolean closing;
+
+    // Statistiques
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong conflated = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    ConflatingSessionDecorator(WebSocketSession delegate, Executor executor, int maxQueued, long maxBehindMs) {
+        super(delegate);
+        this.executor = executor;
+        this.maxQueued = maxQueued;
+        this.maxBehindMs = maxBehindMs;
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) {
+        if (closing) {
+            return;
+        }
+        String key = conflationKey(message);
+        boolean overflow;
+        boolean schedule = false;
+        synchronized (lock) {
+            if (key == null) {
+                priority.addLast(message);
+            } else {
+                WebSocketMessage<?> queued = latest.remove(key);
+                if (queued != null) {
+                    conflated.incrementAndGet();
+                    latest.put(key, merge(queued, message));
+                } else {
+                    latest.put(key, message);
+                }
+            }
+            // Abandonner les positions les plus anciennes au-delà de la borne (flux séquencés conservés)
+            Iterator<WebSocketMessage<?>> eldest = latest.values().iterator();
+            while (priority.size() + latest.size() > maxQueued && eldest.hasNext()) {
+                if (!isSequenced(eldest.next())) {
+                    eldest.remove();
+                    dropped.incrementAndGet();
+                }
+            }
+            overflow = priority.size() > maxQueued;
+            if (behindSinceMillis == 0) {
+                behindSinceMillis = System.currentTimeMillis();
+            }
+            if (!draining) {
+                draining = true;
+                schedule = true;
+            }
+        }
+
+        if (overflow) {
+            disconnect("file prioritaire pleine");
+        } else if (schedule) {
+            executor.execute(this::drain);
+        }
+    }
+
+    /**
+     * Vide la file (un seul thread à la fois pour la session), puis replanifie la suite
+     * après MAX_SENDS_PER_DRAIN envois pour laisser leur tour aux autres sessions
+     */
+    private void drain() {
+        if (isBehindLongerThan(maxBehindMs, System.currentTimeMillis())) {
+            disconnect("retard > " + maxBehindMs + " ms");
+        }
+        for (int sends = 0; !closing; sends++) {
+            if (sends == MAX_SENDS_PER_DRAIN) {
+                executor.execute(this::drain);
+                return;
+            }
+            WebSocketMessage<?> next;
+            synchronized (lock) {
+                next = priority.pollFirst();
+                if (next == null && !latest.isEmpty()) {
+                    Iterator<WebSocketMessage<?>> eldest = latest.values().iterator();
+                    next = eldest.next();
+                    eldest.remove();
+                }
+                if (next == null) {
+                    draining = false;
+                    behindSinceMillis = 0;
+                    return;
+                }
+            }
+            try {
+                sendStartedMillis = System.currentTimeMillis();
+                getDelegate().sendMessage(next);
+                sent.incrementAndGet();
+            } catch (IOException | RuntimeException e) {
+                log.debug("Envoi WebSocket impossible pour la session {}: {}", getId(), e.getMessage());
+                disconnect("erreur d'envoi");
+            } finally {
+                sendStartedMillis = 0;
+            }
+        }
+        synchronized (lock) {
+            draining = false;
+        }
+    }
+
+    /**
+     * @return true si la session a des messages en attente (ou un envoi en cours) depuis plus de thresholdMs
+     */
+    boolean isBehindLongerThan(long thresholdMs, long nowMillis) {
+        long started = sendStartedMillis;
+        if (started != 0 && nowMillis - started > thresholdMs) {
+            return true;
+        }
+        synchronized (lock) {
+            return behindSinceMillis != 0 && nowMillis - behindSinceMillis > thresholdMs;
+        }
+    }
+
+    /**
+     * Ferme la session (client trop lent) et vide la file
+     */
+    void disconnect(String reason) {
+        if (closing) {
+            return;
+        }
+        closing = true;
+        int depth;
+        synchronized (lock) {
+            depth = priority.size() + latest.size();
+            dropped.addAndGet(depth);
+            priority.clear();
+            latest.clear();
+        }
+        log.warn("Session WebSocket {} déconnectée ({}, {} messages en attente)", getId(), reason, depth);
+        try {
+            getDelegate().close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException e) {
+            log.debug("Fermeture de la session {} impossible: {}", getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Connexion fermée (par le client ou le serveur) : abandonner la file
+     */
+    void markClosed() {
+        closing = true;
+        synchronized (lock) {
+            priority.clear();
+            latest.clear();
+        }
+    }
+
+    Map<String, Object> getStats(long nowMillis) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (lock) {
+            stats.put("sessionId", getId());
+            stats.put("queueDepth", priority.size() + latest.size());
+            stats.put("priorityDepth", priority.size());
+            stats.put("behindMs", behindSinceMillis != 0 ? nowMillis - behindSinceMillis : 0);
+        }
+        stats.put("sent", sent.get());
+        stats.put("conflated", conflated.get());
+        stats.put("dropped", dropped.get());
+        return stats;
+    }
+
+    long getSentCount() {
+        return sent.get();
+    }
+
+    long getConflatedCount() {
+        return conflated.get();
+    }
+
+    long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Clé de conflation d'une frame STOMP sortante, ou null si elle ne doit pas être fusionnée
+     * (frame de contrôle, battement de cœur, destination prioritaire)
+     */
+    static String conflationKey(WebSocketMessage<?> message) {
+        if (!(message instanceof TextMessage textMessage)) {
+            return null;
+        }
+        String frame = textMessage.getPayload();
+        if (!frame.startsWith("MESSAGE\n")) {
+            return null;
+        }
+        int headersEnd = frame.indexOf("\n\n");
+        if (headersEnd < 0) {
+            return null;
+        }
+        String destination = header(frame, "destination", headersEnd);
+        if (destination == null) {
+            return null;
+        }
+        for (String prioritized : PRIORITY_DESTINATIONS) {
+            if (destination.startsWith(prioritized)) {
+                return null;
+            }
+        }
+        return header(frame, "subscription", headersEnd) + "|" + destination;
+    }
+
+    /**
+     * Frame d'un flux séquencé keyframe / delta (AircraftTrackEncoder)
+     */
+    static boolean isSequenced(WebSocketMessage<?> message) {
+        if (!(message instanceof TextMessage textMessage)) {
+            return false;
+        }
+        String frame = textMessage.getPayload();
+        int headersEnd = frame.indexOf("\n\n");
+        return headersEnd >= 0 && (frame.startsWith(KEYFRAME_PREFIX, headersEnd + 2)
+            || frame.startsWith(DELTA_PREFIX, headersEnd + 2));
+    }
+
+    /**
+     * Frame qui remplace la frame en attente de même clé
+     * - Frame ordinaire ou keyframe : la nouvelle (dernière valeur gagnante, un keyframe est un état complet)
+     * - Delta consécutif (seq + 1) : fusionné dans la frame en attente, keyframe ou delta, sous le nouveau seq
+     * - Delta non consécutif : un keyframe en attente est conservé (le client redemandera un keyframe)
+     */
+    @SuppressWarnings("unchecked")
+    static WebSocketMessage<?> merge(WebSocketMessage<?> queued, WebSocketMessage<?> next) {
+        if (!isSequenced(next) || !isSequenced(queued)) {
+            return next;
+        }
+        String nextFrame = ((TextMessage) next).getPayload();
+        String queuedFrame = ((TextMessage) queued).getPayload();
+        try {
+            Map<String, Object> delta = body(nextFrame);
+            if (AircraftTrackEncoder.TYPE_KEYFRAME.equals(delta.get("type"))) {
+                return next;
+            }
+            Map<String, Object> pending = body(queuedFrame);
+            boolean keyframe = AircraftTrackEncoder.TYPE_KEYFRAME.equals(pending.get("type"));
+            if (((Number) delta.get("seq")).longValue() != ((Number) pending.get("seq")).longValue() + 1) {
+                return keyframe ? queued : next;
+            }
+            Map<String, Object> merged = keyframe ? applyToKeyframe(pending, delta) : mergeDeltas(pending, delta);
+            return new TextMessage(withBody(nextFrame, JSON.writeValueAsString(merged)));
+        } catch (IOException | RuntimeException e) {
+            log.debug("Fusion de deltas impossible : {}", e.getMessage());
+            return keyframeOrNext(queued, queuedFrame, next);
+        }
+    }
+
+    private static WebSocketMessage<?> keyframeOrNext(WebSocketMessage<?> queued, String queuedFrame,
+                                                      WebSocketMessage<?> next) {
+        int headersEnd = queuedFrame.indexOf("\n\n");
+        return queuedFrame.startsWith(KEYFRAME_PREFIX, headersEnd + 2) ? queued : next;
+    }
+
+    /**
+     * Keyframe en attente + delta suivant = keyframe au seq du delta
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> applyToKeyframe(Map<String, Object> keyframe, Map<String, Object> delta) {
+        Map<Object, Map<String, Object>> tracks = new LinkedHashMap<>();
+        for (Map<String, Object> track : (List<Map<String, Object>>) keyframe.get("tracks")) {
+            tracks.put(track.get("id"), track);
+        }
+        for (Object id : (List<Object>) delta.get("removed")) {
+            tracks.remove(id);
+        }
+        for (Map<String, Object> track : (List<Map<String, Object>>) delta.get("added")) {
+            tracks.put(track.get("id"), track);
+        }
+        for (Map<String, Object> change : (List<Map<String, Object>>) delta.get("changed")) {
+            Map<String, Object> track = tracks.get(change.get("id"));
+            if (track != null) {
+                track.putAll(change);
+            }
+        }
+        Map<String, Object> merged = new LinkedHashMap<>();
+        merged.put("type", AircraftTrackEncoder.TYPE_KEYFRAME);
+        merged.put("seq", delta.get("seq"));
+        merged.put("timestamp", delta.get("timestamp"));
+        merged.put("tracks", new ArrayList<>(tracks.values()));
+        return merged;
+    }
+
+    /**
+     * Delta en attente (depuis l'état baseSeq, ou seq - 1, du client) + delta suivant = un delta depuis le même état
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> mergeDeltas(Map<String, Object> first, Map<String, Object> second) {
+        Map<Object, Map<String, Object>> added = byId((List<Map<String, Object>>) first.get("added"));
+        Map<Object, Map<String, Object>> changed = byId((List<Map<String, Object>>) first.get("changed"));
+        Set<Object> removed = new LinkedHashSet<>((List<Object>) first.get("removed"));
+
+        for (Object id : (List<Object>) second.get("removed")) {
+            // Ajoutée puis retirée : le client ne l'a jamais vue
+            if (added.remove(id) == null) {
+                changed.remove(id);
+                removed.add(id);
+            }
+        }
+        for (Map<String, Object> track : (List<Map<String, Object>>) second.get("added")) {
+            Object id = track.get("id");
+            if (removed.remove(id)) {
+                changed.put(id, track); // Retirée puis ajoutée : tous les champs remplacés
+            } else {
+                added.put(id, track);
+            }
+        }
+        for (Map<String, Object> change : (List<Map<String, Object>>) second.get("changed")) {
+            Object id = change.get("id");
+            Map<String, Object> target = added.containsKey(id) ? added.get(id) : changed.get(id);
+            if (target != null) {
+                target.putAll(change);
+            } else {
+                changed.put(id, change);
+            }
+        }
+
+        Map<String, Object> merged = new LinkedHashMap<>();
+        merged.put("type", AircraftTrackEncoder.TYPE_DELTA);
+        merged.put("added", new ArrayList<>(added.values()));
+        merged.put("changed", new ArrayList<>(changed.values()));
+        merged.put("removed", new ArrayList<>(removed));
+        merged.put("seq", second.get("seq"));
+        merged.put("baseSeq", first.containsKey("baseSeq")
+            ? first.get("baseSeq") : ((Number) first.get("seq")).longValue() - 1);
+        merged.put("timestamp", second.get("timestamp"));
+        return merged;
+    }
+
+    private static Map<Object, Map<String, Object>> byId(List<Map<String, Object>> tracks) {
+        Map<Object, Map<String, Object>> byId = new LinkedHashMap<>();
+        for (Map<String, Object> track : tracks) {
+            byId.put(track.get("id"), track);
+        }
+        return byId;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> body(String frame) throws IOException {
+        int start = frame.indexOf("\n\n") + 2;
+        int end = frame.endsWith("\u0000") ? frame.length() - 1 : frame.length();
+        return JSON.readValue(frame.substring(start, end), Map.class);
+    }
+
+    /**
+     * Même en-têtes (content-length recalculé), nouveau corps
+     */
+    private static String withBody(String frame, String body) {
+        String headers = frame.substring(0, frame.indexOf("\n\n"))
+            .replaceFirst("\ncontent-length:\\d+",
+                "\ncontent-length:" + body.getBytes(StandardCharsets.UTF_8).length);
+        return headers + "\n\n" + body + "\u0000";
+    }
+
+    private static String header(String frame, String name, int headersEnd) {
+        String prefix = "\n" + name + ":";
+        int start = frame.indexOf(prefix);
+        if (start < 0 || start > headersEnd) {
+            return null;
+        }
+        start += prefix.length();
+        int end = frame.indexOf('\n', start);
+        return frame.substring(start, end);
+    }
+}
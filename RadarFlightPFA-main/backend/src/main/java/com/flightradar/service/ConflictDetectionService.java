@@ -6,7 +6,6 @@ import com.flightradar.model.RadarCenter;
 import com.flightradar.repository.AircraftRepository;
 import com.flightradar.repository.RadarCenterRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -41,30 +40,77 @@ public class ConflictDetectionService {
     private RadarCenterRepository radarCenterRepository;
     
     /**
-     * Détecte les conflits potentiels entre tous les avions en vol
-     * Exécuté toutes les 5 secondes
+     * Détecte les conflits entre les avions en vol du snapshot courant et envoie les alertes
+     * Appelé par TrafficTickPipeline à chaque cycle (toutes les 5 secondes)
+     * 
+     * @param aircraftList Avions du snapshot (tous statuts confondus)
+     * @return Conflits détectés
      */
-    @Scheduled(fixedRate = 5000)
-    public void detectConflicts() {
-        List<Aircraft> aircraftInFlight = aircraftRepository.findByStatus(AircraftStatus.EN_VOL);
-        
-        // Comparer chaque paire d'avions
-        for (int i = 0; i < aircraftInFlight.size(); i++) {
-            for (int j = i + 1; j < aircraftInFlight.size(); j++) {
-                Aircraft aircraft1 = aircraftInFlight.get(i);
-                Aircraft aircraft2 = aircraftInFlight.get(j);
+    public List<ConflictAlert> detectConflicts(List<Aircraft> aircraftList) {
+        List<Aircraft> aircraftInFlight = new ArrayList<>();
+        for (Aircraft aircraft : aircraftList) {
+            if (aircraft.getStatus() == AircraftStatus.EN_VOL) {
+                aircraftInFlight.add(aircraft);
+            }
+        }
+        
+        List<ConflictAlert> alerts = findConflicts(aircraftInFlight);
+        if (!alerts.isEmpty()) {
+            // Centres radar chargés une seule fois par cycle, et seulement s'il y a des conflits
+            List<RadarCenter> radarCenters = radarCenterRepository.findAll();
+            for (ConflictAlert alert : alerts) {
+                handleConflict(alert.getAircraft1(), alert.getAircraft2(), alert.getConflictInfo(), radarCenters);
+            }
+        }
+        
+        return alerts;
+    }
+    
+    /**
+     * Recherche les conflits parmi une liste d'avions
+     * Utilise une grille spatiale (cellules de MIN_SAFE_DISTANCE_KM * 1.5 et tranches
+     * d'altitude de MIN_SAFE_ALTITUDE_DIFF_M * 1.5) au lieu de comparer toutes les paires.
+     * Le résultat (paires, ordre et ConflictInfo) est identique à la comparaison exhaustive.
+     */
+    public List<ConflictAlert> findConflicts(List<Aircraft> aircraftList) {
+        List<Aircraft> positioned = new ArrayList<>(aircraftList.size());
+        for (Aircraft aircraft : aircraftList) {
+            if (aircraft.getPositionLat() != null && aircraft.getPositionLon() != null) {
+                positioned.add(aircraft);
+            }
+        }
+        
+        int count = positioned.size();
+        double[] latitudes = new double[count];
+        double[] longitudes = new double[count];
+        double[] altitudes = new double[count];
+        for (int i = 0; i < count; i++) {
+            Aircraft aircraft = positioned.get(i);
+            latitudes[i] = aircraft.getPositionLat();
+            longitudes[i] = aircraft.getPositionLon();
+            altitudes[i] = aircraft.getAltitude() != null ? aircraft.getAltitude() : 0;
+        }
+        
+        AircraftSpatialGrid grid = new AircraftSpatialGrid(
+            latitudes, longitudes, altitudes,
+            MIN_SAFE_DISTANCE_KM * 1.5, MIN_SAFE_ALTITUDE_DIFF_M * 1.5
+        );
+        
+        List<ConflictAlert> alerts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            for (int j : grid.neighboursAfter(i)) {
+                Aircraft aircraft1 = positioned.get(i);
+                Aircraft aircraft2 = positioned.get(j);
+                
+                ConflictInfo conflict = checkConflict(aircraft1, aircraft2);
                 
-                if (aircraft1.getPositionLat() != null && aircraft1.getPositionLon() != null &&
-                    aircraft2.getPositionLat() != null && aircraft2.getPositionLon() != null) {
-                    
-                    ConflictInfo conflict = checkConflict(aircraft1, aircraft2);
-                    
-                    if (conflict != null && conflict.isConflict()) {
-                        handleConflict(aircraft1, aircraft2, conflict);
-                    }
+                if (conflict != null && conflict.isConflict()) {
+                    alerts.add(new ConflictAlert(aircraft1, aircraft2, conflict));
                 }
             }
         }
+        
+        return alerts;
     }
     
     /**
@@ -159,9 +205,10 @@ public class ConflictDetectionService {
     /**
      * Gère un conflit détecté en envoyant des alertes
      */
-    private void handleConflict(Aircraft aircraft1, Aircraft aircraft2, ConflictInfo conflict) {
+    private void handleConflict(Aircraft aircraft1, Aircraft aircraft2, ConflictInfo conflict,
+                                List<RadarCenter> radarCenters) {
         // Trouver le centre radar le plus proche
-        RadarCenter radarCenter = findNearestRadarCenter(aircraft1);
+        RadarCenter radarCenter = findNearestRadarCenter(aircraft1, radarCenters);
         
         if (radarCenter == null) {
             return;
@@ -234,9 +281,7 @@ public class ConflictDetectionService {
     /**
      * Trouve le centre radar le plus proche d'un avion
      */
-    private RadarCenter findNearestRadarCenter(Aircraft aircraft) {
-        List<RadarCenter> radarCenters = radarCenterRepository.findAll();
-        
+    private RadarCenter findNearestRadarCenter(Aircraft aircraft, List<RadarCenter> radarCenters) {
         if (radarCenters.isEmpty() || aircraft.getPositionLat() == null || aircraft.getPositionLon() == null) {
             return null;
         }
@@ -265,27 +310,7 @@ public class ConflictDetectionService {
      * Récupère tous les conflits actifs
      */
     public List<ConflictAlert> getActiveConflicts() {
-        List<ConflictAlert> alerts = new ArrayList<>();
-        List<Aircraft> aircraftInFlight = aircraftRepository.findByStatus(AircraftStatus.EN_VOL);
-        
-        for (int i = 0; i < aircraftInFlight.size(); i++) {
-            for (int j = i + 1; j < aircraftInFlight.size(); j++) {
-                Aircraft aircraft1 = aircraftInFlight.get(i);
-                Aircraft aircraft2 = aircraftInFlight.get(j);
-                
-                if (aircraft1.getPositionLat() != null && aircraft1.getPositionLon() != null &&
-                    aircraft2.getPositionLat() != null && aircraft2.getPositionLon() != null) {
-                    
-                    ConflictInfo conflict = checkConflict(aircraft1, aircraft2);
-                    
-                    if (conflict != null && conflict.isConflict()) {
-                        alerts.add(new ConflictAlert(aircraft1, aircraft2, conflict));
-                    }
-                }
-            }
-        }
-        
-        return alerts;
+        return findConflicts(aircraftRepository.findByStatus(AircraftStatus.EN_VOL));
     }
     
     /**
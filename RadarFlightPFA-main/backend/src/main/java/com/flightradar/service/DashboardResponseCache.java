@@ -0,0 +1,195 @@
+package com.flightradar.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Cache des réponses du dashboard admin (une entrée par endpoint et paramètres)
+ * - Durée de vie courte (ttl-ms) : tous les navigateurs admin qui interrogent dans l'intervalle
+ *   reçoivent la même réponse
+ * - Requêtes regroupées : pendant un calcul, les autres demandes de la même clé attendent
+ *   son résultat au lieu de relancer le calcul
+ * - Rafraîchissement anticipé : une lecture dans les refresh-ahead-ms précédant l'expiration
+ *   relance le calcul en arrière-plan, l'entrée courante reste servie jusqu'à son remplacement
+ * - Un calcul en échec n'est pas mis en cache (l'exception est transmise à tous les demandeurs)
+ * Les réponses mises en cache sont partagées : les appelants ne doivent pas les modifier.
+ */
+@Service
+@Slf4j
+public class DashboardResponseCache {
+
+    @Value("${flightradar.admin.cache.ttl-ms:5000}")
+    private long ttlMs = 5000;
+
+    @Value("${flightradar.admin.cache.refresh-ahead-ms:1000}")
+    private long refreshAheadMs = 1000;
+
+    // Au-delà, les entrées expirées sont purgées ; si la limite reste atteinte, la clé n'est pas mise en cache
+    @Value("${flightradar.admin.cache.max-entries:200}")
+    private int maxEntries = 200;
+
+    // Horloge en nanosecondes (remplaçable par les tests)
+    LongSupplier nanoClock = System::nanoTime;
+
+    private ExecutorService refreshExecutor;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    // Statistiques
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong uncached = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        refreshExecutor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("dashboard-refresh-"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Réponse en cache pour la clé, calculée par loader si absente ou expirée
+     * @param key Endpoint et paramètres (ex: "operations/traffic?period=DAY")
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, Supplier<T> loader) {
+        long now = nanoClock.getAsLong();
+        Entry entry = entries.get(key);
+        if (entry == null || entry.isExpired(now, ttlMs)) {
+            if (entries.size() >= maxEntries) {
+                entries.values().removeIf(existing -> existing.isExpired(now, ttlMs));
+                if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+                    uncached.incrementAndGet();
+                    return loader.get();
+                }
+            }
+            Entry created = new Entry();
+            entry = entries.compute(key, (k, existing) ->
+                existing != null && !existing.isExpired(now, ttlMs) ? existing : created);
+            if (entry == created) {
+                misses.incrementAndGet();
+                return (T) load(key, created, loader);
+            }
+        }
+
+        if (!entry.value.isDone()) {
+            coalesced.incrementAndGet();
+            return (T) await(entry);
+        }
+        hits.incrementAndGet();
+        if (now - entry.loadedAt >= TimeUnit.MILLISECONDS.toNanos(ttlMs - refreshAheadMs)
+                && entry.refreshing.compareAndSet(false, true)) {
+            refreshInBackground(key, entry, loader);
+        }
+        return (T) await(entry);
+    }
+
+    /**
+     * Calcule la valeur d'une entrée dans le thread appelant et la publie aux demandeurs en attente
+     */
+    private Object load(String key, Entry entry, Supplier<?> loader) {
+        try {
+            Object value = loader.get();
+            entry.loadedAt = nanoClock.getAsLong();
+            entry.value.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            entries.remove(key, entry);
+            entry.value.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private void refreshInBackground(String key, Entry current, Supplier<?> loader) {
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    Entry refreshed = new Entry();
+                    refreshed.value.complete(loader.get());
+                    refreshed.loadedAt = nanoClock.getAsLong();
+                    // Remplace l'entrée seulement si elle n'a pas changé entre-temps
+                    if (entries.replace(key, current, refreshed)) {
+                        refreshes.incrementAndGet();
+                    }
+                } catch (RuntimeException e) {
+                    failures.incrementAndGet();
+                    current.refreshing.set(false);
+                    log.debug("Rafraîchissement anticipé de {} impossible : {}", key, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            current.refreshing.set(false);
+        }
+    }
+
+    private static Object await(Entry entry) {
+        try {
+            return entry.value.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Vide le cache (les calculs en cours se terminent normalement)
+     * Appelé après le commit d'une création / modification / suppression de vol (FlightManagementService)
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long coalescedCount = coalesced.get();
+        long requests = hitCount + missCount + coalescedCount;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ttlMs", ttlMs);
+        stats.put("refreshAheadMs", refreshAheadMs);
+        stats.put("entries", entries.size());
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("coalesced", coalescedCount);
+        stats.put("hitRate", requests > 0 ? Math.round(hitCount * 1000.0 / requests) / 10.0 : 0.0);
+        stats.put("coalesceRate", requests > 0 ? Math.round(coalescedCount * 1000.0 / requests) / 10.0 : 0.0);
+        stats.put("backgroundRefreshes", refreshes.get());
+        stats.put("failures", failures.get());
+        stats.put("uncached", uncached.get());
+        return stats;
+    }
+
+    /**
+     * Réponse d'une clé : en cours de calcul tant que value n'est pas terminé
+     */
+    private static final class Entry {
+        final CompletableFuture<Object> value = new CompletableFuture<>();
+        final AtomicBoolean refreshing = new AtomicBoolean();
+        volatile long loadedAt;
+
+        boolean isExpired(long now, long ttlMs) {
+            return value.isDone() && now - loadedAt >= TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        }
+    }
+}
@@ -6,7 +6,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
@@ -38,7 +39,13 @@ public class FlightManagementService {
     private WeatherService weatherService;
     
     @Autowired
-    private ActivityLogRepository activityLogRepository;
+    private ActivityLogWriter activityLogWriter;
+    
+    @Autowired
+    private OperationalCounters operationalCounters;
+    
+    @Autowired
+    private DashboardResponseCache dashboardResponseCache;
     
     /**
      * Crée un nouveau vol
@@ -287,6 +294,7 @@ public class FlightManagementService {
             try {
                 savedFlight = flightRepository.save(flight);
                 log.info("✅ Vol sauvegardé avec succès. ID: {}", savedFlight.getId());
+                publishFlightChange(null, savedFlight);
             } catch (org.springframework.dao.DataIntegrityViolationException e) {
                 log.error("❌ ERREUR D'INTÉGRITÉ LORS DE LA SAUVEGARDE", e);
                 log.error("Message: {}", e.getMessage());
@@ -312,16 +320,15 @@ public class FlightManagementService {
             
             log.info("Vol créé avec succès: {} (ID: {}) par {}", savedFlight.getFlightNumber(), savedFlight.getId(), username);
             
-            // Journaliser l'action dans une transaction séparée pour éviter les rollbacks
-            // DÉSACTIVÉ TEMPORAIREMENT pour diagnostiquer le problème
-            // try {
-            //     logActivity(username, ActivityLog.ActivityType.FLIGHT_CREATED, 
-            //         "Création du vol " + savedFlight.getFlightNumber(), 
-            //         "FLIGHT", savedFlight.getId(), ActivityLog.LogSeverity.INFO);
-            // } catch (Exception e) {
-            //     // Ne pas faire échouer la création du vol si la journalisation échoue
-            //     log.warn("Erreur lors de la journalisation (non bloquante)", e);
-            // }
+            // Journaliser l'action (écrite après le commit, hors de la transaction du vol)
+            try {
+                logActivity(username, ActivityLog.ActivityType.FLIGHT_CREATED, 
+                    "Création du vol " + savedFlight.getFlightNumber(), 
+                    "FLIGHT", savedFlight.getId(), ActivityLog.LogSeverity.INFO);
+            } catch (Exception e) {
+                // Ne pas faire échouer la création du vol si la journalisation échoue
+                log.warn("Erreur lors de la journalisation (non bloquante)", e);
+            }
             
             return savedFlight;
             
@@ -350,6 +357,7 @@ public class FlightManagementService {
             if (flight.getFlightStatus() == FlightStatus.EN_COURS) {
                 throw new IllegalStateException("Impossible de modifier un vol en cours");
             }
+            OperationalCounters.FlightState before = OperationalCounters.FlightState.of(flight);
             
             // Mettre à jour les champs modifiables
             if (flightData.get("flightNumber") != null) {
@@ -416,6 +424,7 @@ public class FlightManagementService {
             }
             
             Flight updatedFlight = flightRepository.save(flight);
+            publishFlightChange(before, updatedFlight);
             
             log.info("Vol modifié: {} par {}", updatedFlight.getFlightNumber(), username);
             
@@ -450,6 +459,7 @@ public class FlightManagementService {
             
             String flightNumber = flight.getFlightNumber();
             flightRepository.delete(flight);
+            publishFlightChange(OperationalCounters.FlightState.of(flight), null);
             
             log.info("Vol supprimé: {} par {}", flightNumber, username);
             
@@ -583,26 +593,39 @@ public class FlightManagementService {
     }
     
     /**
-     * Journalise une activité dans une transaction séparée pour éviter les rollbacks
+     * Après le commit : compteurs opérationnels mis à jour et dashboard admin recalculé à la prochaine lecture
+     */
+    private void publishFlightChange(OperationalCounters.FlightState before, Flight after) {
+        afterCommit(() -> {
+            operationalCounters.flightChanged(before, after);
+            dashboardResponseCache.invalidateAll();
+        });
+    }
+    
+    /**
+     * Exécute l'action après le commit de la transaction en cours (jamais en cas de rollback),
+     * immédiatement hors transaction
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+    
+    /**
+     * Journalise une activité (ActivityLogWriter : file asynchrone, écrite après le commit)
      */
-    @Transactional(propagation = Propagation.REQUIRES_NEW, noRollbackFor = Exception.class)
     private void logActivity(String username, ActivityLog.ActivityType activityType, 
                             String description, String entityType, Long entityId, 
                             ActivityLog.LogSeverity severity) {
-        try {
-            ActivityLog activityLog = new ActivityLog();
-            activityLog.setUsername(username);
-            activityLog.setActivityType(activityType);
-            activityLog.setDescription(description);
-            activityLog.setEntityType(entityType);
-            activityLog.setEntityId(entityId);
-            activityLog.setSeverity(severity);
-            activityLog.setTimestamp(LocalDateTime.now());
-            activityLogRepository.save(activityLog);
-        } catch (Exception e) {
-            // Si la table activity_logs n'existe pas encore, on ignore l'erreur
-            log.warn("Impossible de journaliser l'activité (table activity_logs peut-être absente): {}", e.getMessage());
-        }
+        activityLogWriter.log(username, activityType, description, entityType, entityId, severity);
     }
 }
 
@@ -29,6 +29,12 @@ public class FlightService {
     @Autowired
     private AirportRepository airportRepository;
     
+    @Autowired
+    private AircraftPositionStore aircraftPositionStore;
+    
+    @Autowired
+    private OperationalCounters operationalCounters;
+    
     /**
      * Crée un nouveau vol
      */
@@ -48,7 +54,9 @@ public class FlightService {
             flight.setScheduledDeparture(LocalDateTime.now().plusHours(1));
             flight.setScheduledArrival(LocalDateTime.now().plusHours(2));
             
-            return flightRepository.save(flight);
+            Flight saved = flightRepository.save(flight);
+            operationalCounters.flightChanged(null, saved);
+            return saved;
         }
         return null;
     }
@@ -60,15 +68,20 @@ public class FlightService {
         Optional<Flight> flightOpt = flightRepository.findById(flightId);
         if (flightOpt.isPresent()) {
             Flight flight = flightOpt.get();
+            OperationalCounters.FlightState before = OperationalCounters.FlightState.of(flight);
             flight.setFlightStatus(FlightStatus.EN_COURS);
             flight.setActualDeparture(LocalDateTime.now());
             
             // Mettre à jour le statut de l'avion
             Aircraft aircraft = flight.getAircraft();
+            AircraftStatus previousStatus = aircraft.getStatus();
             aircraft.setStatus(AircraftStatus.EN_VOL);
             aircraftRepository.save(aircraft);
+            operationalCounters.aircraftStatusChanged(previousStatus, AircraftStatus.EN_VOL);
             
-            return flightRepository.save(flight);
+            Flight saved = flightRepository.save(flight);
+            operationalCounters.flightChanged(before, saved);
+            return saved;
         }
         return null;
     }
@@ -80,20 +93,26 @@ public class FlightService {
         Optional<Flight> flightOpt = flightRepository.findById(flightId);
         if (flightOpt.isPresent()) {
             Flight flight = flightOpt.get();
+            OperationalCounters.FlightState before = OperationalCounters.FlightState.of(flight);
             flight.setFlightStatus(FlightStatus.TERMINE);
             flight.setActualArrival(LocalDateTime.now());
             
             // Mettre à jour le statut de l'avion
             Aircraft aircraft = flight.getAircraft();
+            AircraftStatus previousStatus = aircraft.getStatus();
             aircraft.setStatus(AircraftStatus.AU_SOL);
             aircraft.setAirport(flight.getArrivalAirport());
             aircraft.setPositionLat(flight.getArrivalAirport().getLatitude());
             aircraft.setPositionLon(flight.getArrivalAirport().getLongitude());
             aircraft.setAltitude(0.0);
             aircraft.setSpeed(0.0);
+            aircraftPositionStore.evict(aircraft.getId());
             aircraftRepository.save(aircraft);
+            operationalCounters.aircraftStatusChanged(previousStatus, AircraftStatus.AU_SOL);
             
-            return flightRepository.save(flight);
+            Flight saved = flightRepository.save(flight);
+            operationalCounters.flightChanged(before, saved);
+            return saved;
         }
         return null;
     }
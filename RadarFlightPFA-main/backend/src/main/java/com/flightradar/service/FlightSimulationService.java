@@ -1,20 +1,19 @@
 package com.flightradar.service;
 
 import com.flightradar.model.*;
+import com.flightradar.model.dto.AircraftPositionUpdate;
 import com.flightradar.repository.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service pour simuler les vols en temps réel après autorisation de décollage
  * Gère la trajectoire, la position, l'altitude, la vitesse et l'ETA
+ * Toutes les simulations avancent ensemble à chaque cycle de TrafficTickPipeline (pas de thread par vol)
  */
 @Service
 @Slf4j
@@ -30,13 +29,19 @@ public class FlightSimulationService {
     private AirportRepository airportRepository;
     
     @Autowired
-    private SimpMessagingTemplate messagingTemplate;
+    private WebSocketBroadcaster webSocketBroadcaster;
     
     @Autowired
-    private RealtimeUpdateService realtimeUpdateService;
+    private AircraftPositionStore aircraftPositionStore;
     
-    // Map pour stocker les vols en cours de simulation
-    private final Map<Long, FlightSimulation> activeSimulations = new ConcurrentHashMap<>();
+    @Autowired
+    private OperationalCounters operationalCounters;
+    
+    // Vols en cours de simulation (stockage en colonnes, verrouillé par synchronized)
+    private final FlightSimulationTable simulations = new FlightSimulationTable();
+    
+    // Avions dont la simulation est en cours de démarrage (écritures base en cours), sous le verrou de simulations
+    private final Set<Long> startingAircraftIds = new HashSet<>();
     
     // Constantes de simulation
     private static final double CRUISE_ALTITUDE = 10000.0; // 10 000 mètres (altitude de croisière)
@@ -46,93 +51,47 @@ public class FlightSimulationService {
     private static final double TAKEOFF_SPEED = 250.0; // 250 km/h au décollage
     private static final double UPDATE_INTERVAL_SECONDS = 5.0; // Mise à jour toutes les 5 secondes
     
+    private static double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
+        final int R = 6371; // Rayon de la Terre en km
+        
+        double latDistance = Math.toRadians(lat2 - lat1);
+        double lonDistance = Math.toRadians(lon2 - lon1);
+        
+        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
+        
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        
+        return R * c;
+    }
+    
+    private static double calculateBearing(double lat1, double lon1, double lat2, double lon2) {
+        double lat1Rad = Math.toRadians(lat1);
+        double lat2Rad = Math.toRadians(lat2);
+        double deltaLon = Math.toRadians(lon2 - lon1);
+        
+        double y = Math.sin(deltaLon) * Math.cos(lat2Rad);
+        double x = Math.cos(lat1Rad) * Math.sin(lat2Rad)
+                - Math.sin(lat1Rad) * Math.cos(lat2Rad) * Math.cos(deltaLon);
+        
+        double bearing = Math.toDegrees(Math.atan2(y, x));
+        return (bearing + 360) % 360; // Normaliser entre 0 et 360
+    }
+    
     /**
-     * Classe interne pour stocker l'état d'une simulation de vol
+     * Calcule l'ETA (temps de vol estimé)
+     * Temps de montée : jusqu'à 10km à 10m/s = 1000 secondes = ~16 minutes
+     * Temps de croisière : distance / vitesse
+     * Temps de descente : ~15 minutes
      */
-    private static class FlightSimulation {
-        Long flightId;
-        Long aircraftId;
-        Airport departureAirport;
-        Airport arrivalAirport;
-        double currentLat;
-        double currentLon;
-        double currentAltitude;
-        double currentSpeed;
-        double currentHeading;
-        LocalDateTime departureTime;
-        LocalDateTime estimatedArrival;
-        double totalDistance;
-        double distanceRemaining;
-        boolean isClimbing;
-        boolean isDescending;
-        boolean isCruising;
-        
-        FlightSimulation(Long flightId, Long aircraftId, Airport departure, Airport arrival) {
-            this.flightId = flightId;
-            this.aircraftId = aircraftId;
-            this.departureAirport = departure; // Utilisé pour calculer la distance
-            this.arrivalAirport = arrival;
-            this.currentLat = departure.getLatitude();
-            this.currentLon = departure.getLongitude();
-            this.currentAltitude = 0.0;
-            this.currentSpeed = TAKEOFF_SPEED;
-            this.departureTime = LocalDateTime.now();
-            this.isClimbing = true;
-            this.isDescending = false;
-            this.isCruising = false;
-            
-            // Calculer la distance totale
-            this.totalDistance = calculateDistance(
-                departure.getLatitude(), departure.getLongitude(),
-                arrival.getLatitude(), arrival.getLongitude()
-            );
-            this.distanceRemaining = totalDistance;
-            
-            // Calculer l'ETA (temps de vol estimé)
-            // Temps de montée : jusqu'à 10km à 10m/s = 1000 secondes = ~16 minutes
-            // Temps de croisière : distance / vitesse
-            // Temps de descente : ~15 minutes
-            double climbTime = CRUISE_ALTITUDE / CLIMB_RATE; // secondes
-            double cruiseTime = (totalDistance * 1000) / (CRUISE_SPEED / 3.6); // secondes (convertir km/h en m/s)
-            double descentTime = CRUISE_ALTITUDE / DESCENT_RATE; // secondes
-            double totalFlightTimeSeconds = climbTime + cruiseTime + descentTime;
-            
-            this.estimatedArrival = departureTime.plusSeconds((long) totalFlightTimeSeconds);
-            
-            // Calculer le cap initial
-            this.currentHeading = calculateBearing(
-                departure.getLatitude(), departure.getLongitude(),
-                arrival.getLatitude(), arrival.getLongitude()
-            );
-        }
+    private static LocalDateTime estimateArrival(LocalDateTime departureTime, double totalDistance) {
+        double climbTime = CRUISE_ALTITUDE / CLIMB_RATE; // secondes
+        double cruiseTime = (totalDistance * 1000) / (CRUISE_SPEED / 3.6); // secondes (convertir km/h en m/s)
+        double descentTime = CRUISE_ALTITUDE / DESCENT_RATE; // secondes
+        double totalFlightTimeSeconds = climbTime + cruiseTime + descentTime;
         
-        private static double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-            final int R = 6371; // Rayon de la Terre en km
-            
-            double latDistance = Math.toRadians(lat2 - lat1);
-            double lonDistance = Math.toRadians(lon2 - lon1);
-            
-            double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                    + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                    * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
-            
-            double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-            
-            return R * c;
-        }
-        
-        private static double calculateBearing(double lat1, double lon1, double lat2, double lon2) {
-            double lat1Rad = Math.toRadians(lat1);
-            double lat2Rad = Math.toRadians(lat2);
-            double deltaLon = Math.toRadians(lon2 - lon1);
-            
-            double y = Math.sin(deltaLon) * Math.cos(lat2Rad);
-            double x = Math.cos(lat1Rad) * Math.sin(lat2Rad)
-                    - Math.sin(lat1Rad) * Math.cos(lat2Rad) * Math.cos(deltaLon);
-            
-            double bearing = Math.toDegrees(Math.atan2(y, x));
-            return (bearing + 360) % 360; // Normaliser entre 0 et 360
-        }
+        return departureTime.plusSeconds((long) totalFlightTimeSeconds);
     }
     
     /**
@@ -158,19 +117,39 @@ public class FlightSimulationService {
         Airport departure = departureOpt.get();
         Airport arrival = arrivalOpt.get();
         
-        // Vérifier qu'il n'y a pas déjà une simulation en cours
-        if (activeSimulations.containsKey(aircraftId)) {
-            log.warn("Simulation déjà en cours pour l'avion {}", aircraftId);
-            return null;
+        // Réserver l'avion avant toute écriture : un second démarrage concurrent s'arrête ici
+        synchronized (simulations) {
+            if (simulations.contains(aircraftId) || !startingAircraftIds.add(aircraftId)) {
+                log.warn("Simulation déjà en cours pour l'avion {}", aircraftId);
+                return null;
+            }
         }
         
+        try {
+            return startReservedSimulation(aircraft, departure, arrival);
+        } finally {
+            synchronized (simulations) {
+                startingAircraftIds.remove(aircraftId);
+            }
+        }
+    }
+    
+    /**
+     * Crée ou met à jour le vol, place l'avion au départ et enregistre la simulation
+     * (avion réservé dans startingAircraftIds par l'appelant)
+     */
+    private Flight startReservedSimulation(Aircraft aircraft, Airport departure, Airport arrival) {
+        Long aircraftId = aircraft.getId();
+        
         // Créer ou mettre à jour le vol
         Flight flight;
+        OperationalCounters.FlightState before = null;
         Optional<Flight> existingFlightOpt = flightRepository
             .findByAircraftIdAndFlightStatusNot(aircraftId, FlightStatus.TERMINE);
         
         if (existingFlightOpt.isPresent()) {
             flight = existingFlightOpt.get();
+            before = OperationalCounters.FlightState.of(flight);
             flight.setFlightStatus(FlightStatus.EN_COURS);
             flight.setActualDeparture(LocalDateTime.now());
         } else {
@@ -184,155 +163,201 @@ public class FlightSimulationService {
             flight.setScheduledDeparture(LocalDateTime.now());
         }
         
-        // Sauvegarder le vol d'abord pour obtenir l'ID
-        flight = flightRepository.save(flight);
-        Long flightId = flight.getId();
-        
-        // Créer la simulation avec l'ID du vol
-        FlightSimulation simulation = new FlightSimulation(
-            flightId != null ? flightId : 0L,
-            aircraftId,
-            departure,
-            arrival
+        // Calculer la distance totale, le cap initial et l'ETA
+        double totalDistance = calculateDistance(
+            departure.getLatitude(), departure.getLongitude(),
+            arrival.getLatitude(), arrival.getLongitude()
         );
+        double initialHeading = calculateBearing(
+            departure.getLatitude(), departure.getLongitude(),
+            arrival.getLatitude(), arrival.getLongitude()
+        );
+        LocalDateTime estimatedArrival = estimateArrival(LocalDateTime.now(), totalDistance);
         
         // Mettre à jour le vol avec l'ETA
-        flight.setEstimatedArrival(simulation.estimatedArrival);
-        flight.setScheduledArrival(simulation.estimatedArrival);
+        flight.setEstimatedArrival(estimatedArrival);
+        flight.setScheduledArrival(estimatedArrival);
         flight = flightRepository.save(flight);
-        simulation.flightId = flight.getId();
+        operationalCounters.flightChanged(before, flight);
         
         // Mettre à jour l'avion
+        AircraftStatus previousStatus = aircraft.getStatus();
         aircraft.setStatus(AircraftStatus.EN_VOL);
         aircraft.setPositionLat(departure.getLatitude());
         aircraft.setPositionLon(departure.getLongitude());
         aircraft.setAltitude(0.0);
         aircraft.setSpeed(TAKEOFF_SPEED);
-        aircraft.setHeading(simulation.currentHeading);
+        aircraft.setHeading(initialHeading);
         aircraft.setAirport(null); // Plus à l'aéroport
+        aircraftPositionStore.evict(aircraftId);
         aircraftRepository.save(aircraft);
+        operationalCounters.aircraftStatusChanged(previousStatus, AircraftStatus.EN_VOL);
         
-        // Démarrer la simulation asynchrone
-        activeSimulations.put(aircraftId, simulation);
-        startSimulationAsync(simulation);
+        // Enregistrer la simulation : elle avancera au prochain cycle de advanceSimulations()
+        synchronized (simulations) {
+            simulations.add(flight.getId(), aircraftId, arrival.getId(),
+                arrival.getLatitude(), arrival.getLongitude(),
+                departure.getLatitude(), departure.getLongitude(),
+                TAKEOFF_SPEED, initialHeading, totalDistance, estimatedArrival);
+        }
         
         log.info("Simulation démarrée pour le vol {} - ETA: {}", 
-            flight.getFlightNumber(), simulation.estimatedArrival);
+            flight.getFlightNumber(), estimatedArrival);
         
         return flight;
     }
     
     /**
-     * Démarre la simulation de manière asynchrone
+     * Fait avancer toutes les simulations actives d'un pas de UPDATE_INTERVAL_SECONDS
+     * Appelé par TrafficTickPipeline à chaque cycle : un seul thread pour tous les vols,
+     * aucune lecture base, positions enregistrées dans AircraftPositionStore (écriture différée)
+     * 
+     * @return IDs des avions pilotés par la simulation (à exclure du mouvement aléatoire)
      */
-    @Async
-    private void startSimulationAsync(FlightSimulation simulation) {
-        log.info("Démarrage simulation asynchrone pour avion {}", simulation.aircraftId);
-        
-        while (activeSimulations.containsKey(simulation.aircraftId)) {
-            try {
-                updateFlightPosition(simulation);
-                Thread.sleep((long) (UPDATE_INTERVAL_SECONDS * 1000));
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                log.error("Simulation interrompue pour avion {}", simulation.aircraftId);
-                break;
+    public Set<Long> advanceSimulations() {
+        LocalDateTime now = LocalDateTime.now();
+        long timestamp = System.currentTimeMillis();
+        Set<Long> simulatedAircraftIds = new HashSet<>();
+        List<AircraftPositionUpdate> positions = new ArrayList<>();
+        List<Map<String, Object>> flightUpdates = new ArrayList<>();
+        List<long[]> landedFlights = new ArrayList<>(); // {flightId, aircraftId, arrivalAirportId}
+        
+        synchronized (simulations) {
+            // Arrêter les simulations dont l'avion a disparu de la base
+            for (Long aircraftId : aircraftPositionStore.drainMissingAircraft()) {
+                int missingSlot = simulations.slotOf(aircraftId);
+                if (missingSlot >= 0) {
+                    log.error("Avion {} non trouvé, arrêt simulation", aircraftId);
+                    simulations.remove(missingSlot);
+                }
+            }
+            
+            int slot = 0;
+            while (slot < simulations.size) {
+                simulatedAircraftIds.add(simulations.aircraftIds[slot]);
+                
+                if (advance(slot)) {
+                    landedFlights.add(new long[]{
+                        simulations.flightIds[slot], simulations.aircraftIds[slot], simulations.arrivalAirportIds[slot]
+                    });
+                    // Le dernier slot prend la place de celui-ci : ne pas incrémenter
+                    simulations.remove(slot);
+                    continue;
+                }
+                
+                positions.add(toPositionUpdate(slot, now));
+                flightUpdates.add(toFlightUpdate(slot, timestamp));
+                slot++;
             }
         }
+        
+        // Positions en mémoire, écrites en base par le flusher du store
+        aircraftPositionStore.recordAll(positions);
+        
+        // Envoyer les mises à jour de vol via WebSocket (une sérialisation pour les deux topics)
+        for (Map<String, Object> flightUpdate : flightUpdates) {
+            webSocketBroadcaster.broadcast(flightUpdate,
+                "/topic/flight/" + flightUpdate.get("flightId"),
+                "/topic/aircraft/" + flightUpdate.get("aircraftId"));
+        }
+        
+        // Terminer les vols atterris
+        for (long[] landed : landedFlights) {
+            completeFlight(landed[0], landed[1], landed[2]);
+        }
+        
+        return simulatedAircraftIds;
     }
     
     /**
-     * Met à jour la position de l'avion dans la simulation
+     * Fait avancer un slot d'un pas de simulation
+     * @return true si l'avion vient d'atterrir
      */
-    private void updateFlightPosition(FlightSimulation sim) {
-        Optional<Aircraft> aircraftOpt = aircraftRepository.findById(sim.aircraftId);
-        if (aircraftOpt.isEmpty()) {
-            log.error("Avion {} non trouvé, arrêt simulation", sim.aircraftId);
-            activeSimulations.remove(sim.aircraftId);
-            return;
-        }
-        
-        Aircraft aircraft = aircraftOpt.get();
+    private boolean advance(int slot) {
+        FlightSimulationTable sim = simulations;
         
         // Calculer la distance parcourue (en km)
-        double speedMs = sim.currentSpeed / 3.6; // Convertir km/h en m/s
+        double speedMs = sim.speed[slot] / 3.6; // Convertir km/h en m/s
         double distanceIncrement = (speedMs * UPDATE_INTERVAL_SECONDS) / 1000.0; // km
         
         // Calculer la nouvelle position
         double[] newPosition = calculateNewPosition(
-            sim.currentLat, sim.currentLon,
-            sim.currentHeading, distanceIncrement
+            sim.lat[slot], sim.lon[slot],
+            sim.heading[slot], distanceIncrement
         );
         
-        sim.currentLat = newPosition[0];
-        sim.currentLon = newPosition[1];
-        sim.distanceRemaining -= distanceIncrement;
+        sim.lat[slot] = newPosition[0];
+        sim.lon[slot] = newPosition[1];
+        sim.distanceRemaining[slot] -= distanceIncrement;
         
         // Gérer les phases de vol
-        if (sim.isClimbing) {
-            sim.currentAltitude += CLIMB_RATE * UPDATE_INTERVAL_SECONDS;
-            sim.currentSpeed = Math.min(sim.currentSpeed + 5, CRUISE_SPEED); // Accélération progressive
+        if (sim.phase[slot] == FlightSimulationTable.PHASE_CLIMB) {
+            sim.altitude[slot] += CLIMB_RATE * UPDATE_INTERVAL_SECONDS;
+            sim.speed[slot] = Math.min(sim.speed[slot] + 5, CRUISE_SPEED); // Accélération progressive
             
-            if (sim.currentAltitude >= CRUISE_ALTITUDE) {
-                sim.isClimbing = false;
-                sim.isCruising = true;
-                sim.currentAltitude = CRUISE_ALTITUDE;
-                sim.currentSpeed = CRUISE_SPEED;
-                log.info("Avion {} en croisière", sim.aircraftId);
+            if (sim.altitude[slot] >= CRUISE_ALTITUDE) {
+                sim.phase[slot] = FlightSimulationTable.PHASE_CRUISE;
+                sim.altitude[slot] = CRUISE_ALTITUDE;
+                sim.speed[slot] = CRUISE_SPEED;
+                log.info("Avion {} en croisière", sim.aircraftIds[slot]);
             }
-        } else if (sim.isCruising) {
+        } else if (sim.phase[slot] == FlightSimulationTable.PHASE_CRUISE) {
             // Vérifier si on doit commencer la descente (à 50km de l'arrivée)
-            if (sim.distanceRemaining <= 50.0) {
-                sim.isCruising = false;
-                sim.isDescending = true;
-                log.info("Avion {} commence la descente", sim.aircraftId);
+            if (sim.distanceRemaining[slot] <= 50.0) {
+                sim.phase[slot] = FlightSimulationTable.PHASE_DESCENT;
+                log.info("Avion {} commence la descente", sim.aircraftIds[slot]);
             }
-        } else if (sim.isDescending) {
-            sim.currentAltitude -= DESCENT_RATE * UPDATE_INTERVAL_SECONDS;
-            sim.currentSpeed = Math.max(sim.currentSpeed - 3, 200.0); // Ralentissement progressif
+        } else {
+            sim.altitude[slot] -= DESCENT_RATE * UPDATE_INTERVAL_SECONDS;
+            sim.speed[slot] = Math.max(sim.speed[slot] - 3, 200.0); // Ralentissement progressif
             
-            if (sim.currentAltitude <= 0 || sim.distanceRemaining <= 0.5) {
+            if (sim.altitude[slot] <= 0 || sim.distanceRemaining[slot] <= 0.5) {
                 // Atterrissage
-                sim.currentAltitude = 0.0;
-                sim.currentSpeed = 0.0;
-                sim.currentLat = sim.arrivalAirport.getLatitude();
-                sim.currentLon = sim.arrivalAirport.getLongitude();
-                
-                // Terminer le vol
-                completeFlight(sim);
-                return;
+                sim.altitude[slot] = 0.0;
+                sim.speed[slot] = 0.0;
+                sim.lat[slot] = sim.arrivalLat[slot];
+                sim.lon[slot] = sim.arrivalLon[slot];
+                return true;
             }
         }
         
-        // Mettre à jour l'avion dans la base de données
-        aircraft.setPositionLat(sim.currentLat);
-        aircraft.setPositionLon(sim.currentLon);
-        aircraft.setAltitude(sim.currentAltitude);
-        aircraft.setSpeed(sim.currentSpeed);
-        aircraft.setHeading(sim.currentHeading);
-        aircraft.setAirSpeed(sim.currentSpeed);
-        aircraft.setVerticalSpeed(sim.isClimbing ? CLIMB_RATE : (sim.isDescending ? -DESCENT_RATE : 0.0));
-        aircraftRepository.save(aircraft);
-        
-        // Envoyer la mise à jour via WebSocket
-        realtimeUpdateService.sendAircraftUpdate(aircraft);
-        
-        // Envoyer une mise à jour spécifique pour le vol
+        return false;
+    }
+    
+    private double verticalSpeed(int slot) {
+        byte phase = simulations.phase[slot];
+        return phase == FlightSimulationTable.PHASE_CLIMB ? CLIMB_RATE
+            : (phase == FlightSimulationTable.PHASE_DESCENT ? -DESCENT_RATE : 0.0);
+    }
+    
+    private AircraftPositionUpdate toPositionUpdate(int slot, LocalDateTime now) {
+        return new AircraftPositionUpdate(
+            simulations.aircraftIds[slot],
+            simulations.lat[slot],
+            simulations.lon[slot],
+            simulations.altitude[slot],
+            simulations.speed[slot],
+            simulations.heading[slot],
+            simulations.speed[slot],
+            verticalSpeed(slot),
+            now
+        );
+    }
+    
+    private Map<String, Object> toFlightUpdate(int slot, long timestamp) {
         Map<String, Object> flightUpdate = new HashMap<>();
         flightUpdate.put("type", "flight_update");
-        flightUpdate.put("flightId", sim.flightId);
-        flightUpdate.put("aircraftId", sim.aircraftId);
-        flightUpdate.put("latitude", sim.currentLat);
-        flightUpdate.put("longitude", sim.currentLon);
-        flightUpdate.put("altitude", sim.currentAltitude);
-        flightUpdate.put("speed", sim.currentSpeed);
-        flightUpdate.put("heading", sim.currentHeading);
-        flightUpdate.put("distanceRemaining", sim.distanceRemaining);
-        flightUpdate.put("estimatedArrival", sim.estimatedArrival);
-        flightUpdate.put("timestamp", System.currentTimeMillis());
-        
-        messagingTemplate.convertAndSend("/topic/flight/" + sim.flightId, flightUpdate);
-        messagingTemplate.convertAndSend("/topic/aircraft/" + sim.aircraftId, flightUpdate);
+        flightUpdate.put("flightId", simulations.flightIds[slot]);
+        flightUpdate.put("aircraftId", simulations.aircraftIds[slot]);
+        flightUpdate.put("latitude", simulations.lat[slot]);
+        flightUpdate.put("longitude", simulations.lon[slot]);
+        flightUpdate.put("altitude", simulations.altitude[slot]);
+        flightUpdate.put("speed", simulations.speed[slot]);
+        flightUpdate.put("heading", simulations.heading[slot]);
+        flightUpdate.put("distanceRemaining", simulations.distanceRemaining[slot]);
+        flightUpdate.put("estimatedArrival", simulations.estimatedArrival[slot]);
+        flightUpdate.put("timestamp", timestamp);
+        return flightUpdate;
     }
     
     /**
@@ -364,42 +389,45 @@ public class FlightSimulationService {
     /**
      * Termine le vol et nettoie la simulation
      */
-    private void completeFlight(FlightSimulation sim) {
-        log.info("Vol {} terminé - Avion atterri", sim.flightId);
+    private void completeFlight(long flightId, long aircraftId, long arrivalAirportId) {
+        log.info("Vol {} terminé - Avion atterri", flightId);
         
-        Optional<Flight> flightOpt = flightRepository.findById(sim.flightId);
-        Optional<Aircraft> aircraftOpt = aircraftRepository.findById(sim.aircraftId);
-        Optional<Airport> arrivalOpt = airportRepository.findById(sim.arrivalAirport.getId());
+        Optional<Flight> flightOpt = flightRepository.findById(flightId);
+        Optional<Aircraft> aircraftOpt = aircraftRepository.findById(aircraftId);
+        Optional<Airport> arrivalOpt = airportRepository.findById(arrivalAirportId);
         
         if (flightOpt.isPresent() && aircraftOpt.isPresent() && arrivalOpt.isPresent()) {
             Flight flight = flightOpt.get();
             Aircraft aircraft = aircraftOpt.get();
             Airport arrival = arrivalOpt.get();
             
+            OperationalCounters.FlightState before = OperationalCounters.FlightState.of(flight);
             flight.setFlightStatus(FlightStatus.TERMINE);
             flight.setActualArrival(LocalDateTime.now());
             flightRepository.save(flight);
+            operationalCounters.flightChanged(before, flight);
             
+            AircraftStatus previousStatus = aircraft.getStatus();
             aircraft.setStatus(AircraftStatus.AU_SOL);
             aircraft.setAirport(arrival);
             aircraft.setPositionLat(arrival.getLatitude());
             aircraft.setPositionLon(arrival.getLongitude());
             aircraft.setAltitude(0.0);
             aircraft.setSpeed(0.0);
+            aircraftPositionStore.evict(aircraftId);
             aircraftRepository.save(aircraft);
+            operationalCounters.aircraftStatusChanged(previousStatus, AircraftStatus.AU_SOL);
             
             // Envoyer notification de fin de vol
             Map<String, Object> completionUpdate = new HashMap<>();
             completionUpdate.put("type", "flight_completed");
-            completionUpdate.put("flightId", sim.flightId);
-            completionUpdate.put("aircraftId", sim.aircraftId);
+            completionUpdate.put("flightId", flightId);
+            completionUpdate.put("aircraftId", aircraftId);
             completionUpdate.put("timestamp", System.currentTimeMillis());
             
-            messagingTemplate.convertAndSend("/topic/flight/" + sim.flightId, completionUpdate);
-            messagingTemplate.convertAndSend("/topic/aircraft/" + sim.aircraftId, completionUpdate);
+            webSocketBroadcaster.broadcast(completionUpdate,
+                "/topic/flight/" + flightId, "/topic/aircraft/" + aircraftId);
         }
-        
-        activeSimulations.remove(sim.aircraftId);
     }
     
     /**
@@ -435,14 +463,16 @@ public class FlightSimulationService {
         // Si le vol est en cours, ajouter les infos de simulation
         if (flight.getAircraft() != null) {
             Long aircraftId = flight.getAircraft().getId();
-            if (activeSimulations.containsKey(aircraftId)) {
-                FlightSimulation sim = activeSimulations.get(aircraftId);
-                status.put("currentLatitude", sim.currentLat);
-                status.put("currentLongitude", sim.currentLon);
-                status.put("currentAltitude", sim.currentAltitude);
-                status.put("currentSpeed", sim.currentSpeed);
-                status.put("currentHeading", sim.currentHeading);
-                status.put("distanceRemaining", sim.distanceRemaining);
+            synchronized (simulations) {
+                int slot = simulations.slotOf(aircraftId);
+                if (slot >= 0) {
+                    status.put("currentLatitude", simulations.lat[slot]);
+                    status.put("currentLongitude", simulations.lon[slot]);
+                    status.put("currentAltitude", simulations.altitude[slot]);
+                    status.put("currentSpeed", simulations.speed[slot]);
+                    status.put("currentHeading", simulations.heading[slot]);
+                    status.put("distanceRemaining", simulations.distanceRemaining[slot]);
+                }
             }
         }
         
@@ -453,7 +483,18 @@ public class FlightSimulationService {
      * Vérifie si un vol est en cours de simulation
      */
     public boolean isFlightInProgress(Long aircraftId) {
-        return activeSimulations.containsKey(aircraftId);
+        synchronized (simulations) {
+            return simulations.contains(aircraftId);
+        }
+    }
+    
+    /**
+     * Nombre de vols en cours de simulation
+     */
+    public int getActiveSimulationCount() {
+        synchronized (simulations) {
+            return simulations.size;
+        }
     }
 }
 
@@ -0,0 +1,121 @@
+package com.flightradar.service;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * État de toutes les simulations de vol actives, stocké en colonnes (un tableau par champ)
+ * Un vol occupe un "slot" ; la suppression déplace le dernier slot à la place du slot libéré.
+ * Pas de synchronisation interne : FlightSimulationService verrouille la table.
+ */
+final class FlightSimulationTable {
+
+    static final byte PHASE_CLIMB = 0;
+    static final byte PHASE_CRUISE = 1;
+    static final byte PHASE_DESCENT = 2;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    int size;
+
+    long[] flightIds = new long[INITIAL_CAPACITY];
+    long[] aircraftIds = new long[INITIAL_CAPACITY];
+    long[] arrivalAirportIds = new long[INITIAL_CAPACITY];
+    double[] arrivalLat = new double[INITIAL_CAPACITY];
+    double[] arrivalLon = new double[INITIAL_CAPACITY];
+    double[] lat = new double[INITIAL_CAPACITY];
+    double[] lon = new double[INITIAL_CAPACITY];
+    double[] altitude = new double[INITIAL_CAPACITY];
+    double[] speed = new double[INITIAL_CAPACITY];
+    double[] heading = new double[INITIAL_CAPACITY];
+    double[] distanceRemaining = new double[INITIAL_CAPACITY];
+    byte[] phase = new byte[INITIAL_CAPACITY];
+    LocalDateTime[] estimatedArrival = new LocalDateTime[INITIAL_CAPACITY];
+
+    // ID avion -> slot
+    private final Map<Long, Integer> slotByAircraftId = new HashMap<>();
+
+    /**
+     * Ajoute une simulation au départ de (lat, lon), altitude 0, en montée
+     * @return Slot attribué
+     */
+    int add(long flightId, long aircraftId, long arrivalAirportId, double arrivalLatitude, double arrivalLongitude,
+            double startLat, double startLon, double startSpeed, double startHeading,
+            double totalDistance, LocalDateTime eta) {
+        if (size == flightIds.length) {
+            grow();
+        }
+        int slot = size++;
+        flightIds[slot] = flightId;
+        aircraftIds[slot] = aircraftId;
+        arrivalAirportIds[slot] = arrivalAirportId;
+        arrivalLat[slot] = arrivalLatitude;
+        arrivalLon[slot] = arrivalLongitude;
+        lat[slot] = startLat;
+        lon[slot] = startLon;
+        altitude[slot] = 0.0;
+        speed[slot] = startSpeed;
+        heading[slot] = startHeading;
+        distanceRemaining[slot] = totalDistance;
+        phase[slot] = PHASE_CLIMB;
+        estimatedArrival[slot] = eta;
+        slotByAircraftId.put(aircraftId, slot);
+        return slot;
+    }
+
+    /**
+     * @return Slot de la simulation de l'avion, ou -1
+     */
+    int slotOf(long aircraftId) {
+        Integer slot = slotByAircraftId.get(aircraftId);
+        return slot != null ? slot : -1;
+    }
+
+    boolean contains(long aircraftId) {
+        return slotByAircraftId.containsKey(aircraftId);
+    }
+
+    /**
+     * Supprime un slot en y déplaçant le dernier
+     */
+    void remove(int slot) {
+        slotByAircraftId.remove(aircraftIds[slot]);
+        int last = --size;
+        if (slot != last) {
+            flightIds[slot] = flightIds[last];
+            aircraftIds[slot] = aircraftIds[last];
+            arrivalAirportIds[slot] = arrivalAirportIds[last];
+            arrivalLat[slot] = arrivalLat[last];
+            arrivalLon[slot] = arrivalLon[last];
+            lat[slot] = lat[last];
+            lon[slot] = lon[last];
+            altitude[slot] = altitude[last];
+            speed[slot] = speed[last];
+            heading[slot] = heading[last];
+            distanceRemaining[slot] = distanceRemaining[last];
+            phase[slot] = phase[last];
+            estimatedArrival[slot] = estimatedArrival[last];
+            slotByAircraftId.put(aircraftIds[slot], slot);
+        }
+        estimatedArrival[last] = null;
+    }
+
+    private void grow() {
+        int capacity = flightIds.length * 2;
+        flightIds = Arrays.copyOf(flightIds, capacity);
+        aircraftIds = Arrays.copyOf(aircraftIds, capacity);
+        arrivalAirportIds = Arrays.copyOf(arrivalAirportIds, capacity);
+        arrivalLat = Arrays.copyOf(arrivalLat, capacity);
+        arrivalLon = Arrays.copyOf(arrivalLon, capacity);
+        lat = Arrays.copyOf(lat, capacity);
+        lon = Arrays.copyOf(lon, capacity);
+        altitude = Arrays.copyOf(altitude, capacity);
+        speed = Arrays.copyOf(speed, capacity);
+        heading = Arrays.copyOf(heading, capacity);
+        distanceRemaining = Arrays.copyOf(distanceRemaining, capacity);
+        phase = Arrays.copyOf(phase, capacity);
+        estimatedArrival = Arrays.copyOf(estimatedArrival, capacity);
+    }
+}
@@ -0,0 +1,170 @@
+package com.flightradar.service;
+
+import com.flightradar.model.WeatherData;
+import com.flightradar.repository.WeatherDataRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Dernier relevé météo de chaque aéroport, tenu en mémoire
+ * - Chargé depuis weather_data au démarrage, puis mis à jour par WeatherService à chaque écriture :
+ *   les lecteurs (autorisations ATC, tableaux de bord, ATIS) n'interrogent plus la base
+ * - Un relevé ne remplace le précédent que s'il est plus récent
+ * - Un message "weather_update" est diffusé sur /topic/weather/{airportId} uniquement si une valeur
+ *   a changé (un relevé identique au précédent n'est pas rediffusé)
+ * - Alertes actives = état courant (getActiveAlerts), de taille bornée par le nombre d'aéroports
+ * Tant que le chargement initial n'a pas abouti, les lectures retombent sur la base.
+ */
+@Service
+@Slf4j
+public class LatestWeatherCache {
+
+    public static final String TOPIC_PREFIX = "/topic/weather/";
+    public static final String TYPE = "weather_update";
+
+    @Autowired
+    private WeatherDataRepository weatherDataRepository;
+
+    @Autowired
+    private WebSocketBroadcaster webSocketBroadcaster;
+
+    // ID d'aéroport -> dernier relevé
+    private final Map<Long, WeatherData> latest = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    // Statistiques
+    private final AtomicLong updates = new AtomicLong();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong unchanged = new AtomicLong();
+    private final AtomicLong fallbackReads = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        try {
+            for (WeatherData weather : weatherDataRepository.findLatestPerAirport()) {
+                latest.merge(weather.getAirport().getId(), weather, LatestWeatherCache::newer);
+            }
+            loaded = true;
+            log.info("Météo courante chargée pour {} aéroports", latest.size());
+        } catch (RuntimeException e) {
+            log.warn("Chargement de la météo courante impossible, lecture en base en attendant : {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Dernier relevé d'un aéroport (O(1), sans requête une fois le cache chargé)
+     */
+    public Optional<WeatherData> get(Long airportId) {
+        if (airportId == null) {
+            return Optional.empty();
+        }
+        WeatherData weather = latest.get(airportId);
+        if (weather != null || loaded) {
+            return Optional.ofNullable(weather);
+        }
+        fallbackReads.incrementAndGet();
+        Optional<WeatherData> stored = weatherDataRepository.findFirstByAirportIdOrderByTimestampDesc(airportId);
+        stored.ifPresent(found -> latest.merge(airportId, found, LatestWeatherCache::newer));
+        return stored;
+    }
+
+    /**
+     * Derniers relevés de tous les aéroports connus
+     */
+    public Collection<WeatherData> getAll() {
+        return Collections.unmodifiableCollection(latest.values());
+    }
+
+    /**
+     * Alertes météo actives : derniers relevés en alerte, au plus un par aéroport
+     * (l'historique des alertes passées n'est pas relu)
+     */
+    public List<WeatherData> getActiveAlerts() {
+        List<WeatherData> alerts = new ArrayList<>();
+        for (WeatherData weather : latest.values()) {
+            if (Boolean.TRUE.equals(weather.getAlert())) {
+                alerts.add(weather);
+            }
+        }
+        return alerts;
+    }
+
+    /**
+     * Enregistre des relevés qui viennent d'être écrits en base
+     * et notifie les abonnés des aéroports dont la météo a changé
+     */
+    public void updateAll(Collection<WeatherData> records) {
+        for (WeatherData weather : records) {
+            update(weather);
+        }
+    }
+
+    public void update(WeatherData weather) {
+        if (weather.getAirport() == null || weather.getAirport().getId() == null) {
+            return;
+        }
+        Long airportId = weather.getAirport().getId();
+        updates.incrementAndGet();
+
+        WeatherData[] previous = new WeatherData[1];
+        WeatherData current = latest.compute(airportId, (id, existing) -> {
+            previous[0] = existing;
+            return existing == null ? weather : newer(existing, weather);
+        });
+        if (current != weather) {
+            // Relevé plus ancien que celui en mémoire
+            return;
+        }
+        if (previous[0] != null && sameValues(previous[0], weather)) {
+            unchanged.incrementAndGet();
+            return;
+        }
+
+        Map<String, Object> update = new HashMap<>();
+        update.put("type", TYPE);
+        update.put("data", weather);
+        update.put("timestamp", System.currentTimeMillis());
+        webSocketBroadcaster.broadcast(update, TOPIC_PREFIX + airportId);
+        published.incrementAndGet();
+    }
+
+    private static WeatherData newer(WeatherData existing, WeatherData candidate) {
+        if (existing.getTimestamp() == null) {
+            return candidate;
+        }
+        return candidate.getTimestamp() != null && !candidate.getTimestamp().isBefore(existing.getTimestamp())
+            ? candidate : existing;
+    }
+
+    /**
+     * Valeurs observées identiques (horodatage et identifiant exclus)
+     */
+    static boolean sameValues(WeatherData a, WeatherData b) {
+        return Objects.equals(a.getWindSpeed(), b.getWindSpeed())
+            && Objects.equals(a.getWindDirection(), b.getWindDirection())
+            && Objects.equals(a.getVisibility(), b.getVisibility())
+            && Objects.equals(a.getTemperature(), b.getTemperature())
+            && Objects.equals(a.getHumidity(), b.getHumidity())
+            && Objects.equals(a.getPressure(), b.getPressure())
+            && Objects.equals(a.getConditions(), b.getConditions())
+            && Objects.equals(a.getCrosswind(), b.getCrosswind())
+            && Objects.equals(a.getAlert(), b.getAlert());
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("loaded", loaded);
+        stats.put("airports", latest.size());
+        stats.put("updates", updates.get());
+        stats.put("published", published.get());
+        stats.put("unchanged", unchanged.get());
+        stats.put("fallbackReads", fallbackReads.get());
+        return stats;
+    }
+}
@@ -0,0 +1,74 @@
+package com.flightradar.service;
+
+import com.flightradar.model.dto.LiveAircraft;
+
+import java.util.*;
+
+/**
+ * Vue figée des avions OpenSky, publiée d'un bloc par OpenSkyService (échange volatile)
+ * Les lecteurs voient toujours une mise à jour complète, jamais une liste vidée ou partielle.
+ * Index construits une fois par mise à jour :
+ * - icao24 -> avion (recherche O(1))
+ * - originCountry et radarStatus -> avions (filtres sans parcours)
+ * Les clés sont en minuscules : les recherches restent insensibles à la casse.
+ */
+public class LiveAircraftSnapshot {
+    
+    static final LiveAircraftSnapshot EMPTY = new LiveAircraftSnapshot(List.of(), 0);
+    
+    private final List<LiveAircraft> aircraft;
+    private final long timestamp;
+    private final Map<String, LiveAircraft> byIcao24;
+    private final Map<String, List<LiveAircraft>> byCountry;
+    private final Map<String, List<LiveAircraft>> byRadarStatus;
+    
+    public LiveAircraftSnapshot(List<LiveAircraft> aircraft, long timestamp) {
+        this.aircraft = List.copyOf(aircraft);
+        this.timestamp = timestamp;
+        
+        Map<String, LiveAircraft> icao24Index = new HashMap<>(this.aircraft.size() * 4 / 3 + 1);
+        Map<String, List<LiveAircraft>> countryIndex = new HashMap<>();
+        Map<String, List<LiveAircraft>> radarStatusIndex = new HashMap<>();
+        for (LiveAircraft live : this.aircraft) {
+            if (live.getIcao24() != null) {
+                // Premier vecteur conservé en cas de doublon (comme l'ancien parcours linéaire)
+                icao24Index.putIfAbsent(key(live.getIcao24()), live);
+            }
+            if (live.getOriginCountry() != null) {
+                countryIndex.computeIfAbsent(key(live.getOriginCountry()), k -> new ArrayList<>()).add(live);
+            }
+            if (live.getRadarStatus() != null) {
+                radarStatusIndex.computeIfAbsent(key(live.getRadarStatus()), k -> new ArrayList<>()).add(live);
+            }
+        }
+        this.byIcao24 = icao24Index;
+        this.byCountry = freeze(countryIndex);
+        this.byRadarStatus = freeze(radarStatusIndex);
+    }
+    
+    public List<LiveAircraft> getAircraft() { return aircraft; }
+    public long getTimestamp() { return timestamp; }
+    public int size() { return aircraft.size(); }
+    public boolean isEmpty() { return aircraft.isEmpty(); }
+    
+    public LiveAircraft getByIcao24(String icao24) {
+        return icao24 != null ? byIcao24.get(key(icao24)) : null;
+    }
+    
+    public List<LiveAircraft> getByCountry(String originCountry) {
+        return byCountry.getOrDefault(key(originCountry), List.of());
+    }
+    
+    public List<LiveAircraft> getByRadarStatus(String radarStatus) {
+        return byRadarStatus.getOrDefault(key(radarStatus), List.of());
+    }
+    
+    private static String key(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+    
+    private static Map<String, List<LiveAircraft>> freeze(Map<String, List<LiveAircraft>> index) {
+        index.replaceAll((k, list) -> List.copyOf(list));
+        return index;
+    }
+}
@@ -0,0 +1,193 @@
+package com.flightradar.service;
+
+import com.flightradar.model.dto.LiveAircraft;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Extrapolation (estime) des avions OpenSky entre deux interrogations de l'API
+ * OpenSky n'est interrogé que toutes les 60 s (limite de débit) : chaque avion est projeté
+ * depuis sa dernière position connue selon sa vitesse, son cap et son taux vertical,
+ * sans aucun appel supplémentaire à OpenSky.
+ * - Diffusion (1 Hz par défaut) par ViewportSubscriptionService : chaque client ne reçoit sur
+ *   /user/queue/live-aircraft que les pistes de sa zone, en keyframe / delta (AircraftTrackEncoder, id = icao24)
+ * - contactTime : heure de la dernière position réelle (ms) ; âge = timestamp du message - contactTime
+ * - Au-delà de staleAfterMs, l'avion n'est plus extrapolé ni diffusé
+ * - Le planificateur ne fait que lancer le cycle : extrapolation, encodage et envoi sur un thread dédié,
+ *   cycle ignoré si le précédent n'est pas terminé ou si aucune zone n'est abonnée
+ */
+@Service
+@Slf4j
+public class LiveTrackExtrapolator {
+    
+    public static final String DESTINATION = "/user" + ViewportSubscriptionService.LIVE_SESSION_DESTINATION;
+    
+    // Champs diffusés par piste (en plus de l'id = icao24)
+    static final String[] FIELDS = {"callsign", "status", "radarStatus", "lat", "lon", "alt", "speed", "heading",
+        "vs", "extrapolated", "contactTime"};
+    
+    private static final double EARTH_RADIUS_M = 6_371_000.0;
+    
+    @Autowired
+    private OpenSkyService openSkyService;
+    
+    @Autowired
+    private ViewportSubscriptionService viewportSubscriptionService;
+    
+    @Value("${flightradar.live.stale-after-ms:120000}")
+    private long staleAfterMs = 120000;
+    
+    // Thread des cycles d'extrapolation (remplaçable par les tests)
+    Executor publishExecutor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("live-tracks-"));
+    
+    private final AtomicBoolean publishing = new AtomicBoolean();
+    
+    // Statistiques du dernier cycle
+    private volatile int lastPublished;
+    private volatile int lastStale;
+    private volatile double lastCycleMs;
+    private volatile long cycles;
+    private volatile long skippedCycles;
+    
+    @PreDestroy
+    public void shutdown() {
+        if (publishExecutor instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+    }
+    
+    /**
+     * Lance un cycle d'extrapolation (fréquence : flightradar.live.extrapolation-interval-ms)
+     */
+    @Scheduled(fixedRateString = "${flightradar.live.extrapolation-interval-ms:1000}")
+    public void publish() {
+        if (viewportSubscriptionService.getGroupCount() == 0) {
+            return; // Personne à servir
+        }
+        if (!publishing.compareAndSet(false, true)) {
+            skippedCycles++;
+            return;
+        }
+        try {
+            publishExecutor.execute(() -> {
+                try {
+                    extrapolateAndRoute();
+                } catch (RuntimeException e) {
+                    log.error("Cycle d'extrapolation OpenSky interrompu: {}", e.getMessage());
+                } finally {
+                    publishing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Arrêt en cours
+            publishing.set(false);
+        }
+    }
+    
+    /**
+     * Extrapole les avions de la dernière vue OpenSky et les route vers les zones abonnées
+     */
+    void extrapolateAndRoute() {
+        LiveAircraftSnapshot snapshot = openSkyService.getLiveAircraftSnapshot();
+        if (snapshot.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+        
+        List<AircraftTrackEncoder.Track> tracks = new ArrayList<>(snapshot.size());
+        int stale = 0;
+        for (LiveAircraft aircraft : snapshot.getAircraft()) {
+            AircraftTrackEncoder.Track track = extrapolate(aircraft, snapshot.getTimestamp(), now);
+            if (track != null) {
+                tracks.add(track);
+            } else {
+                stale++;
+            }
+        }
+        viewportSubscriptionService.routeLive(tracks, now);
+        
+        lastPublished = tracks.size();
+        lastStale = stale;
+        lastCycleMs = (System.nanoTime() - start) / 1_000_000.0;
+        cycles++;
+    }
+    
+    /**
+     * Projette un avion à l'instant nowMillis
+     * 
+     * @param receivedMillis Heure de réception de la vue OpenSky (si lastContact est absent)
+     * @return Piste extrapolée, ou null si la dernière position est trop ancienne ou sans icao24
+     */
+    AircraftTrackEncoder.Track extrapolate(LiveAircraft aircraft, long receivedMillis, long nowMillis) {
+        if (aircraft.getIcao24() == null || aircraft.getLatitude() == null || aircraft.getLongitude() == null) {
+            return null;
+        }
+        long positionMillis = aircraft.getLastContact() != null ? aircraft.getLastContact() * 1000 : receivedMillis;
+        long ageMs = Math.max(0, nowMillis - positionMillis);
+        if (ageMs > staleAfterMs) {
+            return null;
+        }
+        
+        double latitude = aircraft.getLatitude();
+        double longitude = aircraft.getLongitude();
+        Double altitude = aircraft.getAltitude();
+        boolean extrapolated = false;
+        
+        // Pas de projection au sol ni sans cap/vitesse connus
+        if (!"on-ground".equals(aircraft.getStatus()) && aircraft.getHeading() != null
+                && aircraft.getVelocity() != null && aircraft.getVelocity() > 0) {
+            double seconds = ageMs / 1000.0;
+            double distance = aircraft.getVelocity() / 3.6 * seconds; // km/h -> m/s
+            double heading = Math.toRadians(aircraft.getHeading());
+            latitude += Math.toDegrees(distance * Math.cos(heading) / EARTH_RADIUS_M);
+            latitude = Math.max(-90.0, Math.min(90.0, latitude));
+            double cosLat = Math.max(0.01, Math.cos(Math.toRadians(latitude)));
+            longitude += Math.toDegrees(distance * Math.sin(heading) / (EARTH_RADIUS_M * cosLat));
+            longitude = ((longitude + 540.0) % 360.0) - 180.0;
+            if (altitude != null && aircraft.getVerticalRate() != null) {
+                altitude = Math.max(0.0, altitude + aircraft.getVerticalRate() * seconds);
+            }
+            extrapolated = ageMs > 0;
+        }
+        
+        Double lat = AircraftTrackEncoder.Track.round(latitude, AircraftTrackEncoder.DEFAULT_POSITION_SCALE);
+        Double lon = AircraftTrackEncoder.Track.round(longitude, AircraftTrackEncoder.DEFAULT_POSITION_SCALE);
+        return new AircraftTrackEncoder.Track(aircraft.getIcao24(), lat, lon, FIELDS,
+            aircraft.getCallsign(),
+            aircraft.getStatus(),
+            aircraft.getRadarStatus(),
+            lat,
+            lon,
+            AircraftTrackEncoder.Track.round(altitude, 10),
+            aircraft.getVelocity(),
+            aircraft.getHeading(),
+            aircraft.getVerticalRate(),
+            extrapolated,
+            positionMillis);
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("destination", DESTINATION);
+        stats.put("staleAfterMs", staleAfterMs);
+        stats.put("cycles", cycles);
+        stats.put("skippedCycles", skippedCycles);
+        stats.put("lastPublished", lastPublished);
+        stats.put("lastStale", lastStale);
+        stats.put("lastCycleMs", lastCycleMs);
+        return stats;
+    }
+}
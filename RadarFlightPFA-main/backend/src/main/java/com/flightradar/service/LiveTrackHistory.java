@@ -0,0 +1,196 @@
+package com.flightradar.service;
+
+import com.flightradar.model.dto.LiveAircraft;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Historique des positions OpenSky par avion (traînées sur la carte, calcul de taux)
+ * - Un tampon circulaire par icao24, sur tableaux primitifs : les trailLength dernières positions
+ * - Alimenté à chaque nouvelle vue publiée par OpenSkyService (un point par avion et par mise à jour)
+ * - Mémoire bornée : maxTracks tampons au plus, un avion absent depuis maxAgeMs est retiré
+ */
+@Service
+@Slf4j
+public class LiveTrackHistory {
+    
+    // Estimation de l'empreinte d'un tampon hors tableaux : objet Trail, entrée de la map
+    private static final int TRAIL_OVERHEAD_BYTES = 96;
+    private static final int ARRAY_HEADER_BYTES = 16;
+    
+    @Value("${flightradar.live.trail-length:30}")
+    private int trailLength = 30;
+    
+    @Value("${flightradar.live.max-tracks:20000}")
+    private int maxTracks = 20000;
+    
+    @Value("${flightradar.live.trail-max-age-ms:300000}")
+    private long maxAgeMs = 300000;
+    
+    // icao24 (minuscules) -> tampon
+    private final Map<String, Trail> trails = new ConcurrentHashMap<>();
+    
+    // Statistiques
+    private final AtomicLong recordedPoints = new AtomicLong();
+    private final AtomicLong evictedTracks = new AtomicLong();
+    private final AtomicLong rejectedTracks = new AtomicLong();
+    private volatile long lastRecordNanos;
+    
+    /**
+     * Ajoute les positions d'une vue OpenSky (appelé par OpenSkyService après chaque échange)
+     */
+    public void record(LiveAircraftSnapshot snapshot) {
+        long start = System.nanoTime();
+        long now = snapshot.getTimestamp();
+        
+        // Retirer d'abord les avions disparus : libère des places pour les nouveaux
+        evictOlderThan(now - maxAgeMs);
+        
+        for (LiveAircraft aircraft : snapshot.getAircraft()) {
+            if (aircraft.getIcao24() == null || aircraft.getLatitude() == null || aircraft.getLongitude() == null) {
+                continue;
+            }
+            String key = aircraft.getIcao24().toLowerCase(Locale.ROOT);
+            Trail trail = trails.get(key);
+            if (trail == null) {
+                if (trails.size() >= maxTracks) {
+                    rejectedTracks.incrementAndGet();
+                    continue;
+                }
+                trail = new Trail(trailLength);
+                trails.put(key, trail);
+            }
+            // Horodatage de la position : dernier contact OpenSky, sinon heure de la mise à jour
+            long timestamp = aircraft.getLastContact() != null ? aircraft.getLastContact() * 1000 : now;
+            Double altitude = aircraft.getAltitude();
+            if (trail.append(aircraft.getLatitude(), aircraft.getLongitude(),
+                    altitude != null ? altitude : Double.NaN, timestamp, now)) {
+                recordedPoints.incrementAndGet();
+            }
+        }
+        lastRecordNanos = System.nanoTime() - start;
+    }
+    
+    void evictOlderThan(long cutoffMillis) {
+        Iterator<Trail> iterator = trails.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getLastSeenMillis() < cutoffMillis) {
+                iterator.remove();
+                evictedTracks.incrementAndGet();
+            }
+        }
+    }
+    
+    /**
+     * Positions connues d'un avion, de la plus ancienne à la plus récente
+     * 
+     * @return Liste de points {latitude, longitude, altitude, timestamp} ou null si l'avion est inconnu
+     */
+    public List<Map<String, Object>> getTrail(String icao24) {
+        if (icao24 == null) {
+            return null;
+        }
+        Trail trail = trails.get(icao24.toLowerCase(Locale.ROOT));
+        return trail != null ? trail.toPoints() : null;
+    }
+    
+    public int getTrackCount() {
+        return trails.size();
+    }
+    
+    /**
+     * Empreinte estimée d'un tampon de trailLength points
+     */
+    long bytesPerTrail() {
+        // 3 tableaux float (lat, lon, alt) + 1 tableau long (timestamps)
+        return TRAIL_OVERHEAD_BYTES + 3L * (ARRAY_HEADER_BYTES + 4L * trailLength) + ARRAY_HEADER_BYTES + 8L * trailLength;
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("tracks", trails.size());
+        stats.put("maxTracks", maxTracks);
+        stats.put("trailLength", trailLength);
+        stats.put("maxAgeMs", maxAgeMs);
+        stats.put("estimatedBytes", trails.size() * bytesPerTrail());
+        stats.put("maxEstimatedBytes", maxTracks * bytesPerTrail());
+        stats.put("recordedPoints", recordedPoints.get());
+        stats.put("evictedTracks", evictedTracks.get());
+        stats.put("rejectedTracks", rejectedTracks.get());
+        stats.put("lastRecordMs", lastRecordNanos / 1_000_000.0);
+        return stats;
+    }
+    
+    /**
+     * Tampon circulaire des dernières positions d'un avion
+     * Positions en float (précision ~1 m), suffisante pour l'affichage des traînées
+     */
+    static final class Trail {
+        
+        private final float[] latitudes;
+        private final float[] longitudes;
+        private final float[] altitudes;
+        private final long[] timestamps;
+        private int head; // Prochaine case écrite
+        private int size;
+        private volatile long lastSeenMillis;
+        
+        Trail(int capacity) {
+            latitudes = new float[capacity];
+            longitudes = new float[capacity];
+            altitudes = new float[capacity];
+            timestamps = new long[capacity];
+        }
+        
+        /**
+         * @return false si la position n'est pas plus récente que la dernière enregistrée
+         */
+        synchronized boolean append(double latitude, double longitude, double altitude, long timestamp, long seenMillis) {
+            lastSeenMillis = seenMillis;
+            if (size > 0) {
+                int last = (head - 1 + timestamps.length) % timestamps.length;
+                if (timestamp <= timestamps[last]) {
+                    return false;
+                }
+            }
+            latitudes[head] = (float) latitude;
+            longitudes[head] = (float) longitude;
+            altitudes[head] = (float) altitude;
+            timestamps[head] = timestamp;
+            head = (head + 1) % timestamps.length;
+            if (size < timestamps.length) {
+                size++;
+            }
+            return true;
+        }
+        
+        synchronized List<Map<String, Object>> toPoints() {
+            List<Map<String, Object>> points = new ArrayList<>(size);
+            int first = (head - size + timestamps.length) % timestamps.length;
+            for (int i = 0; i < size; i++) {
+                int index = (first + i) % timestamps.length;
+                Map<String, Object> point = new LinkedHashMap<>();
+                point.put("latitude", round(latitudes[index], 1e5));
+                point.put("longitude", round(longitudes[index], 1e5));
+                point.put("altitude", Float.isNaN(altitudes[index]) ? null : round(altitudes[index], 10));
+                point.put("timestamp", timestamps[index]);
+                points.add(point);
+            }
+            return points;
+        }
+        
+        // Évite les artefacts float -> double dans le JSON (33.369998931884766)
+        private static double round(float value, double scale) {
+            return Math.round(value * scale) / scale;
+        }
+        
+        long getLastSeenMillis() {
+            return lastSeenMillis;
+        }
+    }
+}
@@ -1,11 +1,11 @@
 package com.flightradar.service;
 
 import com.flightradar.model.dto.LiveAircraft;
+import com.flightradar.model.dto.OpenSkyTrack;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Mapper pour transformer les données brutes d'OpenSky Network en objets LiveAircraft normalisés
@@ -33,21 +33,17 @@ import java.util.Map;
 public class OpenSkyMapper {
     
     /**
-     * Map statique pour enrichir les données avec le modèle d'avion
-     * Clé : ICAO24 (hexadécimal), Valeur : Modèle d'avion
-     * 
-     * Note : En production, cette map pourrait être chargée depuis une base de données
-     * ou une API externe (ex: Aviation Edge, Aircraft Database)
+     * Registre des avions (icao24 -> type, immatriculation, exploitant), chargé au démarrage
+     * Absent quand le mapper est instancié hors contexte Spring : modèle "Unknown"
      */
-    private static final Map<String, String> AIRCRAFT_MODEL_MAP = new HashMap<>();
+    @Autowired(required = false)
+    private AircraftRegistry aircraftRegistry;
+    
+    public OpenSkyMapper() {
+    }
     
-    static {
-        // Exemples de mapping ICAO24 -> Modèle
-        // En production, charger depuis une source externe
-        AIRCRAFT_MODEL_MAP.put("abc123", "A320");
-        AIRCRAFT_MODEL_MAP.put("def456", "B737");
-        AIRCRAFT_MODEL_MAP.put("ghi789", "A330");
-        // Ajouter plus de mappings selon les besoins
+    public OpenSkyMapper(AircraftRegistry aircraftRegistry) {
+        this.aircraftRegistry = aircraftRegistry;
     }
     
     /**
@@ -83,15 +79,14 @@ public class OpenSkyMapper {
             Double velocityMs = getDoubleValue(stateArray.get(9));
             aircraft.setVelocity(velocityMs != null ? velocityMs * 3.6 : 0.0);
             
+            // Cap vrai (degrés)
+            aircraft.setHeading(getDoubleValue(stateArray.get(10)));
+            
             // Taux vertical (m/s)
             aircraft.setVerticalRate(getDoubleValue(stateArray.get(11)));
             
-            // Enrichissement avec le modèle d'avion
-            String model = AIRCRAFT_MODEL_MAP.getOrDefault(
-                aircraft.getIcao24() != null ? aircraft.getIcao24().toLowerCase() : "",
-                "Unknown"
-            );
-            aircraft.setModel(model);
+            // Enrichissement avec le registre des avions
+            enrich(aircraft, OpenSkyStreamParser.parseIcao24(aircraft.getIcao24()));
             
             // Calcul automatique du statut
             aircraft.setStatus(calculateStatus(aircraft));
@@ -108,6 +103,63 @@ public class OpenSkyMapper {
         return aircraft;
     }
     
+    /**
+     * Transforme un vecteur d'état lu en flux (OpenSkyStreamParser) en objet LiveAircraft normalisé
+     * Mêmes règles que mapStateToLiveAircraft, sans relecture de valeurs encapsulées
+     * 
+     * @param track Vecteur d'état à champs primitifs
+     * @return LiveAircraft normalisé avec statut et radarStatus calculés
+     */
+    public LiveAircraft mapTrackToLiveAircraft(OpenSkyTrack track) {
+        if (track == null) {
+            return null;
+        }
+        
+        LiveAircraft aircraft = new LiveAircraft();
+        aircraft.setIcao24(track.getIcao24());
+        aircraft.setCallsign(track.getCallsign());
+        aircraft.setOriginCountry(track.getOriginCountry());
+        aircraft.setLastContact(track.getLastContact() != 0 ? track.getLastContact() : null);
+        
+        // Position
+        aircraft.setLongitude(boxed(track.getLongitude()));
+        aircraft.setLatitude(boxed(track.getLatitude()));
+        
+        // Altitude : priorité à baroAltitude, sinon geoAltitude
+        aircraft.setAltitude(boxed(!Double.isNaN(track.getBaroAltitude()) ? track.getBaroAltitude() : track.getGeoAltitude()));
+        
+        // Vitesse : conversion de m/s vers km/h
+        aircraft.setVelocity(!Double.isNaN(track.getVelocity()) ? track.getVelocity() * 3.6 : 0.0);
+        
+        // Cap vrai (degrés)
+        aircraft.setHeading(boxed(track.getTrueTrack()));
+        
+        // Taux vertical (m/s)
+        aircraft.setVerticalRate(boxed(track.getVerticalRate()));
+        
+        // Enrichissement avec le registre des avions
+        enrich(aircraft, track.getIcao24Code());
+        
+        aircraft.setStatus(calculateStatus(aircraft));
+        aircraft.setRadarStatus(calculateRadarStatus(aircraft));
+        return aircraft;
+    }
+    
+    /**
+     * Renseigne modèle, immatriculation et exploitant depuis le registre (clé 24-bit, sans allocation)
+     */
+    private void enrich(LiveAircraft aircraft, int icao24Code) {
+        int row = aircraftRegistry != null && icao24Code >= 0 ? aircraftRegistry.find(icao24Code) : -1;
+        if (row < 0) {
+            aircraft.setModel("Unknown");
+            return;
+        }
+        String model = aircraftRegistry.getTypeOrModel(row);
+        aircraft.setModel(model != null ? model : "Unknown");
+        aircraft.setRegistration(aircraftRegistry.getRegistration(row));
+        aircraft.setOperator(aircraftRegistry.getOperator(row));
+    }
+    
     /**
      * Calcule le statut de vol automatiquement selon les règles métier
      * 
@@ -212,6 +264,10 @@ public class OpenSkyMapper {
         }
     }
     
+    private Double boxed(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+    
     private Long getLongValue(Object obj) {
         if (obj == null) {
             return null;
@@ -0,0 +1,254 @@
+package com.flightradar.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.LongSupplier;
+
+/**
+ * Planification adaptative des interrogations OpenSky
+ * - Plusieurs zones (boîtes lamin/lomin/lamax/lomax ou monde entier), chacune avec sa période,
+ *   démarrages décalés pour étaler les appels : le Maroc et ses approches sont rafraîchis
+ *   plus souvent que le reste du monde avec le même quota
+ * - Budget de crédits OpenSky en seau à jetons (coût d'une zone : OpenSkyRegion.getCredits)
+ * - 429 : reprise au délai indiqué par OpenSky, sinon recul exponentiel avec gigue ;
+ *   même recul après un échec réseau
+ * - Le planificateur Spring (un seul thread partagé) ne fait que choisir la zone et débiter les crédits :
+ *   la requête (jusqu'à 20 s de lecture) et l'analyse tournent sur un thread dédié, une à la fois
+ */
+@Service
+@Slf4j
+public class OpenSkyPollScheduler {
+
+    static final long BASE_BACKOFF_MS = 5_000;
+    static final long MAX_BACKOFF_MS = 10 * 60_000;
+
+    @Autowired
+    private OpenSkyService openSkyService;
+
+    // Zones : "nom:lamin,lomin,lamax,lomax:intervalleMs;..." (boîte vide = monde entier)
+    @Value("${flightradar.opensky.regions:maroc:29.5,-11,36,-1:60000;monde::120000}")
+    private String regionSpec = "maroc:29.5,-11,36,-1:60000;monde::120000";
+
+    // Crédits OpenSky rechargés par heure et réserve maximale
+    @Value("${flightradar.opensky.credits-per-hour:240}")
+    private double creditsPerHour = 240;
+
+    @Value("${flightradar.opensky.credit-burst:16}")
+    private double creditBurst = 16;
+
+    // Horloge et tirage de la gigue (remplaçables par les tests)
+    LongSupplier clock = System::currentTimeMillis;
+    Random random = new Random();
+
+    // Thread des requêtes OpenSky (remplaçable par les tests)
+    Executor fetchExecutor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("opensky-poll-"));
+
+    private final List<RegionState> regions = new ArrayList<>();
+    private TokenBucket credits;
+    private int consecutiveFailures;
+    private long backoffUntil;
+    private long rateLimitedCount;
+    private long failedCount;
+    private long deferredCount;
+    private boolean fetching;
+
+    @PostConstruct
+    public void init() {
+        long now = clock.getAsLong();
+        List<OpenSkyRegion> parsed = OpenSkyRegion.parseList(regionSpec);
+        // Premiers appels décalés, répartis sur la plus courte période : les zones ne tombent pas ensemble
+        long shortest = parsed.stream().mapToLong(OpenSkyRegion::getIntervalMs).min().orElse(0);
+        for (int i = 0; i < parsed.size(); i++) {
+            regions.add(new RegionState(parsed.get(i), now + i * shortest / parsed.size()));
+        }
+        credits = new TokenBucket(creditBurst, creditsPerHour / 3_600_000.0, now);
+        log.info("Interrogations OpenSky : zones {}, {} crédits/h", parsed, creditsPerHour);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (fetchExecutor instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Lance l'interrogation d'au plus une zone échue par seconde, jamais deux à la fois
+     */
+    @Scheduled(fixedDelay = 1000)
+    public synchronized void poll() {
+        long now = clock.getAsLong();
+        if (fetching || now < backoffUntil) {
+            return;
+        }
+        RegionState due = null;
+        for (RegionState state : regions) {
+            if (state.nextDue <= now && (due == null || state.nextDue < due.nextDue)) {
+                due = state;
+            }
+        }
+        if (due == null) {
+            return;
+        }
+        if (!credits.tryConsume(due.region.getCredits(), now)) {
+            // Budget épuisé : la zone reste échue et sera servie dès que les crédits le permettent
+            deferredCount++;
+            return;
+        }
+
+        fetching = true;
+        RegionState region = due;
+        try {
+            fetchExecutor.execute(() -> fetch(region, now));
+        } catch (RejectedExecutionException e) {
+            // Arrêt en cours
+            fetching = false;
+        }
+    }
+
+    /**
+     * Interroge la zone (thread dédié) puis applique le résultat à la planification
+     */
+    private void fetch(RegionState due, long startedAt) {
+        OpenSkyService.PollResult result;
+        try {
+            result = openSkyService.fetchRegion(due.region);
+        } catch (RuntimeException e) {
+            log.error("Interrogation OpenSky de la zone {} interrompue: {}", due.region, e.getMessage());
+            result = OpenSkyService.PollResult.failed();
+        }
+        complete(due, startedAt, result);
+    }
+
+    private synchronized void complete(RegionState due, long now, OpenSkyService.PollResult result) {
+        fetching = false;
+        due.polls++;
+        due.lastPoll = now;
+        due.lastStatus = result.getStatus();
+        switch (result.getStatus()) {
+            case UPDATED, NOT_MODIFIED -> {
+                consecutiveFailures = 0;
+                due.nextDue = now + due.region.getIntervalMs();
+            }
+            case RATE_LIMITED -> {
+                rateLimitedCount++;
+                long backoff = nextBackoff();
+                backOff(due, now, result.getRetryAfterMs() > 0 ? result.getRetryAfterMs() : backoff);
+            }
+            case FAILED -> {
+                failedCount++;
+                backOff(due, now, nextBackoff());
+            }
+        }
+    }
+
+    private void backOff(RegionState due, long now, long delay) {
+        backoffUntil = now + delay;
+        due.nextDue = Math.max(due.nextDue, backoffUntil);
+        log.warn("OpenSky en pause {} ms (zone {}, {} échec(s) consécutif(s))", delay, due.region, consecutiveFailures);
+    }
+
+    /**
+     * Recul exponentiel avec gigue ("equal jitter") : entre la moitié et la totalité de base * 2^(n-1)
+     */
+    long nextBackoff() {
+        consecutiveFailures++;
+        long ceiling = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << Math.min(consecutiveFailures - 1, 20));
+        return ceiling / 2 + (long) (random.nextDouble() * (ceiling / 2));
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        long now = clock.getAsLong();
+        List<Map<String, Object>> regionStats = new ArrayList<>();
+        for (RegionState state : regions) {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("name", state.region.getName());
+            stats.put("query", state.region.toQuery());
+            stats.put("intervalMs", state.region.getIntervalMs());
+            stats.put("credits", state.region.getCredits());
+            stats.put("polls", state.polls);
+            stats.put("lastStatus", state.lastStatus);
+            stats.put("lastPollAgoMs", state.lastPoll > 0 ? now - state.lastPoll : null);
+            stats.put("nextDueInMs", Math.max(0, state.nextDue - now));
+            regionStats.add(stats);
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("creditsPerHour", creditsPerHour);
+        stats.put("creditsAvailable", Math.floor(credits.available(now) * 10) / 10);
+        stats.put("deferredForCredits", deferredCount);
+        stats.put("rateLimited", rateLimitedCount);
+        stats.put("failed", failedCount);
+        stats.put("consecutiveFailures", consecutiveFailures);
+        stats.put("fetchInProgress", fetching);
+        stats.put("backoffRemainingMs", Math.max(0, backoffUntil - now));
+        stats.put("lastSuccessfulUpdate", openSkyService.getLastSuccessfulUpdate());
+        stats.put("regions", regionStats);
+        return stats;
+    }
+
+    /**
+     * État de planification d'une zone
+     */
+    private static class RegionState {
+        private final OpenSkyRegion region;
+        private long nextDue;
+        private long lastPoll;
+        private long polls;
+        private OpenSkyService.PollResult.Status lastStatus;
+
+        RegionState(OpenSkyRegion region, long nextDue) {
+            this.region = region;
+            this.nextDue = nextDue;
+        }
+    }
+
+    /**
+     * Seau à jetons : capacité maximale, recharge continue
+     */
+    static class TokenBucket {
+        private final double capacity;
+        private final double refillPerMs;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(double capacity, double refillPerMs, long now) {
+            this.capacity = capacity;
+            this.refillPerMs = refillPerMs;
+            this.tokens = capacity;
+            this.lastRefill = now;
+        }
+
+        boolean tryConsume(double amount, long now) {
+            refill(now);
+            if (tokens < amount) {
+                return false;
+            }
+            tokens -= amount;
+            return true;
+        }
+
+        double available(long now) {
+            refill(now);
+            return tokens;
+        }
+
+        private void refill(long now) {
+            if (now > lastRefill) {
+                tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerMs);
+                lastRefill = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.flightradar.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Zone interrogée sur OpenSky (paramètres lamin/lomin/lamax/lomax), ou le monde entier
+ * Coût en crédits OpenSky selon la surface de la zone (documentation de l'API REST) :
+ * <= 25 deg² : 1, <= 100 : 2, <= 400 : 3, au-delà ou monde entier : 4
+ */
+public class OpenSkyRegion {
+    
+    private final String name;
+    private final Double lamin;
+    private final Double lomin;
+    private final Double lamax;
+    private final Double lomax;
+    private final long intervalMs;
+    
+    public OpenSkyRegion(String name, Double lamin, Double lomin, Double lamax, Double lomax, long intervalMs) {
+        this.name = name;
+        this.lamin = lamin;
+        this.lomin = lomin;
+        this.lamax = lamax;
+        this.lomax = lomax;
+        this.intervalMs = intervalMs;
+    }
+    
+    public static OpenSkyRegion world(String name, long intervalMs) {
+        return new OpenSkyRegion(name, null, null, null, null, intervalMs);
+    }
+    
+    /**
+     * Lit une liste de zones "nom:lamin,lomin,lamax,lomax:intervalleMs;..." (boîte vide = monde entier)
+     * ex. "maroc:29.5,-11,36,-1:60000;monde::120000"
+     */
+    public static List<OpenSkyRegion> parseList(String spec) {
+        List<OpenSkyRegion> regions = new ArrayList<>();
+        for (String entry : spec.split(";")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.trim().split(":", -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Zone OpenSky invalide : " + entry);
+            }
+            long interval = Long.parseLong(parts[2].trim());
+            if (parts[1].isBlank()) {
+                regions.add(world(parts[0].trim(), interval));
+                continue;
+            }
+            String[] box = parts[1].split(",");
+            if (box.length != 4) {
+                throw new IllegalArgumentException("Boîte OpenSky invalide (lamin,lomin,lamax,lomax) : " + entry);
+            }
+            regions.add(new OpenSkyRegion(parts[0].trim(),
+                Double.parseDouble(box[0].trim()), Double.parseDouble(box[1].trim()),
+                Double.parseDouble(box[2].trim()), Double.parseDouble(box[3].trim()), interval));
+        }
+        return regions;
+    }
+    
+    public String getName() { return name; }
+    public long getIntervalMs() { return intervalMs; }
+    
+    public boolean isWorld() {
+        return lamin == null;
+    }
+    
+    /**
+     * Crédits OpenSky consommés par une interrogation de la zone
+     */
+    public int getCredits() {
+        if (isWorld()) {
+            return 4;
+        }
+        double area = (lamax - lamin) * (lomax - lomin);
+        if (area <= 25) {
+            return 1;
+        }
+        if (area <= 100) {
+            return 2;
+        }
+        return area <= 400 ? 3 : 4;
+    }
+    
+    public boolean contains(double latitude, double longitude) {
+        return isWorld() || (latitude >= lamin && latitude <= lamax && longitude >= lomin && longitude <= lomax);
+    }
+    
+    /**
+     * Paramètres de requête de /states/all ("" pour le monde entier)
+     */
+    public String toQuery() {
+        if (isWorld()) {
+            return "";
+        }
+        return String.format(Locale.ROOT, "?lamin=%s&lomin=%s&lamax=%s&lomax=%s", lamin, lomin, lamax, lomax);
+    }
+    
+    @Override
+    public String toString() {
+        return name;
+    }
+}
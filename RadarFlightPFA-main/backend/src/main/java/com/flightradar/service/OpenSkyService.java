@@ -1,12 +1,12 @@
 package com.flightradar.service;
 
 import com.flightradar.model.dto.LiveAircraft;
-import com.flightradar.model.dto.OpenSkyResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
@@ -14,177 +14,191 @@ import org.springframework.web.client.RestClientException;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Locale;
+import java.util.Set;
 
 /**
  * Service pour récupérer et gérer les données en temps réel depuis OpenSky Network
  * 
  * API OpenSky : https://opensky-network.org/api/states/all
  * Documentation : https://openskynetwork.github.io/opensky-api/rest.html#all-state-vectors
+ * Fréquence d'interrogation, zones et reprises après 429 : OpenSkyPollScheduler
  */
 @Service
 @Slf4j
 public class OpenSkyService {
     
-    private static final String OPENSKY_API_URL = "https://opensky-network.org/api/states/all";
+    private static final String STATES_PATH = "/states/all";
     
-    // Limite de l'API OpenSky : ~10 requêtes/minute pour les utilisateurs anonymes
-    // On utilise 60 secondes (1 minute) pour être sûr de ne pas dépasser la limite
-    private static final long UPDATE_INTERVAL_MS = 60000; // 60 secondes au lieu de 5
+    // En-tête de reprise renvoyé par OpenSky avec les réponses 429
+    private static final String RETRY_AFTER_HEADER = "X-Rate-Limit-Retry-After-Seconds";
+    
+    // URL de base de l'API (surchargée par les tests avec un serveur local)
+    @Value("${flightradar.opensky.base-url:https://opensky-network.org/api}")
+    private String baseUrl = "https://opensky-network.org/api";
     
     @Autowired
     private OpenSkyMapper openSkyMapper;
     
+    @Autowired
+    private OpenSkyStreamParser openSkyStreamParser;
+    
     @Autowired
     private RestTemplate restTemplate;
     
+    @Autowired
+    private LiveTrackHistory liveTrackHistory;
+    
     /**
      * Cache en mémoire des avions en temps réel
-     * Utilise CopyOnWriteArrayList pour thread-safety lors des mises à jour périodiques
+     * Vue figée et indexée, remplacée d'un bloc à chaque mise à jour : les lecteurs
+     * n'observent jamais de liste vide ou partielle et n'ont rien à copier
      */
-    private final List<LiveAircraft> liveAircraftCache = new CopyOnWriteArrayList<>();
+    private volatile LiveAircraftSnapshot liveAircraftSnapshot = LiveAircraftSnapshot.EMPTY;
     
     /**
      * Dernière mise à jour réussie
      */
-    private LocalDateTime lastSuccessfulUpdate;
-    
-    /**
-     * Nombre d'erreurs consécutives
-     */
-    private int consecutiveErrors = 0;
+    private volatile LocalDateTime lastSuccessfulUpdate;
     
     /**
-     * Désactivé temporairement si trop d'erreurs
-     */
-    private boolean temporarilyDisabled = false;
-    
-    /**
-     * Récupère les données live depuis l'API OpenSky Network
+     * Interroge une zone OpenSky et fusionne le résultat dans le cache
+     * Appelé par OpenSkyPollScheduler, qui gère la fréquence, le budget de crédits et les reprises
      * 
-     * @return Liste des avions en temps réel normalisés
+     * @param region Zone à interroger (ou monde entier)
+     * @return Issue de l'appel (mise à jour, non modifié, limite de débit, échec)
      */
-    public List<LiveAircraft> fetchLiveData() {
-        // Si temporairement désactivé, retourner le cache
-        if (temporarilyDisabled) {
-            log.debug("OpenSky temporairement désactivé, utilisation du cache");
-            return new ArrayList<>(liveAircraftCache);
-        }
-        
+    public PollResult fetchRegion(OpenSkyRegion region) {
         List<LiveAircraft> aircraftList = new ArrayList<>();
         
         try {
-            // Appel à l'API OpenSky
-            ResponseEntity<OpenSkyResponse> response = restTemplate.getForEntity(
-                OPENSKY_API_URL,
-                OpenSkyResponse.class
-            );
-            
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                OpenSkyResponse openSkyResponse = response.getBody();
-                
-                if (openSkyResponse != null && openSkyResponse.getStates() != null) {
-                    // Mapper chaque état vers un LiveAircraft
-                    for (List<Object> state : openSkyResponse.getStates()) {
-                        LiveAircraft aircraft = openSkyMapper.mapStateToLiveAircraft(state);
-                        if (aircraft != null && aircraft.getLatitude() != null && aircraft.getLongitude() != null) {
-                            // Filtrer les avions sans position valide
-                            aircraftList.add(aircraft);
-                        }
-                    }
+            // Appel à l'API OpenSky : le corps est lu en flux, avion par avion
+            // (pas de liaison intermédiaire en List<List<Object>>)
+            // Requête conditionnelle (UpstreamHttpInterceptor) : 304 si rien n'a changé depuis la dernière réponse
+            Boolean modified = restTemplate.execute(baseUrl + STATES_PATH + region.toQuery(), HttpMethod.GET, null, response -> {
+                if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                    return false;
                 }
-                
-                // Succès : réinitialiser le compteur d'erreurs
-                consecutiveErrors = 0;
-                lastSuccessfulUpdate = LocalDateTime.now();
-                temporarilyDisabled = false;
-                
+                openSkyStreamParser.parse(response.getBody(), track -> {
+                    // Filtrer les avions sans position valide
+                    if (track.hasPosition()) {
+                        aircraftList.add(openSkyMapper.mapTrackToLiveAircraft(track));
+                    }
+                });
+                return true;
+            });
+            lastSuccessfulUpdate = LocalDateTime.now();
+            
+            if (Boolean.FALSE.equals(modified)) {
+                // Non modifié : le cache courant reste valable (pas de reconstruction des index)
+                return PollResult.notModified();
             }
             
         } catch (HttpClientErrorException e) {
             // Gestion spécifique des erreurs HTTP
-            if (e.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS) {
-                log.warn("⚠️  OpenSky API : Trop de requêtes (429). Augmentation de l'intervalle de mise à jour.");
-                consecutiveErrors++;
-                
-                // Désactiver temporairement après 3 erreurs consécutives
-                if (consecutiveErrors >= 3) {
-                    temporarilyDisabled = true;
-                    log.warn("🚫 OpenSky désactivé temporairement après {} erreurs consécutives", consecutiveErrors);
-                }
-            } else {
-                log.error("Erreur HTTP lors de l'appel à l'API OpenSky: {} - {}", e.getStatusCode(), e.getMessage());
-                consecutiveErrors++;
+            if (e.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS)) {
+                long retryAfterMs = retryAfterMs(e.getResponseHeaders());
+                log.warn("⚠️  OpenSky API : Trop de requêtes (429) pour la zone {} (reprise suggérée : {} ms)",
+                    region, retryAfterMs);
+                return PollResult.rateLimited(retryAfterMs);
             }
-            
-            // En cas d'erreur, retourner le cache existant si disponible
-            return new ArrayList<>(liveAircraftCache);
+            log.error("Erreur HTTP lors de l'appel à l'API OpenSky: {} - {}", e.getStatusCode(), e.getMessage());
+            return PollResult.failed();
             
         } catch (RestClientException e) {
             log.error("Erreur lors de l'appel à l'API OpenSky: {}", e.getMessage());
-            consecutiveErrors++;
-            // En cas d'erreur, retourner le cache existant si disponible
-            return new ArrayList<>(liveAircraftCache);
+            return PollResult.failed();
         } catch (Exception e) {
             log.error("Erreur inattendue lors de la récupération des données OpenSky: {}", e.getMessage(), e);
-            consecutiveErrors++;
-            return new ArrayList<>(liveAircraftCache);
+            return PollResult.failed();
         }
         
-        return aircraftList;
+        LiveAircraftSnapshot current = liveAircraftSnapshot;
+        if (region.isWorld()) {
+            // Ne remplacer le monde entier que si on a de nouvelles données
+            if (!aircraftList.isEmpty() || current.isEmpty()) {
+                publish(aircraftList);
+            }
+        } else {
+            publish(merge(current, region, aircraftList));
+        }
+        log.info("✅ Cache OpenSky mis à jour (zone {}): {} avions reçus, {} en cache",
+            region, aircraftList.size(), liveAircraftSnapshot.size());
+        return PollResult.updated(aircraftList.size());
     }
     
     /**
-     * Met à jour le cache des avions en temps réel
-     * Exécuté automatiquement toutes les 60 secondes (1 minute)
-     * Limite OpenSky : ~10 requêtes/minute pour utilisateurs anonymes
+     * Remplace les avions d'une zone par le résultat de son interrogation, le reste du cache est conservé
      */
-    @Scheduled(fixedRate = UPDATE_INTERVAL_MS)
-    public void updateLiveAircraftCache() {
-        try {
-            List<LiveAircraft> newData = fetchLiveData();
-            
-            // Ne mettre à jour que si on a de nouvelles données
-            if (!newData.isEmpty() || liveAircraftCache.isEmpty()) {
-                liveAircraftCache.clear();
-                liveAircraftCache.addAll(newData);
-                log.info("✅ Cache OpenSky mis à jour: {} avions", newData.size());
-            } else {
-                log.debug("Cache OpenSky conservé: {} avions (pas de nouvelles données)", liveAircraftCache.size());
+    static List<LiveAircraft> merge(LiveAircraftSnapshot current, OpenSkyRegion region, List<LiveAircraft> regionAircraft) {
+        Set<String> refreshed = new HashSet<>();
+        for (LiveAircraft aircraft : regionAircraft) {
+            if (aircraft.getIcao24() != null) {
+                refreshed.add(aircraft.getIcao24().toLowerCase(Locale.ROOT));
             }
-            
-            // Réactiver après 10 minutes si désactivé
-            if (temporarilyDisabled && lastSuccessfulUpdate != null) {
-                if (lastSuccessfulUpdate.isBefore(LocalDateTime.now().minusMinutes(10))) {
-                    temporarilyDisabled = false;
-                    consecutiveErrors = 0;
-                    log.info("🔄 Réactivation d'OpenSky après période de pause");
-                }
+        }
+        List<LiveAircraft> merged = new ArrayList<>(current.size() + regionAircraft.size());
+        for (LiveAircraft aircraft : current.getAircraft()) {
+            boolean inRegion = region.contains(aircraft.getLatitude(), aircraft.getLongitude());
+            boolean replaced = aircraft.getIcao24() != null
+                && refreshed.contains(aircraft.getIcao24().toLowerCase(Locale.ROOT));
+            if (!inRegion && !replaced) {
+                merged.add(aircraft);
             }
-            
-        } catch (Exception e) {
-            log.error("Erreur lors de la mise à jour du cache OpenSky: {}", e.getMessage(), e);
         }
+        merged.addAll(regionAircraft);
+        return merged;
+    }
+    
+    /**
+     * Délai de reprise indiqué par OpenSky sur une réponse 429 (0 si absent)
+     */
+    private static long retryAfterMs(HttpHeaders headers) {
+        if (headers == null) {
+            return 0;
+        }
+        String value = headers.getFirst(RETRY_AFTER_HEADER);
+        if (value == null) {
+            value = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        }
+        try {
+            return value != null ? Long.parseLong(value.trim()) * 1000 : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+    
+    public LocalDateTime getLastSuccessfulUpdate() {
+        return lastSuccessfulUpdate;
+    }
+    
+    /**
+     * Publie une nouvelle vue (index construits avant l'échange) et complète l'historique des traînées
+     */
+    private void publish(List<LiveAircraft> aircraft) {
+        LiveAircraftSnapshot snapshot = new LiveAircraftSnapshot(aircraft, System.currentTimeMillis());
+        liveAircraftSnapshot = snapshot;
+        liveTrackHistory.record(snapshot);
+    }
+    
+    /**
+     * Vue courante du cache (liste et index d'une même mise à jour)
+     */
+    public LiveAircraftSnapshot getLiveAircraftSnapshot() {
+        return liveAircraftSnapshot;
     }
     
     /**
      * Récupère la liste des avions en temps réel depuis le cache
      * 
-     * @return Liste des avions live normalisés
+     * @return Liste des avions live normalisés (non modifiable, partagée par tous les lecteurs)
      */
     public List<LiveAircraft> getLiveAircraft() {
-        // Si le cache est vide et qu'on n'est pas désactivé, essayer une fois
-        if (liveAircraftCache.isEmpty() && !temporarilyDisabled) {
-            log.debug("Cache vide, tentative de récupération immédiate");
-            List<LiveAircraft> freshData = fetchLiveData();
-            if (!freshData.isEmpty()) {
-                liveAircraftCache.addAll(freshData);
-                return freshData;
-            }
-        }
-        
-        return new ArrayList<>(liveAircraftCache);
+        // Pas d'appel direct à OpenSky ici : toutes les interrogations passent par le budget
+        // de OpenSkyPollScheduler (première interrogation dès le démarrage)
+        return liveAircraftSnapshot.getAircraft();
     }
     
     /**
@@ -194,10 +208,7 @@ public class OpenSkyService {
      * @return LiveAircraft correspondant ou null
      */
     public LiveAircraft getLiveAircraftByIcao24(String icao24) {
-        return liveAircraftCache.stream()
-            .filter(aircraft -> icao24 != null && icao24.equalsIgnoreCase(aircraft.getIcao24()))
-            .findFirst()
-            .orElse(null);
+        return liveAircraftSnapshot.getByIcao24(icao24);
     }
     
     /**
@@ -211,9 +222,7 @@ public class OpenSkyService {
             return getLiveAircraft();
         }
         
-        return liveAircraftCache.stream()
-            .filter(aircraft -> countryCode.equalsIgnoreCase(aircraft.getOriginCountry()))
-            .toList();
+        return liveAircraftSnapshot.getByCountry(countryCode);
     }
     
     /**
@@ -227,9 +236,33 @@ public class OpenSkyService {
             return getLiveAircraft();
         }
         
-        return liveAircraftCache.stream()
-            .filter(aircraft -> radarStatus.equalsIgnoreCase(aircraft.getRadarStatus()))
-            .toList();
+        return liveAircraftSnapshot.getByRadarStatus(radarStatus);
+    }
+    
+    /**
+     * Issue d'une interrogation OpenSky
+     */
+    public static class PollResult {
+        
+        public enum Status { UPDATED, NOT_MODIFIED, RATE_LIMITED, FAILED }
+        
+        private final Status status;
+        private final int aircraftCount;
+        private final long retryAfterMs;
+        
+        private PollResult(Status status, int aircraftCount, long retryAfterMs) {
+            this.status = status;
+            this.aircraftCount = aircraftCount;
+            this.retryAfterMs = retryAfterMs;
+        }
+        
+        static PollResult updated(int aircraftCount) { return new PollResult(Status.UPDATED, aircraftCount, 0); }
+        static PollResult notModified() { return new PollResult(Status.NOT_MODIFIED, 0, 0); }
+        static PollResult rateLimited(long retryAfterMs) { return new PollResult(Status.RATE_LIMITED, 0, retryAfterMs); }
+        static PollResult failed() { return new PollResult(Status.FAILED, 0, 0); }
+        
+        public Status getStatus() { return status; }
+        public int getAircraftCount() { return aircraftCount; }
+        public long getRetryAfterMs() { return retryAfterMs; }
     }
 }
-
@@ -0,0 +1,175 @@
+package com.flightradar.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.flightradar.model.dto.OpenSkyTrack;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Lecture en flux de la réponse /states/all d'OpenSky
+ * Chaque vecteur d'état est lu jeton par jeton directement dans un OpenSkyTrack :
+ * pas de List<List<Object>> intermédiaire ni de Double/Long/Boolean encapsulés.
+ * Indices des champs : voir OpenSkyMapper.
+ */
+@Component
+public class OpenSkyStreamParser {
+
+    // Nombre minimal de champs d'un vecteur d'état (17, 18 avec la catégorie)
+    static final int STATE_FIELDS = 17;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    // Pays d'origine : quelques centaines de valeurs, une seule instance conservée par pays
+    private final Map<String, String> countries = new ConcurrentHashMap<>();
+
+    /**
+     * Lit une réponse complète et transmet chaque avion au consommateur
+     *
+     * @param body Corps de la réponse HTTP (non fermé par le parser)
+     * @param sink Reçoit chaque vecteur d'état valide, dans l'ordre de la réponse
+     * @return Champ "time" de la réponse (secondes Unix), 0 si absent
+     */
+    public long parse(InputStream body, Consumer<OpenSkyTrack> sink) throws IOException {
+        long time = 0;
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Réponse OpenSky invalide : objet JSON attendu");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("time".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                    time = parser.getLongValue();
+                } else if ("states".equals(field) && value == JsonToken.START_ARRAY) {
+                    parseStates(parser, sink);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return time;
+    }
+
+    private void parseStates(JsonParser parser, Consumer<OpenSkyTrack> sink) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == JsonToken.START_ARRAY) {
+                OpenSkyTrack track = parseState(parser);
+                if (track != null) {
+                    sink.accept(track);
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * Lit un vecteur d'état (le parser est positionné sur son START_ARRAY)
+     *
+     * @return Le track, ou null si le vecteur est incomplet
+     */
+    private OpenSkyTrack parseState(JsonParser parser) throws IOException {
+        OpenSkyTrack track = new OpenSkyTrack();
+        int index = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == JsonToken.START_ARRAY || token == JsonToken.START_OBJECT) {
+                // sensors (12) ou champ inattendu
+                parser.skipChildren();
+            } else if (token != JsonToken.VALUE_NULL) {
+                switch (index) {
+                    case 0 -> {
+                        track.setIcao24(trimmedText(parser));
+                        track.setIcao24Code(parseIcao24(track.getIcao24()));
+                    }
+                    case 1 -> track.setCallsign(trimmedText(parser));
+                    case 2 -> {
+                        String country = trimmedText(parser);
+                        track.setOriginCountry(country != null ? countries.computeIfAbsent(country, c -> c) : null);
+                    }
+                    case 3 -> track.setTimePosition(longValue(parser, token));
+                    case 4 -> track.setLastContact(longValue(parser, token));
+                    case 5 -> track.setLongitude(doubleValue(parser, token));
+                    case 6 -> track.setLatitude(doubleValue(parser, token));
+                    case 7 -> track.setBaroAltitude(doubleValue(parser, token));
+                    case 8 -> track.setOnGround(token == JsonToken.VALUE_TRUE);
+                    case 9 -> track.setVelocity(doubleValue(parser, token));
+                    case 10 -> track.setTrueTrack(doubleValue(parser, token));
+                    case 11 -> track.setVerticalRate(doubleValue(parser, token));
+                    case 13 -> track.setGeoAltitude(doubleValue(parser, token));
+                    case 14 -> track.setSquawk(trimmedText(parser));
+                    default -> {
+                        // spi, positionSource, category : non utilisés
+                    }
+                }
+            }
+            index++;
+        }
+        return index >= STATE_FIELDS ? track : null;
+    }
+
+    /**
+     * Texte sans espaces de bordure (les callsigns OpenSky sont complétés à 8 caractères),
+     * construit directement depuis le tampon du parser
+     */
+    private static String trimmedText(JsonParser parser) throws IOException {
+        char[] chars = parser.getTextCharacters();
+        int start = parser.getTextOffset();
+        int end = start + parser.getTextLength();
+        while (start < end && chars[start] <= ' ') {
+            start++;
+        }
+        while (end > start && chars[end - 1] <= ' ') {
+            end--;
+        }
+        return start == end ? null : new String(chars, start, end - start);
+    }
+
+    private static double doubleValue(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getDoubleValue();
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            try {
+                return Double.parseDouble(parser.getText());
+            } catch (NumberFormatException e) {
+                return Double.NaN;
+            }
+        }
+        return Double.NaN;
+    }
+
+    private static long longValue(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getLongValue();
+        }
+        double value = doubleValue(parser, token);
+        return Double.isNaN(value) ? 0 : (long) value;
+    }
+
+    /**
+     * Adresse ICAO 24-bit hexadécimale -> entier, -1 si invalide
+     */
+    static int parseIcao24(String icao24) {
+        if (icao24 == null || icao24.isEmpty() || icao24.length() > 6) {
+            return -1;
+        }
+        int code = 0;
+        for (int i = 0; i < icao24.length(); i++) {
+            int digit = Character.digit(icao24.charAt(i), 16);
+            if (digit < 0) {
+                return -1;
+            }
+            code = (code << 4) | digit;
+        }
+        return code;
+    }
+}
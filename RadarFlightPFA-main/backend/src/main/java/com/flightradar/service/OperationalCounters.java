@@ -0,0 +1,339 @@
+package com.flightradar.service;
+
+import com.flightradar.model.AircraftStatus;
+import com.flightradar.model.Flight;
+import com.flightradar.model.FlightStatus;
+import com.flightradar.repository.AircraftRepository;
+import com.flightradar.repository.FlightRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Compteurs opérationnels tenus à jour par événements (KPIs du dashboard admin en O(1))
+ * - Avions par statut, vols par statut, départs à l'heure, vols retardés et minutes de retard
+ * - Décollages / atterrissages par heure sur WINDOW_HOURS (fenêtre glissante) : "aujourd'hui" = somme
+ *   des heures depuis minuit
+ * - Alimentés par les services qui changent un statut ou un horaire (FlightService, FlightSimulationService,
+ *   FlightManagementService, AircraftService, RadarService) : la contribution de l'état précédent
+ *   est retirée, celle du nouvel état ajoutée
+ * - Reconstruits depuis la base au démarrage (après DataInitializer) puis périodiquement, ce qui
+ *   corrige les écritures faites hors de ces services (scripts SQL, import)
+ * Compteurs répartis (LongAdder) : pas de contention entre threads de simulation et requêtes HTTP.
+ */
+@Service
+@Slf4j
+public class OperationalCounters {
+
+    static final int WINDOW_HOURS = 48;
+
+    // Tolérance "à l'heure" : moins de 16 minutes entières de retard (comme FlightRepository.countOnTimeDepartures)
+    static final long ON_TIME_TOLERANCE_MINUTES = 15;
+
+    @Autowired
+    private AircraftRepository aircraftRepository;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    // Horloge (remplaçable par les tests)
+    Supplier<LocalDateTime> clock = LocalDateTime::now;
+
+    // Remplacé en bloc à chaque reconstruction ; null tant que la première n'a pas eu lieu
+    private volatile Counters counters;
+
+    private final AtomicLong events = new AtomicLong();
+    private final AtomicLong rebuilds = new AtomicLong();
+    private volatile LocalDateTime lastRebuild;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Recalage périodique sur la base
+     */
+    @Scheduled(fixedDelayString = "${flightradar.kpi.resync-interval-ms:900000}",
+               initialDelayString = "${flightradar.kpi.resync-interval-ms:900000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Reconstruit tous les compteurs depuis la base (requêtes d'agrégat)
+     */
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        try {
+            LocalDateTime since = windowStart(clock.get());
+            Counters rebuilt = new Counters();
+            for (Object[] row : aircraftRepository.countGroupByStatus()) {
+                if (row[0] != null) {
+                    rebuilt.aircraft.get((AircraftStatus) row[0]).add(((Number) row[1]).longValue());
+                }
+            }
+            for (Object[] row : flightRepository.countGroupByFlightStatus()) {
+                if (row[0] != null) {
+                    rebuilt.flights.get((FlightStatus) row[0]).add(((Number) row[1]).longValue());
+                }
+            }
+            rebuilt.onTime.add(flightRepository.countOnTimeDepartures());
+            for (Object[] row : flightRepository.sumDelaysByDepartureAirport()) {
+                rebuilt.delayed.add(((Number) row[1]).longValue());
+                rebuilt.delayMinutes.add(((Number) row[2]).longValue());
+            }
+            for (Object[] row : flightRepository.countDeparturesByHourSince(since)) {
+                rebuilt.departures.put(hourKey(toLocalDateTime(row[0])), adder(((Number) row[1]).longValue()));
+            }
+            for (Object[] row : flightRepository.countSameDayArrivalsByHourSince(since)) {
+                rebuilt.landings.put(hourKey(toLocalDateTime(row[0])), adder(((Number) row[1]).longValue()));
+            }
+            counters = rebuilt;
+            rebuilds.incrementAndGet();
+            lastRebuild = clock.get();
+            log.debug("Compteurs opérationnels reconstruits en {} ms", (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("Reconstruction des compteurs opérationnels impossible : {}", e.getMessage());
+        }
+    }
+
+    // ========== Événements ==========
+
+    /**
+     * Changement de statut d'un avion (previous null = création, next null = suppression)
+     */
+    public void aircraftStatusChanged(AircraftStatus previous, AircraftStatus next) {
+        Counters current = current();
+        if (current == null || previous == next) {
+            return;
+        }
+        events.incrementAndGet();
+        if (previous != null) {
+            current.aircraft.get(previous).decrement();
+        }
+        if (next != null) {
+            current.aircraft.get(next).increment();
+        }
+    }
+
+    /**
+     * Modification d'un vol : retire la contribution de before, ajoute celle de after
+     * @param before État capturé avant modification (FlightState.of), null pour une création
+     * @param after Vol enregistré, null pour une suppression
+     */
+    public void flightChanged(FlightState before, Flight after) {
+        Counters current = current();
+        if (current == null) {
+            return;
+        }
+        events.incrementAndGet();
+        long nowHour = hourKey(clock.get());
+        if (before != null) {
+            apply(current, before, -1, nowHour);
+        }
+        if (after != null) {
+            apply(current, FlightState.of(after), 1, nowHour);
+        }
+    }
+
+    private void apply(Counters current, FlightState flight, int sign, long nowHour) {
+        if (flight.status != null) {
+            current.flights.get(flight.status).add(sign);
+        }
+        if (flight.scheduledDeparture != null && flight.actualDeparture != null) {
+            long delay = Duration.between(flight.scheduledDeparture, flight.actualDeparture).toMinutes();
+            if (delay <= ON_TIME_TOLERANCE_MINUTES) {
+                current.onTime.add(sign);
+            }
+            if (delay > 0) {
+                current.delayed.add(sign);
+                current.delayMinutes.add(sign * delay);
+            }
+        }
+        if (flight.actualDeparture != null) {
+            addToWindow(current.departures, hourKey(flight.actualDeparture), sign, nowHour);
+            // Atterrissage compté le jour du décollage uniquement (comme countDeparturesAndArrivalsBetween)
+            if (flight.actualArrival != null
+                    && flight.actualArrival.toLocalDate().equals(flight.actualDeparture.toLocalDate())) {
+                addToWindow(current.landings, hourKey(flight.actualArrival), sign, nowHour);
+            }
+        }
+    }
+
+    private static void addToWindow(Map<Long, LongAdder> window, long hour, int sign, long nowHour) {
+        if (hour <= nowHour - WINDOW_HOURS || hour > nowHour) {
+            return;
+        }
+        window.computeIfAbsent(hour, h -> new LongAdder()).add(sign);
+        window.keySet().removeIf(key -> key <= nowHour - WINDOW_HOURS);
+    }
+
+    // ========== Lectures ==========
+
+    public long getAircraftCount(AircraftStatus status) {
+        Counters current = current();
+        return current != null ? current.aircraft.get(status).sum() : 0;
+    }
+
+    public long getTotalAircraft() {
+        Counters current = current();
+        return current != null ? sum(current.aircraft.values()) : 0;
+    }
+
+    public long getFlightCount(FlightStatus status) {
+        Counters current = current();
+        return current != null ? current.flights.get(status).sum() : 0;
+    }
+
+    public long getTotalFlights() {
+        Counters current = current();
+        return current != null ? sum(current.flights.values()) : 0;
+    }
+
+    public long getOnTimeDepartures() {
+        Counters current = current();
+        return current != null ? current.onTime.sum() : 0;
+    }
+
+    public long getDelayedFlights() {
+        Counters current = current();
+        return current != null ? current.delayed.sum() : 0;
+    }
+
+    public long getTotalDelayMinutes() {
+        Counters current = current();
+        return current != null ? current.delayMinutes.sum() : 0;
+    }
+
+    public long getTakeoffsToday() {
+        Counters current = current();
+        return current != null ? sumToday(current.departures) : 0;
+    }
+
+    public long getLandingsToday() {
+        Counters current = current();
+        return current != null ? sumToday(current.landings) : 0;
+    }
+
+    private long sumToday(Map<Long, LongAdder> window) {
+        LocalDateTime now = clock.get();
+        long total = 0;
+        for (long hour = hourKey(now.truncatedTo(ChronoUnit.DAYS)); hour <= hourKey(now); hour++) {
+            LongAdder count = window.get(hour);
+            if (count != null) {
+                total += count.sum();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Compteurs courants, construits au premier accès si le démarrage n'a pas encore eu lieu
+     */
+    private Counters current() {
+        Counters current = counters;
+        if (current == null) {
+            rebuild();
+            current = counters;
+        }
+        return current;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("loaded", counters != null);
+        stats.put("events", events.get());
+        stats.put("rebuilds", rebuilds.get());
+        stats.put("lastRebuild", lastRebuild);
+        stats.put("totalFlights", getTotalFlights());
+        stats.put("totalAircraft", getTotalAircraft());
+        return stats;
+    }
+
+    private static long hourKey(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) / 3600;
+    }
+
+    private static LocalDateTime windowStart(LocalDateTime now) {
+        return now.truncatedTo(ChronoUnit.HOURS).minusHours(WINDOW_HOURS - 1);
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+
+    private static LongAdder adder(long value) {
+        LongAdder adder = new LongAdder();
+        adder.add(value);
+        return adder;
+    }
+
+    private static long sum(Collection<LongAdder> adders) {
+        long total = 0;
+        for (LongAdder adder : adders) {
+            total += adder.sum();
+        }
+        return total;
+    }
+
+    /**
+     * Jeu complet de compteurs (remplacé en bloc à la reconstruction)
+     */
+    private static final class Counters {
+        final Map<AircraftStatus, LongAdder> aircraft = new EnumMap<>(AircraftStatus.class);
+        final Map<FlightStatus, LongAdder> flights = new EnumMap<>(FlightStatus.class);
+        final LongAdder onTime = new LongAdder();
+        final LongAdder delayed = new LongAdder();
+        final LongAdder delayMinutes = new LongAdder();
+        // Heure (époque / 3600) -> nombre
+        final Map<Long, LongAdder> departures = new ConcurrentHashMap<>();
+        final Map<Long, LongAdder> landings = new ConcurrentHashMap<>();
+
+        Counters() {
+            for (AircraftStatus status : AircraftStatus.values()) {
+                aircraft.put(status, new LongAdder());
+            }
+            for (FlightStatus status : FlightStatus.values()) {
+                flights.put(status, new LongAdder());
+            }
+        }
+    }
+
+    /**
+     * Champs d'un vol qui entrent dans les compteurs, capturés avant modification
+     */
+    public static final class FlightState {
+        private final FlightStatus status;
+        private final LocalDateTime scheduledDeparture;
+        private final LocalDateTime actualDeparture;
+        private final LocalDateTime actualArrival;
+
+        private FlightState(FlightStatus status, LocalDateTime scheduledDeparture,
+                            LocalDateTime actualDeparture, LocalDateTime actualArrival) {
+            this.status = status;
+            this.scheduledDeparture = scheduledDeparture;
+            this.actualDeparture = actualDeparture;
+            this.actualArrival = actualArrival;
+        }
+
+        public static FlightState of(Flight flight) {
+            return new FlightState(flight.getFlightStatus(), flight.getScheduledDeparture(),
+                flight.getActualDeparture(), flight.getActualArrival());
+        }
+    }
+}
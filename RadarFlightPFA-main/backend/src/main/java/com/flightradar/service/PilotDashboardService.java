@@ -37,7 +37,10 @@ public class PilotDashboardService {
     private FlightRepository flightRepository;
     
     @Autowired
-    private WeatherDataRepository weatherDataRepository;
+    private LatestWeatherCache latestWeatherCache;
+    
+    @Autowired
+    private RunwayWindTable runwayWindTable;
     
     @Autowired
     private CommunicationRepository communicationRepository;
@@ -204,13 +207,14 @@ public class PilotDashboardService {
             }
         }
         dto.setGate("N/A"); // TODO: Ajouter gate dans le modèle
-        dto.setRunway("N/A"); // TODO: Ajouter runway dans le modèle
         
         // ========== 4. Météo du vol ==========
         Airport currentAirport = aircraft.getAirport();
+        // Piste préférentielle pour le vent courant de l'aéroport
+        dto.setRunway(currentAirport != null
+            ? runwayWindTable.getPreferredRunway(currentAirport.getId()).orElse("N/A") : "N/A");
         if (currentAirport != null) {
-            Optional<WeatherData> weatherOpt = weatherDataRepository
-                .findFirstByAirportIdOrderByTimestampDesc(currentAirport.getId());
+            Optional<WeatherData> weatherOpt = latestWeatherCache.get(currentAirport.getId());
             
             if (weatherOpt.isPresent()) {
                 WeatherData weather = weatherOpt.get();
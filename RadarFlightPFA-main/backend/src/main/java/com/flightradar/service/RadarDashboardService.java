@@ -40,7 +40,10 @@ public class RadarDashboardService {
     private ConflictDetectionService conflictDetectionService;
     
     @Autowired
-    private WeatherDataRepository weatherDataRepository;
+    private LatestWeatherCache latestWeatherCache;
+    
+    @Autowired
+    private RunwayWindTable runwayWindTable;
     
     /**
      * Récupère toutes les données du dashboard radar pour un aéroport
@@ -164,7 +167,7 @@ public class RadarDashboardService {
         }
         
         // Si pas de données ATIS, utiliser les données météo
-        Optional<WeatherData> weatherOpt = weatherDataRepository.findFirstByAirportIdOrderByTimestampDesc(airportId);
+        Optional<WeatherData> weatherOpt = latestWeatherCache.get(airportId);
         if (weatherOpt.isPresent()) {
             WeatherData weather = weatherOpt.get();
             Map<String, Object> atisData = new HashMap<>();
@@ -174,7 +177,7 @@ public class RadarDashboardService {
             atisData.put("turbulence", weather.getConditions());
             atisData.put("temperature", weather.getTemperature());
             atisData.put("conditions", weather.getConditions());
-            atisData.put("pisteEnService", "N/A");
+            atisData.put("pisteEnService", runwayWindTable.getPreferredRunway(airportId).orElse("N/A"));
             return atisData;
         }
         
@@ -40,6 +40,9 @@ public class RadarService {
     @Autowired
     private WeatherService weatherService;
     
+    @Autowired
+    private OperationalCounters operationalCounters;
+    
     /**
      * Envoie un message depuis un centre radar vers un avion
      */
@@ -212,8 +215,10 @@ public class RadarService {
             );
             
             // Changer le statut de l'avion
+            AircraftStatus previousStatus = aircraft.getStatus();
             aircraft.setStatus(AircraftStatus.DECOLLAGE);
             aircraftRepository.save(aircraft);
+            operationalCounters.aircraftStatusChanged(previousStatus, AircraftStatus.DECOLLAGE);
         } else {
             // Autorisation refusée
             StringBuilder reason = new StringBuilder();
@@ -268,8 +273,10 @@ public class RadarService {
             );
             
             // Changer le statut de l'avion
+            AircraftStatus previousStatus = aircraft.getStatus();
             aircraft.setStatus(AircraftStatus.ATTERRISSAGE);
             aircraftRepository.save(aircraft);
+            operationalCounters.aircraftStatusChanged(previousStatus, AircraftStatus.ATTERRISSAGE);
         } else {
             // Autorisation refusée
             StringBuilder reason = new StringBuilder();
@@ -2,9 +2,6 @@ package com.flightradar.service;
 
 import com.flightradar.model.Aircraft;
 import com.flightradar.model.WeatherData;
-import com.flightradar.service.AircraftService;
-import com.flightradar.service.ConflictDetectionService;
-import com.flightradar.service.WeatherService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -24,27 +21,38 @@ public class RealtimeUpdateService {
     private SimpMessagingTemplate messagingTemplate;
     
     @Autowired
-    private AircraftService aircraftService;
+    private WeatherService weatherService;
     
     @Autowired
-    private WeatherService weatherService;
+    private ViewportSubscriptionService viewportSubscriptionService;
     
     @Autowired
-    private ConflictDetectionService conflictDetectionService;
+    private WebSocketBroadcaster webSocketBroadcaster;
+    
+    // Keyframe complet toutes les 12 diffusions (1 minute), deltas entre les deux
+    static final int KEYFRAME_INTERVAL = 12;
+    
+    private final AircraftTrackEncoder trackEncoder = new AircraftTrackEncoder(KEYFRAME_INTERVAL);
     
     /**
-     * Envoie les positions des avions toutes les 5 secondes
+     * Envoie les positions des avions du snapshot courant
+     * Appelé par TrafficTickPipeline toutes les 5 secondes
+     * Message versionné (voir AircraftTrackEncoder) : keyframe périodique, sinon uniquement
+     * les pistes ajoutées, modifiées (champs modifiés) ou supprimées
+     * Les sessions ayant enregistré une zone reçoivent en plus les pistes de leur zone
      */
-    @Scheduled(fixedRate = 5000)
-    public void broadcastAircraftPositions() {
-        List<Aircraft> aircraftList = aircraftService.getAllAircraft();
+    public void broadcastAircraftPositions(TrafficSnapshot snapshot) {
+        Map<String, Object> update = trackEncoder.encode(snapshot.getAircraft(), snapshot.getTimestamp());
+        webSocketBroadcaster.broadcast(update, "/topic/aircraft");
         
-        Map<String, Object> update = new HashMap<>();
-        update.put("type", "aircraft_positions");
-        update.put("data", aircraftList);
-        update.put("timestamp", System.currentTimeMillis());
-        
-        messagingTemplate.convertAndSend("/topic/aircraft", update);
+        viewportSubscriptionService.route(snapshot);
+    }
+    
+    /**
+     * Keyframe de l'état diffusé au dernier cycle (abonnement ou trou de séquence détecté)
+     */
+    public Map<String, Object> getAircraftKeyframe() {
+        return trackEncoder.keyframe();
     }
     
     /**
@@ -77,23 +85,11 @@ public class RealtimeUpdateService {
     }
     
     /**
-     * Envoie une mise à jour météo pour un aéroport
-     */
-    public void sendWeatherUpdate(WeatherData weatherData) {
-        Map<String, Object> update = new HashMap<>();
-        update.put("type", "weather_update");
-        update.put("data", weatherData);
-        update.put("timestamp", System.currentTimeMillis());
-        
-        messagingTemplate.convertAndSend("/topic/weather/" + weatherData.getAirport().getId(), update);
-    }
-    
-    /**
-     * Envoie les alertes de conflit toutes les 5 secondes
+     * Envoie les alertes de conflit du snapshot courant
+     * Appelé par TrafficTickPipeline toutes les 5 secondes
      */
-    @Scheduled(fixedRate = 5000)
-    public void broadcastConflictAlerts() {
-        List<ConflictDetectionService.ConflictAlert> conflicts = conflictDetectionService.getActiveConflicts();
+    public void broadcastConflictAlerts(TrafficSnapshot snapshot) {
+        List<ConflictDetectionService.ConflictAlert> conflicts = snapshot.getConflicts();
         
         if (!conflicts.isEmpty()) {
             Map<String, Object> update = new HashMap<>();
@@ -101,7 +97,7 @@ public class RealtimeUpdateService {
             update.put("data", conflicts);
             update.put("timestamp", System.currentTimeMillis());
             
-            messagingTemplate.convertAndSend("/topic/conflicts", update);
+            webSocketBroadcaster.broadcast(update, "/topic/conflicts");
         }
     }
 }
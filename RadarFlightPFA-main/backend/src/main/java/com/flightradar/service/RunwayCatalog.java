@@ -0,0 +1,152 @@
+package com.flightradar.service;
+
+import com.flightradar.model.Runway;
+import com.flightradar.repository.RunwayRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Catalogue des pistes en mémoire : deux seuils (sens d'utilisation) par piste, regroupés par aéroport
+ * Chargé en une requête au premier accès, rechargé après modification des pistes (reload).
+ * La version change à chaque rechargement (invalidation des tables de vent de RunwayWindTable).
+ */
+@Service
+@Slf4j
+public class RunwayCatalog {
+
+    @Autowired
+    private RunwayRepository runwayRepository;
+
+    // ID d'aéroport -> seuils ; null tant que le catalogue n'est pas chargé
+    private volatile Map<Long, List<RunwayEnd>> endsByAirport;
+    private volatile long version;
+
+    /**
+     * Seuils de piste d'un aéroport (liste vide si aucune piste)
+     */
+    public List<RunwayEnd> getEnds(Long airportId) {
+        Map<Long, List<RunwayEnd>> catalog = endsByAirport;
+        if (catalog == null) {
+            catalog = loadIfAbsent();
+        }
+        return catalog.getOrDefault(airportId, List.of());
+    }
+
+    // Premier accès concurrent (rafraîchissement météo parallèle) : un seul chargement
+    private synchronized Map<Long, List<RunwayEnd>> loadIfAbsent() {
+        Map<Long, List<RunwayEnd>> catalog = endsByAirport;
+        return catalog != null ? catalog : reload();
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Relit toutes les pistes (une requête)
+     */
+    public synchronized Map<Long, List<RunwayEnd>> reload() {
+        Map<Long, List<RunwayEnd>> catalog = new HashMap<>();
+        int runways = 0;
+        for (Runway runway : runwayRepository.findAll()) {
+            if (runway.getAirport() == null || runway.getOrientation() == null) {
+                continue;
+            }
+            List<RunwayEnd> ends = catalog.computeIfAbsent(runway.getAirport().getId(), id -> new ArrayList<>());
+            ends.addAll(endsOf(runway));
+            runways++;
+        }
+        catalog.replaceAll((id, ends) -> List.copyOf(ends));
+        endsByAirport = Map.copyOf(catalog);
+        version++;
+        log.info("Catalogue des pistes chargé : {} pistes, {} aéroports", runways, catalog.size());
+        return endsByAirport;
+    }
+
+    /**
+     * Les deux seuils d'une piste : orientation et orientation + 180°
+     * Désignation reprise du nom ("09/27") si possible, sinon calculée depuis le cap
+     */
+    static List<RunwayEnd> endsOf(Runway runway) {
+        double heading = normalize(runway.getOrientation());
+        double reciprocal = normalize(heading + 180);
+        String designator = designator(heading);
+        String reciprocalDesignator = designator(reciprocal);
+
+        String[] parts = runway.getName() != null ? runway.getName().split("/") : new String[0];
+        if (parts.length == 2) {
+            String first = parts[0].trim();
+            String second = parts[1].trim();
+            // Le seuil dont le numéro est le plus proche de l'orientation correspond à l'orientation
+            boolean firstMatches = angularDistance(number(first) * 10, heading) <= angularDistance(number(second) * 10, heading);
+            designator = firstMatches ? first : second;
+            reciprocalDesignator = firstMatches ? second : first;
+        }
+
+        Integer length = runway.getLengthMeters();
+        return List.of(
+            new RunwayEnd(runway.getId(), runway.getName(), designator, heading, length),
+            new RunwayEnd(runway.getId(), runway.getName(), reciprocalDesignator, reciprocal, length));
+    }
+
+    private static String designator(double heading) {
+        int number = (int) Math.round(heading / 10);
+        return String.format(Locale.ROOT, "%02d", number == 0 ? 36 : number);
+    }
+
+    private static int number(String designator) {
+        int end = 0;
+        while (end < designator.length() && Character.isDigit(designator.charAt(end))) {
+            end++;
+        }
+        return end > 0 ? Integer.parseInt(designator.substring(0, end)) : -100;
+    }
+
+    private static double normalize(double degrees) {
+        double value = degrees % 360;
+        return value < 0 ? value + 360 : value;
+    }
+
+    private static double angularDistance(double a, double b) {
+        double diff = Math.abs(normalize(a) - normalize(b));
+        return diff > 180 ? 360 - diff : diff;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<Long, List<RunwayEnd>> catalog = endsByAirport;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("loaded", catalog != null);
+        stats.put("airports", catalog != null ? catalog.size() : 0);
+        stats.put("runwayEnds", catalog != null ? catalog.values().stream().mapToInt(List::size).sum() : 0);
+        stats.put("version", version);
+        return stats;
+    }
+
+    /**
+     * Seuil de piste : sens d'utilisation d'une piste physique
+     */
+    public static final class RunwayEnd {
+        private final Long runwayId;
+        private final String runwayName;
+        private final String designator;
+        private final double heading;
+        private final Integer lengthMeters;
+
+        RunwayEnd(Long runwayId, String runwayName, String designator, double heading, Integer lengthMeters) {
+            this.runwayId = runwayId;
+            this.runwayName = runwayName;
+            this.designator = designator;
+            this.heading = heading;
+            this.lengthMeters = lengthMeters;
+        }
+
+        public Long getRunwayId() { return runwayId; }
+        public String getRunwayName() { return runwayName; }
+        public String getDesignator() { return designator; }
+        public double getHeading() { return heading; }
+        public Integer getLengthMeters() { return lengthMeters; }
+    }
+}
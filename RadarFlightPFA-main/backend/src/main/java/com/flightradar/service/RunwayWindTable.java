@@ -0,0 +1,202 @@
+package com.flightradar.service;
+
+import com.flightradar.model.WeatherData;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Composantes du vent par seuil de piste, par aéroport
+ * - Vent de face, vent arrière et vent de travers de chaque seuil (RunwayCatalog) pour la météo
+ *   courante (LatestWeatherCache)
+ * - Table recalculée uniquement quand le vent de l'aéroport ou le catalogue des pistes change ;
+ *   sinon la table précédente est resservie telle quelle
+ * - Piste préférentielle : vent de face maximal, puis vent de travers minimal, puis piste la plus longue
+ * Utilisée par l'ATIS, les autorisations de décollage et le tableau de bord pilote.
+ */
+@Service
+public class RunwayWindTable {
+
+    @Autowired
+    private RunwayCatalog runwayCatalog;
+
+    @Autowired
+    private LatestWeatherCache latestWeatherCache;
+
+    // ID d'aéroport -> dernière table calculée
+    private final Map<Long, WindComponents> tables = new ConcurrentHashMap<>();
+
+    // Statistiques
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong recomputations = new AtomicLong();
+
+    /**
+     * Table des composantes pour la météo courante de l'aéroport
+     * @return Table, ou vide si l'aéroport n'a ni météo ni piste
+     */
+    public Optional<WindComponents> get(Long airportId) {
+        lookups.incrementAndGet();
+        Optional<WeatherData> weather = latestWeatherCache.get(airportId);
+        if (weather.isEmpty() || weather.get().getWindSpeed() == null || weather.get().getWindDirection() == null) {
+            return Optional.empty();
+        }
+        double windSpeed = weather.get().getWindSpeed();
+        double windDirection = weather.get().getWindDirection();
+        long catalogVersion = runwayCatalog.getVersion();
+
+        WindComponents table = tables.get(airportId);
+        if (table == null || !table.matches(windSpeed, windDirection, catalogVersion)) {
+            List<RunwayCatalog.RunwayEnd> ends = runwayCatalog.getEnds(airportId);
+            if (ends.isEmpty()) {
+                return Optional.empty();
+            }
+            table = compute(ends, windSpeed, windDirection, runwayCatalog.getVersion());
+            tables.put(airportId, table);
+            recomputations.incrementAndGet();
+        }
+        return Optional.of(table);
+    }
+
+    /**
+     * Désignation de la piste préférentielle (ex: "27"), vide si inconnue
+     */
+    public Optional<String> getPreferredRunway(Long airportId) {
+        return get(airportId).map(table -> table.getPreferred().getDesignator());
+    }
+
+    /**
+     * Calcule les composantes du vent pour des seuils donnés
+     * @param windSpeed Vitesse du vent en km/h
+     * @param windDirection Direction d'où vient le vent en degrés (0-360)
+     * Composantes par seuil arrondies au dixième (les seuils à égalité restent départagés par la longueur)
+     */
+    public static WindComponents compute(List<RunwayCatalog.RunwayEnd> ends, double windSpeed,
+                                         double windDirection, long catalogVersion) {
+        List<EndComponents> components = new ArrayList<>(ends.size());
+        EndComponents preferred = null;
+        double maxCrosswind = 0.0;
+        for (RunwayCatalog.RunwayEnd end : ends) {
+            double angle = Math.toRadians(windDirection - end.getHeading());
+            double headwind = windSpeed * Math.cos(angle);
+            double crosswind = Math.abs(windSpeed * Math.sin(angle));
+            EndComponents component = new EndComponents(end, round(Math.max(0.0, headwind)),
+                round(Math.max(0.0, -headwind)), round(crosswind));
+            components.add(component);
+            maxCrosswind = Math.max(maxCrosswind, crosswind);
+            if (preferred == null || better(component, preferred)) {
+                preferred = component;
+            }
+        }
+        // Maximum non arrondi : comparé au seuil d'alerte de WeatherService et stocké dans weather_data
+        return new WindComponents(windSpeed, windDirection, catalogVersion, List.copyOf(components),
+            preferred, maxCrosswind);
+    }
+
+    private static boolean better(EndComponents candidate, EndComponents current) {
+        if (candidate.headwind != current.headwind) {
+            return candidate.headwind > current.headwind;
+        }
+        if (candidate.crosswind != current.crosswind) {
+            return candidate.crosswind < current.crosswind;
+        }
+        int candidateLength = candidate.end.getLengthMeters() != null ? candidate.end.getLengthMeters() : 0;
+        int currentLength = current.end.getLengthMeters() != null ? current.end.getLengthMeters() : 0;
+        return candidateLength > currentLength;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("airports", tables.size());
+        stats.put("lookups", lookups.get());
+        stats.put("recomputations", recomputations.get());
+        stats.put("catalog", runwayCatalog.getStats());
+        return stats;
+    }
+
+    /**
+     * Composantes du vent de tous les seuils d'un aéroport, pour un vent donné (immuable)
+     */
+    public static final class WindComponents {
+        private final double windSpeed;
+        private final double windDirection;
+        private final long catalogVersion;
+        private final List<EndComponents> ends;
+        private final EndComponents preferred;
+        private final double maxCrosswind;
+
+        WindComponents(double windSpeed, double windDirection, long catalogVersion, List<EndComponents> ends,
+                       EndComponents preferred, double maxCrosswind) {
+            this.windSpeed = windSpeed;
+            this.windDirection = windDirection;
+            this.catalogVersion = catalogVersion;
+            this.ends = ends;
+            this.preferred = preferred;
+            this.maxCrosswind = maxCrosswind;
+        }
+
+        boolean matches(double speed, double direction, long version) {
+            return windSpeed == speed && windDirection == direction && catalogVersion == version;
+        }
+
+        public double getWindSpeed() { return windSpeed; }
+        public double getWindDirection() { return windDirection; }
+        public List<EndComponents> getEnds() { return ends; }
+        public EndComponents getPreferred() { return preferred; }
+        public double getMaxCrosswind() { return maxCrosswind; }
+
+        /**
+         * Composantes d'un seuil par sa désignation ("27"), null si inconnu
+         */
+        public EndComponents getEnd(String designator) {
+            for (EndComponents end : ends) {
+                if (end.getDesignator().equals(designator)) {
+                    return end;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Vent de travers sur une piste physique (identique sur ses deux seuils), null si inconnue
+         */
+        public Double getCrosswindForRunway(Long runwayId) {
+            for (EndComponents end : ends) {
+                if (Objects.equals(end.end.getRunwayId(), runwayId)) {
+                    return end.crosswind;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Composantes du vent sur un seuil (km/h)
+     */
+    public static final class EndComponents {
+        private final RunwayCatalog.RunwayEnd end;
+        private final double headwind;
+        private final double tailwind;
+        private final double crosswind;
+
+        EndComponents(RunwayCatalog.RunwayEnd end, double headwind, double tailwind, double crosswind) {
+            this.end = end;
+            this.headwind = headwind;
+            this.tailwind = tailwind;
+            this.crosswind = crosswind;
+        }
+
+        public String getDesignator() { return end.getDesignator(); }
+        public String getRunwayName() { return end.getRunwayName(); }
+        public double getHeading() { return end.getHeading(); }
+        public double getHeadwind() { return headwind; }
+        public double getTailwind() { return tailwind; }
+        public double getCrosswind() { return crosswind; }
+    }
+}
@@ -0,0 +1,104 @@
+package com.flightradar.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Index spatial des pistes par cellules de 1° x 1°, reconstruit à chaque cycle
+ * Une requête par zone ne parcourt que les cellules recouvrant la zone (ou les cellules
+ * occupées si elles sont moins nombreuses) : le coût dépend du nombre de pistes dans la zone,
+ * pas du nombre total de pistes.
+ * Éléments indexés : avions (Aircraft) ou pistes OpenSky extrapolées, selon les accesseurs de position.
+ */
+final class TrackGridIndex<T> {
+
+    private static final double CELL_DEG = 1.0;
+    private static final int LAT_CELLS = (int) (180 / CELL_DEG);
+    private static final int LON_CELLS = (int) (360 / CELL_DEG);
+
+    private final Function<T, Double> latitude;
+    private final Function<T, Double> longitude;
+
+    // Clé de cellule -> éléments de la cellule
+    private final Map<Integer, List<T>> cells = new HashMap<>();
+
+    TrackGridIndex(List<T> items, Function<T, Double> latitude, Function<T, Double> longitude) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        for (T item : items) {
+            Double lat = latitude.apply(item);
+            Double lon = longitude.apply(item);
+            if (lat == null || lon == null) {
+                continue;
+            }
+            cells.computeIfAbsent(cellKey(latIndex(lat), lonIndex(lon)), k -> new ArrayList<>()).add(item);
+        }
+    }
+
+    /**
+     * Éléments situés dans la zone (bornes incluses) ; minLon > maxLon = zone à cheval sur l'antiméridien
+     */
+    List<T> query(double minLat, double minLon, double maxLat, double maxLon) {
+        List<T> result = new ArrayList<>();
+        if (minLon <= maxLon) {
+            collect(minLat, minLon, maxLat, maxLon, result);
+        } else {
+            collect(minLat, minLon, maxLat, 180.0, result);
+            collect(minLat, -180.0, maxLat, maxLon, result);
+        }
+        return result;
+    }
+
+    private void collect(double minLat, double minLon, double maxLat, double maxLon, List<T> result) {
+        int latFrom = latIndex(minLat);
+        int latTo = latIndex(maxLat);
+        int lonFrom = lonIndex(minLon);
+        int lonTo = lonIndex(maxLon);
+        long rangeCells = (long) (latTo - latFrom + 1) * (lonTo - lonFrom + 1);
+
+        if (rangeCells <= cells.size()) {
+            for (int la = latFrom; la <= latTo; la++) {
+                for (int lo = lonFrom; lo <= lonTo; lo++) {
+                    List<T> cell = cells.get(cellKey(la, lo));
+                    if (cell != null) {
+                        filter(cell, minLat, minLon, maxLat, maxLon, result);
+                    }
+                }
+            }
+        } else {
+            // Zone large : parcourir seulement les cellules occupées
+            for (Map.Entry<Integer, List<T>> entry : cells.entrySet()) {
+                int la = entry.getKey() / LON_CELLS;
+                int lo = entry.getKey() % LON_CELLS;
+                if (la >= latFrom && la <= latTo && lo >= lonFrom && lo <= lonTo) {
+                    filter(entry.getValue(), minLat, minLon, maxLat, maxLon, result);
+                }
+            }
+        }
+    }
+
+    private void filter(List<T> cell, double minLat, double minLon, double maxLat, double maxLon, List<T> result) {
+        for (T item : cell) {
+            double lat = latitude.apply(item);
+            double lon = longitude.apply(item);
+            if (lat >= minLat && lat <= maxLat && lon >= minLon && lon <= maxLon) {
+                result.add(item);
+            }
+        }
+    }
+
+    private static int latIndex(double lat) {
+        return Math.max(0, Math.min(LAT_CELLS - 1, (int) Math.floor((lat + 90.0) / CELL_DEG)));
+    }
+
+    private static int lonIndex(double lon) {
+        return Math.max(0, Math.min(LON_CELLS - 1, (int) Math.floor((lon + 180.0) / CELL_DEG)));
+    }
+
+    private static int cellKey(int latIndex, int lonIndex) {
+        return latIndex * LON_CELLS + lonIndex;
+    }
+}
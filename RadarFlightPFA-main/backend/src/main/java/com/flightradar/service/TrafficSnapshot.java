@@ -0,0 +1,30 @@
+package com.flightradar.service;
+
+import com.flightradar.model.Aircraft;
+
+import java.util.List;
+
+/**
+ * Vue figée du trafic produite par un cycle de TrafficTickPipeline
+ * Toutes les étapes d'un même cycle (conflits, diffusion, API) voient les mêmes positions
+ */
+public class TrafficSnapshot {
+    
+    private final long sequence;
+    private final long timestamp;
+    private final List<Aircraft> aircraft;
+    private final List<ConflictDetectionService.ConflictAlert> conflicts;
+    
+    public TrafficSnapshot(long sequence, long timestamp, List<Aircraft> aircraft,
+                           List<ConflictDetectionService.ConflictAlert> conflicts) {
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.aircraft = List.copyOf(aircraft);
+        this.conflicts = List.copyOf(conflicts);
+    }
+    
+    public long getSequence() { return sequence; }
+    public long getTimestamp() { return timestamp; }
+    public List<Aircraft> getAircraft() { return aircraft; }
+    public List<ConflictDetectionService.ConflictAlert> getConflicts() { return conflicts; }
+}
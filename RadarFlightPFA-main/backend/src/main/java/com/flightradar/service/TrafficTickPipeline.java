@@ -0,0 +1,161 @@
+package com.flightradar.service;
+
+import com.flightradar.model.Aircraft;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cycle unique de traitement du trafic (toutes les 5 secondes)
+ * Remplace les tâches @Scheduled indépendantes de AircraftService, ConflictDetectionService
+ * et RealtimeUpdateService. Étapes exécutées dans l'ordre sur un seul snapshot en mémoire :
+ * 1. move      : avancement des vols simulés, puis chargement des avions (une seule lecture base)
+ *                et mouvement des autres avions en vol ; les positions vont dans AircraftPositionStore
+ *                (écriture différée en lots JDBC)
+ * 2. conflicts : détection des conflits et envoi des alertes VHF
+ * 3. snapshot  : construction du TrafficSnapshot partagé
+ * 4. broadcast : diffusion WebSocket des positions et des conflits
+ */
+@Service
+@Slf4j
+public class TrafficTickPipeline {
+
+    private static final long TICK_INTERVAL_MS = 5000;
+
+    static final String STAGE_MOVE = "move";
+    static final String STAGE_CONFLICTS = "conflicts";
+    static final String STAGE_SNAPSHOT = "snapshot";
+    static final String STAGE_BROADCAST = "broadcast";
+    static final String STAGE_TOTAL = "total";
+
+    @Autowired
+    private AircraftService aircraftService;
+
+    @Autowired
+    private FlightSimulationService flightSimulationService;
+
+    @Autowired
+    private ConflictDetectionService conflictDetectionService;
+
+    @Autowired
+    private RealtimeUpdateService realtimeUpdateService;
+    
+    @Autowired
+    private AircraftPositionStore aircraftPositionStore;
+
+    private final Map<String, StageStats> stageStats = new LinkedHashMap<>();
+
+    private volatile TrafficSnapshot latestSnapshot;
+
+    private long sequence = 0;
+    
+    // Compteurs du store de positions au cycle précédent (allers-retours économisés par cycle)
+    private long lastRoundTripsSaved = 0;
+    private volatile long roundTripsSavedLastTick = 0;
+
+    public TrafficTickPipeline() {
+        for (String stage : List.of(STAGE_MOVE, STAGE_CONFLICTS, STAGE_SNAPSHOT, STAGE_BROADCAST, STAGE_TOTAL)) {
+            stageStats.put(stage, new StageStats());
+        }
+    }
+
+    /**
+     * Exécute un cycle complet du pipeline
+     */
+    @Scheduled(fixedRate = TICK_INTERVAL_MS)
+    public void tick() {
+        try {
+            long start = System.nanoTime();
+
+            Set<Long> simulatedAircraftIds = flightSimulationService.advanceSimulations();
+            List<Aircraft> aircraft = aircraftService.simulateAircraftMovement(
+                TICK_INTERVAL_MS / 1000.0, simulatedAircraftIds);
+            long moved = System.nanoTime();
+
+            List<ConflictDetectionService.ConflictAlert> conflicts = conflictDetectionService.detectConflicts(aircraft);
+            long detected = System.nanoTime();
+
+            TrafficSnapshot snapshot = new TrafficSnapshot(++sequence, System.currentTimeMillis(), aircraft, conflicts);
+            latestSnapshot = snapshot;
+            long built = System.nanoTime();
+
+            realtimeUpdateService.broadcastAircraftPositions(snapshot);
+            realtimeUpdateService.broadcastConflictAlerts(snapshot);
+            long broadcast = System.nanoTime();
+
+            long roundTripsSaved = aircraftPositionStore.getRoundTripsSaved();
+            roundTripsSavedLastTick = roundTripsSaved - lastRoundTripsSaved;
+            lastRoundTripsSaved = roundTripsSaved;
+            
+            stageStats.get(STAGE_MOVE).record(moved - start);
+            stageStats.get(STAGE_CONFLICTS).record(detected - moved);
+            stageStats.get(STAGE_SNAPSHOT).record(built - detected);
+            stageStats.get(STAGE_BROADCAST).record(broadcast - built);
+            stageStats.get(STAGE_TOTAL).record(broadcast - start);
+
+            if (broadcast - start > TICK_INTERVAL_MS * 1_000_000L) {
+                log.warn("Cycle trafic {} trop long: {} ms", snapshot.getSequence(), (broadcast - start) / 1_000_000);
+            }
+        } catch (Exception e) {
+            log.error("Erreur lors du cycle de traitement du trafic: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Dernier snapshot produit (null avant le premier cycle)
+     */
+    public TrafficSnapshot getLatestSnapshot() {
+        return latestSnapshot;
+    }
+
+    /**
+     * Durées des étapes du pipeline (dernier cycle, moyenne, maximum) en millisecondes
+     */
+    public Map<String, Object> getStageTimings() {
+        Map<String, Object> timings = new LinkedHashMap<>();
+        TrafficSnapshot snapshot = latestSnapshot;
+        timings.put("sequence", snapshot != null ? snapshot.getSequence() : 0);
+        timings.put("aircraftCount", snapshot != null ? snapshot.getAircraft().size() : 0);
+        timings.put("conflictCount", snapshot != null ? snapshot.getConflicts().size() : 0);
+        timings.put("simulatedFlights", flightSimulationService.getActiveSimulationCount());
+        timings.put("roundTripsSavedLastTick", roundTripsSavedLastTick);
+        timings.put("positionStore", aircraftPositionStore.getStats());
+
+        Map<String, Object> stages = new LinkedHashMap<>();
+        stageStats.forEach((stage, stats) -> stages.put(stage, stats.toMap()));
+        timings.put("stages", stages);
+        return timings;
+    }
+
+    /**
+     * Statistiques de durée d'une étape
+     */
+    private static class StageStats {
+        private long count;
+        private long lastNanos;
+        private long maxNanos;
+        private long totalNanos;
+
+        synchronized void record(long nanos) {
+            count++;
+            lastNanos = nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+            totalNanos += nanos;
+        }
+
+        synchronized Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("lastMs", lastNanos / 1_000_000.0);
+            map.put("avgMs", count > 0 ? totalNanos / 1_000_000.0 / count : 0.0);
+            map.put("maxMs", maxNanos / 1_000_000.0);
+            map.put("count", count);
+            return map;
+        }
+    }
+}
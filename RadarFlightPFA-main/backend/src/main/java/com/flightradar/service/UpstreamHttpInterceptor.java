@@ -0,0 +1,245 @@
+package com.flightradar.service;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Intercepteur du RestTemplate partagé (RestTemplateConfig) pour les appels aux sources externes
+ * - Budget de concurrence par source : appel refusé (ResourceAccessException) si épuisé
+ * - Compression négociée (gzip, deflate) et décodée ici, pour mesurer les octets réellement transférés
+ * - Requêtes conditionnelles : If-None-Match / If-Modified-Since quand la source a fourni
+ *   un ETag ou un Last-Modified ; une réponse 304 est rendue telle quelle à l'appelant.
+ *   Les validateurs ne sont retenus qu'à la fermeture d'une réponse 2xx lue jusqu'au bout sans erreur :
+ *   un corps abandonné ou interrompu n'empêche pas la réponse complète suivante
+ * - Latence mesurée de l'envoi à la fermeture de la réponse (corps lu compris)
+ */
+public class UpstreamHttpInterceptor implements ClientHttpRequestInterceptor {
+
+    private final UpstreamRegistry upstreamRegistry;
+
+    public UpstreamHttpInterceptor(UpstreamRegistry upstreamRegistry) {
+        this.upstreamRegistry = upstreamRegistry;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body,
+                                        ClientHttpRequestExecution execution) throws IOException {
+        UpstreamRegistry.Upstream upstream = upstreamRegistry.forUri(request.getURI());
+        if (!upstream.tryAcquire()) {
+            throw new ResourceAccessException("Budget de concurrence épuisé pour " + upstream.getName());
+        }
+
+        long start = System.nanoTime();
+        String url = request.getURI().toString();
+        HttpHeaders headers = request.getHeaders();
+        headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+        if (upstream.isConditional() && request.getMethod() == HttpMethod.GET) {
+            String[] validators = upstream.getValidators(url);
+            if (validators != null) {
+                if (validators[0] != null) {
+                    headers.set(HttpHeaders.IF_NONE_MATCH, validators[0]);
+                }
+                if (validators[1] != null) {
+                    headers.set(HttpHeaders.IF_MODIFIED_SINCE, validators[1]);
+                }
+            }
+        }
+
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException | RuntimeException e) {
+            upstream.release();
+            upstream.recordError(elapsedMs(start));
+            throw e;
+        }
+
+        // Statut et en-têtes lus à la fermeture seulement : rien ne peut échouer avant que la réponse
+        // enveloppée ne soit rendue (et le budget libéré par sa fermeture)
+        boolean conditional = upstream.isConditional() && request.getMethod() == HttpMethod.GET;
+        return new MeteredResponse(response, upstream, start, conditional ? url : null);
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    /**
+     * Réponse décodée et comptée ; libère le budget de la source à la fermeture
+     */
+    private static final class MeteredResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final UpstreamRegistry.Upstream upstream;
+        private final long startNanos;
+        // URL dont les validateurs sont retenus si le corps est lu en entier (null : requête non conditionnelle)
+        private final String validatorsUrl;
+        private CountingInputStream wire;
+        private CountingInputStream decoded;
+        private InputStream body;
+        private HttpHeaders headers;
+        private boolean closed;
+
+        MeteredResponse(ClientHttpResponse delegate, UpstreamRegistry.Upstream upstream, long startNanos,
+                        String validatorsUrl) {
+            this.delegate = delegate;
+            this.upstream = upstream;
+            this.startNanos = startNanos;
+            this.validatorsUrl = validatorsUrl;
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                wire = new CountingInputStream(delegate.getBody());
+                String encoding = delegate.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+                encoding = encoding != null ? encoding.trim().toLowerCase(Locale.ROOT) : "";
+                InputStream inflated = switch (encoding) {
+                    case "gzip", "x-gzip" -> new GZIPInputStream(wire, 8192);
+                    case "deflate" -> new InflaterInputStream(wire);
+                    default -> wire;
+                };
+                decoded = inflated == wire ? wire : new CountingInputStream(inflated);
+                body = decoded;
+            }
+            return body;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        /**
+         * En-têtes de la réponse décodée (sans Content-Encoding ni Content-Length du corps compressé)
+         */
+        @Override
+        public HttpHeaders getHeaders() {
+            if (headers == null) {
+                HttpHeaders original = delegate.getHeaders();
+                if (original.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+                    HttpHeaders copy = new HttpHeaders();
+                    copy.putAll(original);
+                    copy.remove(HttpHeaders.CONTENT_ENCODING);
+                    copy.remove(HttpHeaders.CONTENT_LENGTH);
+                    headers = HttpHeaders.readOnlyHttpHeaders(copy);
+                } else {
+                    headers = original;
+                }
+            }
+            return headers;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                HttpStatusCode status = delegate.getStatusCode();
+                if (validatorsUrl != null && status.is2xxSuccessful() && isFullyRead()) {
+                    HttpHeaders responseHeaders = delegate.getHeaders();
+                    upstream.storeValidators(validatorsUrl, responseHeaders.getETag(),
+                        responseHeaders.getFirst(HttpHeaders.LAST_MODIFIED));
+                }
+                upstream.recordExchange(elapsedMs(startNanos), wire != null ? wire.count : 0,
+                    decoded != null ? decoded.count : 0, status.isSameCodeAs(HttpStatus.NOT_MODIFIED), status.isError());
+            } catch (IOException | RuntimeException e) {
+                upstream.recordError(elapsedMs(startNanos));
+            } finally {
+                try {
+                    delegate.close();
+                } finally {
+                    upstream.release();
+                }
+            }
+        }
+
+        /**
+         * Corps décodé lu jusqu'à la fin du flux sans erreur de lecture
+         * (fin vérifiée ici si l'appelant s'est arrêté juste avant)
+         */
+        private boolean isFullyRead() {
+            if (decoded == null || decoded.failed) {
+                return false;
+            }
+            try {
+                return decoded.eof || decoded.read() == -1;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+        private boolean eof;
+        private boolean failed;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b;
+            try {
+                b = super.read();
+            } catch (IOException | RuntimeException e) {
+                failed = true;
+                throw e;
+            }
+            if (b >= 0) {
+                count++;
+            } else {
+                eof = true;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n;
+            try {
+                n = super.read(buffer, offset, length);
+            } catch (IOException | RuntimeException e) {
+                failed = true;
+                throw e;
+            }
+            if (n > 0) {
+                count += n;
+            } else if (n < 0) {
+                eof = true;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
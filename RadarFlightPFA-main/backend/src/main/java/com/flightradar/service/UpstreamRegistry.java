@@ -0,0 +1,231 @@
+package com.flightradar.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sources HTTP externes (OpenSky, Open-Meteo) et leurs budgets
+ * - Délais de connexion / réponse et nombre d'appels simultanés par source
+ * - Requêtes conditionnelles (ETag / Last-Modified) si la source les supporte
+ * - Métriques par source : histogramme de latence, octets transférés / décodés, 304, rejets
+ * Utilisé par RestTemplateConfig (délais) et UpstreamHttpInterceptor (budgets, métriques).
+ */
+@Service
+public class UpstreamRegistry {
+
+    public static final String OPENSKY = "opensky";
+    public static final String OPEN_METEO = "open-meteo";
+    public static final String DEFAULT = "default";
+
+    // Bornes supérieures des tranches de l'histogramme de latence (ms), plus une tranche "au-delà"
+    static final long[] LATENCY_BUCKETS_MS = {25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    // Validateurs conservés par source (une URL par aéroport pour Open-Meteo)
+    private static final int MAX_VALIDATORS = 256;
+
+    @Value("${flightradar.upstream.opensky.read-timeout-ms:20000}")
+    private int openSkyReadTimeoutMs = 20000;
+
+    @Value("${flightradar.upstream.opensky.max-concurrent:1}")
+    private int openSkyMaxConcurrent = 1;
+
+    @Value("${flightradar.upstream.open-meteo.read-timeout-ms:5000}")
+    private int openMeteoReadTimeoutMs = 5000;
+
+    @Value("${flightradar.upstream.open-meteo.max-concurrent:4}")
+    private int openMeteoMaxConcurrent = 4;
+
+    // Hôte -> source
+    private final Map<String, Upstream> byHost = new ConcurrentHashMap<>();
+    private final Map<String, Upstream> byName = new LinkedHashMap<>();
+    private Upstream fallback;
+
+    @PostConstruct
+    public void init() {
+        // OpenSky : réponse volumineuse (plusieurs Mo), un seul appel à la fois (limite de débit)
+        register(new Upstream(OPENSKY, "opensky-network.org", 5000, openSkyReadTimeoutMs, openSkyMaxConcurrent, true));
+        // Open-Meteo : petites réponses, une par aéroport ; pas de validateurs côté serveur
+        register(new Upstream(OPEN_METEO, "api.open-meteo.com", 3000, openMeteoReadTimeoutMs, openMeteoMaxConcurrent, false));
+        fallback = new Upstream(DEFAULT, null, 5000, 10000, 8, false);
+        byName.put(DEFAULT, fallback);
+    }
+
+    void register(Upstream upstream) {
+        byHost.put(upstream.getHost(), upstream);
+        byName.put(upstream.getName(), upstream);
+    }
+
+    /**
+     * Source correspondant à l'hôte de l'URI (source "default" si inconnue)
+     */
+    public Upstream forUri(URI uri) {
+        return forHost(uri.getHost());
+    }
+    
+    public Upstream forHost(String host) {
+        Upstream upstream = host != null ? byHost.get(host.toLowerCase(Locale.ROOT)) : null;
+        return upstream != null ? upstream : fallback;
+    }
+
+    public Upstream get(String name) {
+        return byName.get(name);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (Upstream upstream : byName.values()) {
+            stats.put(upstream.getName(), upstream.getStats());
+        }
+        return stats;
+    }
+
+    /**
+     * Une source externe : budgets, validateurs conditionnels et métriques
+     */
+    public static class Upstream {
+
+        private final String name;
+        private final String host;
+        private final int connectTimeoutMs;
+        private final int readTimeoutMs;
+        private final int maxConcurrent;
+        private final boolean conditional;
+        private final Semaphore permits;
+
+        // URL -> {ETag, Last-Modified}, ordre d'accès pour l'éviction
+        private final Map<String, String[]> validators = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, String[]> eldest) {
+                    return size() > MAX_VALIDATORS;
+                }
+            });
+
+        // Métriques
+        private final AtomicLongArray latencyBuckets = new AtomicLongArray(LATENCY_BUCKETS_MS.length + 1);
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong notModified = new AtomicLong();
+        private final AtomicLong wireBytes = new AtomicLong();
+        private final AtomicLong decodedBytes = new AtomicLong();
+        private final AtomicLong totalLatencyMs = new AtomicLong();
+        private final AtomicLong maxLatencyMs = new AtomicLong();
+
+        public Upstream(String name, String host, int connectTimeoutMs, int readTimeoutMs,
+                        int maxConcurrent, boolean conditional) {
+            this.name = name;
+            this.host = host;
+            this.connectTimeoutMs = connectTimeoutMs;
+            this.readTimeoutMs = readTimeoutMs;
+            this.maxConcurrent = maxConcurrent;
+            this.conditional = conditional;
+            this.permits = new Semaphore(maxConcurrent, true);
+        }
+
+        public String getName() { return name; }
+        public String getHost() { return host; }
+        public int getConnectTimeoutMs() { return connectTimeoutMs; }
+        public int getReadTimeoutMs() { return readTimeoutMs; }
+        public int getMaxConcurrent() { return maxConcurrent; }
+        public boolean isConditional() { return conditional; }
+
+        /**
+         * Réserve un appel dans le budget de concurrence (attente bornée par le délai de connexion)
+         */
+        boolean tryAcquire() {
+            try {
+                if (permits.tryAcquire(connectTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            rejected.incrementAndGet();
+            return false;
+        }
+
+        void release() {
+            permits.release();
+        }
+
+        String[] getValidators(String url) {
+            return validators.get(url);
+        }
+
+        void storeValidators(String url, String etag, String lastModified) {
+            if (etag != null || lastModified != null) {
+                validators.put(url, new String[]{etag, lastModified});
+            }
+        }
+
+        void recordExchange(long latencyMs, long wire, long decoded, boolean wasNotModified, boolean failed) {
+            requests.incrementAndGet();
+            if (wasNotModified) {
+                notModified.incrementAndGet();
+            }
+            if (failed) {
+                errors.incrementAndGet();
+            }
+            wireBytes.addAndGet(wire);
+            decodedBytes.addAndGet(decoded);
+            recordLatency(latencyMs);
+        }
+
+        void recordError(long latencyMs) {
+            requests.incrementAndGet();
+            errors.incrementAndGet();
+            recordLatency(latencyMs);
+        }
+
+        private void recordLatency(long latencyMs) {
+            int bucket = 0;
+            while (bucket < LATENCY_BUCKETS_MS.length && latencyMs > LATENCY_BUCKETS_MS[bucket]) {
+                bucket++;
+            }
+            latencyBuckets.incrementAndGet(bucket);
+            totalLatencyMs.addAndGet(latencyMs);
+            maxLatencyMs.accumulateAndGet(latencyMs, Math::max);
+        }
+
+        public Map<String, Object> getStats() {
+            Map<String, Object> histogram = new LinkedHashMap<>();
+            for (int i = 0; i < LATENCY_BUCKETS_MS.length; i++) {
+                histogram.put("le" + LATENCY_BUCKETS_MS[i] + "ms", latencyBuckets.get(i));
+            }
+            histogram.put("gt" + LATENCY_BUCKETS_MS[LATENCY_BUCKETS_MS.length - 1] + "ms",
+                latencyBuckets.get(LATENCY_BUCKETS_MS.length));
+
+            long count = requests.get();
+            long wire = wireBytes.get();
+            long decoded = decodedBytes.get();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("host", host);
+            stats.put("connectTimeoutMs", connectTimeoutMs);
+            stats.put("readTimeoutMs", readTimeoutMs);
+            stats.put("maxConcurrent", maxConcurrent);
+            stats.put("inFlight", maxConcurrent - permits.availablePermits());
+            stats.put("conditional", conditional);
+            stats.put("requests", count);
+            stats.put("errors", errors.get());
+            stats.put("rejected", rejected.get());
+            stats.put("notModified", notModified.get());
+            stats.put("wireBytes", wire);
+            stats.put("decodedBytes", decoded);
+            stats.put("compressionRatio", wire > 0 ? Math.round(decoded * 100.0 / wire) / 100.0 : null);
+            stats.put("meanLatencyMs", count > 0 ? totalLatencyMs.get() / count : 0);
+            stats.put("maxLatencyMs", maxLatencyMs.get());
+            stats.put("latencyHistogram", histogram);
+            return stats;
+        }
+    }
+}
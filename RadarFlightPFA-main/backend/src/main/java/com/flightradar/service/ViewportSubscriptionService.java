@@ -0,0 +1,352 @@
+package com.flightradar.service;
+
+import com.flightradar.model.Aircraft;
+import com.flightradar.model.dto.ViewportRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Abonnements au trafic limités à la zone visible de chaque client
+ * - Le client envoie sa zone (et son zoom) sur /app/aircraft/viewport, à nouveau à chaque déplacement de carte
+ * - Il reçoit sur /user/queue/aircraft uniquement les pistes de sa zone, au format keyframe / delta
+ *   de AircraftTrackEncoder ; un keyframe réinitialise la séquence attendue
+ * - Même principe sur /user/queue/live-aircraft pour les avions OpenSky extrapolés (LiveTrackExtrapolator),
+ *   avec leur propre séquence
+ * - La zone (avec marge) est alignée sur la grille de 1° de TrackGridIndex : les sessions dont la zone
+ *   couvre les mêmes cellules à la même précision forment un groupe, qui partage un encodeur.
+ *   Chaque groupe est interrogé, encodé et sérialisé une fois par cycle, quel que soit son nombre de sessions
+ * - Une session qui rejoint un groupe (abonnement, déplacement, changement de zoom, demande de keyframe)
+ *   reçoit les keyframes du groupe, puis ses deltas
+ * - Les pistes sont indexées une fois par cycle (TrackGridIndex) : le coût de routage dépend
+ *   du nombre de pistes par zone, pas du produit pistes x sessions
+ */
+@Service
+@Slf4j
+public class ViewportSubscriptionService {
+
+    static final String SESSION_DESTINATION = "/queue/aircraft";
+    static final String LIVE_SESSION_DESTINATION = "/queue/live-aircraft";
+
+    // Marge autour de la zone visible (fraction de sa taille) pour limiter les entrées/sorties au déplacement
+    private static final double VIEWPORT_MARGIN = 0.1;
+
+    @Autowired
+    private WebSocketBroadcaster webSocketBroadcaster;
+
+    // ID de session STOMP -> abonnement
+    private final Map<String, ViewportSession> sessions = new ConcurrentHashMap<>();
+
+    // Zone alignée sur la grille et précision -> sessions qui la partagent
+    private final Map<ViewportKey, ViewportGroup> groups = new ConcurrentHashMap<>();
+
+    // Derniers cycles routés (réponse immédiate à un changement de zone)
+    private volatile IndexedTracks<Aircraft> latest;
+    private volatile IndexedTracks<AircraftTrackEncoder.Track> latestLive;
+
+    /**
+     * Enregistre ou met à jour la zone d'une session et lui envoie immédiatement les pistes de la nouvelle zone
+     */
+    public void updateViewport(String sessionId, ViewportRequest request) {
+        if (request.getMinLat() == null || request.getMinLon() == null
+            || request.getMaxLat() == null || request.getMaxLon() == null) {
+            throw new IllegalArgumentException("Zone incomplète (minLat, minLon, maxLat, maxLon requis)");
+        }
+        ViewportKey key = ViewportKey.of(request);
+
+        ViewportSession session = sessions.computeIfAbsent(sessionId, ViewportSession::new);
+        synchronized (session) {
+            if (session.group != null && session.group.key.equals(key)) {
+                // Même zone : keyframe seulement si le client a perdu des messages
+                if (Boolean.TRUE.equals(request.getKeyframe())) {
+                    synchronized (session.group) {
+                        sendKeyframe(session.group, sessionId);
+                    }
+                }
+                return;
+            }
+            if (session.group != null) {
+                leave(session.group, sessionId);
+            }
+            session.group = join(key, sessionId);
+        }
+    }
+
+    /**
+     * Envoie à chaque groupe les pistes de sa zone
+     * Appelé par RealtimeUpdateService à chaque cycle
+     */
+    public void route(TrafficSnapshot snapshot) {
+        IndexedTracks<Aircraft> indexed = new IndexedTracks<>(snapshot.getAircraft(), snapshot.getTimestamp(),
+            Aircraft::getPositionLat, Aircraft::getPositionLon);
+        latest = indexed;
+        if (groups.isEmpty()) {
+            return; // Index construit seulement si une session s'enregistre
+        }
+        for (ViewportGroup group : groups.values()) {
+            synchronized (group) {
+                if (!group.closed) {
+                    send(group, indexed);
+                }
+            }
+        }
+    }
+
+    /**
+     * Envoie à chaque groupe les pistes OpenSky extrapolées de sa zone
+     * Appelé par LiveTrackExtrapolator à chaque cycle (hors du thread du planificateur)
+     */
+    public void routeLive(List<AircraftTrackEncoder.Track> tracks, long timestamp) {
+        IndexedTracks<AircraftTrackEncoder.Track> indexed =
+            new IndexedTracks<>(tracks, timestamp, track -> track.lat, track -> track.lon);
+        latestLive = indexed;
+        for (ViewportGroup group : groups.values()) {
+            synchronized (group) {
+                if (!group.closed) {
+                    sendLive(group, indexed);
+                }
+            }
+        }
+    }
+
+    /**
+     * Supprime l'abonnement à la déconnexion de la session
+     */
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        removeSession(event.getSessionId());
+    }
+
+    public void removeSession(String sessionId) {
+        ViewportSession session = sessions.remove(sessionId);
+        if (session != null) {
+            synchronized (session) {
+                if (session.group != null) {
+                    leave(session.group, sessionId);
+                    session.group = null;
+                }
+            }
+            log.debug("Abonnement zone supprimé pour la session {}", sessionId);
+        }
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    public int getGroupCount() {
+        return groups.size();
+    }
+
+    /**
+     * Ajoute la session au groupe de la zone (créé au besoin) et lui envoie le keyframe du groupe
+     */
+    private ViewportGroup join(ViewportKey key, String sessionId) {
+        while (true) {
+            ViewportGroup group = groups.computeIfAbsent(key, ViewportGroup::new);
+            synchronized (group) {
+                if (group.closed) {
+                    continue; // Dernier membre parti entre-temps : groupe retiré, en créer un autre
+                }
+                group.sessionIds.add(sessionId);
+                sendKeyframe(group, sessionId);
+                return group;
+            }
+        }
+    }
+
+    private void leave(ViewportGroup group, String sessionId) {
+        synchronized (group) {
+            group.sessionIds.remove(sessionId);
+            if (group.sessionIds.isEmpty()) {
+                group.closed = true;
+                groups.remove(group.key, group);
+            }
+        }
+    }
+
+    /**
+     * État courant du groupe pour une session qui le rejoint (sous le verrou du groupe)
+     * Flux qui n'a encore rien envoyé au groupe : premier message du groupe, si un cycle a déjà eu lieu
+     */
+    private void sendKeyframe(ViewportGroup group, String sessionId) {
+        if (group.encoder.getSequence() > 0) {
+            sendKeyframe(group.encoder, sessionId, SESSION_DESTINATION);
+        } else if (latest != null) {
+            send(group, latest);
+        }
+        if (group.liveEncoder.getSequence() > 0) {
+            sendKeyframe(group.liveEncoder, sessionId, LIVE_SESSION_DESTINATION);
+        } else if (latestLive != null) {
+            sendLive(group, latestLive);
+        }
+        // Sinon : premier envoi au prochain cycle
+    }
+
+    private void sendKeyframe(AircraftTrackEncoder encoder, String sessionId, String destination) {
+        webSocketBroadcaster.sendToSession(sessionId, destination, webSocketBroadcaster.encode(encoder.keyframe()));
+    }
+
+    /**
+     * Encode le cycle pour le groupe et envoie les mêmes octets à toutes ses sessions (sous le verrou du groupe)
+     */
+    private void send(ViewportGroup group, IndexedTracks<Aircraft> indexed) {
+        List<Aircraft> visible = indexed.query(group.key);
+        sendToGroup(group, SESSION_DESTINATION, group.encoder.encode(visible, indexed.timestamp));
+    }
+
+    private void sendLive(ViewportGroup group, IndexedTracks<AircraftTrackEncoder.Track> indexed) {
+        List<AircraftTrackEncoder.Track> visible = indexed.query(group.key);
+        sendToGroup(group, LIVE_SESSION_DESTINATION, group.liveEncoder.encodeTracks(visible, indexed.timestamp));
+    }
+
+    private void sendToGroup(ViewportGroup group, String destination, Map<String, Object> message) {
+        byte[] json = webSocketBroadcaster.encode(message);
+        for (String sessionId : group.sessionIds) {
+            webSocketBroadcaster.sendToSession(sessionId, destination, json);
+        }
+    }
+
+    /**
+     * Précision des positions selon le zoom (inutile d'envoyer le mètre à l'échelle d'un continent)
+     */
+    static double positionScaleForZoom(Integer zoom) {
+        if (zoom == null) {
+            return AircraftTrackEncoder.DEFAULT_POSITION_SCALE;
+        }
+        if (zoom < 6) {
+            return 1e2;
+        }
+        if (zoom < 10) {
+            return 1e3;
+        }
+        if (zoom < 14) {
+            return 1e4;
+        }
+        return 1e5;
+    }
+
+    /**
+     * Pistes d'un cycle et leur index spatial (construit à la première utilisation)
+     */
+    private static final class IndexedTracks<T> {
+        final List<T> tracks;
+        final long timestamp;
+        private final Function<T, Double> latitude;
+        private final Function<T, Double> longitude;
+        private TrackGridIndex<T> index;
+
+        IndexedTracks(List<T> tracks, long timestamp, Function<T, Double> latitude, Function<T, Double> longitude) {
+            this.tracks = tracks;
+            this.timestamp = timestamp;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+
+        synchronized List<T> query(ViewportKey key) {
+            if (index == null) {
+                index = new TrackGridIndex<>(tracks, latitude, longitude);
+            }
+            return index.query(key.minLat, key.minLon, key.maxLat, key.maxLon);
+        }
+    }
+
+    /**
+     * Abonnement d'une session : groupe de sa zone courante (protégé par le verrou de l'objet)
+     */
+    static final class ViewportSession {
+        final String sessionId;
+        ViewportGroup group;
+
+        ViewportSession(String sessionId) {
+            this.sessionId = sessionId;
+        }
+    }
+
+    /**
+     * Sessions d'une même zone et leurs encodeurs communs (protégé par le verrou de l'objet)
+     * Pistes OpenSky : précision fixée par LiveTrackExtrapolator
+     */
+    static final class ViewportGroup {
+        final ViewportKey key;
+        final AircraftTrackEncoder encoder;
+        final AircraftTrackEncoder liveEncoder = new AircraftTrackEncoder(RealtimeUpdateService.KEYFRAME_INTERVAL);
+        final Set<String> sessionIds = new HashSet<>();
+        boolean closed;
+
+        ViewportGroup(ViewportKey key) {
+            this.key = key;
+            this.encoder = new AircraftTrackEncoder(RealtimeUpdateService.KEYFRAME_INTERVAL, key.positionScale);
+        }
+    }
+
+    /**
+     * Zone avec marge, élargie aux cellules entières de 1° de TrackGridIndex, et précision des positions
+     * Longitudes : minLon > maxLon pour une zone qui traverse l'antiméridien
+     */
+    static final class ViewportKey {
+        final int minLat;
+        final int minLon;
+        final int maxLat;
+        final int maxLon;
+        final double positionScale;
+
+        private ViewportKey(int minLat, int minLon, int maxLat, int maxLon, double positionScale) {
+            this.minLat = minLat;
+            this.minLon = minLon;
+            this.maxLat = maxLat;
+            this.maxLon = maxLon;
+            this.positionScale = positionScale;
+        }
+
+        static ViewportKey of(ViewportRequest request) {
+            double latMargin = (request.getMaxLat() - request.getMinLat()) * VIEWPORT_MARGIN;
+            double lonSpan = request.getMinLon() <= request.getMaxLon()
+                ? request.getMaxLon() - request.getMinLon()
+                : 360.0 - (request.getMinLon() - request.getMaxLon());
+            double lonMargin = lonSpan * VIEWPORT_MARGIN;
+
+            int minLat = (int) Math.max(-90.0, Math.floor(request.getMinLat() - latMargin));
+            int maxLat = (int) Math.min(90.0, Math.ceil(request.getMaxLat() + latMargin));
+            int minLon;
+            int maxLon;
+            // Alignement : moins de 1° de plus de chaque côté, une zone de moins de 358° ne se referme pas
+            if (lonSpan + 2 * lonMargin >= 358.0) {
+                minLon = -180;
+                maxLon = 180;
+            } else {
+                minLon = (int) Math.floor(wrapLongitude(request.getMinLon() - lonMargin));
+                maxLon = (int) Math.ceil(wrapLongitude(request.getMaxLon() + lonMargin));
+            }
+            return new ViewportKey(minLat, minLon, maxLat, maxLon, positionScaleForZoom(request.getZoom()));
+        }
+
+        private static double wrapLongitude(double lon) {
+            if (lon < -180.0) {
+                return lon + 360.0;
+            }
+            return lon > 180.0 ? lon - 360.0 : lon;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ViewportKey other && minLat == other.minLat && minLon == other.minLon
+                && maxLat == other.maxLat && maxLon == other.maxLon && positionScale == other.positionScale;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(minLat, minLon, maxLat, maxLon, positionScale);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.flightradar.service;
+
+import com.flightradar.repository.WeatherDataJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Conservation de l'historique météo
+ * - Relevés bruts (un par aéroport toutes les 10 minutes) gardés flightradar.weather.raw-retention-hours
+ * - Au-delà, agrégés par heure dans weather_data_hourly puis supprimés, dans la même transaction
+ * - Agrégats horaires gardés flightradar.weather.hourly-retention-days (0 = sans limite)
+ * La limite est alignée sur le début d'heure : seules des heures complètes sont agrégées.
+ */
+@Service
+@Slf4j
+public class WeatherRetentionService {
+
+    @Autowired
+    private WeatherDataJdbcRepository weatherDataJdbcRepository;
+
+    @Value("${flightradar.weather.raw-retention-hours:48}")
+    private int rawRetentionHours = 48;
+
+    @Value("${flightradar.weather.hourly-retention-days:365}")
+    private int hourlyRetentionDays = 365;
+
+    // Horloge (remplaçable par les tests)
+    Supplier<LocalDateTime> clock = LocalDateTime::now;
+
+    private volatile Map<String, Object> lastRun = Map.of();
+
+    /**
+     * Agrège et purge les relevés sortis de la fenêtre, toutes les heures
+     */
+    @Scheduled(cron = "${flightradar.weather.retention-cron:0 5 * * * *}")
+    @Transactional
+    public void applyRetention() {
+        long start = System.nanoTime();
+        LocalDateTime now = clock.get();
+        LocalDateTime rawCutoff = rawCutoff(now);
+
+        int hoursAggregated = weatherDataJdbcRepository.rollupHourlyBefore(rawCutoff);
+        int rawDeleted = weatherDataJdbcRepository.deleteRawBefore(rawCutoff);
+        int hourlyDeleted = hourlyRetentionDays > 0
+            ? weatherDataJdbcRepository.deleteHourlyBefore(now.truncatedTo(ChronoUnit.DAYS).minusDays(hourlyRetentionDays))
+            : 0;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("completedAt", now);
+        stats.put("rawCutoff", rawCutoff);
+        stats.put("hoursAggregated", hoursAggregated);
+        stats.put("rawDeleted", rawDeleted);
+        stats.put("hourlyDeleted", hourlyDeleted);
+        stats.put("durationMs", (System.nanoTime() - start) / 1_000_000);
+        lastRun = stats;
+        if (rawDeleted > 0 || hourlyDeleted > 0) {
+            log.info("Météo : {} relevés agrégés en {} heures, {} agrégats expirés", rawDeleted, hoursAggregated, hourlyDeleted);
+        }
+    }
+
+    /**
+     * Début d'heure en deçà duquel les relevés bruts sont agrégés
+     */
+    LocalDateTime rawCutoff(LocalDateTime now) {
+        return now.minusHours(rawRetentionHours).truncatedTo(ChronoUnit.HOURS);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(lastRun);
+        stats.put("rawRetentionHours", rawRetentionHours);
+        stats.put("hourlyRetentionDays", hourlyRetentionDays);
+        return stats;
+    }
+}
@@ -1,76 +1,162 @@
 package com.flightradar.service;
 
 import com.flightradar.model.Airport;
-import com.flightradar.model.Runway;
 import com.flightradar.model.WeatherData;
 import com.flightradar.repository.AirportRepository;
-import com.flightradar.repository.RunwayRepository;
+import com.flightradar.repository.WeatherDataJdbcRepository;
 import com.flightradar.repository.WeatherDataRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.client.RestTemplate;
 
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Service pour gérer les données météorologiques
  * - Récupération depuis Open-Meteo API (gratuite, remplace OpenWeather)
  * - Calcul du vent de travers
  * - Détection d'alertes météo
+ * - Rafraîchissement de tous les aéroports par lots : une requête Open-Meteo multi-coordonnées
+ *   par lot, lots exécutés en parallèle (concurrence bornée) hors du thread du planificateur,
+ *   puis une seule insertion JDBC en lot
+ * - Pistes lues dans le catalogue en mémoire (RunwayCatalog), sans requête par rafraîchissement
+ * - Aéroport sans relevé (requête échouée, réponse incomplète) : rien n'est enregistré ni publié,
+ *   le dernier relevé réel et ses alertes restent en vigueur
  */
 @Service
+@Slf4j
 public class WeatherService {
     
-    private static final String OPEN_METEO_API_URL = "https://api.open-meteo.com/v1/forecast";
+    private static final String CURRENT_FIELDS =
+        "temperature_2m,relative_humidity_2m,pressure_msl,wind_speed_10m,wind_direction_10m,visibility";
     
-    private final WebClient webClient;
+    private final RestTemplate restTemplate;
     private final WeatherDataRepository weatherDataRepository;
+    private final WeatherDataJdbcRepository weatherDataJdbcRepository;
+    private final LatestWeatherCache latestWeatherCache;
     private final AirportRepository airportRepository;
-    private final RunwayRepository runwayRepository;
+    private final RunwayCatalog runwayCatalog;
+    
+    @Value("${flightradar.weather.base-url:https://api.open-meteo.com/v1/forecast}")
+    private String baseUrl = "https://api.open-meteo.com/v1/forecast";
+    
+    // Aéroports par requête Open-Meteo (coordonnées séparées par des virgules)
+    @Value("${flightradar.weather.batch-size:50}")
+    private int batchSize = 50;
+    
+    // Requêtes simultanées (le budget Open-Meteo d'UpstreamRegistry s'applique en plus)
+    @Value("${flightradar.weather.max-concurrent:4}")
+    private int maxConcurrent = 4;
+    
+    private ExecutorService refreshExecutor;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final AtomicInteger failedRequests = new AtomicInteger();
+    private volatile Map<String, Object> lastRefresh = Map.of();
     
     public WeatherService(WeatherDataRepository weatherDataRepository,
+                         WeatherDataJdbcRepository weatherDataJdbcRepository,
+                         LatestWeatherCache latestWeatherCache,
                          AirportRepository airportRepository,
-                         RunwayRepository runwayRepository) {
+                         RunwayCatalog runwayCatalog,
+                         RestTemplate restTemplate) {
         this.weatherDataRepository = weatherDataRepository;
+        this.weatherDataJdbcRepository = weatherDataJdbcRepository;
+        this.latestWeatherCache = latestWeatherCache;
         this.airportRepository = airportRepository;
-        this.runwayRepository = runwayRepository;
-        this.webClient = WebClient.builder().build();
+        this.runwayCatalog = runwayCatalog;
+        // Client HTTP partagé (pool, compression, budgets Open-Meteo : voir RestTemplateConfig)
+        this.restTemplate = restTemplate;
+    }
+    
+    @PostConstruct
+    public void init() {
+        refreshExecutor = Executors.newFixedThreadPool(maxConcurrent, new CustomizableThreadFactory("weather-refresh-"));
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
     }
     
     /**
      * Récupère les données météo depuis l'API Open-Meteo
+     * Données par défaut si l'API n'est pas disponible (à ne pas enregistrer)
      */
     public WeatherData fetchWeatherFromAPI(Airport airport) {
+        List<WeatherData> records = fetchBatch(List.of(airport));
+        return records.isEmpty() ? createDefaultWeatherData(airport) : records.get(0);
+    }
+    
+    /**
+     * Récupère les données météo d'un lot d'aéroports en une seule requête Open-Meteo
+     * (latitude=a,b,...&longitude=x,y,... ; réponse : un objet par coordonnée, dans le même ordre)
+     * Seuls les relevés réels sont renvoyés : lot vide si la requête échoue, aéroport absent sans "current"
+     */
+    @SuppressWarnings("unchecked")
+    List<WeatherData> fetchBatch(List<Airport> airports) {
+        StringBuilder latitudes = new StringBuilder();
+        StringBuilder longitudes = new StringBuilder();
+        for (Airport airport : airports) {
+            if (latitudes.length() > 0) {
+                latitudes.append(',');
+                longitudes.append(',');
+            }
+            latitudes.append(String.format(Locale.ROOT, "%.4f", airport.getLatitude()));
+            longitudes.append(String.format(Locale.ROOT, "%.4f", airport.getLongitude()));
+        }
+        String url = baseUrl + "?latitude=" + latitudes + "&longitude=" + longitudes + "&current=" + CURRENT_FIELDS;
+        
+        List<Map<String, Object>> locations = null;
         try {
-            // Construire l'URL Open-Meteo
-            String url = String.format("%s?latitude=%.4f&longitude=%.4f&current=temperature_2m,wind_speed_10m,wind_direction_10m,visibility",
-                OPEN_METEO_API_URL, airport.getLatitude(), airport.getLongitude());
-            
-            Map<String, Object> response = webClient.get()
-                .uri(url)
-                .retrieve()
-                .bodyToMono(Map.class)
-                .block();
-            
-            if (response != null) {
-                return parseOpenMeteoResponse(response, airport);
+            Object response = restTemplate.getForObject(url, Object.class);
+            // Une seule coordonnée : objet ; plusieurs : tableau
+            if (response instanceof List<?> list) {
+                locations = (List<Map<String, Object>>) list;
+            } else if (response instanceof Map<?, ?> map) {
+                locations = List.of((Map<String, Object>) map);
             }
         } catch (Exception e) {
-            System.err.println("Erreur lors de la récupération des données météo Open-Meteo: " + e.getMessage());
+            log.warn("Erreur lors de la récupération des données météo Open-Meteo ({} aéroports): {}",
+                airports.size(), e.getMessage());
+        }
+        if (locations != null && locations.size() != airports.size()) {
+            log.warn("Réponse Open-Meteo incomplète : {} relevés pour {} aéroports", locations.size(), airports.size());
+            locations = null;
+        }
+        if (locations == null) {
+            failedRequests.incrementAndGet();
+            return List.of();
         }
         
-        return createDefaultWeatherData(airport);
+        List<WeatherData> records = new ArrayList<>(airports.size());
+        for (int i = 0; i < airports.size(); i++) {
+            WeatherData weatherData = parseOpenMeteoResponse(locations.get(i), airports.get(i));
+            if (weatherData != null) {
+                records.add(weatherData);
+            }
+        }
+        return records;
     }
     
     /**
-     * Parse la réponse de l'API Open-Meteo
+     * Parse la réponse de l'API Open-Meteo (null sans données "current")
      * Structure de réponse Open-Meteo :
      * {
      *   "current": {
      *     "temperature_2m": 20.5,
+     *     "relative_humidity_2m": 65,
+     *     "pressure_msl": 1015.3,
      *     "wind_speed_10m": 15.2,
      *     "wind_direction_10m": 180.0,
      *     "visibility": 10.0
@@ -82,7 +168,7 @@ public class WeatherService {
         Map<String, Object> current = (Map<String, Object>) response.get("current");
         
         if (current == null) {
-            return createDefaultWeatherData(airport);
+            return null;
         }
         
         // Extraire les données de current
@@ -90,12 +176,8 @@ public class WeatherService {
         Double windSpeed = getDoubleValue(current.get("wind_speed_10m")); // Déjà en km/h
         Double windDirection = getDoubleValue(current.get("wind_direction_10m")); // En degrés
         Double visibility = getDoubleValue(current.get("visibility")); // En km
-        
-        // Open-Meteo ne fournit pas directement humidity et pressure dans current
-        // On utilise des valeurs par défaut ou on peut les récupérer via d'autres paramètres
-        // Pour l'instant, on met null pour humidity et une valeur par défaut pour pressure
-        Integer humidity = null; // Open-Meteo ne fournit pas humidity dans current
-        Double pressure = 1013.25; // Valeur par défaut (pression standard au niveau de la mer)
+        Double humidity = getDoubleValue(current.get("relative_humidity_2m")); // En %
+        Double pressure = getDoubleValue(current.get("pressure_msl")); // En hPa, ramenée au niveau de la mer
         
         // Déterminer les conditions météo basées sur la visibilité et la température
         String conditions = determineConditions(visibility, temperature, windSpeed);
@@ -103,8 +185,8 @@ public class WeatherService {
         WeatherData weatherData = new WeatherData();
         weatherData.setAirport(airport);
         weatherData.setTemperature(temperature != null ? temperature : 20.0);
-        weatherData.setPressure(pressure);
-        weatherData.setHumidity(humidity); // Peut être null
+        weatherData.setPressure(pressure != null ? pressure : 1013.25);
+        weatherData.setHumidity(humidity != null ? (int) Math.round(humidity) : 60);
         weatherData.setWindSpeed(windSpeed != null ? windSpeed : 0.0);
         weatherData.setWindDirection(windDirection != null ? windDirection : 0.0);
         weatherData.setVisibility(visibility != null ? visibility : 10.0);
@@ -112,7 +194,7 @@ public class WeatherService {
         weatherData.setTimestamp(LocalDateTime.now());
         
         // Calculer le vent de travers pour chaque piste
-        calculateCrosswindForRunways(weatherData, airport);
+        calculateCrosswindForRunways(weatherData, runwayCatalog.getEnds(airport.getId()));
         
         // Détecter les alertes
         detectWeatherAlerts(weatherData);
@@ -163,44 +245,12 @@ public class WeatherService {
      * Calcule le vent de travers pour toutes les pistes de l'aéroport
      * et stocke le maximum
      */
-    private void calculateCrosswindForRunways(WeatherData weatherData, Airport airport) {
-        List<Runway> runways = runwayRepository.findByAirportId(airport.getId());
-        
-        double maxCrosswind = 0.0;
-        for (Runway runway : runways) {
-            double crosswind = calculateCrosswind(
-                weatherData.getWindSpeed(),
-                weatherData.getWindDirection(),
-                runway.getOrientation()
-            );
-            maxCrosswind = Math.max(maxCrosswind, crosswind);
-        }
-        
+    private void calculateCrosswindForRunways(WeatherData weatherData, List<RunwayCatalog.RunwayEnd> runwayEnds) {
+        double maxCrosswind = RunwayWindTable.compute(runwayEnds, weatherData.getWindSpeed(),
+            weatherData.getWindDirection(), runwayCatalog.getVersion()).getMaxCrosswind();
         weatherData.setCrosswind(maxCrosswind);
     }
     
-    /**
-     * Calcule le vent de travers pour une piste donnée
-     * @param windSpeed Vitesse du vent en km/h
-     * @param windDirection Direction du vent en degrés (0-360)
-     * @param runwayOrientation Orientation de la piste en degrés (0-360)
-     * @return Vent de travers en km/h
-     */
-    public double calculateCrosswind(double windSpeed, double windDirection, double runwayOrientation) {
-        // Calculer la différence d'angle
-        double angleDiff = Math.abs(windDirection - runwayOrientation);
-        
-        // Normaliser entre 0 et 180
-        if (angleDiff > 180) {
-            angleDiff = 360 - angleDiff;
-        }
-        
-        // Calculer le vent de travers (composante perpendiculaire)
-        double crosswind = windSpeed * Math.sin(Math.toRadians(angleDiff));
-        
-        return Math.abs(crosswind);
-    }
-    
     /**
      * Détecte si les conditions météo nécessitent une alerte
      */
@@ -236,42 +286,9 @@ public class WeatherService {
         weatherData.setAlert(alert);
     }
     
-    /**
-     * Détermine si les conditions sont sûres pour atterrir
-     */
-    public boolean isSafeToLand(WeatherData weatherData, Runway runway) {
-        if (weatherData.getVisibility() < 1.0) {
-            return false;
-        }
-        
-        if (weatherData.getWindSpeed() > 50.0) {
-            return false;
-        }
-        
-        double crosswind = calculateCrosswind(
-            weatherData.getWindSpeed(),
-            weatherData.getWindDirection(),
-            runway.getOrientation()
-        );
-        
-        if (crosswind > 15.0) {
-            return false;
-        }
-        
-        String conditions = weatherData.getConditions().toUpperCase();
-        if (conditions.contains("THUNDERSTORM") || 
-            conditions.contains("HEAVY RAIN") || 
-            conditions.contains("FOG") ||
-            conditions.contains("STRONG WIND") ||
-            conditions.contains("FREEZING")) {
-            return false;
-        }
-        
-        return true;
-    }
-    
     /**
      * Crée des données météo par défaut si l'API n'est pas disponible
+     * Jamais enregistrées ni publiées : elles effaceraient le dernier relevé réel et ses alertes
      */
     private WeatherData createDefaultWeatherData(Airport airport) {
         WeatherData weatherData = new WeatherData();
@@ -291,28 +308,96 @@ public class WeatherService {
     
     /**
      * Met à jour les données météo pour tous les aéroports
-     * Exécuté toutes les 10 minutes
+     * Exécuté toutes les 10 minutes ; le thread du planificateur ne fait que lancer le rafraîchissement
      */
     @Scheduled(fixedRate = 600000) // 10 minutes
     public void updateAllWeatherData() {
-        List<Airport> airports = airportRepository.findAll();
-        for (Airport airport : airports) {
-            WeatherData weatherData = fetchWeatherFromAPI(airport);
-            weatherDataRepository.save(weatherData);
+        if (!refreshing.compareAndSet(false, true)) {
+            log.warn("Rafraîchissement météo précédent toujours en cours, cycle ignoré");
+            return;
+        }
+        try {
+            refreshAllAsync().whenComplete((inserted, error) -> {
+                refreshing.set(false);
+                if (error != null) {
+                    log.error("Échec du rafraîchissement météo: {}", error.getMessage());
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshing.set(false);
+            throw e;
+        }
+    }
+    
+    /**
+     * Rafraîchit tous les aéroports : lots de batchSize coordonnées, au plus maxConcurrent
+     * requêtes à la fois, puis insertion de tous les relevés en un seul lot JDBC
+     *
+     * @return Nombre de relevés insérés
+     */
+    public CompletableFuture<Integer> refreshAllAsync() {
+        long start = System.nanoTime();
+        List<Airport> airports = airportRepository.findAll().stream()
+            .filter(airport -> airport.getLatitude() != null && airport.getLongitude() != null)
+            .toList();
+        
+        int failedBefore = failedRequests.get();
+        List<CompletableFuture<List<WeatherData>>> batches = new ArrayList<>();
+        for (int from = 0; from < airports.size(); from += batchSize) {
+            List<Airport> batch = airports.subList(from, Math.min(from + batchSize, airports.size()));
+            batches.add(CompletableFuture.supplyAsync(() -> fetchBatch(batch), refreshExecutor)
+                .exceptionally(e -> {
+                    log.warn("Lot météo abandonné ({} aéroports): {}", batch.size(), e.getMessage());
+                    return List.of();
+                }));
         }
+        
+        return CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new)).thenApply(done -> {
+            List<WeatherData> records = new ArrayList<>(airports.size());
+            batches.forEach(batch -> records.addAll(batch.join()));
+            // Aéroports sans relevé : dernier relevé réel conservé en base et en mémoire
+            int inserted = records.isEmpty() ? 0 : weatherDataJdbcRepository.batchInsert(records);
+            // Météo courante en mémoire et notifications /topic/weather/{id} des aéroports modifiés
+            latestWeatherCache.updateAll(records);
+            
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("completedAt", LocalDateTime.now());
+            stats.put("durationMs", (System.nanoTime() - start) / 1_000_000);
+            stats.put("airports", airports.size());
+            stats.put("requests", batches.size());
+            stats.put("failedRequests", failedRequests.get() - failedBefore);
+            stats.put("missingReadings", airports.size() - records.size());
+            stats.put("inserted", inserted);
+            lastRefresh = stats;
+            log.info("Météo rafraîchie : {} aéroports, {} requêtes, {} ms", airports.size(), batches.size(),
+                stats.get("durationMs"));
+            return inserted;
+        });
+    }
+    
+    /**
+     * Bilan du dernier rafraîchissement complet (vide avant le premier)
+     */
+    public Map<String, Object> getRefreshStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(lastRefresh);
+        stats.put("inProgress", refreshing.get());
+        stats.put("batchSize", batchSize);
+        stats.put("maxConcurrent", maxConcurrent);
+        stats.put("latestWeather", latestWeatherCache.getStats());
+        return stats;
     }
     
     /**
-     * Récupère les données météo actuelles d'un aéroport
+     * Récupère les données météo actuelles d'un aéroport (LatestWeatherCache, sans requête)
      */
     public Optional<WeatherData> getCurrentWeather(Long airportId) {
-        return weatherDataRepository.findFirstByAirportIdOrderByTimestampDesc(airportId);
+        return latestWeatherCache.get(airportId);
     }
     
     /**
-     * Récupère toutes les alertes météo actives
+     * Récupère toutes les alertes météo actives (dernier relevé de chaque aéroport, pas l'historique)
      */
     public List<WeatherData> getWeatherAlerts() {
-        return weatherDataRepository.findByAlertTrue();
+        return latestWeatherCache.getActiveAlerts();
     }
 }
@@ -0,0 +1,106 @@
+package com.flightradar.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Diffusion WebSocket avec sérialisation unique
+ * SimpMessagingTemplate.convertAndSend relance Jackson à chaque appel : ici le payload est encodé
+ * une seule fois en JSON (byte[]) puis le même tableau est réutilisé pour toutes les destinations
+ * et toutes les sessions. Le broker simple partage ensuite ce message entre les abonnés d'un topic.
+ */
+@Service
+@Slf4j
+public class WebSocketBroadcaster {
+
+    private static final MimeType JSON_UTF8 = new MimeType("application", "json", StandardCharsets.UTF_8);
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Statistiques
+    private final AtomicLong serializations = new AtomicLong();
+    private final AtomicLong bytesEncoded = new AtomicLong();
+    private final AtomicLong messagesSent = new AtomicLong();
+
+    /**
+     * Encode un payload en JSON (une fois par cycle et par contenu)
+     */
+    public byte[] encode(Object payload) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(payload);
+            serializations.incrementAndGet();
+            bytesEncoded.addAndGet(json.length);
+            return json;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Sérialisation WebSocket impossible: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Encode le payload une fois et l'envoie à toutes les destinations
+     */
+    public void broadcast(Object payload, String... destinations) {
+        send(encode(payload), destinations);
+    }
+
+    /**
+     * Envoie un payload déjà encodé à toutes les destinations (aucune sérialisation)
+     */
+    public void send(byte[] json, String... destinations) {
+        for (String destination : destinations) {
+            messagingTemplate.send(destination, message(json, null));
+            messagesSent.incrementAndGet();
+        }
+    }
+
+    /**
+     * Envoie un payload déjà encodé à une seule session STOMP (destination /user/{sessionId}/...)
+     * Les clients ne sont pas authentifiés en STOMP : la session est ciblée par son ID
+     */
+    public void sendToSession(String sessionId, String destination, byte[] json) {
+        messagingTemplate.send("/user/" + sessionId + destination, message(json, sessionId));
+        messagesSent.incrementAndGet();
+    }
+
+    public void sendToSession(String sessionId, String destination, Object payload) {
+        sendToSession(sessionId, destination, encode(payload));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("serializations", serializations.get());
+        stats.put("bytesEncoded", bytesEncoded.get());
+        stats.put("messagesSent", messagesSent.get());
+        return stats;
+    }
+
+    private static Message<byte[]> message(byte[] json, String sessionId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(JSON_UTF8);
+        if (sessionId != null) {
+            accessor.setSessionId(sessionId);
+        }
+        accessor.setLeaveMutable(true);
+        MessageHeaders headers = accessor.getMessageHeaders();
+        return MessageBuilder.createMessage(json, headers);
+    }
+}
@@ -0,0 +1,153 @@
+package com.flightradar.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Protection contre les clients WebSocket lents
+ * - Chaque session est enveloppée dans un ConflatingSessionDecorator (file bornée, conflation,
+ *   alertes de conflit prioritaires)
+ * - Les sessions en retard depuis plus de MAX_BEHIND_MS sont déconnectées
+ * - Pool d'envoi borné à SENDER_THREADS : au-delà, les vidages attendent leur tour dans la file du pool
+ *   (au plus un par session, chacun rend son thread après quelques envois) ; un client bloqué occupe
+ *   un thread jusqu'à sa déconnexion, il n'en obtient jamais un nouveau
+ * - Profondeur de file, messages fusionnés et abandonnés exposés par session
+ */
+@Service
+@Slf4j
+public class WebSocketOutboundMonitor {
+
+    static final int MAX_QUEUED_MESSAGES = 256;
+    static final long MAX_BEHIND_MS = 15_000;
+    static final int SENDER_THREADS = 16;
+
+    // Threads d'envoi (un seul à la fois par session), libérés après 60 s d'inactivité ;
+    // la file contient au plus un vidage en attente par session ouverte
+    private final ThreadPoolExecutor senders = newSenderPool();
+
+    // ID de session -> session décorée
+    private final Map<String, ConflatingSessionDecorator> sessions = new ConcurrentHashMap<>();
+
+    // Cumul des sessions fermées (les compteurs des sessions ouvertes sont additionnés à la lecture)
+    private long closedSent;
+    private long closedConflated;
+    private long closedDropped;
+    private long slowDisconnects;
+
+    /**
+     * Décore le handler STOMP (WebSocketConfig.configureWebSocketTransport)
+     */
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                super.afterConnectionEstablished(register(session));
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                unregister(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    ConflatingSessionDecorator register(WebSocketSession session) {
+        ConflatingSessionDecorator decorated = new ConflatingSessionDecorator(session, senders,
+            MAX_QUEUED_MESSAGES, MAX_BEHIND_MS);
+        sessions.put(session.getId(), decorated);
+        return decorated;
+    }
+
+    /**
+     * Déconnecte les sessions qui restent en retard au-delà du seuil
+     */
+    @Scheduled(fixedRate = 1000)
+    public void disconnectSlowSessions() {
+        disconnectSlowSessions(System.currentTimeMillis());
+    }
+
+    void disconnectSlowSessions(long now) {
+        for (ConflatingSessionDecorator session : sessions.values()) {
+            if (session.isBehindLongerThan(MAX_BEHIND_MS, now)) {
+                synchronized (this) {
+                    slowDisconnects++;
+                }
+                session.disconnect("retard > " + MAX_BEHIND_MS + " ms");
+            }
+        }
+    }
+
+    void unregister(String sessionId) {
+        ConflatingSessionDecorator session = sessions.remove(sessionId);
+        if (session != null) {
+            session.markClosed();
+            synchronized (this) {
+                closedSent += session.getSentCount();
+                closedConflated += session.getConflatedCount();
+                closedDropped += session.getDroppedCount();
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long now = System.currentTimeMillis();
+        List<Map<String, Object>> perSession = new ArrayList<>();
+        long sent;
+        long conflated;
+        long dropped;
+        synchronized (this) {
+            sent = closedSent;
+            conflated = closedConflated;
+            dropped = closedDropped;
+        }
+        for (ConflatingSessionDecorator session : sessions.values()) {
+            perSession.add(session.getStats(now));
+            sent += session.getSentCount();
+            conflated += session.getConflatedCount();
+            dropped += session.getDroppedCount();
+        }
+        perSession.sort(Comparator.comparingInt(s -> -((Integer) s.get("queueDepth"))));
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("openSessions", sessions.size());
+        stats.put("maxQueuedMessages", MAX_QUEUED_MESSAGES);
+        stats.put("maxBehindMs", MAX_BEHIND_MS);
+        stats.put("sent", sent);
+        stats.put("conflated", conflated);
+        stats.put("dropped", dropped);
+        synchronized (this) {
+            stats.put("slowDisconnects", slowDisconnects);
+        }
+        stats.put("senderThreads", senders.getPoolSize());
+        stats.put("activeSenders", senders.getActiveCount());
+        stats.put("queuedDrains", senders.getQueue().size());
+        stats.put("sessions", perSession);
+        return stats;
+    }
+
+    private static ThreadPoolExecutor newSenderPool() {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(SENDER_THREADS, SENDER_THREADS, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), new CustomizableThreadFactory("ws-outbound-"));
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+    }
+}
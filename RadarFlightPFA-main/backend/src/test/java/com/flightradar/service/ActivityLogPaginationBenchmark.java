@@ -0,0 +1,148 @@
+package com.flightradar.service;
+
+import com.flightradar.model.ActivityLog;
+import com.flightradar.repository.ActivityLogJdbcRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH : page 1 et page 10 000 du journal d'activité sur 50 000 000 de journaux (PostgreSQL requis)
+ * - offsetPage : ancienne pagination (ORDER BY ... OFFSET), les lignes sautées sont lues puis ignorées
+ * - keysetPage : pagination par curseur, parcours de l'index (timestamp, id) à partir de la page précédente
+ * - keysetPageByUser : idem avec le filtre utilisateur (index (user_id, timestamp, id))
+ * - countAll : total des journaux, calculé désormais seulement pour la première page
+ * Les journaux sont générés en SQL (generate_series) au premier lancement : un toutes les 600 ms
+ * sur les 347 derniers jours, 50 utilisateurs, 4 types, 1 % ERROR et 9 % WARNING.
+ * Utiliser une base dédiée : le schéma est créé par Hibernate (ddl-auto=update). Pour mesurer la table
+ * partitionnée, appliquer d'abord database/partition_activity_logs.sql (base vide) : les partitions
+ * des 12 derniers mois sont créées avant la génération.
+ *
+ * Lancement :
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath -Dbench.db.url=jdbc:postgresql://localhost:5432/flightradar_bench \
+ *     -Dbench.db.username=postgres -Dbench.db.password=postgres org.openjdk.jmh.Main ActivityLogPaginationBenchmark"
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class ActivityLogPaginationBenchmark {
+
+    private static final int INSERT_CHUNK = 1_000_000;
+
+    private static final int PAGE_SIZE = 50;
+
+    private static final long USER_ID = 7L;
+
+    private static final String INSERT_LOGS_SQL =
+        "INSERT INTO activity_logs (user_id, username, activity_type, description, entity_type, entity_id, " +
+        "timestamp, severity) " +
+        "SELECT 1 + g % 50, 'bench' || (1 + g % 50), " +
+        "(ARRAY['FLIGHT_CREATED', 'FLIGHT_UPDATED', 'AIRCRAFT_UPDATED', 'WEATHER_ALERT'])[1 + g % 4], " +
+        "'Journal de test ' || g, 'FLIGHT', g, now() - g * INTERVAL '600 milliseconds', " +
+        "CASE WHEN g % 100 = 0 THEN 'ERROR' WHEN g % 10 = 0 THEN 'WARNING' ELSE 'INFO' END " +
+        "FROM generate_series(?, ?) g";
+
+    @Param({"50000000"})
+    private long logs;
+
+    @Param({"1", "10000"})
+    private int page;
+
+    private ConfigurableApplicationContext context;
+    private ActivityLogJdbcRepository repository;
+    private ActivityLogJdbcRepository.Filter all;
+    private ActivityLogJdbcRepository.Filter byUser;
+    private ActivityLogJdbcRepository.Cursor cursor;
+    private ActivityLogJdbcRepository.Cursor userCursor;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(AdminDashboardBenchmark.BenchmarkConfig.class)
+            .web(WebApplicationType.NONE)
+            .properties(
+                "spring.datasource.url=" + System.getProperty("bench.db.url", "jdbc:postgresql://localhost:5432/flightradar_bench"),
+                "spring.datasource.username=" + System.getProperty("bench.db.username", "postgres"),
+                "spring.datasource.password=" + System.getProperty("bench.db.password", "postgres"),
+                "spring.jpa.hibernate.ddl-auto=update",
+                "spring.jpa.open-in-view=false",
+                "spring.main.banner-mode=off",
+                "logging.level.root=WARN")
+            .run();
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        repository = new ActivityLogJdbcRepository();
+        ReflectionTestUtils.setField(repository, "jdbcTemplate", jdbcTemplate);
+        seed(jdbcTemplate);
+
+        LocalDateTime now = LocalDateTime.now();
+        all = new ActivityLogJdbcRepository.Filter(null, null, null, now.minusDays(366), now);
+        byUser = new ActivityLogJdbcRepository.Filter(USER_ID, null, null, now.minusDays(366), now);
+        // Curseur de la page demandée : dernière ligne de la page précédente
+        cursor = cursorBefore(all);
+        userCursor = cursorBefore(byUser);
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM activity_logs", Long.class);
+        if (existing != null && existing >= logs) {
+            return;
+        }
+        if (repository.isPartitioned()) {
+            YearMonth current = YearMonth.now();
+            for (int i = -12; i <= 1; i++) {
+                repository.createMonthlyPartition(current.plusMonths(i));
+            }
+        }
+        for (long from = (existing != null ? existing : 0) + 1; from <= logs; from += INSERT_CHUNK) {
+            jdbcTemplate.update(INSERT_LOGS_SQL, from, Math.min(from + INSERT_CHUNK - 1, logs));
+        }
+        jdbcTemplate.execute("VACUUM ANALYZE activity_logs");
+    }
+
+    private ActivityLogJdbcRepository.Cursor cursorBefore(ActivityLogJdbcRepository.Filter filter) {
+        if (page == 1) {
+            return null;
+        }
+        List<ActivityLog> previous = repository.findPage(filter, null, (long) (page - 1) * PAGE_SIZE - 1, 1);
+        return ActivityLogJdbcRepository.Cursor.of(previous.get(0));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ActivityLog> offsetPage() {
+        return repository.findPage(all, null, (long) (page - 1) * PAGE_SIZE, PAGE_SIZE + 1);
+    }
+
+    @Benchmark
+    public List<ActivityLog> keysetPage() {
+        return repository.findPage(all, cursor, 0, PAGE_SIZE + 1);
+    }
+
+    @Benchmark
+    public List<ActivityLog> keysetPageByUser() {
+        return repository.findPage(byUser, userCursor, 0, PAGE_SIZE + 1);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public long countAll() {
+        return repository.count(all);
+    }
+}
@@ -0,0 +1,82 @@
+package com.flightradar.service;
+
+import com.flightradar.repository.ActivityLogJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour ActivityLogPartitionService (12 mois conservés, 2 mois créés à l'avance)
+ */
+class ActivityLogPartitionServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 3, 3, 15);
+
+    private final ActivityLogJdbcRepository repository = mock(ActivityLogJdbcRepository.class);
+    private ActivityLogPartitionService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ActivityLogPartitionService();
+        ReflectionTestUtils.setField(service, "activityLogJdbcRepository", repository);
+        service.clock = () -> NOW;
+    }
+
+    @Test
+    void testMaintainPartitions_CreatesUpcomingAndDropsExpiredMonths() {
+        when(repository.isPartitioned()).thenReturn(true);
+        when(repository.findPartitionNames()).thenReturn(List.of(
+            "activity_logs_p202304", "activity_logs_p202305", "activity_logs_p202306",
+            "activity_logs_p202406", "activity_logs_default"));
+
+        service.maintainPartitions();
+
+        // Juin 2024 existe déjà : juillet et août créés
+        verify(repository).createMonthlyPartition(YearMonth.of(2024, 7));
+        verify(repository).createMonthlyPartition(YearMonth.of(2024, 8));
+        verify(repository, times(2)).createMonthlyPartition(any());
+        // 12 mois avant juin 2024 : juin 2023 conservé, avril et mai 2023 supprimés
+        verify(repository).dropMonthlyPartition(YearMonth.of(2023, 4));
+        verify(repository).dropMonthlyPartition(YearMonth.of(2023, 5));
+        verify(repository, times(2)).dropMonthlyPartition(any());
+
+        assertEquals(List.of("activity_logs_p202407", "activity_logs_p202408"), service.getStats().get("created"));
+        assertEquals(List.of("activity_logs_p202304", "activity_logs_p202305"), service.getStats().get("dropped"));
+        assertEquals(5, service.getStats().get("partitions"));
+    }
+
+    @Test
+    void testMaintainPartitions_CreationFailureDoesNotStopRetention() {
+        when(repository.isPartitioned()).thenReturn(true);
+        when(repository.findPartitionNames()).thenReturn(List.of("activity_logs_p202301", "activity_logs_default"));
+        doThrow(new DataIntegrityViolationException("lignes de juin 2024 dans la partition par défaut"))
+            .when(repository).createMonthlyPartition(YearMonth.of(2024, 6));
+
+        service.maintainPartitions();
+
+        verify(repository).createMonthlyPartition(YearMonth.of(2024, 8));
+        verify(repository).dropMonthlyPartition(YearMonth.of(2023, 1));
+        assertEquals(List.of("activity_logs_p202407", "activity_logs_p202408"), service.getStats().get("created"));
+    }
+
+    @Test
+    void testMaintainPartitions_NotPartitionedLeftUntouched() {
+        when(repository.isPartitioned()).thenReturn(false);
+
+        service.maintainPartitions();
+
+        verify(repository, never()).findPartitionNames();
+        verify(repository, never()).createMonthlyPartition(any());
+        verify(repository, never()).dropMonthlyPartition(any());
+        assertEquals(false, service.getStats().get("partitioned"));
+    }
+}
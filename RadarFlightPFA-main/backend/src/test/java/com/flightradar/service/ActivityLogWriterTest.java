@@ -0,0 +1,176 @@
+package com.flightradar.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flightradar.model.ActivityLog;
+import com.flightradar.repository.ActivityLogJdbcRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour ActivityLogWriter (vidage déclenché par le test, pas par le minuteur)
+ */
+class ActivityLogWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ActivityLogJdbcRepository activityLogJdbcRepository = mock(ActivityLogJdbcRepository.class);
+    private final List<List<String>> insertedBatches = new ArrayList<>();
+    private Path spoolFile;
+    private ActivityLogWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        spoolFile = tempDir.resolve("activity-log-spool.jsonl");
+        when(activityLogJdbcRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            List<ActivityLog> logs = invocation.getArgument(0);
+            insertedBatches.add(logs.stream().map(ActivityLog::getDescription).toList());
+            return logs.size();
+        });
+        writer = newWriter(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        writer.shutdown();
+    }
+
+    @Test
+    void testFlush_QueuedLogsWrittenInOneInsert() {
+        writer.log("admin", ActivityLog.ActivityType.FLIGHT_CREATED, "vol 1", "FLIGHT", 1L, null);
+        writer.log("admin", ActivityLog.ActivityType.FLIGHT_UPDATED, "vol 2", "FLIGHT", 2L, ActivityLog.LogSeverity.WARNING);
+        verifyNoInteractions(activityLogJdbcRepository);
+
+        writer.flush();
+
+        assertEquals(List.of(List.of("vol 1", "vol 2")), insertedBatches);
+        assertEquals(2L, writer.getStats().get("written"));
+        assertEquals(1L, writer.getStats().get("insertStatements"));
+    }
+
+    @Test
+    void testLog_OverflowPolicies() {
+        // CALLER_RUNS : le journal en trop est écrit dans le thread appelant
+        for (int i = 1; i <= 3; i++) {
+            writer.log("admin", ActivityLog.ActivityType.FLIGHT_UPDATED, "vol " + i, "FLIGHT", (long) i, null);
+        }
+        assertEquals(List.of(List.of("vol 3")), insertedBatches);
+        assertEquals(1L, writer.getStats().get("callerWrites"));
+
+        // DROP_OLDEST : le plus ancien journal en attente est remplacé
+        writer.flush();
+        insertedBatches.clear();
+        ReflectionTestUtils.setField(writer, "overflowPolicy", ActivityLogWriter.OverflowPolicy.DROP_OLDEST);
+        for (int i = 4; i <= 6; i++) {
+            writer.log("admin", ActivityLog.ActivityType.FLIGHT_UPDATED, "vol " + i, "FLIGHT", (long) i, null);
+        }
+        writer.flush();
+        assertEquals(List.of(List.of("vol 5", "vol 6")), insertedBatches);
+        assertEquals(1L, writer.getStats().get("dropped"));
+    }
+
+    @Test
+    void testLog_InTransactionQueuedAfterCommitOnly() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            writer.log("admin", ActivityLog.ActivityType.FLIGHT_CANCELLED, "vol 7", "FLIGHT", 7L, null);
+            assertEquals(0, writer.getStats().get("queued"));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(1, writer.getStats().get("queued"));
+    }
+
+    @Test
+    void testShutdown_FailedWritesSpooledThenReplayed() throws Exception {
+        doThrow(new DataAccessResourceFailureException("base indisponible"))
+            .when(activityLogJdbcRepository).insertAll(anyList());
+        writer.log("admin", ActivityLog.ActivityType.FLIGHT_CREATED, "vol 8", "FLIGHT", 8L, null);
+        writer.log("admin", ActivityLog.ActivityType.FLIGHT_CREATED, "vol 9", "FLIGHT", 9L, null);
+
+        writer.shutdown();
+
+        assertEquals(2, Files.readAllLines(spoolFile).size());
+        assertEquals(2L, writer.getStats().get("spooled"));
+
+        // Démarrage suivant, base revenue
+        doAnswer(invocation -> {
+            List<ActivityLog> logs = invocation.getArgument(0);
+            insertedBatches.add(logs.stream().map(ActivityLog::getDescription).toList());
+            assertEquals(LocalDateTime.of(2024, 6, 1, 12, 0), logs.get(0).getTimestamp());
+            return logs.size();
+        }).when(activityLogJdbcRepository).insertAll(anyList());
+        writer = newWriter(2);
+        writer.replaySpool();
+
+        assertEquals(List.of(List.of("vol 8", "vol 9")), insertedBatches);
+        assertEquals(2L, writer.getStats().get("replayed"));
+        assertFalse(Files.exists(spoolFile));
+    }
+
+    @Test
+    void testFlush_SpoolReplayedOnceDatabaseIsBack() throws Exception {
+        AtomicReference<LocalDateTime> now = new AtomicReference<>(LocalDateTime.of(2024, 6, 1, 12, 0));
+        writer.clock = now::get;
+        doThrow(new DataAccessResourceFailureException("base indisponible"))
+            .when(activityLogJdbcRepository).insertAll(anyList());
+        writer.log("admin", ActivityLog.ActivityType.FLIGHT_CREATED, "vol 8", "FLIGHT", 8L, null);
+        writer.flush();
+        assertEquals(1, Files.readAllLines(spoolFile).size());
+        assertEquals(true, writer.getStats().get("spoolPending"));
+
+        // Base toujours indisponible : reprise tentée au plus tard après spool-retry-ms, le journal reste en secours
+        now.set(now.get().plusSeconds(30));
+        writer.flush();
+        assertEquals(1L, writer.getStats().get("spoolReplays"));
+        assertEquals(1, Files.readAllLines(spoolFile).size());
+        writer.flush();
+        assertEquals(1L, writer.getStats().get("spoolReplays")); // Pas avant le prochain délai
+
+        // Base revenue : la première insertion réussie déclenche la reprise sans attendre le délai
+        doAnswer(invocation -> {
+            List<ActivityLog> logs = invocation.getArgument(0);
+            insertedBatches.add(logs.stream().map(ActivityLog::getDescription).toList());
+            return logs.size();
+        }).when(activityLogJdbcRepository).insertAll(anyList());
+        writer.log("admin", ActivityLog.ActivityType.FLIGHT_CREATED, "vol 9", "FLIGHT", 9L, null);
+        writer.flush();
+
+        assertEquals(List.of(List.of("vol 9"), List.of("vol 8")), insertedBatches);
+        assertEquals(2L, writer.getStats().get("spoolReplays"));
+        assertEquals(1L, writer.getStats().get("replayed"));
+        assertEquals(false, writer.getStats().get("spoolPending"));
+        assertFalse(Files.exists(spoolFile));
+    }
+
+    private ActivityLogWriter newWriter(int queueCapacity) {
+        ActivityLogWriter created = new ActivityLogWriter();
+        ReflectionTestUtils.setField(created, "activityLogJdbcRepository", activityLogJdbcRepository);
+        ReflectionTestUtils.setField(created, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(created, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(created, "flushIntervalMs", 60_000L);
+        ReflectionTestUtils.setField(created, "spoolFile", spoolFile.toString());
+        created.clock = () -> LocalDateTime.of(2024, 6, 1, 12, 0);
+        created.init();
+        return created;
+    }
+}
@@ -0,0 +1,188 @@
+package com.flightradar.service;
+
+import com.flightradar.model.Aircraft;
+import com.flightradar.model.AircraftStatus;
+import com.flightradar.model.Airport;
+import com.flightradar.repository.*;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Benchmark JMH : latence du dashboard admin avec 1 000 000 de vols (PostgreSQL requis)
+ * - adminDashboard / trafficStatistics / performanceKPIs / reportsAnalytics : appels du service,
+ *   agrégats calculés en base ou lus dans OperationalCounters (reconstruits une fois au démarrage)
+ * - rebuildCounters : reconstruction complète des compteurs depuis la base (démarrage, recalage périodique)
+ * - findAllFlights : chargement complet de la table des vols, ce que chaque ancien calcul
+ *   (findAll + filtres Java, six fois par rapport) payait
+ * Les vols sont générés en SQL (generate_series) au premier lancement : départs prévus sur les
+ * 365 derniers jours, départs effectifs de -5 à +60 minutes, statuts répartis uniformément.
+ * Utiliser une base dédiée : le schéma est créé par Hibernate (ddl-auto=update).
+ *
+ * Lancement :
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath -Dbench.db.url=jdbc:postgresql://localhost:5432/flightradar_bench \
+ *     -Dbench.db.username=postgres -Dbench.db.password=postgres org.openjdk.jmh.Main AdminDashboardBenchmark"
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class AdminDashboardBenchmark {
+
+    private static final int INSERT_CHUNK = 100_000;
+
+    private static final String INSERT_FLIGHTS_SQL =
+        "INSERT INTO flights (flight_number, airline, aircraft_id, departure_airport_id, arrival_airport_id, " +
+        "flight_status, scheduled_departure, actual_departure, actual_arrival, created_at) " +
+        "SELECT 'BENCH' || g, 'Bench Air', ?, (ARRAY[?, ?, ?])[1 + g % 3], (ARRAY[?, ?, ?])[1 + (g + 1) % 3], " +
+        "(ARRAY['PLANIFIE', 'EN_COURS', 'TERMINE', 'ANNULE', 'RETARDE'])[1 + g % 5], " +
+        "dep, dep + (random() * 65 - 5) * INTERVAL '1 minute', dep + INTERVAL '2 hours', now() " +
+        "FROM (SELECT g, now() - random() * INTERVAL '365 days' + INTERVAL '1 day' AS dep " +
+        "FROM generate_series(?, ?) g) s";
+
+    @Param({"1000000"})
+    private int flights;
+
+    private ConfigurableApplicationContext context;
+    private FlightRepository flightRepository;
+    private AdminDashboardService service;
+    private OperationalCounters operationalCounters;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(BenchmarkConfig.class)
+            .web(WebApplicationType.NONE)
+            .properties(
+                "spring.datasource.url=" + System.getProperty("bench.db.url", "jdbc:postgresql://localhost:5432/flightradar_bench"),
+                "spring.datasource.username=" + System.getProperty("bench.db.username", "postgres"),
+                "spring.datasource.password=" + System.getProperty("bench.db.password", "postgres"),
+                "spring.jpa.hibernate.ddl-auto=update",
+                "spring.jpa.open-in-view=false",
+                "spring.main.banner-mode=off",
+                "logging.level.root=WARN")
+            .run();
+        flightRepository = context.getBean(FlightRepository.class);
+        seed(context.getBean(JdbcTemplate.class), context.getBean(AirportRepository.class),
+            context.getBean(AircraftRepository.class));
+
+        service = new AdminDashboardService();
+        ReflectionTestUtils.setField(service, "aircraftRepository", context.getBean(AircraftRepository.class));
+        ReflectionTestUtils.setField(service, "pilotRepository", context.getBean(PilotRepository.class));
+        ReflectionTestUtils.setField(service, "airportRepository", context.getBean(AirportRepository.class));
+        ReflectionTestUtils.setField(service, "flightRepository", flightRepository);
+        ReflectionTestUtils.setField(service, "radarCenterRepository", context.getBean(RadarCenterRepository.class));
+        ReflectionTestUtils.setField(service, "userRepository", context.getBean(UserRepository.class));
+        ActivityLogJdbcRepository activityLogJdbcRepository = new ActivityLogJdbcRepository();
+        ReflectionTestUtils.setField(activityLogJdbcRepository, "jdbcTemplate", context.getBean(JdbcTemplate.class));
+        ReflectionTestUtils.setField(service, "activityLogJdbcRepository", activityLogJdbcRepository);
+        operationalCounters = new OperationalCounters();
+        ReflectionTestUtils.setField(operationalCounters, "aircraftRepository", context.getBean(AircraftRepository.class));
+        ReflectionTestUtils.setField(operationalCounters, "flightRepository", flightRepository);
+        operationalCounters.rebuild();
+        ReflectionTestUtils.setField(service, "operationalCounters", operationalCounters);
+        // Météo hors périmètre (servie depuis la mémoire)
+        ReflectionTestUtils.setField(service, "latestWeatherCache", mock(LatestWeatherCache.class));
+        ReflectionTestUtils.setField(service, "conflictDetectionService", mock(ConflictDetectionService.class));
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate, AirportRepository airportRepository, AircraftRepository aircraftRepository) {
+        long existing = flightRepository.count();
+        if (existing >= flights) {
+            return;
+        }
+        List<Long> airportIds = new ArrayList<>();
+        for (String code : List.of("BN1", "BN2", "BN3")) {
+            Airport airport = airportRepository.findByCodeIATA(code).orElseGet(() -> {
+                Airport created = new Airport();
+                created.setName("Bench " + code);
+                created.setCity("Bench");
+                created.setCodeIATA(code);
+                created.setLatitude(33.0);
+                created.setLongitude(-7.0);
+                return airportRepository.save(created);
+            });
+            airportIds.add(airport.getId());
+        }
+        Aircraft aircraft = aircraftRepository.findByRegistration("BENCH-1").orElseGet(() -> {
+            Aircraft created = new Aircraft();
+            created.setModel("A320");
+            created.setRegistration("BENCH-1");
+            created.setStatus(AircraftStatus.AU_SOL);
+            return aircraftRepository.save(created);
+        });
+
+        for (long from = existing + 1; from <= flights; from += INSERT_CHUNK) {
+            long to = Math.min(from + INSERT_CHUNK - 1, flights);
+            jdbcTemplate.update(INSERT_FLIGHTS_SQL, aircraft.getId(),
+                airportIds.get(0), airportIds.get(1), airportIds.get(2),
+                airportIds.get(0), airportIds.get(1), airportIds.get(2), from, to);
+        }
+        jdbcTemplate.execute("ANALYZE flights");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Map<String, Object> adminDashboard() {
+        return service.getAdminDashboard();
+    }
+
+    @Benchmark
+    public Map<String, Object> trafficStatistics() {
+        return service.getTrafficStatistics("MONTH");
+    }
+
+    @Benchmark
+    public Map<String, Object> performanceKPIs() {
+        return service.getPerformanceKPIs();
+    }
+
+    @Benchmark
+    public Map<String, Object> reportsAnalytics() {
+        return service.getReportsAnalytics("MONTH");
+    }
+
+    @Benchmark
+    public void rebuildCounters() {
+        operationalCounters.rebuild();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public int findAllFlights() {
+        return flightRepository.findAll().size();
+    }
+
+    /**
+     * Contexte minimal : DataSource, JPA et repositories (ni web, ni planification, ni WebSocket)
+     * Pas de @SpringBootConfiguration : les tests @DataJpaTest / @SpringBootTest ne doivent pas la trouver
+     */
+    @Configuration(proxyBeanMethods = false)
+    @EnableAutoConfiguration
+    @EntityScan("com.flightradar.model")
+    @EnableJpaRepositories("com.flightradar.repository")
+    static class BenchmarkConfig {
+    }
+}
@@ -0,0 +1,194 @@
+package com.flightradar.service;
+
+import com.flightradar.model.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Nombre de requêtes SQL par vue du dashboard admin (PostgreSQL requis)
+ * Chaque vue est mesurée sur un petit jeu de données puis après ajout d'aéroports, centres radar,
+ * avions et pilotes : le nombre de requêtes ne doit pas dépendre du volume (pas de N+1).
+ * Données insérées dans la transaction du test, annulées à la fin.
+ *
+ * Lancement :
+ * mvn test -Dtest=AdminDashboardQueryCountTest -Dtest.db.url=jdbc:postgresql://localhost:5432/flightradar_test \
+ *     -Dtest.db.username=postgres -Dtest.db.password=postgres
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=update",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfSystemProperty(named = "test.db.url", matches = ".+")
+@Import(AdminDashboardService.class)
+class AdminDashboardQueryCountTest {
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getProperty("test.db.url"));
+        registry.add("spring.datasource.username", () -> System.getProperty("test.db.username", "postgres"));
+        registry.add("spring.datasource.password", () -> System.getProperty("test.db.password", "postgres"));
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AdminDashboardService adminDashboardService;
+
+    // Hors périmètre : météo servie depuis la mémoire, KPIs par OperationalCounters
+    @MockBean
+    private LatestWeatherCache latestWeatherCache;
+
+    @MockBean
+    private ConflictDetectionService conflictDetectionService;
+
+    @MockBean
+    private OperationalCounters operationalCounters;
+
+    private Statistics statistics;
+    private int seeded;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        seed(3);
+    }
+
+    @Test
+    void testRadarSystemsStatus_StatementCountIndependentOfRadarCount() {
+        long small = statementsFor(() -> assertEquals(seeded, adminDashboardService.getRadarSystemsStatus().size()));
+        seed(10);
+        long large = statementsFor(() -> assertEquals(seeded, adminDashboardService.getRadarSystemsStatus().size()));
+
+        assertEquals(small, large);
+        // Comptage groupé par aéroport + centres radar avec leur aéroport
+        assertEquals(2, large);
+    }
+
+    @Test
+    void testUsersWithStatus_StatementCountIndependentOfUserCount() {
+        long small = statementsFor(adminDashboardService::getAllUsersWithStatus);
+        seed(10);
+        long large = statementsFor(() -> {
+            List<Map<String, Object>> users = adminDashboardService.getAllUsersWithStatus();
+            assertTrue(users.stream().anyMatch(user -> user.get("license") != null));
+        });
+
+        assertEquals(small, large);
+        // Utilisateurs + pilotes liés en un lot
+        assertEquals(2, large);
+    }
+
+    @Test
+    void testAdminDashboard_StatementCountIndependentOfAirportCount() {
+        long small = statementsFor(() -> assertNull(adminDashboardService.getAdminDashboard().get("error")));
+        seed(10);
+        long large = statementsFor(() -> {
+            Map<String, Object> dashboard = adminDashboardService.getAdminDashboard();
+            assertNull(dashboard.get("error"));
+            assertTrue(((Map<?, ?>) dashboard.get("airportCapacity")).size() >= seeded);
+        });
+
+        assertEquals(small, large);
+    }
+
+    /**
+     * Requêtes préparées pendant l'appel, contexte de persistance vidé (rien en cache)
+     */
+    private long statementsFor(Runnable call) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        call.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * Ajoute des aéroports avec centre radar, utilisateurs et avions (un en vol avec pilote, un au sol)
+     */
+    private void seed(int airports) {
+        for (int i = 0; i < airports; i++) {
+            int n = seeded++;
+            String code = String.format("Q%02d", n);
+
+            Airport airport = new Airport();
+            airport.setName("Query Count " + code);
+            airport.setCity("Test");
+            airport.setCodeIATA(code);
+            airport.setLatitude(33.0 + n * 0.1);
+            airport.setLongitude(-7.0);
+            entityManager.persist(airport);
+
+            User radarUser = new User();
+            radarUser.setUsername("qc_radar_" + n);
+            radarUser.setPassword("password");
+            radarUser.setRole(Role.CENTRE_RADAR);
+            radarUser.setAirportId(airport.getId());
+            entityManager.persist(radarUser);
+
+            RadarCenter radar = new RadarCenter();
+            radar.setName("Radar " + code);
+            radar.setCode("QC_RADAR_" + n);
+            radar.setFrequency(120.5);
+            radar.setAirport(airport);
+            radar.setUser(radarUser);
+            entityManager.persist(radar);
+
+            User pilotUser = new User();
+            pilotUser.setUsername("qc_pilot_" + n);
+            pilotUser.setPassword("password");
+            pilotUser.setRole(Role.PILOTE);
+            entityManager.persist(pilotUser);
+
+            Pilot pilot = new Pilot();
+            pilot.setName("Pilot " + code);
+            pilot.setFirstName("Pilot");
+            pilot.setLastName(code);
+            pilot.setLicense("QC-LIC-" + n);
+            pilot.setUser(pilotUser);
+            pilot.setAirport(airport);
+            entityManager.persist(pilot);
+            pilotUser.setPilotId(pilot.getId());
+
+            Aircraft inFlight = aircraft("QC-F" + n, AircraftStatus.EN_VOL, airport);
+            inFlight.setPilot(pilot);
+            inFlight.setPositionLat(airport.getLatitude());
+            inFlight.setPositionLon(-7.0);
+            entityManager.persist(inFlight);
+            pilot.setAssignedAircraftId(inFlight.getId());
+
+            entityManager.persist(aircraft("QC-G" + n, AircraftStatus.AU_SOL, airport));
+        }
+        entityManager.flush();
+    }
+
+    private static Aircraft aircraft(String registration, AircraftStatus status, Airport airport) {
+        Aircraft aircraft = new Aircraft();
+        aircraft.setModel("A320");
+        aircraft.setRegistration(registration);
+        aircraft.setStatus(status);
+        aircraft.setAirport(airport);
+        return aircraft;
+    }
+}
@@ -0,0 +1,208 @@
+package com.flightradar.service;
+
+import com.flightradar.model.*;
+import com.flightradar.repository.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.longThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour AdminDashboardService (agrégats calculés par les repositories)
+ */
+@ExtendWith(MockitoExtension.class)
+class AdminDashboardServiceTest {
+
+    @Mock
+    private FlightRepository flightRepository;
+
+    @Mock
+    private AirportRepository airportRepository;
+
+    @Mock
+    private AircraftRepository aircraftRepository;
+
+    @Mock
+    private RadarCenterRepository radarCenterRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PilotRepository pilotRepository;
+
+    @Mock
+    private OperationalCounters operationalCounters;
+
+    @Mock
+    private ActivityLogJdbcRepository activityLogJdbcRepository;
+
+    @InjectMocks
+    private AdminDashboardService adminDashboardService;
+
+    @Test
+    void testGetAdminDashboard_FailureIsThrownAndNeverCached() {
+        when(airportRepository.findAllWithRadarCenter())
+            .thenThrow(new DataAccessResourceFailureException("base indisponible"));
+        DashboardResponseCache cache = new DashboardResponseCache();
+        cache.init();
+        try {
+            // Pas de tableau de bord d'erreur sous la clé partagée par /dashboard, /kpis et /statistics
+            for (int i = 0; i < 2; i++) {
+                assertThrows(DataAccessResourceFailureException.class,
+                    () -> cache.get("dashboard", adminDashboardService::getAdminDashboard));
+            }
+            verify(airportRepository, times(2)).findAllWithRadarCenter();
+            assertEquals(0, cache.getStats().get("entries"));
+            assertEquals(2L, cache.getStats().get("failures"));
+        } finally {
+            cache.shutdown();
+        }
+    }
+
+    @Test
+    void testGetPerformanceKPIs_FromOperationalCounters() {
+        when(operationalCounters.getTotalFlights()).thenReturn(200L);
+        when(operationalCounters.getFlightCount(FlightStatus.ANNULE)).thenReturn(5L);
+        when(operationalCounters.getOnTimeDepartures()).thenReturn(150L);
+        when(operationalCounters.getDelayedFlights()).thenReturn(12L);
+        when(operationalCounters.getTotalDelayMinutes()).thenReturn(320L);
+
+        Map<String, Object> kpis = adminDashboardService.getPerformanceKPIs();
+
+        assertEquals(320L, kpis.get("totalDelays"));
+        assertEquals(12L, kpis.get("delayedFlights"));
+        assertEquals(26L, kpis.get("averageDelay"));
+        assertEquals(5L, kpis.get("cancelledFlights"));
+        assertEquals(75.0, kpis.get("onTimePercentage"));
+        verifyNoInteractions(flightRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetTrafficStatistics_GroupedInDatabase() {
+        when(flightRepository.countScheduledBetween(any(), any())).thenReturn(7L);
+        when(flightRepository.countByStatusScheduledBetween(any(), any())).thenReturn(List.of(
+            new Object[] {FlightStatus.TERMINE, 4L}, new Object[] {FlightStatus.PLANIFIE, 3L}));
+        when(flightRepository.countByDayScheduledBetween(any(), any())).thenReturn(List.<Object[]>of(
+            new Object[] {Date.valueOf(LocalDate.of(2024, 6, 1)), 2L},
+            new Object[] {Date.valueOf(LocalDate.of(2024, 6, 2)), 5L}));
+
+        Map<String, Object> stats = adminDashboardService.getTrafficStatistics("WEEK");
+
+        assertEquals(7L, stats.get("totalFlights"));
+        assertEquals(Map.of("TERMINE", 4L, "PLANIFIE", 3L), stats.get("byStatus"));
+        assertEquals(List.of("2024-06-01", "2024-06-02"),
+            new ArrayList<>(((Map<String, Long>) stats.get("byDay")).keySet()));
+        verify(flightRepository, never()).findAll();
+    }
+
+    @Test
+    void testGetRadarSystemsStatus_OneGroupedCountForAllRadars() {
+        when(aircraftRepository.countGroupByAirportAndStatus()).thenReturn(List.of(
+            new Object[] {1L, AircraftStatus.EN_VOL, 40L}, new Object[] {1L, AircraftStatus.AU_SOL, 3L},
+            new Object[] {2L, AircraftStatus.EN_VOL, 5L}));
+        when(radarCenterRepository.findAllWithAirport()).thenReturn(List.of(radar(1L), radar(2L), radar(3L)));
+
+        List<Map<String, Object>> systems = adminDashboardService.getRadarSystemsStatus();
+
+        assertEquals(40, systems.get(0).get("aircraftTracked"));
+        assertEquals("WARNING", systems.get(0).get("healthStatus"));
+        assertEquals(5, systems.get(1).get("aircraftTracked"));
+        assertEquals(0, systems.get(2).get("aircraftTracked"));
+        verify(aircraftRepository, never()).findByAirportId(any());
+    }
+
+    @Test
+    void testGetAllUsersWithStatus_PilotsLoadedInOneBatch() {
+        when(userRepository.findAll()).thenReturn(List.of(
+            user(1L, Role.PILOTE, 10L), user(2L, Role.PILOTE, 11L), user(3L, Role.ADMIN, null)));
+        when(pilotRepository.findSummariesByIdIn(Set.of(10L, 11L))).thenReturn(List.of(
+            new Object[] {10L, "Amine", "Alaoui", "LIC-10", 5L},
+            new Object[] {11L, "Sara", "Bennani", "LIC-11", null}));
+
+        List<Map<String, Object>> users = adminDashboardService.getAllUsersWithStatus();
+
+        assertEquals(true, users.get(0).get("isActive"));
+        assertEquals("Amine Alaoui", users.get(0).get("pilotName"));
+        assertEquals(false, users.get(1).get("isActive"));
+        assertEquals("LIC-11", users.get(1).get("license"));
+        assertEquals(true, users.get(2).get("isActive"));
+        verify(pilotRepository, never()).findById(any());
+    }
+
+    private static RadarCenter radar(Long airportId) {
+        Airport airport = new Airport();
+        airport.setId(airportId);
+        RadarCenter radar = new RadarCenter();
+        radar.setId(airportId);
+        radar.setAirport(airport);
+        return radar;
+    }
+
+    private static User user(Long id, Role role, Long pilotId) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id);
+        user.setRole(role);
+        user.setPilotId(pilotId);
+        return user;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetActivityLogs_KeysetPagination() {
+        LocalDateTime t0 = LocalDateTime.of(2024, 6, 1, 12, 0, 0, 123_456_000);
+        // Page de 2 : 3 lignes demandées, la troisième signale une page suivante
+        when(activityLogJdbcRepository.findPage(any(), isNull(), eq(0L), eq(3)))
+            .thenReturn(List.of(activityLog(30L, t0), activityLog(29L, t0), activityLog(28L, t0.minusSeconds(1))));
+        when(activityLogJdbcRepository.count(any())).thenReturn(3L);
+
+        Map<String, Object> first = adminDashboardService.getActivityLogs(null, "flight_updated", null,
+            null, null, null, 0, 2);
+
+        assertEquals(2, ((List<Map<String, Object>>) first.get("logs")).size());
+        assertEquals(true, first.get("hasMore"));
+        assertEquals("2024-06-01T12:00:00.123456_29", first.get("nextCursor"));
+        assertEquals(2L, first.get("totalPages"));
+
+        // Page suivante : reprise après (t0, 29), sans OFFSET ni recomptage
+        when(activityLogJdbcRepository.findPage(any(), eq(new ActivityLogJdbcRepository.Cursor(t0, 29L)), eq(0L), eq(3)))
+            .thenReturn(List.of(activityLog(28L, t0.minusSeconds(1))));
+
+        Map<String, Object> second = adminDashboardService.getActivityLogs(null, "flight_updated", null,
+            null, null, (String) first.get("nextCursor"), 1, 2);
+
+        assertEquals(28L, ((List<Map<String, Object>>) second.get("logs")).get(0).get("id"));
+        assertEquals(false, second.get("hasMore"));
+        assertNull(second.get("nextCursor"));
+        assertFalse(second.containsKey("totalElements"));
+        verify(activityLogJdbcRepository, times(1)).count(any());
+        verify(activityLogJdbcRepository, never()).findPage(any(), any(), longThat(offset -> offset > 0), anyInt());
+    }
+
+    private static ActivityLog activityLog(Long id, LocalDateTime timestamp) {
+        ActivityLog log = new ActivityLog();
+        log.setId(id);
+        log.setActivityType(ActivityLog.ActivityType.FLIGHT_UPDATED);
+        log.setDescription("vol " + id);
+        log.setTimestamp(timestamp);
+        log.setSeverity(ActivityLog.LogSeverity.INFO);
+        return log;
+    }
+}
@@ -0,0 +1,133 @@
+package com.flightradar.service;
+
+import com.flightradar.model.Aircraft;
+import com.flightradar.model.dto.AircraftPositionUpdate;
+import com.flightradar.repository.AircraftPositionJdbcRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour AircraftPositionStore
+ */
+@ExtendWith(MockitoExtension.class)
+class AircraftPositionStoreTest {
+
+    @Mock
+    private AircraftPositionJdbcRepository aircraftPositionJdbcRepository;
+
+    @InjectMocks
+    private AircraftPositionStore aircraftPositionStore;
+
+    @Test
+    void testEvict_WaitsForInFlightFlush() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(aircraftPositionJdbcRepository.batchUpdatePositions(any())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        aircraftPositionStore.record(position(7L, 1));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> flush = executor.submit(aircraftPositionStore::flush);
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+            // Décollage pendant l'écriture de l'ancienne position : evict attend la fin du lot
+            Future<?> evict = executor.submit(() -> aircraftPositionStore.evict(7L));
+            assertThrows(TimeoutException.class, () -> evict.get(200, TimeUnit.MILLISECONDS));
+
+            release.countDown();
+            flush.get(5, TimeUnit.SECONDS);
+            evict.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(aircraftPositionStore.get(7L).isEmpty());
+
+        // L'ancienne position n'est pas réécrite après l'éviction
+        aircraftPositionStore.flush();
+        verify(aircraftPositionJdbcRepository, times(1)).batchUpdatePositions(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlush_CoalescesUpdatesIntoOneBatch() {
+        when(aircraftPositionJdbcRepository.batchUpdatePositions(any())).thenReturn(List.of());
+
+        // 3 cycles de 200 avions avant un flush : seule la dernière position de chaque avion est écrite
+        for (int tick = 1; tick <= 3; tick++) {
+            List<AircraftPositionUpdate> updates = new ArrayList<>();
+            for (long id = 1; id <= 200; id++) {
+                updates.add(position(id, tick));
+            }
+            aircraftPositionStore.recordAll(updates);
+        }
+        aircraftPositionStore.flush();
+
+        ArgumentCaptor<List<AircraftPositionUpdate>> captor = ArgumentCaptor.forClass(List.class);
+        verify(aircraftPositionJdbcRepository, times(1)).batchUpdatePositions(captor.capture());
+        assertEquals(200, captor.getValue().size());
+        assertTrue(captor.getValue().stream().allMatch(update -> update.getLatitude() == 3.0));
+        assertEquals(600, aircraftPositionStore.getRecordedUpdateCount());
+        assertEquals(1, aircraftPositionStore.getJdbcBatchCount());
+        assertEquals(599, aircraftPositionStore.getRoundTripsSaved());
+
+        // Rien de modifié depuis : pas d'aller-retour base
+        aircraftPositionStore.flush();
+        verifyNoMoreInteractions(aircraftPositionJdbcRepository);
+    }
+
+    @Test
+    void testApplyTo_OverlaysLatestPosition() {
+        aircraftPositionStore.record(position(5L, 7));
+        Aircraft aircraft = new Aircraft();
+        aircraft.setId(5L);
+        aircraft.setPositionLat(33.0);
+
+        aircraftPositionStore.applyTo(aircraft);
+
+        assertEquals(7.0, aircraft.getPositionLat());
+        assertEquals(7000.0, aircraft.getAltitude());
+
+        aircraftPositionStore.evict(5L);
+        assertTrue(aircraftPositionStore.get(5L).isEmpty());
+    }
+
+    @Test
+    void testFlush_ReportsMissingAircraftAndRetriesOnError() {
+        aircraftPositionStore.record(position(1L, 1));
+        aircraftPositionStore.record(position(2L, 1));
+        when(aircraftPositionJdbcRepository.batchUpdatePositions(any()))
+            .thenThrow(new RuntimeException("connexion perdue"))
+            .thenReturn(List.of(2L));
+
+        aircraftPositionStore.flush();
+        assertEquals(0, aircraftPositionStore.getJdbcBatchCount());
+
+        aircraftPositionStore.flush();
+        assertEquals(List.of(2L), aircraftPositionStore.drainMissingAircraft());
+        assertTrue(aircraftPositionStore.drainMissingAircraft().isEmpty());
+        assertTrue(aircraftPositionStore.get(2L).isEmpty());
+        assertTrue(aircraftPositionStore.get(1L).isPresent());
+    }
+
+    private AircraftPositionUpdate position(long aircraftId, int value) {
+        return new AircraftPositionUpdate(aircraftId, (double) value, (double) value, value * 1000.0,
+            800.0, 90.0, null, 0.0, LocalDateTime.now());
+    }
+}
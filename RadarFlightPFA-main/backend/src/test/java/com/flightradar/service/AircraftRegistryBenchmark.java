@@ -0,0 +1,95 @@
+package com.flightradar.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH : registre des avions de 500 000 lignes (taille de l'aircraftDatabase.csv d'OpenSky)
+ * - load : lecture du CSV et construction de la table (durée de démarrage)
+ * - lookupHit / lookupMiss : find + type pour une adresse présente / absente (sans allocation)
+ * Le CSV est synthétique (graine fixe) : ~2 500 types, ~5 000 exploitants, immatriculations de 5 à 6 caractères.
+ *
+ * Lancement (-prof gc pour les allocations par opération) :
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main AircraftRegistryBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+public class AircraftRegistryBenchmark {
+
+    @Param({"500000"})
+    private int rows;
+
+    private String csv;
+    private AircraftRegistry registry;
+    private int[] present;
+    private int[] absent;
+    private int cursor;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        StringBuilder builder = new StringBuilder(rows * 80);
+        builder.append("'icao24','registration','manufacturericao','model','typecode','operator','operatoricao'\n");
+        present = new int[4096];
+        absent = new int[4096];
+        for (int i = 0; i < rows; i++) {
+            // Adresses groupées par blocs comme les allocations nationales
+            int icao24 = (i / 1000) * 0x1000 + i % 1000;
+            if (i < present.length) {
+                present[i] = icao24;
+                absent[i] = icao24 + 0x800;
+            }
+            int type = random.nextInt(2500);
+            builder.append('\'').append(String.format("%06x", icao24)).append("','")
+                .append(registration(random)).append("','MAKER").append(type % 50).append("','Model ")
+                .append(type).append("','T").append(type).append("','Operator ")
+                .append(random.nextInt(5000)).append("','OP").append(random.nextInt(5000)).append("'\n");
+        }
+        csv = builder.toString();
+        registry = new AircraftRegistry();
+        registry.load(new StringReader(csv));
+    }
+
+    private static String registration(Random random) {
+        char[] chars = new char[5 + random.nextInt(2)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = i == 1 ? '-' : (char) ('A' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public AircraftRegistry load() throws IOException {
+        AircraftRegistry loaded = new AircraftRegistry();
+        loaded.load(new StringReader(csv));
+        return loaded;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public String lookupHit() {
+        int icao24 = present[cursor++ & (present.length - 1)];
+        return registry.getTypeOrModel(registry.find(icao24));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public int lookupMiss() {
+        return registry.find(absent[cursor++ & (absent.length - 1)]);
+    }
+}
@@ -0,0 +1,104 @@
+package com.flightradar.service;
+
+import com.flightradar.model.dto.LiveAircraft;
+import com.flightradar.model.dto.OpenSkyTrack;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour AircraftRegistry
+ */
+class AircraftRegistryTest {
+
+    // Extrait au format aircraftDatabase.csv d'OpenSky (colonnes réordonnées / superflues ignorées)
+    private static final String CSV = String.join("\n",
+        "'icao24','registration','manufacturericao','model','typecode','operator','operatoricao','owner'",
+        "'020123','CN-ROA','BOEING','737-8B6','B738','Royal Air Maroc','RAM',''",
+        "'3c6444','D-AIBD','AIRBUS','A319-112','A319','','DLH','Lufthansa'",
+        "'4ca7b5','EI-DCL','BOEING','737-8AS','','Ryanair, DAC','RYR',''",
+        "'zzzzzz','N/A','','','','','',''",
+        "'3C6444','D-XXXX','','','B744','','',''",
+        "");
+
+    @Test
+    void testLoad_LooksUpByIcao24Code() throws IOException {
+        AircraftRegistry registry = load(CSV);
+
+        int row = registry.find(0x020123);
+        assertTrue(row >= 0);
+        assertEquals("B738", registry.getTypeCode(row));
+        assertEquals("737-8B6", registry.getModel(row));
+        assertEquals("CN-ROA", registry.getRegistration(row));
+        assertEquals("Royal Air Maroc", registry.getOperator(row));
+        assertEquals(-1, registry.find(0xabcdef));
+        assertNull(registry.getTypeCode(-1));
+    }
+
+    @Test
+    void testLoad_QuotesFallbacksAndDuplicates() throws IOException {
+        AircraftRegistry registry = load(CSV);
+
+        // Virgule entre guillemets, type absent -> modèle en clair
+        int ryanair = registry.find("4CA7B5");
+        assertEquals("Ryanair, DAC", registry.getOperator(ryanair));
+        assertEquals("737-8AS", registry.getTypeOrModel(ryanair));
+
+        // Exploitant absent -> code OACI de l'exploitant ; doublon -> première ligne conservée
+        int lufthansa = registry.find("3c6444");
+        assertEquals("DLH", registry.getOperator(lufthansa));
+        assertEquals("A319", registry.getTypeCode(lufthansa));
+
+        // Adresse invalide ignorée
+        assertEquals(4, registry.size());
+        assertEquals(-1, registry.find("zzzzzz"));
+    }
+
+    @Test
+    void testLoad_ManyRowsAllFound() throws IOException {
+        StringBuilder csv = new StringBuilder("icao24,registration,typecode\n");
+        String[] types = {"A320", "B738", "E190", "AT76"};
+        for (int i = 0; i < 50_000; i++) {
+            csv.append(String.format("%06x", i * 7)).append(",R-").append(i).append(',').append(types[i % 4]).append('\n');
+        }
+        AircraftRegistry registry = load(csv.toString());
+
+        assertEquals(50_000, registry.size());
+        for (int i = 0; i < 50_000; i++) {
+            int row = registry.find(i * 7);
+            assertEquals("R-" + i, registry.getRegistration(row));
+            assertEquals(types[i % 4], registry.getTypeCode(row));
+        }
+        assertEquals(-1, registry.find(1));
+        assertEquals(4, registry.getStats().get("distinctTypes"));
+    }
+
+    @Test
+    void testMapper_EnrichesFromRegistry() throws IOException {
+        OpenSkyMapper mapper = new OpenSkyMapper(load(CSV));
+        OpenSkyTrack track = new OpenSkyTrack();
+        track.setIcao24("020123");
+        track.setIcao24Code(0x020123);
+
+        LiveAircraft aircraft = mapper.mapTrackToLiveAircraft(track);
+
+        assertEquals("B738", aircraft.getModel());
+        assertEquals("CN-ROA", aircraft.getRegistration());
+        assertEquals("Royal Air Maroc", aircraft.getOperator());
+
+        List<Object> state = new ArrayList<>(List.of("ffffff", "", "Morocco", 0, 0, -7.6, 33.5, 1000.0, false,
+            100.0, 90.0, 0.0, "", 1000.0, "", false, 0));
+        assertEquals("Unknown", mapper.mapStateToLiveAircraft(state).getModel());
+    }
+
+    private static AircraftRegistry load(String csv) throws IOException {
+        AircraftRegistry registry = new AircraftRegistry();
+        registry.load(new StringReader(csv));
+        return registry;
+    }
+}
@@ -0,0 +1,117 @@
+package com.flightradar.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.flightradar.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour AircraftTrackEncoder (protocole keyframe / delta de /topic/aircraft)
+ */
+class AircraftTrackEncoderTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testEncode_KeyframeThenDeltaWithChangedFieldsOnly() {
+        AircraftTrackEncoder encoder = new AircraftTrackEncoder(12);
+        Aircraft a1 = aircraft(1L, 33.5, -7.5);
+        Aircraft a2 = aircraft(2L, 34.0, -6.8);
+
+        Map<String, Object> first = encoder.encode(List.of(a1, a2), 1000L);
+        assertEquals(AircraftTrackEncoder.TYPE_KEYFRAME, first.get("type"));
+        assertEquals(1L, first.get("seq"));
+        assertEquals(2, ((List<?>) first.get("tracks")).size());
+
+        // a1 avance, a2 disparaît, a3 apparaît
+        a1.setPositionLat(33.6);
+        Aircraft a3 = aircraft(3L, 35.0, -5.0);
+        Map<String, Object> second = encoder.encode(List.of(a1, a3), 6000L);
+
+        assertEquals(AircraftTrackEncoder.TYPE_DELTA, second.get("type"));
+        assertEquals(2L, second.get("seq"));
+        List<Map<String, Object>> changed = (List<Map<String, Object>>) second.get("changed");
+        assertEquals(List.of(Map.of("id", 1L, "lat", 33.6)), changed);
+        List<Map<String, Object>> added = (List<Map<String, Object>>) second.get("added");
+        assertEquals(3L, added.get(0).get("id"));
+        assertEquals(List.of(2L), second.get("removed"));
+
+        // Keyframe à la demande : état du dernier cycle, même seq
+        Map<String, Object> keyframe = encoder.keyframe();
+        assertEquals(2L, keyframe.get("seq"));
+        assertEquals(2, ((List<?>) keyframe.get("tracks")).size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testEncode_IgnoresSubMetreNoiseAndSendsPeriodicKeyframe() {
+        AircraftTrackEncoder encoder = new AircraftTrackEncoder(3);
+        Aircraft a1 = aircraft(1L, 33.5, -7.5);
+
+        encoder.encode(List.of(a1), 1L);
+        a1.setPositionLat(33.500001);
+        Map<String, Object> delta = encoder.encode(List.of(a1), 2L);
+        assertTrue(((List<?>) delta.get("changed")).isEmpty());
+
+        Map<String, Object> delta2 = encoder.encode(List.of(a1), 3L);
+        assertEquals(AircraftTrackEncoder.TYPE_DELTA, delta2.get("type"));
+        Map<String, Object> periodic = encoder.encode(List.of(a1), 4L);
+        assertEquals(AircraftTrackEncoder.TYPE_KEYFRAME, periodic.get("type"));
+        assertEquals(4L, periodic.get("seq"));
+    }
+
+    @Test
+    void testEncode_DeltaIsAnOrderOfMagnitudeSmallerThanFullEntities() throws Exception {
+        ObjectMapper mapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        AircraftTrackEncoder encoder = new AircraftTrackEncoder(12);
+
+        Airport airport = new Airport();
+        airport.setId(1L);
+        airport.setName("Aéroport Mohammed V");
+        airport.setCity("Casablanca");
+        airport.setCodeIATA("CMN");
+        airport.setLatitude(33.3675);
+        airport.setLongitude(-7.5898);
+
+        Random random = new Random(42);
+        List<Aircraft> fleet = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            Aircraft aircraft = aircraft(id, 30 + random.nextDouble() * 6, -10 + random.nextDouble() * 6);
+            aircraft.setAirport(airport);
+            fleet.add(aircraft);
+        }
+        encoder.encode(fleet, 1L);
+
+        // Un cycle : tous les avions se déplacent et virent légèrement
+        for (Aircraft aircraft : fleet) {
+            aircraft.setPositionLat(aircraft.getPositionLat() + 0.01);
+            aircraft.setPositionLon(aircraft.getPositionLon() + 0.01);
+            aircraft.setHeading(aircraft.getHeading() + 0.7);
+        }
+        int fullBytes = mapper.writeValueAsBytes(Map.of("type", "aircraft_positions", "data", fleet)).length;
+        int deltaBytes = mapper.writeValueAsBytes(encoder.encode(fleet, 2L)).length;
+
+        assertTrue(deltaBytes * 10 <= fullBytes,
+            "delta=" + deltaBytes + " octets, entités complètes=" + fullBytes + " octets");
+    }
+
+    private Aircraft aircraft(Long id, double lat, double lon) {
+        Aircraft aircraft = new Aircraft();
+        aircraft.setId(id);
+        aircraft.setModel("A320");
+        aircraft.setRegistration("CN-R" + id);
+        aircraft.setStatus(AircraftStatus.EN_VOL);
+        aircraft.setPositionLat(lat);
+        aircraft.setPositionLon(lon);
+        aircraft.setAltitude(10000.0);
+        aircraft.setSpeed(800.0);
+        aircraft.setHeading(45.0);
+        aircraft.setLastUpdate(LocalDateTime.now());
+        return aircraft;
+    }
+}
@@ -0,0 +1,230 @@
+package com.flightradar.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour ConflatingSessionDecorator
+ * L'exécuteur est manuel : la file s'accumule comme chez un client lent jusqu'au vidage explicite.
+ */
+@ExtendWith(MockitoExtension.class)
+class ConflatingSessionDecoratorTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final String[] FIELDS = {"lat", "lon", "alt"};
+
+    @Mock
+    private WebSocketSession delegate;
+
+    private final ArrayDeque<Runnable> pendingDrains = new ArrayDeque<>();
+    private ConflatingSessionDecorator session;
+
+    @BeforeEach
+    void setUp() {
+        session = new ConflatingSessionDecorator(delegate, pendingDrains::add, 4, 15_000);
+    }
+
+    @Test
+    void testSendMessage_KeepsLatestValuePerDestination() throws Exception {
+        session.sendMessage(frame("/topic/aircraft/1", "{\"lat\":1}"));
+        session.sendMessage(frame("/topic/aircraft/2", "{\"lat\":2}"));
+        session.sendMessage(frame("/topic/aircraft/1", "{\"lat\":3}"));
+
+        assertEquals(1, pendingDrains.size()); // Un seul vidage planifié pour la session
+        drainAll();
+
+        assertEquals(List.of("{\"lat\":2}", "{\"lat\":3}"), sentBodies(2));
+        assertEquals(1L, session.getConflatedCount());
+        assertEquals(2L, session.getSentCount());
+    }
+
+    @Test
+    void testSendMessage_ConflictAlertsOvertakePositionsAndAreNeverConflated() throws Exception {
+        session.sendMessage(frame("/topic/aircraft/1", "{\"lat\":1}"));
+        session.sendMessage(frame("/topic/conflicts", "{\"conflict\":1}"));
+        session.sendMessage(frame("/topic/conflicts", "{\"conflict\":2}"));
+
+        drainAll();
+
+        assertEquals(List.of("{\"conflict\":1}", "{\"conflict\":2}", "{\"lat\":1}"), sentBodies(3));
+        assertEquals(0L, session.getConflatedCount());
+    }
+
+    @Test
+    void testSendMessage_DropsOldestPositionsOverBound() throws Exception {
+        for (int id = 1; id <= 6; id++) {
+            session.sendMessage(frame("/topic/aircraft/" + id, "{\"id\":" + id + "}"));
+        }
+
+        assertEquals(4, session.getStats(0).get("queueDepth"));
+        drainAll();
+
+        assertEquals(List.of("{\"id\":3}", "{\"id\":4}", "{\"id\":5}", "{\"id\":6}"), sentBodies(4));
+        assertEquals(2L, session.getDroppedCount());
+    }
+
+    @Test
+    void testSequencedStream_QueuedKeyframeAbsorbsDeltas() throws Exception {
+        AircraftTrackEncoder encoder = new AircraftTrackEncoder(100);
+        session.sendMessage(sequenced(encoder.encodeTracks(List.of(track(1, 1.0), track(2, 2.0)), 1000)));
+        session.sendMessage(sequenced(encoder.encodeTracks(List.of(track(1, 1.5), track(2, 2.0), track(3, 3.0)), 2000)));
+        session.sendMessage(sequenced(encoder.encodeTracks(List.of(track(1, 1.5), track(3, 3.5)), 3000)));
+
+        drainAll();
+
+        // Keyframe jamais remplacé par un delta : un seul keyframe, à jour, au dernier seq
+        List<String> bodies = sentBodies(1);
+        Map<String, Object> received = JSON.readValue(bodies.get(0), Map.class);
+        assertEquals(AircraftTrackEncoder.TYPE_KEYFRAME, received.get("type"));
+        assertEquals(3, received.get("seq"));
+        assertEquals(expectedTracks(encoder), applyAll(bodies));
+    }
+
+    @Test
+    void testSequencedStream_QueuedDeltasAreMergedPerTrack() throws Exception {
+        AircraftTrackEncoder encoder = new AircraftTrackEncoder(100);
+        session.sendMessage(sequenced(encoder.encodeTracks(List.of(track(1, 1.0), track(2, 2.0), track(4, 4.0)), 1000)));
+        drainAll();
+
+        // Client lent : ajout, modification, retrait puis ajout, ajout puis retrait
+        session.sendMessage(sequenced(encoder.encodeTracks(List.of(track(1, 1.5), track(2, 2.0), track(3, 3.0)), 2000)));
+        session.sendMessage(sequenced(encoder.encodeTracks(List.of(track(1, 1.5), track(3, 3.5), track(4, 4.5)), 3000)));
+        session.sendMessage(sequenced(encoder.encodeTracks(List.of(track(1, 1.7), track(4, 4.5), track(5, 5.0)), 4000)));
+        drainAll();
+
+        List<String> bodies = sentBodies(2);
+        Map<String, Object> merged = JSON.readValue(bodies.get(1), Map.class);
+        assertEquals(AircraftTrackEncoder.TYPE_DELTA, merged.get("type"));
+        assertEquals(4, merged.get("seq"));
+        assertEquals(1, merged.get("baseSeq")); // S'applique au keyframe seq 1 : pas de trou signalé
+        assertEquals(2L, session.getConflatedCount());
+        assertEquals(expectedTracks(encoder), applyAll(bodies));
+    }
+
+    @Test
+    void testSequencedStream_KeyframeIsNeverDroppedOverBound() throws Exception {
+        AircraftTrackEncoder encoder = new AircraftTrackEncoder(100);
+        session.sendMessage(sequenced(encoder.encodeTracks(List.of(track(1, 1.0)), 1000)));
+        for (int id = 1; id <= 6; id++) {
+            session.sendMessage(frame("/topic/aircraft/" + id, "{\"id\":" + id + "}"));
+        }
+
+        drainAll();
+
+        List<String> bodies = sentBodies(4);
+        assertTrue(bodies.get(0).startsWith("{\"type\":\"" + AircraftTrackEncoder.TYPE_KEYFRAME + "\""));
+        assertEquals(3L, session.getDroppedCount()); // Positions abandonnées, le keyframe reste en file
+    }
+
+    @Test
+    void testSlowSession_IsReportedBehindThenDisconnected() throws Exception {
+        long before = System.currentTimeMillis();
+        session.sendMessage(frame("/topic/aircraft/1", "{}"));
+
+        assertFalse(session.isBehindLongerThan(15_000, before));
+        assertTrue(session.isBehindLongerThan(15_000, before + 20_000));
+
+        session.disconnect("test");
+        verify(delegate).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertEquals(1L, session.getDroppedCount());
+
+        // Session fermée : plus rien n'est envoyé
+        session.sendMessage(frame("/topic/aircraft/1", "{}"));
+        drainAll();
+        verify(delegate, never()).sendMessage(any());
+    }
+
+    @Test
+    void testConflationKey_IgnoresControlFrames() {
+        assertNull(ConflatingSessionDecorator.conflationKey(new TextMessage("CONNECTED\nversion:1.2\n\n\u0000")));
+        assertNull(ConflatingSessionDecorator.conflationKey(frame("/topic/weather-alerts", "{}")));
+        assertEquals("sub-0|/topic/aircraft",
+            ConflatingSessionDecorator.conflationKey(frame("/topic/aircraft", "{}")));
+    }
+
+    private static AircraftTrackEncoder.Track track(long id, double lat) {
+        return new AircraftTrackEncoder.Track(id, lat, lat, FIELDS, lat, lat, 1000.0 * id);
+    }
+
+    /**
+     * Pistes du client après application des frames reçues (keyframe : état complet, delta : ajouts, champs, retraits)
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<Object, Map<String, Object>> applyAll(List<String> bodies) throws Exception {
+        Map<Object, Map<String, Object>> tracks = new HashMap<>();
+        long lastSeq = 0;
+        for (String body : bodies) {
+            Map<String, Object> message = JSON.readValue(body, Map.class);
+            long seq = ((Number) message.get("seq")).longValue();
+            if (AircraftTrackEncoder.TYPE_KEYFRAME.equals(message.get("type"))) {
+                tracks.clear();
+                for (Map<String, Object> track : (List<Map<String, Object>>) message.get("tracks")) {
+                    tracks.put(track.get("id"), track);
+                }
+            } else {
+                long base = message.containsKey("baseSeq") ? ((Number) message.get("baseSeq")).longValue() : seq - 1;
+                assertEquals(lastSeq, base, "trou de séquence");
+                for (Object id : (List<Object>) message.get("removed")) {
+                    assertNotNull(tracks.remove(id));
+                }
+                for (Map<String, Object> track : (List<Map<String, Object>>) message.get("added")) {
+                    assertNull(tracks.put(track.get("id"), track));
+                }
+                for (Map<String, Object> change : (List<Map<String, Object>>) message.get("changed")) {
+                    tracks.get(change.get("id")).putAll(change);
+                }
+            }
+            lastSeq = seq;
+        }
+        return tracks;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Object, Map<String, Object>> expectedTracks(AircraftTrackEncoder encoder) throws Exception {
+        return applyAll(List.of(JSON.writeValueAsString(encoder.keyframe())));
+    }
+
+    private void drainAll() {
+        while (!pendingDrains.isEmpty()) {
+            pendingDrains.poll().run();
+        }
+    }
+
+    private List<String> sentBodies(int expected) throws Exception {
+        ArgumentCaptor<WebSocketMessage<?>> captor = ArgumentCaptor.forClass(WebSocketMessage.class);
+        verify(delegate, times(expected)).sendMessage(captor.capture());
+        return captor.getAllValues().stream()
+            .map(message -> {
+                String frame = ((TextMessage) message).getPayload();
+                return frame.substring(frame.indexOf("\n\n") + 2, frame.length() - 1);
+            })
+            .toList();
+    }
+
+    private static TextMessage sequenced(Map<String, Object> message) throws Exception {
+        String body = JSON.writeValueAsString(message);
+        return new TextMessage("MESSAGE\ndestination:/topic/aircraft\ncontent-type:application/json\n"
+            + "subscription:sub-1\nmessage-id:m-1\ncontent-length:"
+            + body.getBytes(StandardCharsets.UTF_8).length + "\n\n" + body + "\u0000");
+    }
+
+    private static TextMessage frame(String destination, String body) {
+        return new TextMessage("MESSAGE\ndestination:" + destination + "\ncontent-type:application/json\n"
+            + "subscription:sub-0\nmessage-id:m-1\n\n" + body + "\u0000");
+    }
+}
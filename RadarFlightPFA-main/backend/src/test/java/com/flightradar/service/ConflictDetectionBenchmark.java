@@ -0,0 +1,70 @@
+package com.flightradar.service;
+
+import com.flightradar.model.Aircraft;
+import com.flightradar.model.AircraftStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH : grille spatiale vs comparaison de toutes les paires (100 à 20 000 avions)
+ *
+ * Lancement :
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main ConflictDetectionBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConflictDetectionBenchmark {
+
+    @Param({"100", "1000", "5000", "20000"})
+    private int aircraftCount;
+
+    private ConflictDetectionService service;
+    private List<Aircraft> fleet;
+
+    @Setup
+    public void setUp() {
+        service = new ConflictDetectionService();
+        fleet = new ArrayList<>(aircraftCount);
+        Random random = new Random(42);
+        // Trafic réparti sur l'Europe et l'Afrique du Nord (25°N-60°N, 20°W-40°E)
+        for (int i = 0; i < aircraftCount; i++) {
+            Aircraft aircraft = new Aircraft();
+            aircraft.setId((long) i);
+            aircraft.setRegistration("CN-" + i);
+            aircraft.setStatus(AircraftStatus.EN_VOL);
+            aircraft.setPositionLat(25.0 + random.nextDouble() * 35.0);
+            aircraft.setPositionLon(-20.0 + random.nextDouble() * 60.0);
+            aircraft.setAltitude(random.nextInt(40) * 300.0);
+            aircraft.setSpeed(200.0 + random.nextDouble() * 700.0);
+            aircraft.setHeading(random.nextDouble() * 360.0);
+            fleet.add(aircraft);
+        }
+    }
+
+    @Benchmark
+    public int spatialGrid() {
+        return service.findConflicts(fleet).size();
+    }
+
+    @Benchmark
+    public int allPairs() {
+        int conflicts = 0;
+        for (int i = 0; i < fleet.size(); i++) {
+            for (int j = i + 1; j < fleet.size(); j++) {
+                if (service.checkConflict(fleet.get(i), fleet.get(j)).isConflict()) {
+                    conflicts++;
+                }
+            }
+        }
+        return conflicts;
+    }
+}
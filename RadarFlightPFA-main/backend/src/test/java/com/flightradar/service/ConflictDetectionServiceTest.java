@@ -0,0 +1,149 @@
+package com.flightradar.service;
+
+import com.flightradar.model.Aircraft;
+import com.flightradar.model.AircraftStatus;
+import com.flightradar.repository.AircraftRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour ConflictDetectionService
+ * Vérifie que la grille spatiale donne exactement le même résultat que la comparaison de toutes les paires
+ */
+@ExtendWith(MockitoExtension.class)
+class ConflictDetectionServiceTest {
+
+    @Mock
+    private AircraftRepository aircraftRepository;
+
+    @InjectMocks
+    private ConflictDetectionService conflictDetectionService;
+
+    @Test
+    void testFindConflicts_DenseTraffic_MatchesAllPairs() {
+        List<Aircraft> fleet = randomFleet(new Random(42), 1500, 33.0, -7.5, 1.0, 1.0);
+
+        assertSameConflicts(allPairs(fleet), conflictDetectionService.findConflicts(fleet));
+    }
+
+    @Test
+    void testFindConflicts_Antimeridian_MatchesAllPairs() {
+        List<Aircraft> fleet = randomFleet(new Random(7), 800, -20.0, 179.8, 0.5, 0.4);
+        for (Aircraft aircraft : fleet) {
+            if (aircraft.getPositionLon() > 180.0) {
+                aircraft.setPositionLon(aircraft.getPositionLon() - 360.0);
+            }
+        }
+
+        List<ConflictDetectionService.ConflictAlert> expected = allPairs(fleet);
+        assertFalse(expected.isEmpty());
+        assertSameConflicts(expected, conflictDetectionService.findConflicts(fleet));
+    }
+
+    @Test
+    void testFindConflicts_NearPole_MatchesAllPairs() {
+        List<Aircraft> fleet = randomFleet(new Random(3), 800, 89.9, -180.0, 0.09, 360.0);
+
+        assertSameConflicts(allPairs(fleet), conflictDetectionService.findConflicts(fleet));
+    }
+
+    @Test
+    void testFindConflicts_IgnoresAircraftWithoutPosition() {
+        Aircraft a1 = aircraft(1L, 33.0, -7.5, 3000.0);
+        Aircraft a2 = aircraft(2L, 33.001, -7.5, 3000.0);
+        Aircraft a3 = aircraft(3L, 33.0, -7.5, 3000.0);
+        a3.setPositionLat(null);
+
+        List<ConflictDetectionService.ConflictAlert> alerts =
+            conflictDetectionService.findConflicts(List.of(a1, a3, a2));
+
+        assertEquals(1, alerts.size());
+        assertSame(a1, alerts.get(0).getAircraft1());
+        assertSame(a2, alerts.get(0).getAircraft2());
+        assertEquals(ConflictDetectionService.ConflictSeverity.CRITICAL,
+            alerts.get(0).getConflictInfo().getSeverity());
+    }
+
+    @Test
+    void testGetActiveConflicts_UsesAircraftInFlight() {
+        List<Aircraft> fleet = randomFleet(new Random(11), 300, 34.0, -6.8, 0.3, 0.3);
+        when(aircraftRepository.findByStatus(AircraftStatus.EN_VOL)).thenReturn(fleet);
+
+        assertSameConflicts(allPairs(fleet), conflictDetectionService.getActiveConflicts());
+        verify(aircraftRepository, times(1)).findByStatus(AircraftStatus.EN_VOL);
+    }
+
+    /**
+     * Référence : comparaison exhaustive de toutes les paires (ancien algorithme)
+     */
+    private List<ConflictDetectionService.ConflictAlert> allPairs(List<Aircraft> fleet) {
+        List<ConflictDetectionService.ConflictAlert> alerts = new ArrayList<>();
+        for (int i = 0; i < fleet.size(); i++) {
+            for (int j = i + 1; j < fleet.size(); j++) {
+                Aircraft aircraft1 = fleet.get(i);
+                Aircraft aircraft2 = fleet.get(j);
+                if (aircraft1.getPositionLat() != null && aircraft1.getPositionLon() != null &&
+                    aircraft2.getPositionLat() != null && aircraft2.getPositionLon() != null) {
+                    ConflictDetectionService.ConflictInfo conflict =
+                        conflictDetectionService.checkConflict(aircraft1, aircraft2);
+                    if (conflict != null && conflict.isConflict()) {
+                        alerts.add(new ConflictDetectionService.ConflictAlert(aircraft1, aircraft2, conflict));
+                    }
+                }
+            }
+        }
+        return alerts;
+    }
+
+    private void assertSameConflicts(List<ConflictDetectionService.ConflictAlert> expected,
+                                     List<ConflictDetectionService.ConflictAlert> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int k = 0; k < expected.size(); k++) {
+            ConflictDetectionService.ConflictAlert e = expected.get(k);
+            ConflictDetectionService.ConflictAlert a = actual.get(k);
+            assertSame(e.getAircraft1(), a.getAircraft1());
+            assertSame(e.getAircraft2(), a.getAircraft2());
+            assertEquals(e.getConflictInfo().getDistance(), a.getConflictInfo().getDistance());
+            assertEquals(e.getConflictInfo().getAltitudeDiff(), a.getConflictInfo().getAltitudeDiff());
+            assertEquals(e.getConflictInfo().getClosingSpeed(), a.getConflictInfo().getClosingSpeed());
+            assertEquals(e.getConflictInfo().getTimeToConflict(), a.getConflictInfo().getTimeToConflict());
+            assertEquals(e.getConflictInfo().getSeverity(), a.getConflictInfo().getSeverity());
+        }
+    }
+
+    private List<Aircraft> randomFleet(Random random, int count, double lat, double lon,
+                                       double latSpan, double lonSpan) {
+        List<Aircraft> fleet = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Aircraft aircraft = aircraft((long) i,
+                lat + random.nextDouble() * latSpan,
+                lon + random.nextDouble() * lonSpan,
+                random.nextInt(10) * 250.0);
+            aircraft.setSpeed(200.0 + random.nextDouble() * 600.0);
+            aircraft.setHeading(random.nextDouble() * 360.0);
+            fleet.add(aircraft);
+        }
+        return fleet;
+    }
+
+    private Aircraft aircraft(Long id, double lat, double lon, Double altitude) {
+        Aircraft aircraft = new Aircraft();
+        aircraft.setId(id);
+        aircraft.setRegistration("CN-" + id);
+        aircraft.setStatus(AircraftStatus.EN_VOL);
+        aircraft.setPositionLat(lat);
+        aircraft.setPositionLon(lon);
+        aircraft.setAltitude(altitude);
+        return aircraft;
+    }
+}
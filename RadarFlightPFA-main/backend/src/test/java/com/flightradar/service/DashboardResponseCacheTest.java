@@ -0,0 +1,130 @@
+package com.flightradar.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour DashboardResponseCache (TTL 5 s, rafraîchissement anticipé à 1 s de l'expiration)
+ */
+class DashboardResponseCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private DashboardResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new DashboardResponseCache();
+        cache.nanoClock = now::get;
+        cache.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+    }
+
+    @Test
+    void testGet_HitUntilExpiryThenRecomputed() {
+        AtomicInteger computations = new AtomicInteger();
+
+        assertEquals(1, cache.get("operations/performance", computations::incrementAndGet));
+        advanceMillis(2000);
+        assertEquals(1, cache.get("operations/performance", computations::incrementAndGet));
+        // Autres paramètres : autre entrée
+        assertEquals(2, cache.get("operations/traffic?period=DAY", computations::incrementAndGet));
+
+        advanceMillis(5000);
+        assertEquals(3, cache.get("operations/performance", computations::incrementAndGet));
+
+        assertEquals(1L, cache.getStats().get("hits"));
+        assertEquals(3L, cache.getStats().get("misses"));
+    }
+
+    @Test
+    void testGet_ConcurrentMissesComputeOnce() throws Exception {
+        int admins = 10;
+        CountDownLatch computing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger computations = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(admins);
+        try {
+            List<Future<Integer>> responses = new ArrayList<>();
+            responses.add(executor.submit(() -> cache.get("dashboard", () -> {
+                computing.countDown();
+                await(release);
+                return computations.incrementAndGet();
+            })));
+            assertTrue(computing.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i < admins; i++) {
+                responses.add(executor.submit(() -> cache.get("dashboard", computations::incrementAndGet)));
+            }
+            // Les demandes suivantes sont en attente du calcul en cours
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while ((long) cache.getStats().get("coalesced") < admins - 1 && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            for (Future<Integer> response : responses) {
+                assertEquals(1, response.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, computations.get());
+        assertEquals(1L, cache.getStats().get("misses"));
+        assertEquals(90.0, cache.getStats().get("coalesceRate"));
+    }
+
+    @Test
+    void testGet_RefreshedInBackgroundBeforeExpiry() throws Exception {
+        AtomicInteger computations = new AtomicInteger();
+        assertEquals(1, cache.get("dashboard", computations::incrementAndGet));
+
+        // Dernière seconde avant expiration : valeur courante servie, recalcul lancé en arrière-plan
+        advanceMillis(4500);
+        assertEquals(1, cache.get("dashboard", computations::incrementAndGet));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ((long) cache.getStats().get("backgroundRefreshes") < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+
+        // Au-delà de l'expiration de la première valeur : la valeur rafraîchie est servie sans calcul
+        advanceMillis(1000);
+        assertEquals(2, cache.get("dashboard", computations::incrementAndGet));
+        assertEquals(2, computations.get());
+        assertEquals(1L, cache.getStats().get("misses"));
+    }
+
+    @Test
+    void testGet_FailureNotCached() {
+        assertThrows(IllegalStateException.class, () -> cache.get("operations/alerts", () -> {
+            throw new IllegalStateException("base indisponible");
+        }));
+
+        assertEquals("ok", cache.get("operations/alerts", () -> "ok"));
+        assertEquals(1L, cache.getStats().get("failures"));
+        assertEquals(2L, cache.getStats().get("misses"));
+    }
+
+    private void advanceMillis(long millis) {
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
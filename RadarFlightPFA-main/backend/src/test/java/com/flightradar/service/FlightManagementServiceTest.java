@@ -8,6 +8,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -38,7 +40,13 @@ class FlightManagementServiceTest {
     private WeatherService weatherService;
 
     @Mock
-    private ActivityLogRepository activityLogRepository;
+    private ActivityLogWriter activityLogWriter;
+
+    @Mock
+    private OperationalCounters operationalCounters;
+
+    @Mock
+    private DashboardResponseCache dashboardResponseCache;
 
     @InjectMocks
     private FlightManagementService flightManagementService;
@@ -212,5 +220,37 @@ class FlightManagementServiceTest {
         // L'altitude invalide devrait être ignorée (null)
         verify(flightRepository, times(1)).save(any(Flight.class));
     }
-}
 
+    @Test
+    void testDeleteFlight_CountersAndDashboardUpdatedAfterCommitOnly() {
+        Flight flight = new Flight();
+        flight.setId(5L);
+        flight.setFlightNumber("TEST005");
+        flight.setFlightStatus(FlightStatus.PLANIFIE);
+        when(flightRepository.findById(5L)).thenReturn(Optional.of(flight));
+
+        // Rollback : compteurs inchangés
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            flightManagementService.deleteFlight(5L, "admin");
+            TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verify(operationalCounters, never()).flightChanged(any(), any());
+        verify(dashboardResponseCache, never()).invalidateAll();
+
+        // Commit : compteurs mis à jour
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            flightManagementService.deleteFlight(5L, "admin");
+            verify(operationalCounters, never()).flightChanged(any(), any());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verify(operationalCounters).flightChanged(any(OperationalCounters.FlightState.class), isNull());
+        verify(dashboardResponseCache).invalidateAll();
+    }
+}
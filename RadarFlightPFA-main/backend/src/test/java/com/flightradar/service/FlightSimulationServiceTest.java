@@ -0,0 +1,179 @@
+package com.flightradar.service;
+
+import com.flightradar.model.*;
+import com.flightradar.model.dto.AircraftPositionUpdate;
+import com.flightradar.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour FlightSimulationService
+ * Toutes les simulations doivent avancer dans un seul cycle, sans lecture ni écriture base par vol
+ */
+@ExtendWith(MockitoExtension.class)
+class FlightSimulationServiceTest {
+
+    @Mock
+    private AircraftRepository aircraftRepository;
+
+    @Mock
+    private FlightRepository flightRepository;
+
+    @Mock
+    private AirportRepository airportRepository;
+
+    @Mock
+    private WebSocketBroadcaster webSocketBroadcaster;
+
+    @Mock
+    private AircraftPositionStore aircraftPositionStore;
+
+    @Mock
+    private OperationalCounters operationalCounters;
+
+    @InjectMocks
+    private FlightSimulationService flightSimulationService;
+
+    private Airport casablanca;
+    private Airport rabat;
+    private final Map<Long, Aircraft> aircraftById = new HashMap<>();
+    private final Map<Long, Flight> flightById = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        casablanca = new Airport();
+        casablanca.setId(1L);
+        casablanca.setCodeIATA("CMN");
+        casablanca.setLatitude(33.3675);
+        casablanca.setLongitude(-7.5898);
+
+        rabat = new Airport();
+        rabat.setId(2L);
+        rabat.setCodeIATA("RBA");
+        rabat.setLatitude(34.0515);
+        rabat.setLongitude(-6.7515);
+
+        lenient().when(airportRepository.findById(1L)).thenReturn(Optional.of(casablanca));
+        lenient().when(airportRepository.findById(2L)).thenReturn(Optional.of(rabat));
+        lenient().when(aircraftRepository.findById(anyLong())).thenAnswer(invocation -> {
+            Long id = invocation.getArgument(0);
+            return Optional.of(aircraftById.computeIfAbsent(id, this::newAircraft));
+        });
+        lenient().when(flightRepository.findByAircraftIdAndFlightStatusNot(anyLong(), any()))
+            .thenReturn(Optional.empty());
+        lenient().when(flightRepository.save(any(Flight.class))).thenAnswer(invocation -> {
+            Flight flight = invocation.getArgument(0);
+            if (flight.getId() == null) {
+                flight.setId((long) flightById.size() + 1);
+            }
+            flightById.put(flight.getId(), flight);
+            return flight;
+        });
+        lenient().when(flightRepository.findById(anyLong()))
+            .thenAnswer(invocation -> Optional.ofNullable(flightById.get(invocation.<Long>getArgument(0))));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testAdvanceSimulations_TenThousandFlights_OneRecordPerTick() {
+        int flights = 10_000;
+        for (long aircraftId = 1; aircraftId <= flights; aircraftId++) {
+            assertNotNull(flightSimulationService.startFlightSimulation(aircraftId, 1L, 2L));
+        }
+        assertEquals(flights, flightSimulationService.getActiveSimulationCount());
+
+        Set<Long> simulated = flightSimulationService.advanceSimulations();
+
+        assertEquals(flights, simulated.size());
+        ArgumentCaptor<List<AircraftPositionUpdate>> captor = ArgumentCaptor.forClass(List.class);
+        verify(aircraftPositionStore, times(1)).recordAll(captor.capture());
+        assertEquals(flights, captor.getValue().size());
+        assertTrue(captor.getValue().get(0).getAltitude() > 0.0);
+        // Aucune lecture base par vol pendant le cycle
+        verify(aircraftRepository, times(flights)).findById(anyLong());
+        // Une sérialisation par vol pour /topic/flight/{id} et /topic/aircraft/{id}
+        verify(webSocketBroadcaster, times(flights)).broadcast(any(), anyString(), anyString());
+    }
+
+    @Test
+    void testAdvanceSimulations_CompletesFlightOnLanding() {
+        Flight flight = flightSimulationService.startFlightSimulation(7L, 1L, 2L);
+        assertTrue(flightSimulationService.isFlightInProgress(7L));
+
+        for (int tick = 0; tick < 500 && flightSimulationService.isFlightInProgress(7L); tick++) {
+            flightSimulationService.advanceSimulations();
+        }
+
+        assertFalse(flightSimulationService.isFlightInProgress(7L));
+        assertEquals(FlightStatus.TERMINE, flight.getFlightStatus());
+        Aircraft aircraft = aircraftById.get(7L);
+        assertEquals(AircraftStatus.AU_SOL, aircraft.getStatus());
+        assertSame(rabat, aircraft.getAirport());
+        verify(aircraftPositionStore, times(2)).evict(7L); // décollage puis atterrissage
+    }
+
+    @Test
+    void testAdvanceSimulations_StopsWhenAircraftRowIsMissing() {
+        flightSimulationService.startFlightSimulation(3L, 1L, 2L);
+        flightSimulationService.startFlightSimulation(4L, 1L, 2L);
+        when(aircraftPositionStore.drainMissingAircraft()).thenReturn(List.of(3L));
+
+        flightSimulationService.advanceSimulations();
+
+        assertFalse(flightSimulationService.isFlightInProgress(3L));
+        assertTrue(flightSimulationService.isFlightInProgress(4L));
+    }
+
+    @Test
+    void testStartFlightSimulation_ConcurrentSecondStartWritesNothing() throws Exception {
+        CountDownLatch saving = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            saving.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            Flight flight = invocation.getArgument(0);
+            flight.setId(1L);
+            return flight;
+        }).when(flightRepository).save(any(Flight.class));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Flight> first = executor.submit(() -> flightSimulationService.startFlightSimulation(5L, 1L, 2L));
+            assertTrue(saving.await(5, TimeUnit.SECONDS));
+
+            // Premier démarrage en cours d'écriture : le second ne touche ni au vol, ni à l'avion, ni aux compteurs
+            assertNull(flightSimulationService.startFlightSimulation(5L, 1L, 2L));
+            release.countDown();
+            assertNotNull(first.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(flightRepository, times(1)).save(any(Flight.class));
+        verify(aircraftRepository, times(1)).save(any(Aircraft.class));
+        verify(operationalCounters, times(1)).flightChanged(any(), any());
+        verify(aircraftPositionStore, times(1)).evict(5L);
+        assertTrue(flightSimulationService.isFlightInProgress(5L));
+    }
+
+    private Aircraft newAircraft(Long id) {
+        Aircraft aircraft = new Aircraft();
+        aircraft.setId(id);
+        aircraft.setRegistration("CN-R" + id);
+        aircraft.setStatus(AircraftStatus.AU_SOL);
+        return aircraft;
+    }
+}
@@ -0,0 +1,98 @@
+package com.flightradar.service;
+
+import com.flightradar.model.Airport;
+import com.flightradar.model.WeatherData;
+import com.flightradar.repository.WeatherDataRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour LatestWeatherCache
+ */
+class LatestWeatherCacheTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    private final WeatherDataRepository weatherDataRepository = mock(WeatherDataRepository.class);
+    private final WebSocketBroadcaster webSocketBroadcaster = mock(WebSocketBroadcaster.class);
+    private final Airport casablanca = airport(1L);
+    private LatestWeatherCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new LatestWeatherCache();
+        ReflectionTestUtils.setField(cache, "weatherDataRepository", weatherDataRepository);
+        ReflectionTestUtils.setField(cache, "webSocketBroadcaster", webSocketBroadcaster);
+    }
+
+    @Test
+    void testUpdate_PublishesOnlyWhenValuesChange() {
+        when(weatherDataRepository.findLatestPerAirport()).thenReturn(List.of(weather(casablanca, T0, 12.0)));
+        cache.init();
+
+        // Même vent 10 minutes plus tard : mémorisé, pas rediffusé
+        WeatherData same = weather(casablanca, T0.plusMinutes(10), 12.0);
+        cache.update(same);
+        verify(webSocketBroadcaster, never()).broadcast(any(), any(String[].class));
+        assertSame(same, cache.get(1L).orElseThrow());
+
+        WeatherData windier = weather(casablanca, T0.plusMinutes(20), 35.0);
+        cache.update(windier);
+        verify(webSocketBroadcaster, times(1)).broadcast(any(), eq("/topic/weather/1"));
+        assertSame(windier, cache.get(1L).orElseThrow());
+
+        // Relevé plus ancien ignoré
+        cache.update(weather(casablanca, T0.plusMinutes(5), 50.0));
+        assertSame(windier, cache.get(1L).orElseThrow());
+        verify(webSocketBroadcaster, times(1)).broadcast(any(), any(String[].class));
+        assertEquals(1L, cache.getStats().get("unchanged"));
+
+        // Cache chargé : aéroport sans relevé -> vide, sans requête
+        assertEquals(Optional.empty(), cache.get(2L));
+        verify(weatherDataRepository, never()).findFirstByAirportIdOrderByTimestampDesc(any());
+    }
+
+    @Test
+    void testGet_FallsBackToDatabaseUntilLoaded() {
+        when(weatherDataRepository.findLatestPerAirport()).thenThrow(new IllegalStateException("base indisponible"));
+        cache.init();
+        WeatherData stored = weather(casablanca, T0, 12.0);
+        when(weatherDataRepository.findFirstByAirportIdOrderByTimestampDesc(1L)).thenReturn(Optional.of(stored));
+
+        assertSame(stored, cache.get(1L).orElseThrow());
+        assertSame(stored, cache.get(1L).orElseThrow());
+
+        verify(weatherDataRepository, times(1)).findFirstByAirportIdOrderByTimestampDesc(1L);
+        assertEquals(false, cache.getStats().get("loaded"));
+    }
+
+    private static Airport airport(Long id) {
+        Airport airport = new Airport();
+        airport.setId(id);
+        return airport;
+    }
+
+    private static WeatherData weather(Airport airport, LocalDateTime timestamp, double windSpeed) {
+        WeatherData weather = new WeatherData();
+        weather.setAirport(airport);
+        weather.setTimestamp(timestamp);
+        weather.setWindSpeed(windSpeed);
+        weather.setWindDirection(270.0);
+        weather.setVisibility(10.0);
+        weather.setTemperature(22.0);
+        weather.setHumidity(60);
+        weather.setPressure(1015.0);
+        weather.setConditions("Clear");
+        return weather;
+    }
+}
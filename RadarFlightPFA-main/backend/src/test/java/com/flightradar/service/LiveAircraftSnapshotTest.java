@@ -0,0 +1,54 @@
+package com.flightradar.service;
+
+import com.flightradar.model.dto.LiveAircraft;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour LiveAircraftSnapshot
+ */
+class LiveAircraftSnapshotTest {
+
+    private final LiveAircraft lufthansa = live("3c6444", "Germany", "ok");
+    private final LiveAircraft royalAirMaroc = live("020123", "Morocco", "danger");
+    private final LiveAircraft condor = live("3C65A1", "Germany", "warning");
+
+    @Test
+    void testIndexes_LookupsAreCaseInsensitive() {
+        LiveAircraftSnapshot snapshot = new LiveAircraftSnapshot(List.of(lufthansa, royalAirMaroc, condor), 1L);
+
+        assertSame(condor, snapshot.getByIcao24("3c65a1"));
+        assertSame(lufthansa, snapshot.getByIcao24("3C6444"));
+        assertNull(snapshot.getByIcao24("ffffff"));
+        assertEquals(List.of(lufthansa, condor), snapshot.getByCountry("germany"));
+        assertEquals(List.of(royalAirMaroc), snapshot.getByRadarStatus("DANGER"));
+        assertEquals(List.of(), snapshot.getByCountry("France"));
+    }
+
+    @Test
+    void testSnapshot_IsDetachedFromSourceList() {
+        List<LiveAircraft> source = new ArrayList<>(List.of(lufthansa));
+        LiveAircraftSnapshot snapshot = new LiveAircraftSnapshot(source, 1L);
+
+        source.add(royalAirMaroc);
+
+        assertEquals(1, snapshot.size());
+        assertNull(snapshot.getByIcao24("020123"));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getAircraft().add(condor));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getByCountry("Germany").clear());
+    }
+
+    private static LiveAircraft live(String icao24, String country, String radarStatus) {
+        LiveAircraft aircraft = new LiveAircraft();
+        aircraft.setIcao24(icao24);
+        aircraft.setOriginCountry(country);
+        aircraft.setRadarStatus(radarStatus);
+        aircraft.setLatitude(0.0);
+        aircraft.setLongitude(0.0);
+        return aircraft;
+    }
+}
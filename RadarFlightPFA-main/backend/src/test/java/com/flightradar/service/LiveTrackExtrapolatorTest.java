@@ -0,0 +1,115 @@
+package com.flightradar.service;
+
+import com.flightradar.model.dto.LiveAircraft;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour LiveTrackExtrapolator
+ */
+@ExtendWith(MockitoExtension.class)
+class LiveTrackExtrapolatorTest {
+
+    @Mock
+    private OpenSkyService openSkyService;
+
+    @Mock
+    private ViewportSubscriptionService viewportSubscriptionService;
+
+    @InjectMocks
+    private LiveTrackExtrapolator liveTrackExtrapolator;
+
+    private static final long LAST_CONTACT = 1_700_000_000L;
+
+    @Test
+    void testExtrapolate_ProjectsAlongHeadingAndVerticalRate() {
+        // Plein est à l'équateur, 360 km/h (100 m/s), montée de 5 m/s, dernière position il y a 10 s
+        LiveAircraft aircraft = live(0.0, 0.0, 90.0, 360.0, 5.0, "climbing");
+
+        Map<String, Object> track = liveTrackExtrapolator.extrapolate(aircraft, 0, LAST_CONTACT * 1000 + 10_000).toMap();
+
+        assertEquals("3c6444", track.get("id"));
+        assertEquals(0.0, (Double) track.get("lat"), 1e-5);
+        assertEquals(Math.toDegrees(1000.0 / 6_371_000.0), (Double) track.get("lon"), 1e-5);
+        assertEquals(10050.0, (Double) track.get("alt"), 0.1);
+        assertEquals(true, track.get("extrapolated"));
+        assertEquals(LAST_CONTACT * 1000, track.get("contactTime"));
+    }
+
+    @Test
+    void testExtrapolate_StopsAfterStalenessLimitAndHoldsGroundTraffic() {
+        LiveAircraft cruising = live(33.3, -7.5, 45.0, 800.0, 0.0, "cruising");
+        assertNull(liveTrackExtrapolator.extrapolate(cruising, 0, LAST_CONTACT * 1000 + 121_000));
+
+        LiveAircraft taxiing = live(33.3, -7.5, 45.0, 30.0, 0.0, "on-ground");
+        Map<String, Object> held = liveTrackExtrapolator.extrapolate(taxiing, 0, LAST_CONTACT * 1000 + 30_000).toMap();
+        assertEquals(33.3, held.get("lat"));
+        assertEquals(false, held.get("extrapolated"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testPublish_RoutesFreshTracksToViewportsOffSchedulerThread() {
+        List<Runnable> pendingCycles = new ArrayList<>();
+        liveTrackExtrapolator.publishExecutor = pendingCycles::add;
+        when(viewportSubscriptionService.getGroupCount()).thenReturn(1);
+        LiveAircraft fresh = live(48.0, 2.0, 180.0, 700.0, 0.0, "cruising");
+        fresh.setLastContact(System.currentTimeMillis() / 1000);
+        LiveAircraft stale = live(50.0, 2.0, 180.0, 700.0, 0.0, "cruising");
+        when(openSkyService.getLiveAircraftSnapshot())
+            .thenReturn(new LiveAircraftSnapshot(List.of(fresh, stale), System.currentTimeMillis()));
+
+        liveTrackExtrapolator.publish();
+        liveTrackExtrapolator.publish(); // Cycle précédent pas terminé : ignoré
+        verifyNoInteractions(openSkyService);
+        assertEquals(1, pendingCycles.size());
+
+        pendingCycles.remove(0).run();
+        ArgumentCaptor<List<AircraftTrackEncoder.Track>> captor = ArgumentCaptor.forClass(List.class);
+        verify(viewportSubscriptionService).routeLive(captor.capture(), anyLong());
+        assertEquals(1, captor.getValue().size());
+        assertEquals(1, liveTrackExtrapolator.getStats().get("lastStale"));
+        assertEquals(1L, liveTrackExtrapolator.getStats().get("skippedCycles"));
+
+        liveTrackExtrapolator.publish();
+        assertEquals(1, pendingCycles.size());
+    }
+
+    @Test
+    void testPublish_NothingToDoWithoutSubscribedViewport() {
+        liveTrackExtrapolator.publishExecutor = Runnable::run;
+
+        liveTrackExtrapolator.publish();
+
+        verifyNoInteractions(openSkyService);
+        verify(viewportSubscriptionService, never()).routeLive(any(), anyLong());
+    }
+
+    private static LiveAircraft live(double lat, double lon, double heading, double velocityKmh,
+                                     double verticalRate, String status) {
+        LiveAircraft aircraft = new LiveAircraft();
+        aircraft.setIcao24("3c6444");
+        aircraft.setLatitude(lat);
+        aircraft.setLongitude(lon);
+        aircraft.setAltitude(10000.0);
+        aircraft.setHeading(heading);
+        aircraft.setVelocity(velocityKmh);
+        aircraft.setVerticalRate(verticalRate);
+        aircraft.setStatus(status);
+        aircraft.setLastContact(LAST_CONTACT);
+        return aircraft;
+    }
+}
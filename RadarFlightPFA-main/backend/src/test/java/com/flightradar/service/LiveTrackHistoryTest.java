@@ -0,0 +1,83 @@
+package com.flightradar.service;
+
+import com.flightradar.model.dto.LiveAircraft;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour LiveTrackHistory
+ */
+class LiveTrackHistoryTest {
+
+    private LiveTrackHistory history;
+
+    @BeforeEach
+    void setUp() {
+        history = new LiveTrackHistory();
+        ReflectionTestUtils.setField(history, "trailLength", 3);
+        ReflectionTestUtils.setField(history, "maxTracks", 15000);
+        ReflectionTestUtils.setField(history, "maxAgeMs", 300000L);
+    }
+
+    @Test
+    void testRecord_RingBufferKeepsLastPositionsInOrder() {
+        for (int poll = 1; poll <= 5; poll++) {
+            history.record(snapshot(poll * 60_000L, live("3C6444", 48.0 + poll, 2.0, poll * 60L)));
+        }
+        // Même dernier contact : position déjà connue, pas de doublon
+        history.record(snapshot(360_000L, live("3c6444", 53.0, 2.0, 300L)));
+
+        List<Map<String, Object>> points = history.getTrail("3c6444");
+        assertEquals(3, points.size());
+        assertEquals(List.of(51.0, 52.0, 53.0), points.stream().map(p -> p.get("latitude")).toList());
+        assertEquals(180_000L, points.get(0).get("timestamp"));
+        assertNull(history.getTrail("020123"));
+    }
+
+    @Test
+    void testRecord_EvictsTracksNotSeenRecently() {
+        history.record(snapshot(0L, live("3c6444", 48.0, 2.0, null), live("020123", 33.3, -7.5, null)));
+        history.record(snapshot(200_000L, live("3c6444", 48.5, 2.1, null)));
+        history.record(snapshot(400_000L, live("3c6444", 49.0, 2.2, null)));
+
+        assertEquals(3, history.getTrail("3c6444").size());
+        assertNull(history.getTrail("020123"));
+        assertEquals(1L, history.getStats().get("evictedTracks"));
+    }
+
+    @Test
+    void testRecord_MemoryBoundedWith15kTracks() {
+        List<LiveAircraft> fleet = new ArrayList<>();
+        for (int i = 0; i < 16000; i++) {
+            fleet.add(live(String.format("%06x", i), 40.0, 0.0, null));
+        }
+        history.record(snapshot(1L, fleet.toArray(LiveAircraft[]::new)));
+
+        Map<String, Object> stats = history.getStats();
+        assertEquals(15000, stats.get("tracks"));
+        assertEquals(1000L, stats.get("rejectedTracks"));
+        assertEquals(stats.get("maxEstimatedBytes"), stats.get("estimatedBytes"));
+        assertTrue((Long) stats.get("estimatedBytes") < 5_000_000L);
+    }
+
+    private static LiveAircraftSnapshot snapshot(long timestamp, LiveAircraft... aircraft) {
+        return new LiveAircraftSnapshot(List.of(aircraft), timestamp);
+    }
+
+    private static LiveAircraft live(String icao24, double lat, double lon, Long lastContact) {
+        LiveAircraft aircraft = new LiveAircraft();
+        aircraft.setIcao24(icao24);
+        aircraft.setLatitude(lat);
+        aircraft.setLongitude(lon);
+        aircraft.setAltitude(10000.0);
+        aircraft.setLastContact(lastContact);
+        return aircraft;
+    }
+}
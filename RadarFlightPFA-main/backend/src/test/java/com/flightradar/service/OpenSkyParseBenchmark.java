@@ -0,0 +1,117 @@
+package com.flightradar.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flightradar.model.dto.LiveAircraft;
+import com.flightradar.model.dto.OpenSkyResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH : lecture d'une réponse /states/all de 10 000 avions
+ * - bindThenMap : liaison Jackson en List<List<Object>> puis OpenSkyMapper.mapStateToLiveAircraft
+ * - streamParse : OpenSkyStreamParser (jeton par jeton) puis OpenSkyMapper.mapTrackToLiveAircraft
+ * La réponse est reconstituée à l'identique du format OpenSky (callsigns complétés à 8 caractères,
+ * valeurs null, sensors null) avec une graine fixe, pour un corps d'environ 1,5 Mo.
+ *
+ * Lancement (-prof gc pour les allocations par opération) :
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main OpenSkyParseBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OpenSkyParseBenchmark {
+
+    private static final String[] COUNTRIES = {
+        "United States", "Germany", "France", "United Kingdom", "Morocco", "Spain", "Italy", "China",
+        "Turkey", "Ireland", "Netherlands", "Canada", "Brazil", "India", "Japan", "Australia"
+    };
+
+    @Param({"10000"})
+    private int aircraftCount;
+
+    private byte[] response;
+    private ObjectMapper objectMapper;
+    private OpenSkyStreamParser parser;
+    private OpenSkyMapper mapper;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        parser = new OpenSkyStreamParser();
+        mapper = new OpenSkyMapper();
+        response = recordedResponse(aircraftCount);
+    }
+
+    @Benchmark
+    public List<LiveAircraft> bindThenMap() throws IOException {
+        OpenSkyResponse bound = objectMapper.readValue(response, OpenSkyResponse.class);
+        List<LiveAircraft> aircraft = new ArrayList<>(bound.getStates().size());
+        for (List<Object> state : bound.getStates()) {
+            LiveAircraft mapped = mapper.mapStateToLiveAircraft(state);
+            if (mapped != null && mapped.getLatitude() != null && mapped.getLongitude() != null) {
+                aircraft.add(mapped);
+            }
+        }
+        return aircraft;
+    }
+
+    @Benchmark
+    public List<LiveAircraft> streamParse() throws IOException {
+        List<LiveAircraft> aircraft = new ArrayList<>(aircraftCount);
+        parser.parse(new ByteArrayInputStream(response), track -> {
+            if (track.hasPosition()) {
+                aircraft.add(mapper.mapTrackToLiveAircraft(track));
+            }
+        });
+        return aircraft;
+    }
+
+    static byte[] recordedResponse(int count) {
+        Random random = new Random(2024);
+        long now = 1_700_000_000L;
+        StringBuilder json = new StringBuilder(count * 160);
+        json.append("{\"time\":").append(now).append(",\"states\":[");
+        for (int i = 0; i < count; i++) {
+            boolean onGround = random.nextInt(10) == 0;
+            boolean noPosition = random.nextInt(50) == 0;
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append('[')
+                .append('"').append(String.format("%06x", random.nextInt(0x1000000))).append("\",")
+                .append(random.nextInt(20) == 0 ? "null" : String.format("\"%-8s\"", "AF" + random.nextInt(10000))).append(',')
+                .append('"').append(COUNTRIES[random.nextInt(COUNTRIES.length)]).append("\",")
+                .append(noPosition ? "null" : String.valueOf(now - random.nextInt(10))).append(',')
+                .append(now - random.nextInt(5)).append(',')
+                .append(noPosition ? "null" : decimal(-180 + random.nextDouble() * 360, 4)).append(',')
+                .append(noPosition ? "null" : decimal(-85 + random.nextDouble() * 170, 4)).append(',')
+                .append(onGround ? "null" : decimal(random.nextDouble() * 12000, 2)).append(',')
+                .append(onGround).append(',')
+                .append(decimal(onGround ? random.nextDouble() * 10 : 150 + random.nextDouble() * 120, 2)).append(',')
+                .append(decimal(random.nextDouble() * 360, 2)).append(',')
+                .append(onGround ? "null" : decimal(-15 + random.nextDouble() * 30, 2)).append(',')
+                .append("null,")
+                .append(onGround ? "null" : decimal(random.nextDouble() * 12500, 2)).append(',')
+                .append(random.nextInt(3) == 0 ? "null" : "\"" + (1000 + random.nextInt(6777)) + "\"").append(',')
+                .append("false,0]");
+        }
+        json.append("]}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String decimal(double value, int digits) {
+        return String.format(Locale.ROOT, "%." + digits + "f", value);
+    }
+}
@@ -0,0 +1,188 @@
+package com.flightradar.service;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de OpenSkyPollScheduler contre un serveur OpenSky local (bouchon HTTP)
+ */
+class OpenSkyPollSchedulerTest {
+
+    private static final String CASABLANCA = "[\"020123\",\"RAM200  \",\"Morocco\",1700000000,1700000000,-7.6,33.4,3000,false,200,90,0,null,3000,null,false,0]";
+    private static final String CASABLANCA_MOVED = "[\"020123\",\"RAM200  \",\"Morocco\",1700000060,1700000060,-7.2,33.5,3500,false,200,90,0,null,3500,null,false,0]";
+    private static final String PARIS = "[\"3c6444\",\"DLH9LF  \",\"Germany\",1700000000,1700000000,2.4,48.9,11000,false,230,92,0,null,11000,null,false,0]";
+
+    private HttpServer server;
+    private final List<String> queries = Collections.synchronizedList(new ArrayList<>());
+    // Réponses à servir dans l'ordre : code HTTP -> corps
+    private final Deque<Object[]> responses = new ArrayDeque<>();
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    private OpenSkyService openSkyService;
+    private OpenSkyPollScheduler scheduler;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/states/all", exchange -> {
+            queries.add(String.valueOf(exchange.getRequestURI().getQuery()));
+            Object[] response;
+            synchronized (responses) {
+                response = responses.isEmpty() ? new Object[]{200, "{\"time\":1,\"states\":[]}"} : responses.poll();
+            }
+            byte[] body = ((String) response[1]).getBytes(StandardCharsets.UTF_8);
+            if ((int) response[0] == 429) {
+                exchange.getResponseHeaders().set("X-Rate-Limit-Retry-After-Seconds", "30");
+            }
+            exchange.sendResponseHeaders((int) response[0], body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+
+        openSkyService = new OpenSkyService();
+        ReflectionTestUtils.setField(openSkyService, "openSkyMapper", new OpenSkyMapper());
+        ReflectionTestUtils.setField(openSkyService, "openSkyStreamParser", new OpenSkyStreamParser());
+        ReflectionTestUtils.setField(openSkyService, "restTemplate", new RestTemplate());
+        ReflectionTestUtils.setField(openSkyService, "liveTrackHistory", new LiveTrackHistory());
+        ReflectionTestUtils.setField(openSkyService, "baseUrl", "http://127.0.0.1:" + server.getAddress().getPort() + "/api");
+
+        scheduler = new OpenSkyPollScheduler();
+        ReflectionTestUtils.setField(scheduler, "openSkyService", openSkyService);
+        ReflectionTestUtils.setField(scheduler, "regionSpec", "maroc:29.5,-11,36,-1:60000;monde::120000");
+        scheduler.clock = now::get;
+        scheduler.random = new Random(1);
+        // Requêtes exécutées dans poll() : déroulement déterministe
+        scheduler.fetchExecutor = Runnable::run;
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void testPoll_RegionsAreStaggeredAndMergedIntoCache() {
+        scheduler.init();
+        respond(200, states(CASABLANCA));          // t=0 : Maroc
+        respond(200, states(CASABLANCA, PARIS));   // t=30 s : monde (décalé d'une demi-période)
+        respond(200, states(CASABLANCA_MOVED));    // t=60 s : Maroc
+
+        scheduler.poll();
+        assertEquals(List.of("lamin=29.5&lomin=-11.0&lamax=36.0&lomax=-1.0"), queries);
+        tick(15_000);
+        scheduler.poll(); // Rien d'échu
+        assertEquals(1, queries.size());
+
+        tick(15_000);
+        scheduler.poll();
+        assertEquals("null", queries.get(1));
+        tick(30_000);
+        scheduler.poll();
+        assertEquals(3, queries.size());
+        assertTrue(queries.get(2).startsWith("lamin="));
+
+        // Le Maroc est remplacé par sa dernière interrogation, Paris vient du monde entier
+        assertEquals(2, openSkyService.getLiveAircraft().size());
+        assertEquals(-7.2, openSkyService.getLiveAircraftByIcao24("020123").getLongitude());
+        assertNotNull(openSkyService.getLiveAircraftByIcao24("3c6444"));
+    }
+
+    @Test
+    void testPoll_BacksOffOn429WithRetryHeaderThenJitter() {
+        ReflectionTestUtils.setField(scheduler, "regionSpec", "monde::60000");
+        scheduler.init();
+        respond(429, "");
+
+        scheduler.poll();
+        assertEquals(1, queries.size());
+        assertEquals(30_000L, scheduler.getStats().get("backoffRemainingMs")); // En-tête de reprise OpenSky
+
+        tick(29_000);
+        scheduler.poll();
+        assertEquals(1, queries.size()); // Toujours en pause
+
+        tick(1_000);
+        respond(500, "");
+        scheduler.poll();
+        assertEquals(2, queries.size());
+        long backoff = (Long) scheduler.getStats().get("backoffRemainingMs");
+        // Deuxième échec : plafond base * 2, gigue sur la moitié supérieure
+        assertTrue(backoff >= OpenSkyPollScheduler.BASE_BACKOFF_MS && backoff <= 2 * OpenSkyPollScheduler.BASE_BACKOFF_MS);
+
+        tick(backoff);
+        scheduler.poll();
+        assertEquals(3, queries.size());
+        assertEquals(0, scheduler.getStats().get("consecutiveFailures"));
+    }
+
+    @Test
+    void testPoll_TokenBucketDefersPollsBeyondCreditBudget() {
+        ReflectionTestUtils.setField(scheduler, "regionSpec", "monde::10000");
+        ReflectionTestUtils.setField(scheduler, "creditBurst", 8.0);
+        ReflectionTestUtils.setField(scheduler, "creditsPerHour", 720.0); // 2 crédits par 10 s
+        scheduler.init();
+
+        for (int second = 0; second <= 60; second++) {
+            scheduler.poll();
+            tick(1_000);
+        }
+
+        // Monde = 4 crédits : la réserve absorbe les premiers appels (0, 10, 20 s), puis un toutes les 20 s
+        assertEquals(5, queries.size());
+        assertTrue((Long) scheduler.getStats().get("deferredForCredits") > 0);
+    }
+
+    @Test
+    void testPoll_FetchRunsOffSchedulerThreadOneAtATime() {
+        ReflectionTestUtils.setField(scheduler, "regionSpec", "maroc:29.5,-11,36,-1:10000;monde::10000");
+        List<Runnable> pendingFetches = new ArrayList<>();
+        scheduler.fetchExecutor = pendingFetches::add;
+        scheduler.init();
+
+        // Le planificateur rend la main sans attendre OpenSky
+        scheduler.poll();
+        assertEquals(1, pendingFetches.size());
+        assertTrue(queries.isEmpty());
+        assertEquals(true, scheduler.getStats().get("fetchInProgress"));
+
+        // Monde échu, mais une requête est déjà en cours : rien de plus n'est lancé
+        tick(5_000);
+        scheduler.poll();
+        assertEquals(1, pendingFetches.size());
+
+        pendingFetches.remove(0).run();
+        assertEquals(1, queries.size());
+        assertEquals(false, scheduler.getStats().get("fetchInProgress"));
+
+        scheduler.poll();
+        assertEquals(2, pendingFetches.size() + queries.size());
+        pendingFetches.remove(0).run();
+        assertEquals("null", queries.get(1));
+    }
+
+    private void tick(long millis) {
+        now.addAndGet(millis);
+    }
+
+    private void respond(int status, String body) {
+        synchronized (responses) {
+            responses.add(new Object[]{status, body});
+        }
+    }
+
+    private static String states(String... states) {
+        return "{\"time\":1700000000,\"states\":[" + String.join(",", states) + "]}";
+    }
+}
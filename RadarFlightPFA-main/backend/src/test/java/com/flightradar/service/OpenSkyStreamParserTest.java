@@ -0,0 +1,87 @@
+package com.flightradar.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flightradar.model.dto.LiveAircraft;
+import com.flightradar.model.dto.OpenSkyResponse;
+import com.flightradar.model.dto.OpenSkyTrack;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour OpenSkyStreamParser
+ */
+class OpenSkyStreamParserTest {
+
+    private static final String RESPONSE = """
+        {"time":1700000000,"states":[
+          ["3c6444","DLH9LF  ","Germany",1700000000,1700000001,6.1,50.2,11277.6,false,230.5,92.3,-0.33,null,11590.02,"1000",false,0],
+          ["020123","RAM200  ","Morocco",null,1700000001,-7.59,33.37,null,true,0,176.2,null,[1,2],null,null,false,0,3],
+          ["a1b2c3",null,"United States",null,1699999990,null,null,null,false,null,null,null,null,null,null,false,0],
+          ["ffffff","SHORT"]
+        ]}
+        """;
+
+    private final OpenSkyStreamParser parser = new OpenSkyStreamParser();
+    private final OpenSkyMapper mapper = new OpenSkyMapper();
+
+    @Test
+    void testParse_ReadsPrimitiveFieldsAndSkipsIncompleteStates() throws Exception {
+        List<OpenSkyTrack> tracks = new ArrayList<>();
+        long time = parser.parse(stream(RESPONSE), tracks::add);
+
+        assertEquals(1700000000L, time);
+        assertEquals(3, tracks.size());
+
+        OpenSkyTrack lufthansa = tracks.get(0);
+        assertEquals("3c6444", lufthansa.getIcao24());
+        assertEquals(0x3c6444, lufthansa.getIcao24Code());
+        assertEquals("DLH9LF", lufthansa.getCallsign());
+        assertEquals(50.2, lufthansa.getLatitude());
+        assertEquals(11277.6, lufthansa.getBaroAltitude());
+        assertEquals("1000", lufthansa.getSquawk());
+
+        OpenSkyTrack royalAirMaroc = tracks.get(1);
+        assertTrue(royalAirMaroc.isOnGround());
+        assertEquals(0L, royalAirMaroc.getTimePosition());
+        assertTrue(Double.isNaN(royalAirMaroc.getBaroAltitude()));
+        assertEquals(0.0, royalAirMaroc.getVelocity());
+
+        assertFalse(tracks.get(2).hasPosition());
+        assertNull(tracks.get(2).getCallsign());
+    }
+
+    @Test
+    void testMapTrack_MatchesLegacyBoxedMapping() throws Exception {
+        OpenSkyResponse bound = new ObjectMapper().readValue(RESPONSE, OpenSkyResponse.class);
+        List<LiveAircraft> legacy = new ArrayList<>();
+        for (List<Object> state : bound.getStates()) {
+            LiveAircraft aircraft = mapper.mapStateToLiveAircraft(state);
+            if (aircraft != null) {
+                legacy.add(aircraft);
+            }
+        }
+
+        List<LiveAircraft> streamed = new ArrayList<>();
+        parser.parse(stream(RESPONSE), track -> streamed.add(mapper.mapTrackToLiveAircraft(track)));
+
+        assertEquals(legacy, streamed);
+    }
+
+    @Test
+    void testParseIcao24() {
+        assertEquals(0xffffff, OpenSkyStreamParser.parseIcao24("ffffff"));
+        assertEquals(0x020123, OpenSkyStreamParser.parseIcao24("020123"));
+        assertEquals(-1, OpenSkyStreamParser.parseIcao24("zz1234"));
+        assertEquals(-1, OpenSkyStreamParser.parseIcao24("1234567"));
+    }
+
+    private static ByteArrayInputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
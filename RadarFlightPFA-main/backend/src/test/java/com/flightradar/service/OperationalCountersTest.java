@@ -0,0 +1,120 @@
+package com.flightradar.service;
+
+import com.flightradar.model.AircraftStatus;
+import com.flightradar.model.Flight;
+import com.flightradar.model.FlightStatus;
+import com.flightradar.repository.AircraftRepository;
+import com.flightradar.repository.FlightRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour OperationalCounters
+ */
+class OperationalCountersTest {
+
+    private final AircraftRepository aircraftRepository = mock(AircraftRepository.class);
+    private final FlightRepository flightRepository = mock(FlightRepository.class);
+    private LocalDateTime now = LocalDateTime.of(2024, 6, 1, 14, 30);
+    private OperationalCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        counters = new OperationalCounters();
+        ReflectionTestUtils.setField(counters, "aircraftRepository", aircraftRepository);
+        ReflectionTestUtils.setField(counters, "flightRepository", flightRepository);
+        counters.clock = () -> now;
+
+        when(aircraftRepository.countGroupByStatus()).thenReturn(List.of(
+            new Object[] {AircraftStatus.AU_SOL, 8L}, new Object[] {AircraftStatus.EN_VOL, 2L}));
+        when(flightRepository.countGroupByFlightStatus()).thenReturn(List.of(
+            new Object[] {FlightStatus.PLANIFIE, 5L}, new Object[] {FlightStatus.TERMINE, 10L}));
+        when(flightRepository.countOnTimeDepartures()).thenReturn(9L);
+        when(flightRepository.sumDelaysByDepartureAirport()).thenReturn(List.<Object[]>of(new Object[] {1L, 3L, 60L}));
+        when(flightRepository.countDeparturesByHourSince(any())).thenReturn(List.of(
+            new Object[] {Timestamp.valueOf(LocalDateTime.of(2024, 5, 31, 22, 0)), 4L},
+            new Object[] {Timestamp.valueOf(LocalDateTime.of(2024, 6, 1, 9, 0)), 3L}));
+        when(flightRepository.countSameDayArrivalsByHourSince(any())).thenReturn(List.<Object[]>of(
+            new Object[] {Timestamp.valueOf(LocalDateTime.of(2024, 6, 1, 11, 0)), 2L}));
+    }
+
+    @Test
+    void testRebuild_FromAggregateQueries() {
+        counters.rebuild();
+
+        assertEquals(10L, counters.getTotalAircraft());
+        assertEquals(2L, counters.getAircraftCount(AircraftStatus.EN_VOL));
+        assertEquals(15L, counters.getTotalFlights());
+        assertEquals(9L, counters.getOnTimeDepartures());
+        assertEquals(3L, counters.getDelayedFlights());
+        assertEquals(60L, counters.getTotalDelayMinutes());
+        // Décollages de la veille hors "aujourd'hui"
+        assertEquals(3L, counters.getTakeoffsToday());
+        assertEquals(2L, counters.getLandingsToday());
+    }
+
+    @Test
+    void testFlightChanged_StartThenComplete() {
+        counters.rebuild();
+        Flight flight = new Flight();
+        flight.setFlightStatus(FlightStatus.PLANIFIE);
+        flight.setScheduledDeparture(now.minusMinutes(40));
+        counters.flightChanged(null, flight);
+        assertEquals(6L, counters.getFlightCount(FlightStatus.PLANIFIE));
+
+        // Décollage avec 20 minutes de retard
+        OperationalCounters.FlightState before = OperationalCounters.FlightState.of(flight);
+        flight.setFlightStatus(FlightStatus.EN_COURS);
+        flight.setActualDeparture(now.minusMinutes(20));
+        counters.flightChanged(before, flight);
+        counters.aircraftStatusChanged(AircraftStatus.AU_SOL, AircraftStatus.EN_VOL);
+
+        assertEquals(5L, counters.getFlightCount(FlightStatus.PLANIFIE));
+        assertEquals(1L, counters.getFlightCount(FlightStatus.EN_COURS));
+        assertEquals(4L, counters.getTakeoffsToday());
+        assertEquals(4L, counters.getDelayedFlights());
+        assertEquals(80L, counters.getTotalDelayMinutes());
+        assertEquals(9L, counters.getOnTimeDepartures());
+        assertEquals(3L, counters.getAircraftCount(AircraftStatus.EN_VOL));
+
+        // Atterrissage : seul le statut et l'atterrissage du jour changent
+        before = OperationalCounters.FlightState.of(flight);
+        flight.setFlightStatus(FlightStatus.TERMINE);
+        flight.setActualArrival(now);
+        counters.flightChanged(before, flight);
+
+        assertEquals(0L, counters.getFlightCount(FlightStatus.EN_COURS));
+        assertEquals(11L, counters.getFlightCount(FlightStatus.TERMINE));
+        assertEquals(4L, counters.getTakeoffsToday());
+        assertEquals(3L, counters.getLandingsToday());
+        assertEquals(80L, counters.getTotalDelayMinutes());
+
+        // Suppression : contribution retirée
+        counters.flightChanged(OperationalCounters.FlightState.of(flight), null);
+        assertEquals(15L, counters.getTotalFlights());
+        assertEquals(3L, counters.getTakeoffsToday());
+        assertEquals(60L, counters.getTotalDelayMinutes());
+    }
+
+    @Test
+    void testReads_RebuildOnFirstAccessThenServedFromMemory() {
+        assertEquals(15L, counters.getTotalFlights());
+        assertEquals(10L, counters.getTotalAircraft());
+
+        // Minuit passé : les heures de la veille sortent de "aujourd'hui"
+        now = LocalDateTime.of(2024, 6, 2, 0, 10);
+        assertEquals(0L, counters.getTakeoffsToday());
+
+        verify(flightRepository, times(1)).countGroupByFlightStatus();
+        verify(aircraftRepository, times(1)).countGroupByStatus();
+    }
+}
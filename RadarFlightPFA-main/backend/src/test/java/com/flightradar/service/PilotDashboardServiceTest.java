@@ -36,7 +36,10 @@ class PilotDashboardServiceTest {
     private FlightRepository flightRepository;
 
     @Mock
-    private WeatherDataRepository weatherDataRepository;
+    private LatestWeatherCache latestWeatherCache;
+
+    @Mock
+    private RunwayWindTable runwayWindTable;
 
     @Mock
     private CommunicationRepository communicationRepository;
@@ -0,0 +1,118 @@
+package com.flightradar.service;
+
+import com.flightradar.model.Airport;
+import com.flightradar.model.Runway;
+import com.flightradar.model.WeatherData;
+import com.flightradar.repository.RunwayRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour RunwayCatalog et RunwayWindTable
+ */
+class RunwayWindTableTest {
+
+    private final RunwayRepository runwayRepository = mock(RunwayRepository.class);
+    private final LatestWeatherCache latestWeatherCache = mock(LatestWeatherCache.class);
+    private final Airport casablanca = airport(1L);
+    private RunwayCatalog catalog;
+    private RunwayWindTable table;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new RunwayCatalog();
+        ReflectionTestUtils.setField(catalog, "runwayRepository", runwayRepository);
+        table = new RunwayWindTable();
+        ReflectionTestUtils.setField(table, "runwayCatalog", catalog);
+        ReflectionTestUtils.setField(table, "latestWeatherCache", latestWeatherCache);
+        when(runwayRepository.findAll()).thenReturn(List.of(
+            runway(1L, "09/27", 90.0, 3700), runway(2L, "17/35", 170.0, 2400)));
+    }
+
+    @Test
+    void testEndsOf_DesignatorsFromNameOrHeading() {
+        List<RunwayCatalog.RunwayEnd> named = RunwayCatalog.endsOf(runway(1L, "27/09", 90.0, 3000));
+        assertEquals("09", named.get(0).getDesignator());
+        assertEquals(90.0, named.get(0).getHeading());
+        assertEquals("27", named.get(1).getDesignator());
+        assertEquals(270.0, named.get(1).getHeading());
+
+        List<RunwayCatalog.RunwayEnd> unnamed = RunwayCatalog.endsOf(runway(3L, "Piste principale", 3.0, 3000));
+        assertEquals("36", unnamed.get(0).getDesignator());
+        assertEquals("18", unnamed.get(1).getDesignator());
+    }
+
+    @Test
+    void testGet_ComponentsAndPreferredRunway() {
+        when(latestWeatherCache.get(1L)).thenReturn(Optional.of(weather(20.0, 270.0)));
+
+        RunwayWindTable.WindComponents components = table.get(1L).orElseThrow();
+
+        assertEquals(4, components.getEnds().size());
+        assertEquals("27", components.getPreferred().getDesignator());
+        assertEquals(20.0, components.getEnd("27").getHeadwind());
+        assertEquals(0.0, components.getEnd("27").getCrosswind());
+        assertEquals(20.0, components.getEnd("09").getTailwind());
+        assertEquals(0.0, components.getEnd("09").getHeadwind());
+        // Piste 17/35 : 80° d'écart avec le vent
+        assertEquals(19.7, components.getEnd("35").getCrosswind());
+        assertEquals(19.7, components.getMaxCrosswind(), 0.05);
+
+        when(latestWeatherCache.get(1L)).thenReturn(Optional.of(weather(20.0, 170.0)));
+        assertEquals(Optional.of("17"), table.getPreferredRunway(1L));
+        assertEquals(Optional.empty(), table.getPreferredRunway(2L));
+    }
+
+    @Test
+    void testGet_RecomputedOnlyWhenWindOrCatalogChanges() {
+        when(latestWeatherCache.get(1L)).thenReturn(Optional.of(weather(20.0, 270.0)));
+
+        RunwayWindTable.WindComponents first = table.get(1L).orElseThrow();
+        assertSame(first, table.get(1L).orElseThrow());
+        assertEquals(1L, table.getStats().get("recomputations"));
+
+        // Nouveau relevé, même vent : table réutilisée
+        when(latestWeatherCache.get(1L)).thenReturn(Optional.of(weather(20.0, 270.0)));
+        assertSame(first, table.get(1L).orElseThrow());
+
+        when(latestWeatherCache.get(1L)).thenReturn(Optional.of(weather(25.0, 270.0)));
+        assertNotSame(first, table.get(1L).orElseThrow());
+
+        catalog.reload();
+        table.get(1L);
+        assertEquals(3L, table.getStats().get("recomputations"));
+        // Pistes lues une fois par chargement du catalogue
+        verify(runwayRepository, times(2)).findAll();
+    }
+
+    private WeatherData weather(double windSpeed, double windDirection) {
+        WeatherData weather = new WeatherData();
+        weather.setAirport(casablanca);
+        weather.setWindSpeed(windSpeed);
+        weather.setWindDirection(windDirection);
+        return weather;
+    }
+
+    private Runway runway(Long id, String name, double orientation, int length) {
+        Runway runway = new Runway();
+        runway.setId(id);
+        runway.setAirport(casablanca);
+        runway.setName(name);
+        runway.setOrientation(orientation);
+        runway.setLengthMeters(length);
+        return runway;
+    }
+
+    private static Airport airport(Long id) {
+        Airport airport = new Airport();
+        airport.setId(id);
+        return airport;
+    }
+}
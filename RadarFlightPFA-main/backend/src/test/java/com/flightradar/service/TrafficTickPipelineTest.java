@@ -0,0 +1,89 @@
+package com.flightradar.service;
+
+import com.flightradar.model.Aircraft;
+import com.flightradar.model.AircraftStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour TrafficTickPipeline
+ */
+@ExtendWith(MockitoExtension.class)
+class TrafficTickPipelineTest {
+
+    @Mock
+    private AircraftService aircraftService;
+
+    @Mock
+    private FlightSimulationService flightSimulationService;
+
+    @Mock
+    private ConflictDetectionService conflictDetectionService;
+
+    @Mock
+    private RealtimeUpdateService realtimeUpdateService;
+
+    @Mock
+    private AircraftPositionStore aircraftPositionStore;
+
+    @InjectMocks
+    private TrafficTickPipeline trafficTickPipeline;
+
+    @Test
+    void testTick_RunsStagesInOrderOnOneSnapshot() {
+        Aircraft aircraft = new Aircraft();
+        aircraft.setId(1L);
+        aircraft.setStatus(AircraftStatus.EN_VOL);
+        List<Aircraft> loaded = List.of(aircraft);
+        when(flightSimulationService.advanceSimulations()).thenReturn(Set.of(2L));
+        when(aircraftService.simulateAircraftMovement(anyDouble(), any())).thenReturn(loaded);
+        when(conflictDetectionService.detectConflicts(loaded)).thenReturn(List.of());
+
+        trafficTickPipeline.tick();
+
+        InOrder inOrder = inOrder(flightSimulationService, aircraftService, conflictDetectionService, realtimeUpdateService);
+        inOrder.verify(flightSimulationService).advanceSimulations();
+        inOrder.verify(aircraftService).simulateAircraftMovement(5.0, Set.of(2L));
+        inOrder.verify(conflictDetectionService).detectConflicts(loaded);
+        ArgumentCaptor<TrafficSnapshot> captor = ArgumentCaptor.forClass(TrafficSnapshot.class);
+        inOrder.verify(realtimeUpdateService).broadcastAircraftPositions(captor.capture());
+        inOrder.verify(realtimeUpdateService).broadcastConflictAlerts(captor.getValue());
+
+        TrafficSnapshot snapshot = trafficTickPipeline.getLatestSnapshot();
+        assertSame(snapshot, captor.getValue());
+        assertEquals(1, snapshot.getSequence());
+        assertEquals(loaded, snapshot.getAircraft());
+        verify(aircraftService, never()).getAllAircraft();
+        verify(conflictDetectionService, never()).getActiveConflicts();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetStageTimings_ReportsEveryStage() {
+        when(aircraftService.simulateAircraftMovement(anyDouble(), any())).thenReturn(List.of());
+        when(conflictDetectionService.detectConflicts(any())).thenReturn(List.of());
+
+        trafficTickPipeline.tick();
+        trafficTickPipeline.tick();
+
+        Map<String, Object> timings = trafficTickPipeline.getStageTimings();
+        assertEquals(2L, timings.get("sequence"));
+        Map<String, Object> stages = (Map<String, Object>) timings.get("stages");
+        assertEquals(List.of("move", "conflicts", "snapshot", "broadcast", "total"), List.copyOf(stages.keySet()));
+        assertEquals(2L, ((Map<String, Object>) stages.get("total")).get("count"));
+    }
+}
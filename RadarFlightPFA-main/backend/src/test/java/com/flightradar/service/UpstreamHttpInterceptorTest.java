@@ -0,0 +1,114 @@
+package com.flightradar.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+/**
+ * Tests unitaires pour UpstreamHttpInterceptor et UpstreamRegistry
+ */
+class UpstreamHttpInterceptorTest {
+
+    private static final String URL = "https://opensky-network.org/api/states/all";
+
+    private UpstreamRegistry upstreamRegistry;
+    private RestTemplate restTemplate;
+    private MockRestServiceServer server;
+
+    @BeforeEach
+    void setUp() {
+        upstreamRegistry = new UpstreamRegistry();
+        upstreamRegistry.init();
+        restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(new UpstreamHttpInterceptor(upstreamRegistry));
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGzipBodyIsDecodedAndConditionalRequestReusesEtag() throws Exception {
+        String json = "{\"time\":1700000000,\"states\":[" + "[\"3c6444\",\"DLH9LF  \"],".repeat(200) + "[]]}";
+        HttpHeaders gzipHeaders = new HttpHeaders();
+        gzipHeaders.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        gzipHeaders.setETag("\"v1\"");
+
+        server.expect(requestTo(URL))
+            .andExpect(header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+            .andRespond(withSuccess(gzip(json), MediaType.APPLICATION_JSON).headers(gzipHeaders));
+        server.expect(requestTo(URL))
+            .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+            .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        Map<String, Object> body = restTemplate.getForObject(URL, Map.class);
+        assertEquals(1700000000, body.get("time"));
+        HttpStatus second = restTemplate.execute(URL, HttpMethod.GET, null,
+            response -> HttpStatus.valueOf(response.getStatusCode().value()));
+        assertEquals(HttpStatus.NOT_MODIFIED, second);
+        server.verify();
+
+        Map<String, Object> stats = upstreamRegistry.get(UpstreamRegistry.OPENSKY).getStats();
+        assertEquals(2L, stats.get("requests"));
+        assertEquals(1L, stats.get("notModified"));
+        assertEquals((long) json.length(), stats.get("decodedBytes"));
+        assertTrue((Long) stats.get("wireBytes") < json.length() / 5);
+        assertEquals(0, stats.get("inFlight"));
+        Map<String, Object> histogram = (Map<String, Object>) stats.get("latencyHistogram");
+        assertEquals(2L, histogram.values().stream().mapToLong(v -> (Long) v).sum());
+    }
+
+    @Test
+    void testEtagNotStoredWhenBodyIsNotFullyRead() {
+        HttpHeaders etagHeaders = new HttpHeaders();
+        etagHeaders.setETag("\"v1\"");
+        server.expect(requestTo(URL))
+            .andRespond(withSuccess("{\"time\":1700000000,\"states\":[]}", MediaType.APPLICATION_JSON)
+                .headers(etagHeaders));
+        server.expect(requestTo(URL))
+            .andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+            .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+
+        // Analyse interrompue après quelques octets : la réponse suivante ne doit pas être conditionnelle
+        assertThrows(IllegalStateException.class, () -> restTemplate.execute(URL, HttpMethod.GET, null, response -> {
+            response.getBody().read(new byte[4]);
+            throw new IllegalStateException("corps invalide");
+        }));
+        restTemplate.getForObject(URL, Map.class);
+        server.verify();
+
+        assertEquals(0, upstreamRegistry.get(UpstreamRegistry.OPENSKY).getStats().get("inFlight"));
+    }
+
+    @Test
+    void testConcurrencyBudgetRejectsBeyondLimit() {
+        UpstreamRegistry.Upstream upstream = new UpstreamRegistry.Upstream("test", "example.org", 0, 1000, 1, false);
+
+        assertTrue(upstream.tryAcquire());
+        assertFalse(upstream.tryAcquire());
+        upstream.release();
+        assertTrue(upstream.tryAcquire());
+        assertEquals(1L, upstream.getStats().get("rejected"));
+    }
+
+    private static byte[] gzip(String text) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
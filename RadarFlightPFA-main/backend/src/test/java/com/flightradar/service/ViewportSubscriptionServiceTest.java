@@ -0,0 +1,224 @@
+package com.flightradar.service;
+
+import com.flightradar.model.Aircraft;
+import com.flightradar.model.AircraftStatus;
+import com.flightradar.model.dto.ViewportRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour ViewportSubscriptionService et TrackGridIndex
+ */
+@ExtendWith(MockitoExtension.class)
+class ViewportSubscriptionServiceTest {
+
+    @Mock
+    private WebSocketBroadcaster webSocketBroadcaster;
+
+    @InjectMocks
+    private ViewportSubscriptionService viewportSubscriptionService;
+
+    private final Aircraft casablanca = aircraft(1L, 33.5, -7.6);
+    private final Aircraft paris = aircraft(2L, 48.9, 2.4);
+    private final Aircraft fiji = aircraft(3L, -17.8, 179.5);
+
+    // Encodage factice : tableau unique -> message encodé
+    private final Map<byte[], Map<String, Object>> encodedPayloads = new IdentityHashMap<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        lenient().when(webSocketBroadcaster.encode(any())).thenAnswer(invocation -> {
+            byte[] json = new byte[1];
+            encodedPayloads.put(json, (Map<String, Object>) invocation.getArgument(0));
+            return json;
+        });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRoute_SendsOnlyTracksInsideEachViewport() {
+        viewportSubscriptionService.updateViewport("s-maroc", viewport(27.0, -13.0, 36.0, -1.0));
+        viewportSubscriptionService.updateViewport("s-europe", viewport(40.0, -5.0, 52.0, 10.0));
+        verifyNoInteractions(webSocketBroadcaster); // Aucun cycle encore
+
+        viewportSubscriptionService.route(snapshot(1, casablanca, paris, fiji));
+
+        assertEquals(Set.of(1L), trackIds(lastMessage("s-maroc")));
+        assertEquals(Set.of(2L), trackIds(lastMessage("s-europe")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testUpdateViewport_PanSendsNewZoneImmediately() {
+        viewportSubscriptionService.updateViewport("s1", viewport(27.0, -13.0, 36.0, -1.0));
+        viewportSubscriptionService.route(snapshot(1, casablanca, paris, fiji));
+        viewportSubscriptionService.route(snapshot(2, casablanca, paris, fiji));
+        Map<String, Object> delta = lastMessage("s1");
+        assertEquals(AircraftTrackEncoder.TYPE_DELTA, delta.get("type"));
+        assertEquals(2L, delta.get("seq"));
+
+        // Déplacement de la carte vers la France : keyframe de la nouvelle zone, sans attendre le cycle
+        viewportSubscriptionService.updateViewport("s1", viewport(40.0, -5.0, 52.0, 10.0));
+
+        assertEquals(Set.of(2L), trackIds(lastMessage("s1")));
+        assertEquals(1, viewportSubscriptionService.getGroupCount());
+    }
+
+    @Test
+    void testUpdateViewport_JoiningSessionGetsGroupKeyframeThenSharedDeltas() {
+        viewportSubscriptionService.updateViewport("s1", viewport(27.0, -13.0, 36.0, -1.0));
+        viewportSubscriptionService.route(snapshot(1, casablanca, paris, fiji));
+
+        // Zone légèrement différente, mêmes cellules de la grille : même groupe, keyframe à l'arrivée
+        viewportSubscriptionService.updateViewport("s2", viewport(27.2, -12.9, 35.9, -1.1));
+        Map<String, Object> keyframe = lastMessage("s2");
+        assertEquals(Set.of(1L), trackIds(keyframe));
+        assertEquals(1L, keyframe.get("seq"));
+        assertEquals(1, viewportSubscriptionService.getGroupCount());
+
+        clearInvocations(webSocketBroadcaster);
+        viewportSubscriptionService.route(snapshot(2, casablanca, paris, fiji));
+        verify(webSocketBroadcaster, times(1)).encode(any());
+        assertEquals(2L, lastMessage("s1").get("seq"));
+        assertSame(lastMessage("s1"), lastMessage("s2"));
+    }
+
+    @Test
+    void testRoute_AntimeridianViewportAndDisconnect() {
+        viewportSubscriptionService.updateViewport("s-pacifique", viewport(-30.0, 170.0, -10.0, -170.0));
+        viewportSubscriptionService.route(snapshot(1, casablanca, paris, fiji));
+        assertEquals(Set.of(3L), trackIds(lastMessage("s-pacifique")));
+
+        viewportSubscriptionService.removeSession("s-pacifique");
+        clearInvocations(webSocketBroadcaster);
+        viewportSubscriptionService.route(snapshot(2, casablanca, paris, fiji));
+        verifyNoInteractions(webSocketBroadcaster);
+        assertEquals(0, viewportSubscriptionService.getSessionCount());
+        assertEquals(0, viewportSubscriptionService.getGroupCount());
+    }
+
+    @Test
+    void testRoute_IdenticalViewportsShareOneEncoding() {
+        for (int i = 0; i < 50; i++) {
+            viewportSubscriptionService.updateViewport("s" + i, viewport(27.0, -13.0, 36.0, -1.0));
+        }
+        viewportSubscriptionService.route(snapshot(1, casablanca, paris, fiji));
+
+        verify(webSocketBroadcaster, times(1)).encode(any());
+        verify(webSocketBroadcaster, times(50)).sendToSession(anyString(),
+            eq(ViewportSubscriptionService.SESSION_DESTINATION), any(byte[].class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRouteLive_SendsOpenSkyTracksOfTheZoneAsDeltas() {
+        viewportSubscriptionService.updateViewport("s-maroc", viewport(27.0, -13.0, 36.0, -1.0));
+
+        AircraftTrackEncoder.Track ram = liveTrack("020123", 33.4, -7.6);
+        AircraftTrackEncoder.Track dlh = liveTrack("3c6444", 48.9, 2.4);
+        viewportSubscriptionService.routeLive(List.of(ram, dlh), 1000L);
+        Map<String, Object> keyframe = lastLiveMessage("s-maroc");
+        assertEquals(AircraftTrackEncoder.TYPE_KEYFRAME, keyframe.get("type"));
+        assertEquals(List.of("020123"), ((List<Map<String, Object>>) keyframe.get("tracks")).stream()
+            .map(track -> track.get("id")).toList());
+
+        // Seule la position extrapolée change : delta limité à lat/lon
+        viewportSubscriptionService.routeLive(List.of(liveTrack("020123", 33.41, -7.59), dlh), 2000L);
+        Map<String, Object> delta = lastLiveMessage("s-maroc");
+        assertEquals(AircraftTrackEncoder.TYPE_DELTA, delta.get("type"));
+        assertEquals(List.of(Map.of("id", "020123", "lat", 33.41, "lon", -7.59)), delta.get("changed"));
+
+        // Les pistes /queue/aircraft gardent leur propre séquence
+        viewportSubscriptionService.route(snapshot(1, casablanca, paris, fiji));
+        assertEquals(1L, lastMessage("s-maroc").get("seq"));
+
+        // Nouvel arrivant dans la zone : keyframe des pistes OpenSky sans attendre le cycle
+        viewportSubscriptionService.updateViewport("s2", viewport(27.2, -12.9, 35.9, -1.1));
+        assertEquals(2L, lastLiveMessage("s2").get("seq"));
+    }
+
+    @Test
+    void testTrackGridIndex_MatchesLinearScan() {
+        Random random = new Random(7);
+        List<Aircraft> fleet = new ArrayList<>();
+        for (long id = 1; id <= 5000; id++) {
+            fleet.add(aircraft(id, -85 + random.nextDouble() * 170, -180 + random.nextDouble() * 360));
+        }
+        TrackGridIndex<Aircraft> index = new TrackGridIndex<>(fleet, Aircraft::getPositionLat, Aircraft::getPositionLon);
+
+        double[][] boxes = {{30, -10, 40, 0}, {-90, -180, 90, 180}, {10, 170, 20, -170}, {45.5, 2.1, 45.6, 2.2}};
+        for (double[] box : boxes) {
+            Set<Long> expected = fleet.stream()
+                .filter(a -> a.getPositionLat() >= box[0] && a.getPositionLat() <= box[2])
+                .filter(a -> box[1] <= box[3]
+                    ? a.getPositionLon() >= box[1] && a.getPositionLon() <= box[3]
+                    : a.getPositionLon() >= box[1] || a.getPositionLon() <= box[3])
+                .map(Aircraft::getId)
+                .collect(Collectors.toSet());
+            Set<Long> actual = index.query(box[0], box[1], box[2], box[3]).stream()
+                .map(Aircraft::getId)
+                .collect(Collectors.toSet());
+            assertEquals(expected, actual);
+        }
+    }
+
+    private Map<String, Object> lastMessage(String sessionId) {
+        ArgumentCaptor<byte[]> captor = ArgumentCaptor.forClass(byte[].class);
+        verify(webSocketBroadcaster, atLeastOnce()).sendToSession(eq(sessionId),
+            eq(ViewportSubscriptionService.SESSION_DESTINATION), captor.capture());
+        return encodedPayloads.get(captor.getValue());
+    }
+
+    private Map<String, Object> lastLiveMessage(String sessionId) {
+        ArgumentCaptor<byte[]> captor = ArgumentCaptor.forClass(byte[].class);
+        verify(webSocketBroadcaster, atLeastOnce()).sendToSession(eq(sessionId),
+            eq(ViewportSubscriptionService.LIVE_SESSION_DESTINATION), captor.capture());
+        return encodedPayloads.get(captor.getValue());
+    }
+
+    private static AircraftTrackEncoder.Track liveTrack(String icao24, double lat, double lon) {
+        return new AircraftTrackEncoder.Track(icao24, lat, lon, LiveTrackExtrapolator.FIELDS,
+            "RAM200", "cruising", "tracked", lat, lon, 11000.0, 800.0, 90.0, 0.0, true, 1_700_000_000_000L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Long> trackIds(Map<String, Object> keyframe) {
+        assertEquals(AircraftTrackEncoder.TYPE_KEYFRAME, keyframe.get("type"));
+        return ((List<Map<String, Object>>) keyframe.get("tracks")).stream()
+            .map(track -> (Long) track.get("id"))
+            .collect(Collectors.toSet());
+    }
+
+    private TrafficSnapshot snapshot(long sequence, Aircraft... aircraft) {
+        return new TrafficSnapshot(sequence, sequence * 5000, List.of(aircraft), List.of());
+    }
+
+    private ViewportRequest viewport(double minLat, double minLon, double maxLat, double maxLon) {
+        return new ViewportRequest(minLat, minLon, maxLat, maxLon, 7, null);
+    }
+
+    private static Aircraft aircraft(Long id, double lat, double lon) {
+        Aircraft aircraft = new Aircraft();
+        aircraft.setId(id);
+        aircraft.setRegistration("CN-R" + id);
+        aircraft.setStatus(AircraftStatus.EN_VOL);
+        aircraft.setPositionLat(lat);
+        aircraft.setPositionLon(lon);
+        return aircraft;
+    }
+}
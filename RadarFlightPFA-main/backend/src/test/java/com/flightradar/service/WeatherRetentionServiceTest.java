@@ -0,0 +1,60 @@
+package com.flightradar.service;
+
+import com.flightradar.repository.WeatherDataJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour WeatherRetentionService
+ */
+class WeatherRetentionServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 3, 14, 37, 12);
+
+    private final WeatherDataJdbcRepository repository = mock(WeatherDataJdbcRepository.class);
+    private WeatherRetentionService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new WeatherRetentionService();
+        ReflectionTestUtils.setField(service, "weatherDataJdbcRepository", repository);
+        service.clock = () -> NOW;
+    }
+
+    @Test
+    void testApplyRetention_RollsUpCompleteHoursBeforeDeleting() {
+        when(repository.rollupHourlyBefore(any())).thenReturn(12);
+        when(repository.deleteRawBefore(any())).thenReturn(72);
+
+        service.applyRetention();
+
+        // 48 h avant 14:37 -> 14:37 l'avant-veille, ramené au début d'heure
+        LocalDateTime rawCutoff = LocalDateTime.of(2024, 6, 1, 14, 0);
+        InOrder order = inOrder(repository);
+        order.verify(repository).rollupHourlyBefore(rawCutoff);
+        order.verify(repository).deleteRawBefore(rawCutoff);
+        order.verify(repository).deleteHourlyBefore(LocalDateTime.of(2023, 6, 4, 0, 0));
+
+        assertEquals(12, service.getStats().get("hoursAggregated"));
+        assertEquals(72, service.getStats().get("rawDeleted"));
+    }
+
+    @Test
+    void testApplyRetention_HourlyKeptForeverWhenZero() {
+        ReflectionTestUtils.setField(service, "hourlyRetentionDays", 0);
+        ReflectionTestUtils.setField(service, "rawRetentionHours", 6);
+
+        service.applyRetention();
+
+        verify(repository).rollupHourlyBefore(LocalDateTime.of(2024, 6, 3, 8, 0));
+        verify(repository, never()).deleteHourlyBefore(any());
+    }
+}
@@ -0,0 +1,190 @@
+package com.flightradar.service;
+
+import com.flightradar.model.Airport;
+import com.flightradar.model.Runway;
+import com.flightradar.model.WeatherData;
+import com.flightradar.repository.AirportRepository;
+import com.flightradar.repository.RunwayRepository;
+import com.flightradar.repository.WeatherDataJdbcRepository;
+import com.flightradar.repository.WeatherDataRepository;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests du rafraîchissement météo par lots contre un serveur Open-Meteo local (bouchon HTTP)
+ */
+class WeatherServiceTest {
+
+    private static final long STUB_LATENCY_MS = 200;
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private volatile boolean failing;
+
+    private final AirportRepository airportRepository = mock(AirportRepository.class);
+    private final RunwayRepository runwayRepository = mock(RunwayRepository.class);
+    private final RunwayCatalog runwayCatalog = new RunwayCatalog();
+    private final WeatherDataJdbcRepository weatherDataJdbcRepository = mock(WeatherDataJdbcRepository.class);
+    private final LatestWeatherCache latestWeatherCache = mock(LatestWeatherCache.class);
+    private WeatherService weatherService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverThreads = Executors.newFixedThreadPool(16);
+        server.setExecutor(serverThreads);
+        server.createContext("/v1/forecast", exchange -> {
+            requests.incrementAndGet();
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(STUB_LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            // Un relevé par coordonnée, vent de 40 km/h plein est
+            String query = exchange.getRequestURI().getQuery();
+            String latitudes = query.substring(query.indexOf("latitude=") + 9, query.indexOf('&'));
+            int count = latitudes.split(",").length;
+            List<String> locations = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                locations.add("{\"latitude\":33.5,\"current\":{\"temperature_2m\":21.5,\"relative_humidity_2m\":64,"
+                    + "\"pressure_msl\":1016.2,\"wind_speed_10m\":40.0,\"wind_direction_10m\":90.0,\"visibility\":10.0}}");
+            }
+            String json = count == 1 ? locations.get(0) : "[" + String.join(",", locations) + "]";
+            byte[] body = json.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(failing ? 500 : 200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+            inFlight.decrementAndGet();
+        });
+        server.start();
+
+        ReflectionTestUtils.setField(runwayCatalog, "runwayRepository", runwayRepository);
+        weatherService = new WeatherService(mock(WeatherDataRepository.class), weatherDataJdbcRepository,
+            latestWeatherCache, airportRepository, runwayCatalog, new RestTemplate());
+        ReflectionTestUtils.setField(weatherService, "baseUrl",
+            "http://127.0.0.1:" + server.getAddress().getPort() + "/v1/forecast");
+        weatherService.init();
+        when(weatherDataJdbcRepository.batchInsert(anyList())).thenAnswer(call -> ((List<?>) call.getArgument(0)).size());
+    }
+
+    @AfterEach
+    void tearDown() {
+        weatherService.shutdown();
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRefreshAll_500AirportsInParallelBatchesAndOneInsert() throws Exception {
+        List<Airport> airports = airports(500);
+        when(airportRepository.findAll()).thenReturn(airports);
+        when(runwayRepository.findAll()).thenReturn(List.of(runway(airports.get(0), 0.0)));
+
+        long start = System.nanoTime();
+        int inserted = weatherService.refreshAllAsync().get(10, TimeUnit.SECONDS);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(500, inserted);
+        assertEquals(10, requests.get());
+        assertTrue(maxInFlight.get() > 1 && maxInFlight.get() <= 4, "concurrence observée : " + maxInFlight.get());
+        // 10 requêtes de 200 ms, 4 à la fois : 3 vagues (2 s en série)
+        assertTrue(elapsedMs < 5_000, "durée : " + elapsedMs + " ms");
+
+        ArgumentCaptor<List<WeatherData>> captor = ArgumentCaptor.forClass(List.class);
+        verify(weatherDataJdbcRepository, times(1)).batchInsert(captor.capture());
+        List<WeatherData> records = captor.getValue();
+        assertEquals(500, records.size());
+        assertEquals(64, records.get(1).getHumidity());
+        assertEquals(1016.2, records.get(1).getPressure());
+        // Piste nord-sud et vent d'est : vent de travers = vent total
+        assertEquals(40.0, records.get(0).getCrosswind(), 1e-6);
+        assertTrue(records.get(0).getAlert());
+        assertEquals(0.0, records.get(1).getCrosswind());
+        // Catalogue des pistes chargé une seule fois pour 500 aéroports
+        verify(runwayRepository, times(1)).findAll();
+        verify(runwayRepository, never()).findByAirportId(any());
+        verify(latestWeatherCache).updateAll(records);
+        assertEquals(10, weatherService.getRefreshStats().get("requests"));
+    }
+
+    @Test
+    void testRefreshAll_FailedRequestKeepsLastReadingAndAlert() throws Exception {
+        failing = true;
+        List<Airport> airports = airports(3);
+        when(airportRepository.findAll()).thenReturn(airports);
+        when(runwayRepository.findAll()).thenReturn(List.of());
+
+        // Cache réel : brouillard en cours à l'aéroport 1
+        WeatherDataRepository weatherDataRepository = mock(WeatherDataRepository.class);
+        WeatherData fog = new WeatherData();
+        fog.setAirport(airports.get(0));
+        fog.setConditions("Fog");
+        fog.setVisibility(0.4);
+        fog.setAlert(true);
+        fog.setTimestamp(LocalDateTime.now().minusMinutes(10));
+        when(weatherDataRepository.findLatestPerAirport()).thenReturn(List.of(fog));
+        LatestWeatherCache cache = new LatestWeatherCache();
+        ReflectionTestUtils.setField(cache, "weatherDataRepository", weatherDataRepository);
+        ReflectionTestUtils.setField(cache, "webSocketBroadcaster", mock(WebSocketBroadcaster.class));
+        cache.init();
+        weatherService.shutdown();
+        weatherService = new WeatherService(weatherDataRepository, weatherDataJdbcRepository,
+            cache, airportRepository, runwayCatalog, new RestTemplate());
+        ReflectionTestUtils.setField(weatherService, "baseUrl",
+            "http://127.0.0.1:" + server.getAddress().getPort() + "/v1/forecast");
+        weatherService.init();
+
+        int inserted = weatherService.refreshAllAsync().get(10, TimeUnit.SECONDS);
+
+        // Aucun relevé par défaut enregistré ni publié : l'alerte reste active
+        assertEquals(0, inserted);
+        verify(weatherDataJdbcRepository, never()).batchInsert(anyList());
+        assertEquals(List.of(fog), cache.getActiveAlerts());
+        assertSame(fog, weatherService.getCurrentWeather(1L).orElseThrow());
+        assertEquals(1, weatherService.getRefreshStats().get("failedRequests"));
+        assertEquals(3, weatherService.getRefreshStats().get("missingReadings"));
+    }
+
+    private static List<Airport> airports(int count) {
+        List<Airport> airports = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Airport airport = new Airport();
+            airport.setId((long) i + 1);
+            airport.setLatitude(27.0 + i * 0.01);
+            airport.setLongitude(-13.0 + i * 0.01);
+            airports.add(airport);
+        }
+        return airports;
+    }
+
+    private static Runway runway(Airport airport, double orientation) {
+        Runway runway = new Runway();
+        runway.setAirport(airport);
+        runway.setOrientation(orientation);
+        return runway;
+    }
+}
@@ -0,0 +1,98 @@
+package com.flightradar.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flightradar.model.Aircraft;
+import com.flightradar.model.AircraftStatus;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH : coût de sérialisation d'un cycle diffusé à 1 000 abonnés
+ * - convertPerSubscriber : convertAndSend par session (Jackson relancé à chaque envoi)
+ * - serializeOnce        : WebSocketBroadcaster, un seul encodage réutilisé pour toutes les sessions
+ * Le canal sortant ne fait rien : seul le coût côté application est mesuré.
+ *
+ * Lancement :
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main WebSocketBroadcastBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WebSocketBroadcastBenchmark {
+
+    @Param({"1000"})
+    private int subscribers;
+
+    @Param({"500"})
+    private int aircraftCount;
+
+    private SimpMessagingTemplate messagingTemplate;
+    private WebSocketBroadcaster broadcaster;
+    private Map<String, Object> payload;
+    private String[] sessionIds;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        MessageChannel discard = (message, timeout) -> true;
+        messagingTemplate = new SimpMessagingTemplate(discard);
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(objectMapper);
+        messagingTemplate.setMessageConverter(converter);
+
+        broadcaster = new WebSocketBroadcaster();
+        ReflectionTestUtils.setField(broadcaster, "messagingTemplate", messagingTemplate);
+        ReflectionTestUtils.setField(broadcaster, "objectMapper", objectMapper);
+
+        // Payload d'un cycle : keyframe de aircraftCount pistes
+        Random random = new Random(42);
+        List<Aircraft> fleet = new ArrayList<>(aircraftCount);
+        for (int i = 0; i < aircraftCount; i++) {
+            Aircraft aircraft = new Aircraft();
+            aircraft.setId((long) i);
+            aircraft.setRegistration("CN-" + i);
+            aircraft.setModel("A320");
+            aircraft.setStatus(AircraftStatus.EN_VOL);
+            aircraft.setPositionLat(25.0 + random.nextDouble() * 35.0);
+            aircraft.setPositionLon(-20.0 + random.nextDouble() * 60.0);
+            aircraft.setAltitude(random.nextInt(40) * 300.0);
+            aircraft.setSpeed(200.0 + random.nextDouble() * 700.0);
+            aircraft.setHeading(random.nextDouble() * 360.0);
+            fleet.add(aircraft);
+        }
+        payload = new AircraftTrackEncoder(12).encode(fleet, System.currentTimeMillis());
+
+        sessionIds = new String[subscribers];
+        for (int i = 0; i < subscribers; i++) {
+            sessionIds[i] = "session-" + i;
+        }
+    }
+
+    @Benchmark
+    public void convertPerSubscriber() {
+        for (String sessionId : sessionIds) {
+            messagingTemplate.convertAndSend("/user/" + sessionId + "/queue/aircraft", payload);
+        }
+    }
+
+    @Benchmark
+    public void serializeOnce() {
+        byte[] json = broadcaster.encode(payload);
+        for (String sessionId : sessionIds) {
+            broadcaster.sendToSession(sessionId, "/queue/aircraft", json);
+        }
+    }
+}
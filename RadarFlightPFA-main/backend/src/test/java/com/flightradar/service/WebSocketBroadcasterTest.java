@@ -0,0 +1,74 @@
+package com.flightradar.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour WebSocketBroadcaster
+ */
+@ExtendWith(MockitoExtension.class)
+class WebSocketBroadcasterTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @InjectMocks
+    private WebSocketBroadcaster webSocketBroadcaster;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBroadcast_SerializesOnceForAllDestinations() throws Exception {
+        Map<String, Object> update = Map.of("type", "flight_update", "flightId", 12L);
+
+        webSocketBroadcaster.broadcast(update, "/topic/flight/12", "/topic/aircraft/3");
+
+        verify(objectMapper, times(1)).writeValueAsBytes(update);
+        ArgumentCaptor<Message<byte[]>> captor = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate).send(eq("/topic/flight/12"), captor.capture());
+        verify(messagingTemplate).send(eq("/topic/aircraft/3"), captor.capture());
+        List<Message<byte[]>> messages = captor.getAllValues();
+        assertSame(messages.get(0).getPayload(), messages.get(1).getPayload());
+        Map<String, Object> decoded = objectMapper.readValue(messages.get(0).getPayload(), Map.class);
+        assertEquals("flight_update", decoded.get("type"));
+        assertEquals(12, decoded.get("flightId"));
+        assertEquals(1L, webSocketBroadcaster.getStats().get("serializations"));
+        assertEquals(2L, webSocketBroadcaster.getStats().get("messagesSent"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSendToSession_ReusesEncodedBytesAndTargetsSession() {
+        byte[] json = webSocketBroadcaster.encode(Map.of("type", "aircraft_keyframe"));
+
+        webSocketBroadcaster.sendToSession("abc", "/queue/aircraft", json);
+        webSocketBroadcaster.sendToSession("def", "/queue/aircraft", json);
+
+        ArgumentCaptor<Message<byte[]>> captor = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate).send(eq("/user/abc/queue/aircraft"), captor.capture());
+        assertSame(json, captor.getValue().getPayload());
+        assertEquals("abc", SimpMessageHeaderAccessor.getSessionId(captor.getValue().getHeaders()));
+        verify(messagingTemplate, times(2)).send(anyString(), any(Message.class));
+        assertEquals(1L, webSocketBroadcaster.getStats().get("serializations"));
+    }
+}
@@ -0,0 +1,79 @@
+package com.flightradar.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour WebSocketOutboundMonitor (threads d'envoi réels)
+ */
+class WebSocketOutboundMonitorTest {
+
+    private final WebSocketOutboundMonitor monitor = new WebSocketOutboundMonitor();
+    @AfterEach
+    void tearDown() {
+        monitor.shutdown();
+    }
+
+    @Test
+    void testSlowSessionsDoNotStallHealthyOnes() throws Exception {
+        // Plus de clients bloqués que de threads d'envoi : le pool ne grossit pas, les vidages attendent
+        int slowSessions = WebSocketOutboundMonitor.SENDER_THREADS + 4;
+        CountDownLatch blockedSends = new CountDownLatch(WebSocketOutboundMonitor.SENDER_THREADS);
+        for (int i = 0; i < slowSessions; i++) {
+            WebSocketSession slow = session("lent-" + i);
+            CountDownLatch closed = new CountDownLatch(1);
+            doAnswer(invocation -> {
+                blockedSends.countDown();
+                closed.await(10, TimeUnit.SECONDS); // Envoi débloqué par la fermeture de la connexion
+                return null;
+            }).when(slow).sendMessage(any());
+            doAnswer(invocation -> {
+                closed.countDown();
+                return null;
+            }).when(slow).close(any(CloseStatus.class));
+            monitor.register(slow).sendMessage(frame("/topic/aircraft/1"));
+        }
+        assertTrue(blockedSends.await(5, TimeUnit.SECONDS));
+
+        Map<String, Object> stats = monitor.getStats();
+        assertEquals(WebSocketOutboundMonitor.SENDER_THREADS, stats.get("senderThreads"));
+        assertEquals(4, stats.get("queuedDrains"));
+
+        // Clients en retard déconnectés : leurs threads sont rendus
+        monitor.disconnectSlowSessions(System.currentTimeMillis() + WebSocketOutboundMonitor.MAX_BEHIND_MS + 1);
+        assertEquals((long) slowSessions, monitor.getStats().get("slowDisconnects"));
+
+        WebSocketSession healthy = session("rapide");
+        CountDownLatch delivered = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            delivered.countDown();
+            return null;
+        }).when(healthy).sendMessage(any());
+        monitor.register(healthy).sendMessage(frame("/topic/aircraft/1"));
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertTrue((Integer) monitor.getStats().get("senderThreads") <= WebSocketOutboundMonitor.SENDER_THREADS);
+    }
+
+    private static WebSocketSession session(String id) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        return session;
+    }
+
+    private static WebSocketMessage<?> frame(String destination) {
+        return new TextMessage("MESSAGE\ndestination:" + destination + "\nsubscription:sub-0\n\n{}\u0000");
+    }
+}
@@ -28,6 +28,9 @@ function OperationsOverview() {
   const [logs, setLogs] = useState([])
   const [logsPage, setLogsPage] = useState(0)
   const [logsTotalPages, setLogsTotalPages] = useState(0)
+  // Curseur de chaque page visitée (nextCursor de la page précédente), index = numéro de page
+  const [logsCursors, setLogsCursors] = useState([null])
+  const [logsHasMore, setLogsHasMore] = useState(false)
   const [logsFilters, setLogsFilters] = useState({
     userId: '',
     activityType: '',
@@ -69,6 +72,13 @@ function OperationsOverview() {
     }
   }, [activeTab, trafficPeriod, reportsPeriod, logsPage, logsFilters])
 
+  // Nouveaux filtres : retour à la première page, curseurs obsolètes
+  const updateLogsFilters = (filters) => {
+    setLogsPage(0)
+    setLogsCursors([null])
+    setLogsFilters(filters)
+  }
+
   const fetchAllData = async () => {
     setLoading(true)
     try {
@@ -138,6 +148,8 @@ function OperationsOverview() {
         page: logsPage.toString(),
         size: '50'
       })
+      const cursor = logsCursors[logsPage]
+      if (cursor) params.append('cursor', cursor)
       if (logsFilters.userId) params.append('userId', logsFilters.userId)
       if (logsFilters.activityType) params.append('activityType', logsFilters.activityType)
       if (logsFilters.severity) params.append('severity', logsFilters.severity)
@@ -146,7 +158,18 @@ function OperationsOverview() {
       
       const response = await api.get(`/admin/operations/logs?${params}`)
       setLogs(response.data.logs || [])
-      setLogsTotalPages(response.data.totalPages || 0)
+      setLogsHasMore(response.data.hasMore || false)
+      // Total calculé seulement sans curseur (première page)
+      if (response.data.totalPages !== undefined) {
+        setLogsTotalPages(response.data.totalPages)
+      }
+      if (response.data.nextCursor) {
+        setLogsCursors(cursors => {
+          const next = cursors.slice(0, logsPage + 1)
+          next[logsPage + 1] = response.data.nextCursor
+          return next
+        })
+      }
     } catch (error) {
       console.error('Erreur chargement logs:', error)
     }
@@ -644,12 +667,12 @@ function OperationsOverview() {
                   type="text"
                   placeholder="User ID"
                   value={logsFilters.userId}
-                  onChange={(e) => setLogsFilters({...logsFilters, userId: e.target.value})}
+                  onChange={(e) => updateLogsFilters({...logsFilters, userId: e.target.value})}
                   className="bg-gray-700 border border-gray-600 rounded-lg px-4 py-2 text-white"
                 />
                 <select
                   value={logsFilters.activityType}
-                  onChange={(e) => setLogsFilters({...logsFilters, activityType: e.target.value})}
+                  onChange={(e) => updateLogsFilters({...logsFilters, activityType: e.target.value})}
                   className="bg-gray-700 border border-gray-600 rounded-lg px-4 py-2 text-white"
                 >
                   <option value="">Type d'activité</option>
@@ -661,7 +684,7 @@ function OperationsOverview() {
                 </select>
                 <select
                   value={logsFilters.severity}
-                  onChange={(e) => setLogsFilters({...logsFilters, severity: e.target.value})}
+                  onChange={(e) => updateLogsFilters({...logsFilters, severity: e.target.value})}
                   className="bg-gray-700 border border-gray-600 rounded-lg px-4 py-2 text-white"
                 >
                   <option value="">Sévérité</option>
@@ -673,13 +696,13 @@ function OperationsOverview() {
                 <input
                   type="date"
                   value={logsFilters.startDate}
-                  onChange={(e) => setLogsFilters({...logsFilters, startDate: e.target.value})}
+                  onChange={(e) => updateLogsFilters({...logsFilters, startDate: e.target.value})}
                   className="bg-gray-700 border border-gray-600 rounded-lg px-4 py-2 text-white"
                 />
                 <input
                   type="date"
                   value={logsFilters.endDate}
-                  onChange={(e) => setLogsFilters({...logsFilters, endDate: e.target.value})}
+                  onChange={(e) => updateLogsFilters({...logsFilters, endDate: e.target.value})}
                   className="bg-gray-700 border border-gray-600 rounded-lg px-4 py-2 text-white"
                 />
               </div>
@@ -728,7 +751,7 @@ function OperationsOverview() {
                 </span>
                 <button
                   onClick={() => setLogsPage(logsPage + 1)}
-                  disabled={logsPage >= logsTotalPages - 1}
+                  disabled={!logsHasMore || !logsCursors[logsPage + 1]}
                   className="px-4 py-2 bg-gray-700 hover:bg-gray-600 rounded-lg disabled:opacity-50"
                 >
                   Suivant